@@ -0,0 +1,50 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * AdoptionBenchmark - time of a batch of adoptions with ShelterManager.adoptPet for registers of 1k to 1M pets.
+ * Adoptions use up pets and customer quotas, so every iteration adopts a fixed batch from a newly built register
+ * and the score is the time of the whole batch of ADOPTIONS adoptions.
+ * Run with <code>-prof gc</code> for allocation rates.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, batchSize = AdoptionBenchmark.ADOPTIONS)
+@Measurement(iterations = 10, batchSize = AdoptionBenchmark.ADOPTIONS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class AdoptionBenchmark {
+
+    /**
+     * Number of adoptions per iteration, three per customer.
+     */
+    static final int ADOPTIONS = 900;
+
+    /**
+     * Number of pets in the register.
+     */
+    @Param({"1000", "10000", "100000", "1000000"})
+    int registerSize;
+
+    Object shelterManager;
+    Object[] customers = new Object[ADOPTIONS / 3];
+    int nextAdoption;
+
+    @Setup(Level.Iteration)
+    public void setUp()
+    {
+        shelterManager = ShelterRegisters.newRegister(registerSize, customers);
+        nextAdoption = 0;
+    }
+
+    @Benchmark
+    public Boolean adoptPet()
+    {
+        int adoption = nextAdoption++;
+        return ShelterApi.adoptPet(shelterManager, customers[adoption / 3], (adoption % 2 == 0) ? "Cat" : "Dog");
+    }
+}
@@ -0,0 +1,109 @@
+package benchmark;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * AdoptionServiceBenchmark - time of a burst of BURST adoptions to a journaled shelter with fsync.
+ * <p>
+ * desks: DESKS threads call ShelterManager.adoptPet, each adoption prints and commits the journal on its own (group commit still applies).
+ * <p>
+ * service: all requests are submitted to an AdoptionService at once and the burst ends when every future is completed.
+ * <p>
+ * Sustained throughput in adoptions per second is BURST divided by the score.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class AdoptionServiceBenchmark {
+
+    /**
+     * Number of adoptions per burst, three per customer.
+     */
+    static final int BURST = 3000;
+    /**
+     * Number of adoption desks calling adoptPet.
+     */
+    static final int DESKS = 8;
+
+    /**
+     * Largest number of adoptions committed together by the service.
+     */
+    @Param({"256"})
+    int maxBatchSize;
+
+    Path file;
+    Object journal;
+    Object shelterManager;
+    Object[] customers = new Object[BURST / 3];
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException
+    {
+        ShelterRegisters.silenceOutput();
+        file = Files.createTempFile("shelter", ".journal");
+        journal = ShelterApi.openJournal(file, 64, 0, true);
+        shelterManager = ShelterApi.newShelterManager(journal);
+        ShelterApi.addPets(shelterManager, "Cat", BURST);
+        for (int i = 0; i < customers.length; i++)
+        {
+            customers[i] = ShelterApi.addCustomerRecord(shelterManager, (char) ('A' + i % 26) + "nna" + i, "Burst", ShelterRegisters.adultDOB(), true);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException
+    {
+        ((Closeable) journal).close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public int desks() throws Exception
+    {
+        ExecutorService desks = Executors.newFixedThreadPool(DESKS);
+        List<Future<Boolean>> results = new ArrayList<Future<Boolean>>(BURST);
+        for (int adoption = 0; adoption < BURST; adoption++)
+        {
+            Object customer = customers[adoption % customers.length];
+            results.add(desks.submit(() -> ShelterApi.adoptPet(shelterManager, customer, "Cat")));
+        }
+        int noOfAdopted = 0;
+        for (Future<Boolean> result : results)
+        {
+            if (result.get())
+                noOfAdopted++;
+        }
+        desks.shutdown();
+        return noOfAdopted;
+    }
+
+    @Benchmark
+    public int service() throws Exception
+    {
+        Object adoptionService = ShelterApi.newAdoptionService(shelterManager, maxBatchSize);
+        List<CompletableFuture<?>> results = new ArrayList<CompletableFuture<?>>(BURST);
+        for (int adoption = 0; adoption < BURST; adoption++)
+        {
+            results.add(ShelterApi.submitAdoption(adoptionService, customers[adoption % customers.length], "Cat"));
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).get();
+        ((Closeable) adoptionService).close();
+        return results.size();
+    }
+}
@@ -0,0 +1,81 @@
+package benchmark;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * CustomerLookupBenchmark - average latency of ShelterManager.getCustomer and ShelterManager.findCustomers
+ * in shelters of 100,000 and 1,000,000 customers, to show that lookups do not depend on the number of customers.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class CustomerLookupBenchmark {
+
+    @Param({"100000", "1000000"})
+    int noOfCustomers;
+
+    Object shelterManager;
+    Object[] customerNumbers;
+    int next;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        shelterManager = ShelterApi.newShelterManager();
+        Calendar calendar = Calendar.getInstance();
+        calendar.add(Calendar.YEAR, -30);
+        Date dob = calendar.getTime();
+        customerNumbers = new Object[1024];
+        for (int i = 0; i < noOfCustomers; i++)
+        {
+            Object customerRecord = ShelterApi.addCustomerRecord(shelterManager, nameOf(i), nameOf(i / 26), dob, true); //26 customers per last name
+            if (i % (noOfCustomers / customerNumbers.length) == 0 && i / (noOfCustomers / customerNumbers.length) < customerNumbers.length)
+                customerNumbers[i / (noOfCustomers / customerNumbers.length)] = ShelterApi.getCustomerNumber(customerRecord);
+        }
+    }
+
+    /**
+     * Returns a name made of the base-26 digits of a number, e.g. "Bcd".
+     * @param number number of the name
+     * @return capitalised name
+     */
+    private static String nameOf(int number)
+    {
+        StringBuilder name = new StringBuilder();
+        do
+        {
+            name.append((char) ('a' + number % 26));
+            number /= 26;
+        }
+        while (number > 0);
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+
+    @Benchmark
+    public Object getCustomer()
+    {
+        next = (next + 1) & (customerNumbers.length - 1);
+        return ShelterApi.getCustomer(shelterManager, customerNumbers[next]);
+    }
+
+    @Benchmark
+    public Object findCustomersByLastName()
+    {
+        return ShelterApi.findCustomers(shelterManager, "Bcd", null, 20);
+    }
+
+    @Benchmark
+    public Object findCustomersByFullName()
+    {
+        return ShelterApi.findCustomers(shelterManager, "Bc", "Kb", 20);
+    }
+}
@@ -0,0 +1,49 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * EligibilityBenchmark - pre-screening customers with ShelterManager.canAdopt, compared with an adoption attempt bound to fail.
+ * Customers of the register take turns, every third customer has reached the limit of three adoptions.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EligibilityBenchmark {
+
+    Object shelterManager;
+    Object[] customers = new Object[ShelterRegisters.NO_OF_CUSTOMERS];
+    Object fullCustomer;
+    int nextCustomer;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        shelterManager = ShelterRegisters.newRegister(100000, customers);
+        for (int i = 0; i < customers.length; i += 3)
+        {
+            for (int j = 0; j < 3; j++)
+                ShelterApi.adoptPet(shelterManager, customers[i], "Cat");
+        }
+        fullCustomer = customers[0];
+    }
+
+    @Benchmark
+    public Object canAdopt()
+    {
+        int customer = nextCustomer++ % customers.length;
+        return ShelterApi.canAdopt(shelterManager, customers[customer], (customer % 2 == 0) ? "Cat" : "Dog");
+    }
+
+    @Benchmark
+    public Boolean adoptPetRejected()
+    {
+        return ShelterApi.adoptPet(shelterManager, fullCustomer, "Cat");
+    }
+}
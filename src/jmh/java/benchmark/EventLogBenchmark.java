@@ -0,0 +1,64 @@
+package benchmark;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * EventLogBenchmark - latency of adoptPet() while adoption events are not logged (the default)
+ * and while they are published to a ShelterEventLog writing a rolling log file.
+ * The customer has reached the limit of three adoptions, so every call publishes a rejection and the register does not change.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventLogBenchmark {
+
+    /**
+     * Event log set on the shelter.
+     */
+    @Param({"disabled", "rollingFile"})
+    String eventLog;
+
+    Object shelterManager;
+    Object customer;
+    Object shelterEventLog;
+    Path logDirectory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        Object[] customers = new Object[1];
+        shelterManager = ShelterRegisters.newRegister(1000, customers);
+        customer = customers[0];
+        for (int i = 0; i < 3; i++)
+            ShelterApi.adoptPet(shelterManager, customer, "Cat");
+        if (eventLog.equals("rollingFile"))
+        {
+            logDirectory = Files.createTempDirectory("event-log-benchmark");
+            shelterEventLog = ShelterApi.openEventLog(logDirectory.resolve("shelter-events.log"), 16 << 20, 2);
+            ShelterApi.setEventLog(shelterManager, shelterEventLog);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        if (shelterEventLog != null)
+            ((Closeable) shelterEventLog).close();
+    }
+
+    @Benchmark
+    public Boolean adoptPetRejected()
+    {
+        return ShelterApi.adoptPet(shelterManager, customer, "Cat");
+    }
+}
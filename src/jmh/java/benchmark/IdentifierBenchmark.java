@@ -0,0 +1,49 @@
+package benchmark;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * IdentifierBenchmark - throughput and average latency of PetID and CustomerNumber generation and of CustomerRecord.ageCalculator.
+ * PetIDs are never reused, so iterations are kept short to stay well within the int PetID space in one fork.
+ * Run with <code>-prof gc</code> for allocation rates.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdentifierBenchmark {
+
+    Object customerRecord;
+    Date dateIssued;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        customerRecord = ShelterApi.addCustomerRecord(ShelterApi.newShelterManager(), "Jan", "Kowalski", ShelterRegisters.adultDOB(), true);
+        dateIssued = new Date();
+    }
+
+    @Benchmark
+    public Object petIDInstance()
+    {
+        return ShelterApi.getPetIDInstance();
+    }
+
+    @Benchmark
+    public Object customerNumberInstance()
+    {
+        return ShelterApi.getCustomerNumberInstance("Jan", dateIssued);
+    }
+
+    @Benchmark
+    public int ageCalculator()
+    {
+        return ShelterApi.ageCalculator(customerRecord);
+    }
+}
@@ -0,0 +1,56 @@
+package benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * IntakeBenchmark - time of a 10k-animal intake with ShelterManager.addPets compared with one addPet call per animal,
+ * into registers of 1k to 1M pets. Every iteration adds the intake to a newly built register.
+ * Run with <code>-prof gc</code> for allocation rates.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class IntakeBenchmark {
+
+    /**
+     * Number of animals per intake.
+     */
+    static final int INTAKE_SIZE = 10_000;
+
+    /**
+     * Number of pets in the register before the intake.
+     */
+    @Param({"1000", "10000", "100000", "1000000"})
+    int registerSize;
+
+    Object shelterManager;
+
+    @Setup(Level.Iteration)
+    public void setUp()
+    {
+        shelterManager = ShelterRegisters.newRegister(registerSize, new Object[0]);
+    }
+
+    @Benchmark
+    public List<?> addPets()
+    {
+        return ShelterApi.addPets(shelterManager, "Dog", INTAKE_SIZE);
+    }
+
+    @Benchmark
+    public void addPetOneByOne(Blackhole blackhole)
+    {
+        for (int i = 0; i < INTAKE_SIZE; i++)
+        {
+            blackhole.consume(ShelterApi.addPet(shelterManager, "Dog"));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package benchmark;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * JournalBenchmark - recovery and append throughput of the shelter journal.
+ * <p>
+ * replay: time to restore a register of 100k to 1M pets (plus training updates, NO_OF_CUSTOMERS customers and their adoptions)
+ * from its journal. Recovery throughput in records per second is the record count printed by the setup divided by this time.
+ * <p>
+ * addPet: throughput of 8 adoption desks adding pets to a journaled register with fsync, for several group commit delays.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public class JournalBenchmark {
+
+    /**
+     * Journal of a filled register, replayed by every invocation.
+     */
+    @State(Scope.Benchmark)
+    public static class FilledJournal {
+
+        @Param({"100000", "1000000"})
+        int registerSize;
+
+        Path file;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException
+        {
+            file = Files.createTempFile("shelter", ".journal");
+            Object journal = ShelterApi.openJournal(file, 1024, 0, false); //no fsync, only the replay is measured
+            Object[] customers = new Object[ShelterRegisters.NO_OF_CUSTOMERS];
+            Object shelterManager = ShelterRegisters.fillRegister(ShelterApi.newShelterManager(journal), registerSize, customers);
+            for (Object customer : customers)
+                ShelterApi.adoptPet(shelterManager, customer, "Cat");
+            ((Closeable) journal).close();
+            long noOfRecords = registerSize + registerSize / 4 + 2L * customers.length;
+            System.err.println("Journal of " + noOfRecords + " records, " + Files.size(file) + " bytes");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException
+        {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Journaled register that adoption desks add pets to.
+     */
+    @State(Scope.Benchmark)
+    public static class OpenJournal {
+
+        /**
+         * Longest time the committing desk waits for other desks to join its commit.
+         */
+        @Param({"0", "1"})
+        long groupCommitDelayMillis;
+
+        Path file;
+        Object journal;
+        Object shelterManager;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException
+        {
+            file = Files.createTempFile("shelter", ".journal");
+            journal = ShelterApi.openJournal(file, 8, groupCommitDelayMillis, true);
+            shelterManager = ShelterApi.newShelterManager(journal);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException
+        {
+            ((Closeable) journal).close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    @Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+    public Object replay(FilledJournal filledJournal) throws IOException
+    {
+        Object journal = ShelterApi.openJournal(filledJournal.file, 1024, 0, false);
+        Object shelterManager = ShelterApi.newShelterManager(journal);
+        ((Closeable) journal).close();
+        return shelterManager;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Fork(1)
+    @Threads(8)
+    public Object addPet(OpenJournal openJournal)
+    {
+        return ShelterApi.addPet(openJournal.shelterManager, "Cat");
+    }
+}
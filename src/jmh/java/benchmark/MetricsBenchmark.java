@@ -0,0 +1,52 @@
+package benchmark;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * MetricsBenchmark - cost of metrics on the cheapest ShelterManager calls, with metrics disabled (the default)
+ * and with a ShelterMetricsRecorder recording every call.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+    /**
+     * Metrics set on the shelter.
+     */
+    @Param({"disabled", "recorder"})
+    String metrics;
+
+    Object shelterManager;
+    Object customerNumberWithAdoptions;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        Object[] customers = new Object[1];
+        shelterManager = ShelterRegisters.newRegister(1000, customers);
+        ShelterApi.adoptPet(shelterManager, customers[0], "Cat");
+        customerNumberWithAdoptions = ShelterApi.getCustomerNumber(customers[0]);
+        if (metrics.equals("recorder"))
+            ShelterApi.setMetrics(shelterManager, ShelterApi.newMetricsRecorder());
+    }
+
+    @Benchmark
+    public int noOfAvailablePets()
+    {
+        return ShelterApi.noOfAvailablePets(shelterManager, "Dog");
+    }
+
+    @Benchmark
+    public Collection<?> adoptedPetsByCustomer()
+    {
+        return ShelterApi.adoptedPetsByCustomer(shelterManager, customerNumberWithAdoptions);
+    }
+}
@@ -0,0 +1,76 @@
+package benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * QueryBenchmark - average latency of ShelterManager.noOfPets and getPets, evaluated over the bitmap indexes of the pet register.
+ * Pages of 50 pets are read from the start and from 90% deep into the matching pets, which should take the same time.
+ * A quarter of the pets are available trained dogs and a tenth of the cats are adopted, compared with the counter behind noOfAvailablePets.
+ * The register is kept on the heap or off the heap, see PetStorage.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBenchmark {
+
+    @Param({"100000", "1000000"})
+    int registerSize;
+
+    @Param({"HEAP", "OFF_HEAP"})
+    String petStorage;
+
+    Object shelterManager;
+    Object availableTrainedDogs;
+    Object adoptedCats;
+    Object deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        Object[] customers = new Object[ShelterRegisters.NO_OF_CUSTOMERS];
+        shelterManager = ShelterRegisters.fillRegister(ShelterApi.newShelterManager(petStorage), registerSize, customers);
+        for (int i = 0; i < registerSize / 20 && i < customers.length * 3; i++)
+            ShelterApi.adoptPet(shelterManager, customers[i / 3], "Cat");
+        availableTrainedDogs = ShelterApi.newPetFilter("dog", false, true);
+        adoptedCats = ShelterApi.newPetFilter("cat", true, null);
+        List<?> matchingPets = ShelterApi.getPets(shelterManager, availableTrainedDogs);
+        deepCursor = ShelterApi.getPetID(matchingPets.get(matchingPets.size() * 9 / 10));
+    }
+
+    @Benchmark
+    public int noOfPets()
+    {
+        return ShelterApi.noOfPets(shelterManager, availableTrainedDogs);
+    }
+
+    @Benchmark
+    public List<?> getPetsSparse()
+    {
+        return ShelterApi.getPets(shelterManager, adoptedCats);
+    }
+
+    @Benchmark
+    public Object getPetPageFirst()
+    {
+        return ShelterApi.getPetPage(shelterManager, availableTrainedDogs, null, 50);
+    }
+
+    @Benchmark
+    public Object getPetPageDeep()
+    {
+        return ShelterApi.getPetPage(shelterManager, availableTrainedDogs, deepCursor, 50);
+    }
+
+    @Benchmark
+    public int noOfAvailablePets()
+    {
+        return ShelterApi.noOfAvailablePets(shelterManager, "Dog");
+    }
+}
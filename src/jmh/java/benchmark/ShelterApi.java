@@ -0,0 +1,319 @@
+package benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * ShelterApi - static access to the public shelter API for the benchmarks.
+ * The shelter classes are in the unnamed package, which classes in a named package cannot import, and JMH only accepts
+ * benchmark classes in a named package. Each method is therefore bound once to a constant MethodHandle,
+ * which the JIT compiler inlines like a direct call.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+final class ShelterApi {
+
+    private static final MethodHandle NEW_SHELTER_MANAGER;
+    private static final MethodHandle NEW_STORAGE_SHELTER_MANAGER;
+    private static final MethodHandle NEW_JOURNALED_SHELTER_MANAGER;
+    private static final MethodHandle LOAD_SHELTER_MANAGER;
+    private static final MethodHandle OPEN_JOURNAL;
+    private static final MethodHandle WRITE_SNAPSHOT;
+    private static final MethodHandle ADD_PET;
+    private static final MethodHandle ADD_PETS;
+    private static final MethodHandle UPDATE_PET_RECORD;
+    private static final MethodHandle NO_OF_AVAILABLE_PETS;
+    private static final MethodHandle NEW_PET_FILTER;
+    private static final MethodHandle NO_OF_PETS;
+    private static final MethodHandle GET_PETS;
+    private static final MethodHandle GET_PET_PAGE;
+    private static final MethodHandle GET_VIEW;
+    private static final MethodHandle GET_STATISTICS;
+    private static final MethodHandle ADD_CUSTOMER_RECORD;
+    private static final MethodHandle GET_CUSTOMER;
+    private static final MethodHandle FIND_CUSTOMERS;
+    private static final MethodHandle CAN_ADOPT;
+    private static final MethodHandle ADOPT_PET;
+    private static final MethodHandle ADOPTED_PETS_BY_CUSTOMER;
+    private static final MethodHandle NEW_ADOPTION_SERVICE;
+    private static final MethodHandle NEW_METRICS_RECORDER;
+    private static final MethodHandle SET_METRICS;
+    private static final MethodHandle OPEN_EVENT_LOG;
+    private static final MethodHandle SET_EVENT_LOG;
+    private static final MethodHandle SUBMIT_ADOPTION;
+    private static final MethodHandle GET_PET_ID;
+    private static final MethodHandle GET_CUSTOMER_NUMBER;
+    private static final MethodHandle AGE_CALCULATOR;
+    private static final MethodHandle GET_PET_ID_INSTANCE;
+    private static final MethodHandle GET_CUSTOMER_NUMBER_INSTANCE;
+
+    static
+    {
+        try
+        {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> shelterManager = Class.forName("ShelterManager");
+            Class<?> pet = Class.forName("Pet");
+            Class<?> petID = Class.forName("PetID");
+            Class<?> customer = Class.forName("Customer");
+            Class<?> customerRecord = Class.forName("CustomerRecord");
+            Class<?> customerNumber = Class.forName("CustomerNumber");
+            Class<?> shelterJournal = Class.forName("ShelterJournal");
+            Class<?> adoptionService = Class.forName("AdoptionService");
+            Class<?> shelterMetrics = Class.forName("ShelterMetrics");
+            Class<?> shelterEventLog = Class.forName("ShelterEventLog");
+            Class<?> petFilter = Class.forName("PetFilter");
+            Class<?> petStorage = Class.forName("PetStorage");
+
+            NEW_SHELTER_MANAGER = generic(lookup.findConstructor(shelterManager, MethodType.methodType(void.class)));
+            NEW_STORAGE_SHELTER_MANAGER = generic(MethodHandles.filterArguments( //storage passed by name
+                    lookup.findConstructor(shelterManager, MethodType.methodType(void.class, petStorage)), 0,
+                    lookup.findStatic(petStorage, "valueOf", MethodType.methodType(petStorage, String.class))));
+            NEW_JOURNALED_SHELTER_MANAGER = generic(lookup.findConstructor(shelterManager, MethodType.methodType(void.class, shelterJournal)));
+            LOAD_SHELTER_MANAGER = generic(lookup.findConstructor(shelterManager, MethodType.methodType(void.class, Path.class)));
+            OPEN_JOURNAL = generic(lookup.findStatic(shelterJournal, "open",
+                    MethodType.methodType(shelterJournal, Path.class, int.class, long.class, boolean.class)));
+            WRITE_SNAPSHOT = generic(lookup.findVirtual(shelterManager, "writeSnapshot", MethodType.methodType(Path.class, Path.class)));
+            ADD_PET = generic(lookup.findVirtual(shelterManager, "addPet", MethodType.methodType(pet, String.class)));
+            ADD_PETS = generic(lookup.findVirtual(shelterManager, "addPets", MethodType.methodType(List.class, String.class, int.class)));
+            UPDATE_PET_RECORD = generic(lookup.findVirtual(shelterManager, "updatePetRecord", MethodType.methodType(Boolean.class, petID, Boolean.class)));
+            NO_OF_AVAILABLE_PETS = generic(lookup.findVirtual(shelterManager, "noOfAvailablePets", MethodType.methodType(int.class, String.class)));
+            NEW_PET_FILTER = generic(lookup.findConstructor(petFilter, MethodType.methodType(void.class, String.class, Boolean.class, Boolean.class)));
+            NO_OF_PETS = generic(lookup.findVirtual(shelterManager, "noOfPets", MethodType.methodType(int.class, petFilter)));
+            GET_PETS = generic(lookup.findVirtual(shelterManager, "getPets", MethodType.methodType(List.class, petFilter)));
+            GET_PET_PAGE = generic(lookup.findVirtual(shelterManager, "getPets", MethodType.methodType(Class.forName("PetPage"), petFilter, petID, int.class)));
+            Class<?> shelterView = Class.forName("ShelterView");
+            GET_VIEW = generic(lookup.findVirtual(shelterManager, "getView", MethodType.methodType(shelterView)));
+            GET_STATISTICS = generic(lookup.findVirtual(shelterView, "getStatistics", MethodType.methodType(Class.forName("ShelterStatistics"), ForkJoinPool.class)));
+            ADD_CUSTOMER_RECORD = generic(lookup.findVirtual(shelterManager, "addCustomerRecord",
+                    MethodType.methodType(customerRecord, String.class, String.class, Date.class, Boolean.class)));
+            GET_CUSTOMER = generic(lookup.findVirtual(shelterManager, "getCustomer", MethodType.methodType(customerRecord, customerNumber)));
+            FIND_CUSTOMERS = generic(lookup.findVirtual(shelterManager, "findCustomers", MethodType.methodType(List.class, String.class, String.class, int.class)));
+            CAN_ADOPT = generic(lookup.findVirtual(shelterManager, "canAdopt", MethodType.methodType(Class.forName("AdoptionRejection"), customerRecord, String.class)));
+            ADOPT_PET = generic(lookup.findVirtual(shelterManager, "adoptPet", MethodType.methodType(Boolean.class, customerRecord, String.class)));
+            ADOPTED_PETS_BY_CUSTOMER = generic(lookup.findVirtual(shelterManager, "adoptedPetsByCustomer", MethodType.methodType(Collection.class, customerNumber)));
+            NEW_ADOPTION_SERVICE = generic(lookup.findConstructor(adoptionService, MethodType.methodType(void.class, shelterManager, int.class)));
+            SUBMIT_ADOPTION = generic(lookup.findVirtual(adoptionService, "submit", MethodType.methodType(CompletableFuture.class, customerRecord, String.class)));
+            NEW_METRICS_RECORDER = generic(lookup.findConstructor(Class.forName("ShelterMetricsRecorder"), MethodType.methodType(void.class)));
+            SET_METRICS = generic(lookup.findVirtual(shelterManager, "setMetrics", MethodType.methodType(void.class, shelterMetrics)));
+            OPEN_EVENT_LOG = generic(lookup.findStatic(shelterEventLog, "openRollingFile", MethodType.methodType(shelterEventLog, Path.class, long.class, int.class)));
+            SET_EVENT_LOG = generic(lookup.findVirtual(shelterManager, "setEventLog", MethodType.methodType(void.class, shelterEventLog)));
+            GET_PET_ID = generic(lookup.findVirtual(pet, "getPetID", MethodType.methodType(petID)));
+            GET_CUSTOMER_NUMBER = generic(lookup.findVirtual(customer, "getCustomerNumber", MethodType.methodType(customerNumber)));
+            AGE_CALCULATOR = generic(lookup.findVirtual(customer, "ageCalculator", MethodType.methodType(int.class)));
+            GET_PET_ID_INSTANCE = generic(lookup.findStatic(petID, "getPetIDInstance", MethodType.methodType(petID)));
+            GET_CUSTOMER_NUMBER_INSTANCE = generic(lookup.findStatic(customerNumber, "getCustomerNumberInstance",
+                    MethodType.methodType(customerNumber, String.class, Date.class)));
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private ShelterApi() { }
+
+    /**
+     * Replaces the shelter class types of a method handle with Object, so it can be called with invokeExact from this package.
+     * @param methodHandle method handle to a shelter method
+     * @return method handle with the same primitive and java.* types and Object for every shelter type
+     */
+    private static MethodHandle generic(MethodHandle methodHandle)
+    {
+        MethodType type = methodHandle.type();
+        for (int i = 0; i < type.parameterCount(); i++)
+        {
+            if (type.parameterType(i).getPackageName().isEmpty()) //shelter class in the unnamed package
+                type = type.changeParameterType(i, Object.class);
+        }
+        if (type.returnType().getPackageName().isEmpty())
+            type = type.changeReturnType(Object.class);
+        return methodHandle.asType(type);
+    }
+
+    /**
+     * Returns an unchecked exception for rethrowing the specified Throwable thrown by a shelter method.
+     * @param t Throwable thrown by invokeExact
+     * @return t if it is unchecked, otherwise t wrapped in an IllegalStateException
+     */
+    private static RuntimeException rethrow(Throwable t)
+    {
+        if (t instanceof Error)
+            throw (Error) t;
+        if (t instanceof RuntimeException)
+            return (RuntimeException) t;
+        return new IllegalStateException(t);
+    }
+
+    static Object newShelterManager()
+    {
+        try { return (Object) NEW_SHELTER_MANAGER.invokeExact(); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Object newShelterManager(String petStorage)
+    {
+        try { return (Object) NEW_STORAGE_SHELTER_MANAGER.invokeExact(petStorage); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Object newShelterManager(Object journal)
+    {
+        try { return (Object) NEW_JOURNALED_SHELTER_MANAGER.invokeExact(journal); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Object loadShelterManager(Path snapshotDirectory)
+    {
+        try { return (Object) LOAD_SHELTER_MANAGER.invokeExact(snapshotDirectory); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Object openJournal(Path file, int groupCommitSize, long groupCommitDelayMillis, boolean fsync)
+    {
+        try { return (Object) OPEN_JOURNAL.invokeExact(file, groupCommitSize, groupCommitDelayMillis, fsync); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Path writeSnapshot(Object shelterManager, Path snapshotDirectory)
+    {
+        try { return (Path) WRITE_SNAPSHOT.invokeExact(shelterManager, snapshotDirectory); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Object addPet(Object shelterManager, String petType)
+    {
+        try { return (Object) ADD_PET.invokeExact(shelterManager, petType); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static List<?> addPets(Object shelterManager, String petType, int count)
+    {
+        try { return (List<?>) ADD_PETS.invokeExact(shelterManager, petType, count); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Boolean updatePetRecord(Object shelterManager, Object petID, Boolean trained)
+    {
+        try { return (Boolean) UPDATE_PET_RECORD.invokeExact(shelterManager, petID, trained); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static int noOfAvailablePets(Object shelterManager, String petType)
+    {
+        try { return (int) NO_OF_AVAILABLE_PETS.invokeExact(shelterManager, petType); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Object newPetFilter(String petType, Boolean adopted, Boolean trained)
+    {
+        try { return (Object) NEW_PET_FILTER.invokeExact(petType, adopted, trained); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static int noOfPets(Object shelterManager, Object filter)
+    {
+        try { return (int) NO_OF_PETS.invokeExact(shelterManager, filter); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static List<?> getPets(Object shelterManager, Object filter)
+    {
+        try { return (List<?>) GET_PETS.invokeExact(shelterManager, filter); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Object getPetPage(Object shelterManager, Object filter, Object cursor, int pageSize)
+    {
+        try { return (Object) GET_PET_PAGE.invokeExact(shelterManager, filter, cursor, pageSize); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Object getView(Object shelterManager)
+    {
+        try { return (Object) GET_VIEW.invokeExact(shelterManager); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Object getStatistics(Object shelterView, ForkJoinPool pool)
+    {
+        try { return (Object) GET_STATISTICS.invokeExact(shelterView, pool); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Object addCustomerRecord(Object shelterManager, String firstName, String lastName, Date dob, Boolean hasGarden)
+    {
+        try { return (Object) ADD_CUSTOMER_RECORD.invokeExact(shelterManager, firstName, lastName, dob, hasGarden); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Object getCustomer(Object shelterManager, Object customerNumber)
+    {
+        try { return (Object) GET_CUSTOMER.invokeExact(shelterManager, customerNumber); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static List<?> findCustomers(Object shelterManager, String lastNamePrefix, String firstNamePrefix, int maxResults)
+    {
+        try { return (List<?>) FIND_CUSTOMERS.invokeExact(shelterManager, lastNamePrefix, firstNamePrefix, maxResults); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Object canAdopt(Object shelterManager, Object customerRecord, String petType)
+    {
+        try { return (Object) CAN_ADOPT.invokeExact(shelterManager, customerRecord, petType); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Boolean adoptPet(Object shelterManager, Object customerRecord, String petType)
+    {
+        try { return (Boolean) ADOPT_PET.invokeExact(shelterManager, customerRecord, petType); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Collection<?> adoptedPetsByCustomer(Object shelterManager, Object customerNumber)
+    {
+        try { return (Collection<?>) ADOPTED_PETS_BY_CUSTOMER.invokeExact(shelterManager, customerNumber); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Object newAdoptionService(Object shelterManager, int maxBatchSize)
+    {
+        try { return (Object) NEW_ADOPTION_SERVICE.invokeExact(shelterManager, maxBatchSize); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static CompletableFuture<?> submitAdoption(Object adoptionService, Object customerRecord, String petType)
+    {
+        try { return (CompletableFuture<?>) SUBMIT_ADOPTION.invokeExact(adoptionService, customerRecord, petType); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Object newMetricsRecorder()
+    {
+        try { return (Object) NEW_METRICS_RECORDER.invokeExact(); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static void setMetrics(Object shelterManager, Object metrics)
+    {
+        try { SET_METRICS.invokeExact(shelterManager, metrics); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Object openEventLog(Path file, long maxFileSize, int maxBackups)
+    {
+        try { return (Object) OPEN_EVENT_LOG.invokeExact(file, maxFileSize, maxBackups); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static void setEventLog(Object shelterManager, Object eventLog)
+    {
+        try { SET_EVENT_LOG.invokeExact(shelterManager, eventLog); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Object getPetID(Object pet)
+    {
+        try { return (Object) GET_PET_ID.invokeExact(pet); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Object getCustomerNumber(Object customerRecord)
+    {
+        try { return (Object) GET_CUSTOMER_NUMBER.invokeExact(customerRecord); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static int ageCalculator(Object customerRecord)
+    {
+        try { return (int) AGE_CALCULATOR.invokeExact(customerRecord); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Object getPetIDInstance()
+    {
+        try { return (Object) GET_PET_ID_INSTANCE.invokeExact(); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Object getCustomerNumberInstance(String firstName, Date dateRecordIssued)
+    {
+        try { return (Object) GET_CUSTOMER_NUMBER_INSTANCE.invokeExact(firstName, dateRecordIssued); } catch (Throwable t) { throw rethrow(t); }
+    }
+}
@@ -0,0 +1,72 @@
+package benchmark;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * ShelterManagerBenchmark - throughput and average latency of the ShelterManager query and intake methods for registers of 1k to 1M pets.
+ * Run with <code>-prof gc</code> for allocation rates.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ShelterManagerBenchmark {
+
+    /**
+     * Number of pets in the register.
+     */
+    @Param({"1000", "10000", "100000", "1000000"})
+    int registerSize;
+
+    Object shelterManager;
+    Object[] customers = new Object[ShelterRegisters.NO_OF_CUSTOMERS];
+    Object customerNumberWithAdoptions;
+    Date dob;
+    int nextCustomer;
+
+    /**
+     * Builds a new register before every iteration, as addPet and addCustomerRecord grow it.
+     */
+    @Setup(Level.Iteration)
+    public void setUp()
+    {
+        shelterManager = ShelterRegisters.newRegister(registerSize, customers);
+        ShelterApi.adoptPet(shelterManager, customers[0], "Cat"); //customer with three adoptions
+        ShelterApi.adoptPet(shelterManager, customers[0], "Dog");
+        ShelterApi.adoptPet(shelterManager, customers[0], "Cat");
+        customerNumberWithAdoptions = ShelterApi.getCustomerNumber(customers[0]);
+        dob = ShelterRegisters.adultDOB();
+    }
+
+    @Benchmark
+    public int noOfAvailablePets()
+    {
+        return ShelterApi.noOfAvailablePets(shelterManager, "Dog");
+    }
+
+    @Benchmark
+    public Collection<?> adoptedPetsByCustomer()
+    {
+        return ShelterApi.adoptedPetsByCustomer(shelterManager, customerNumberWithAdoptions);
+    }
+
+    @Benchmark
+    public Object addPet()
+    {
+        return ShelterApi.addPet(shelterManager, "Cat");
+    }
+
+    @Benchmark
+    public Object addCustomerRecord()
+    {
+        int customer = nextCustomer++; //unique name per call
+        return ShelterApi.addCustomerRecord(shelterManager, (char) ('A' + customer % 26) + "dam" + customer, "Benchmark", dob, true);
+    }
+}
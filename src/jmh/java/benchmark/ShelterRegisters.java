@@ -0,0 +1,76 @@
+package benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * ShelterRegisters - builds shelter registers of a given size for the benchmarks.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+final class ShelterRegisters {
+
+    /**
+     * Number of customers registered in every register, each adopts up to three pets.
+     */
+    static final int NO_OF_CUSTOMERS = 1000;
+
+    private ShelterRegisters() { }
+
+    /**
+     * Returns a date of birth of a customer old enough to adopt any pet.
+     * @return date of birth on 20th February 1980
+     */
+    static Date adultDOB()
+    {
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(1980, 1, 20);
+        return calendar.getTime();
+    }
+
+    /**
+     * Discards the adoption messages printed by ShelterManager, so console output is not measured.
+     */
+    static void silenceOutput()
+    {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    /**
+     * Builds a shelter with the specified number of pets, half cats and half dogs with every other dog trained,
+     * and NO_OF_CUSTOMERS customers with gardens.
+     * @param registerSize number of pets
+     * @param customers array filled with the customer records, length NO_OF_CUSTOMERS or less
+     * @return ShelterManager object
+     */
+    static Object newRegister(int registerSize, Object[] customers)
+    {
+        return fillRegister(ShelterApi.newShelterManager(), registerSize, customers);
+    }
+
+    /**
+     * Fills the specified empty shelter like newRegister(int, Object[]).
+     * @param shelterManager empty ShelterManager object, e.g. a journaled one
+     * @param registerSize number of pets
+     * @param customers array filled with the customer records, length NO_OF_CUSTOMERS or less
+     * @return the ShelterManager object
+     */
+    static Object fillRegister(Object shelterManager, int registerSize, Object[] customers)
+    {
+        silenceOutput();
+        for (int i = 0; i < registerSize; i++)
+        {
+            Object pet = ShelterApi.addPet(shelterManager, (i % 2 == 0) ? "Cat" : "Dog");
+            if (i % 4 == 1) //every other dog trained
+                ShelterApi.updatePetRecord(shelterManager, ShelterApi.getPetID(pet), true);
+        }
+        Date dob = adultDOB();
+        for (int i = 0; i < customers.length; i++)
+        {
+            customers[i] = ShelterApi.addCustomerRecord(shelterManager, (char) ('A' + i % 26) + "nna" + i, "Register" + registerSize, dob, true);
+        }
+        return shelterManager;
+    }
+}
@@ -0,0 +1,69 @@
+package benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * SnapshotBenchmark - time to write and to load a binary snapshot of a filled register.
+ * <p>
+ * load: time to restore a register of 100k to 1M pets (plus NO_OF_CUSTOMERS customers and their adoptions) from its snapshot,
+ * compare with JournalBenchmark.replay for the same register.
+ * <p>
+ * write: time to write a snapshot of the same register, including the fsync and rename.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SnapshotBenchmark {
+
+    @Param({"100000", "1000000"})
+    int registerSize;
+
+    Path directory;
+    Object shelterManager;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        ShelterRegisters.silenceOutput();
+        directory = Files.createTempDirectory("shelter-snapshots");
+        Object[] customers = new Object[ShelterRegisters.NO_OF_CUSTOMERS];
+        shelterManager = ShelterRegisters.newRegister(registerSize, customers);
+        for (Object customer : customers)
+            ShelterApi.adoptPet(shelterManager, customer, "Cat");
+        Path snapshot = ShelterApi.writeSnapshot(shelterManager, directory);
+        System.err.println("Snapshot of " + registerSize + " pets, " + Files.size(snapshot) + " bytes");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        try (Stream<Path> files = Files.walk(directory))
+        {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator)
+                Files.delete(file);
+        }
+    }
+
+    @Benchmark
+    public Object load() throws IOException
+    {
+        return ShelterApi.loadShelterManager(directory);
+    }
+
+    @Benchmark
+    public Path write() throws IOException
+    {
+        return ShelterApi.writeSnapshot(shelterManager, directory);
+    }
+}
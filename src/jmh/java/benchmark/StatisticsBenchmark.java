@@ -0,0 +1,52 @@
+package benchmark;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * StatisticsBenchmark - average latency of ShelterView.getStatistics on ForkJoinPools of 1 to 8 threads,
+ * to show how the shelter-wide statistics scale with the cores of the machine.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatisticsBenchmark {
+
+    @Param({"1000000"})
+    int registerSize;
+
+    @Param({"1", "2", "4", "8"})
+    int parallelism;
+
+    Object shelterView;
+    ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        Object[] customers = new Object[ShelterRegisters.NO_OF_CUSTOMERS];
+        Object shelterManager = ShelterRegisters.newRegister(registerSize, customers);
+        for (int i = 0; i < customers.length * 2; i++)
+            ShelterApi.adoptPet(shelterManager, customers[i / 2], "Cat");
+        shelterView = ShelterApi.getView(shelterManager);
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Object getStatistics()
+    {
+        return ShelterApi.getStatistics(shelterView, pool);
+    }
+}
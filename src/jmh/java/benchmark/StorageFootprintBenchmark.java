@@ -0,0 +1,67 @@
+package benchmark;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * StorageFootprintBenchmark - full GC pause and live footprint of a register of 2M pets kept on the heap or off the heap, see PetStorage.
+ * <p>
+ * fullGC: time of one System.gc() with the register live, under G1 and -Xmx1g.
+ * The liveHeapMB and directMB counters report the heap used after that GC and the memory held by direct ByteBuffers.
+ * Like all EVENTS counters they are summed over the measurement iterations, so divide the score by Cnt,
+ * or read the avg of the counter in the detailed output.
+ * <p>
+ * Run with -prof gc to see the GC count and time next to the pause.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-XX:+UseG1GC", "-Xms1g", "-Xmx1g"})
+public class StorageFootprintBenchmark {
+
+    @Param({"2000000"})
+    int registerSize;
+
+    @Param({"HEAP", "OFF_HEAP"})
+    String petStorage;
+
+    Object shelterManager;
+
+    /**
+     * Footprint after the measured GC, reported per iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public double liveHeapMB;
+        public double directMB;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        Object[] customers = new Object[ShelterRegisters.NO_OF_CUSTOMERS];
+        shelterManager = ShelterRegisters.fillRegister(ShelterApi.newShelterManager(petStorage), registerSize, customers);
+    }
+
+    @Benchmark
+    public Object fullGC(Footprint footprint)
+    {
+        System.gc();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        footprint.liveHeapMB = memory.getHeapMemoryUsage().getUsed() / 1e6;
+        footprint.directMB = 0;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class))
+            if (pool.getName().equals("direct"))
+                footprint.directMB = pool.getMemoryUsed() / 1e6;
+        return shelterManager; //keeps the register reachable
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * AdoptionRejection - reason an adoption request was rejected.
+ * @see ShelterManager#adoptPet(CustomerRecord, String)
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public enum AdoptionRejection {
+
+    /**
+     * Customer is younger than 18, or younger than 21 and only untrained dogs are available.
+     */
+    UNDERAGE("Customer needs to be at least 18 years old, and at least 21 years old to adopt an untrained dog."),
+    /**
+     * Customer wants to adopt a dog but has no garden.
+     */
+    NO_GARDEN("Customer needs to have a garden to adopt a dog."),
+    /**
+     * Customer has already adopted three pets.
+     */
+    QUOTA_REACHED("Customer cannot adopt more than three pets (of all types)."),
+    /**
+     * No pet of the requested type is available.
+     */
+    NONE_AVAILABLE("There are no pets of the requested type available.");
+
+    /**
+     * Explanation shown to the customer.
+     */
+    private final String message;
+
+    /**
+     * Constructs a rejection reason.
+     * @param message explanation shown to the customer
+     */
+    AdoptionRejection(String message)
+    {
+        this.message = message;
+    }
+
+    /**
+     * Returns the explanation of the rejection shown to the customer.
+     * @return explanation message
+     */
+    public String getMessage()
+    {
+        return message;
+    }
+}
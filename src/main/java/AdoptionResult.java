@@ -0,0 +1,121 @@
+/**
+ * AdoptionResult - immutable outcome of an adoption request: the PetID of the adopted pet, or the reason the request was rejected.
+ * @see AdoptionService#submit(CustomerRecord, String)
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public final class AdoptionResult {
+
+    /**
+     * PetID of the adopted pet, null if the request was rejected.
+     */
+    private final PetID petID;
+    /**
+     * Reason the request was rejected, null if a pet was adopted.
+     */
+    private final AdoptionRejection rejection;
+
+    /**
+     * Failure of the journal commit of the adoption, null if it was committed or the shelter is not journaled.
+     */
+    private final RuntimeException commitFailure;
+
+    /**
+     * Constructs an adoption result.
+     * @param petID PetID of the adopted pet, null if rejected
+     * @param rejection reason of the rejection, null if adopted
+     * @param commitFailure failure of the journal commit, null if committed
+     */
+    private AdoptionResult(PetID petID, AdoptionRejection rejection, RuntimeException commitFailure)
+    {
+        this.petID = petID;
+        this.rejection = rejection;
+        this.commitFailure = commitFailure;
+    }
+
+    /**
+     * Returns the result of a successful adoption.
+     * @param petID PetID of the adopted pet
+     * @return adoption result
+     */
+    static AdoptionResult adopted(PetID petID)
+    {
+        return new AdoptionResult(petID, null, null);
+    }
+
+    /**
+     * Returns the result of a rejected adoption request.
+     * @param rejection reason of the rejection
+     * @return adoption result
+     */
+    static AdoptionResult rejected(AdoptionRejection rejection)
+    {
+        return new AdoptionResult(null, rejection, null);
+    }
+
+    /**
+     * Returns this result with the failure of the journal commit of the adoption.
+     * @param commitFailure failure of the journal commit
+     * @return adoption result that is not committed
+     */
+    AdoptionResult withCommitFailure(RuntimeException commitFailure)
+    {
+        return new AdoptionResult(petID, rejection, commitFailure);
+    }
+
+    /**
+     * Returns true if a pet was adopted.
+     * @return true if adopted, false if rejected
+     */
+    public boolean isAdopted()
+    {
+        return petID != null;
+    }
+
+    /**
+     * Returns the PetID of the adopted pet.
+     * @return PetID, null if the request was rejected
+     */
+    public PetID getPetID()
+    {
+        return petID;
+    }
+
+    /**
+     * Returns the reason the request was rejected.
+     * @return rejection reason, null if a pet was adopted
+     */
+    public AdoptionRejection getRejection()
+    {
+        return rejection;
+    }
+
+    /**
+     * Returns true if the adoption was committed to the journal of the shelter, or the shelter is not journaled.
+     * An adoption that is not committed was still applied: the pet is adopted, but the adoption may be lost if the shelter is restored from its journal.
+     * @return true if committed, false if the journal commit failed
+     */
+    public boolean isCommitted()
+    {
+        return commitFailure == null;
+    }
+
+    /**
+     * Returns the failure of the journal commit of the adoption.
+     * @return failure, e.g. an UncheckedIOException of the journal, null if committed
+     */
+    public RuntimeException getCommitFailure()
+    {
+        return commitFailure;
+    }
+
+    /**
+     * Returns the adopted PetID or the rejection reason.
+     * @return String representation of the result
+     */
+    @Override
+    public String toString()
+    {
+        return (isAdopted() ? "Adopted " + petID : "Rejected " + rejection) + (isCommitted() ? "" : ", not committed");
+    }
+}
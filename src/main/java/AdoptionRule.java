@@ -0,0 +1,170 @@
+import java.util.Map;
+
+/**
+ * AdoptionRule - one adoption eligibility rule and the reason an adoption is rejected when the rule is not met.
+ * The rules of each pet type form a table, see rulesOf(String), evaluated in order by check(): the first rule that is not met
+ * gives the rejection reason. A rule only reads its parameters, so the table can be evaluated for any number of customers
+ * without locks, allocations or changes to the shelter.
+ * @see ShelterManager#canAdopt(CustomerRecord, String)
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+enum AdoptionRule {
+
+    /**
+     * A customer must be at least 18 years old for any adoption.
+     */
+    AT_LEAST_18(AdoptionRejection.UNDERAGE, true)
+    {
+        @Override
+        boolean isMet(int customerAge, boolean hasGarden, int noOfAdoptions, int noOfUntrained, int noOfTrained)
+        {
+            return customerAge >= 18;
+        }
+    },
+    /**
+     * A pet of the requested type must be available.
+     */
+    PET_AVAILABLE(AdoptionRejection.NONE_AVAILABLE, false)
+    {
+        @Override
+        boolean isMet(int customerAge, boolean hasGarden, int noOfAdoptions, int noOfUntrained, int noOfTrained)
+        {
+            return noOfUntrained + noOfTrained > 0;
+        }
+    },
+    /**
+     * A customer must have a garden to adopt a dog, regardless of the dog's training status.
+     */
+    HAS_GARDEN(AdoptionRejection.NO_GARDEN, true)
+    {
+        @Override
+        boolean isMet(int customerAge, boolean hasGarden, int noOfAdoptions, int noOfUntrained, int noOfTrained)
+        {
+            return hasGarden;
+        }
+    },
+    /**
+     * A customer cannot adopt more than three pets of all types.
+     */
+    BELOW_ADOPTION_LIMIT(AdoptionRejection.QUOTA_REACHED, false)
+    {
+        @Override
+        boolean isMet(int customerAge, boolean hasGarden, int noOfAdoptions, int noOfUntrained, int noOfTrained)
+        {
+            return noOfAdoptions < MAX_ADOPTIONS;
+        }
+    },
+    /**
+     * A customer must be at least 21 years old to adopt an untrained dog, so a younger customer needs a trained dog to be available.
+     */
+    AT_LEAST_21_OR_TRAINED(AdoptionRejection.UNDERAGE, false)
+    {
+        @Override
+        boolean isMet(int customerAge, boolean hasGarden, int noOfAdoptions, int noOfUntrained, int noOfTrained)
+        {
+            return customerAge >= 21 || noOfTrained > 0;
+        }
+    };
+
+    /**
+     * Largest number of pets of all types a customer can adopt.
+     */
+    static final int MAX_ADOPTIONS = 3;
+
+    /**
+     * Rules of a cat adoption.
+     */
+    private static final AdoptionRule[] CAT_RULES = {AT_LEAST_18, PET_AVAILABLE, BELOW_ADOPTION_LIMIT};
+    /**
+     * Rules of a dog adoption.
+     */
+    private static final AdoptionRule[] DOG_RULES = {AT_LEAST_18, PET_AVAILABLE, HAS_GARDEN, BELOW_ADOPTION_LIMIT, AT_LEAST_21_OR_TRAINED};
+    /**
+     * Rules of an adoption of a pet type the shelter has no pets of, the customer's age is checked before availability.
+     */
+    private static final AdoptionRule[] UNKNOWN_PET_TYPE_RULES = {AT_LEAST_18, PET_AVAILABLE};
+    /**
+     * Rule table by lower-case pet type.
+     */
+    private static final Map<String, AdoptionRule[]> RULES_BY_PET_TYPE = Map.of(PetFactory.CAT_PET, CAT_RULES, PetFactory.DOG_PET, DOG_RULES);
+
+    /**
+     * Reason of the rejection when the rule is not met.
+     */
+    private final AdoptionRejection rejection;
+    /**
+     * Indicates if the rule depends only on the customer, not on the pets and adoptions of the shelter.
+     */
+    private final boolean customerOnly;
+
+    /**
+     * Constructs a rule.
+     * @param rejection reason of the rejection when the rule is not met
+     * @param customerOnly true if the rule depends only on the customer's age and garden
+     */
+    AdoptionRule(AdoptionRejection rejection, boolean customerOnly)
+    {
+        this.rejection = rejection;
+        this.customerOnly = customerOnly;
+    }
+
+    /**
+     * Returns true if the rule is met.
+     * @param customerAge age of the customer
+     * @param hasGarden true if the customer has a garden
+     * @param noOfAdoptions number of pets adopted by the customer
+     * @param noOfUntrained number of available pets of the pet type that are not trained
+     * @param noOfTrained number of available pets of the pet type that are trained
+     * @return true if the rule is met, false if the adoption is rejected
+     */
+    abstract boolean isMet(int customerAge, boolean hasGarden, int noOfAdoptions, int noOfUntrained, int noOfTrained);
+
+    /**
+     * Returns the rule table of the specified pet type.
+     * @param petType lower-case pet type
+     * @return rules in order of evaluation, shared and not to be modified
+     */
+    static AdoptionRule[] rulesOf(String petType)
+    {
+        return RULES_BY_PET_TYPE.getOrDefault(petType, UNKNOWN_PET_TYPE_RULES);
+    }
+
+    /**
+     * Evaluates the rules in order and returns the reason of the first rule that is not met.
+     * @param rules rule table, see rulesOf(String)
+     * @param customerAge age of the customer
+     * @param hasGarden true if the customer has a garden
+     * @param noOfAdoptions number of pets adopted by the customer
+     * @param noOfUntrained number of available pets of the pet type that are not trained
+     * @param noOfTrained number of available pets of the pet type that are trained
+     * @return rejection reason, null if all rules are met
+     */
+    static AdoptionRejection check(AdoptionRule[] rules, int customerAge, boolean hasGarden, int noOfAdoptions, int noOfUntrained, int noOfTrained)
+    {
+        for (AdoptionRule rule : rules)
+        {
+            if (!rule.isMet(customerAge, hasGarden, noOfAdoptions, noOfUntrained, noOfTrained))
+                return rule.rejection;
+        }
+        return null;
+    }
+
+    /**
+     * Evaluates only the rules that depend on the customer alone, e.g. before the shelter is read.
+     * A customer may be given a different reason than by check(), e.g. NO_GARDEN instead of NONE_AVAILABLE, but is rejected only if check() rejects them.
+     * @param rules rule table, see rulesOf(String)
+     * @param customerAge age of the customer
+     * @param hasGarden true if the customer has a garden
+     * @return rejection reason, null if all rules of the customer are met
+     */
+    static AdoptionRejection checkCustomer(AdoptionRule[] rules, int customerAge, boolean hasGarden)
+    {
+        for (AdoptionRule rule : rules)
+        {
+            if (rule.customerOnly && !rule.isMet(customerAge, hasGarden, 0, 0, 0))
+                return rule.rejection;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,275 @@
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AdoptionService - asynchronous adoption desk for bursts of adoption requests, e.g. from a web front end and phone desks.
+ * Each request is checked on its own virtual thread: the adoption rules of the customer's age and garden do not depend on the shelter,
+ * so they are checked in parallel and requests that fail them are rejected at once. The remaining requests are queued and
+ * a single committer thread applies them in batches in order of arrival, with one journal commit per batch instead of one per adoption.
+ * The future of a request is completed after the batch is committed, with the PetID of the adopted pet or the reason of the rejection.
+ * If the journal commit of a batch fails, its adoptions stay applied and their futures are still completed with their results,
+ * which report the failure, see AdoptionResult.isCommitted().
+ * Nothing is printed, adoptions and rejections are published to the event log of the shelter. Adoptions through the service and through ShelterManager.adoptPet() can be mixed.
+ * @see ShelterManager#adoptPet(CustomerRecord, String)
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public final class AdoptionService implements Closeable {
+
+    /**
+     * Default largest number of adoptions applied and committed together.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    /**
+     * Request queued by close() after all other requests, stops the committer thread.
+     */
+    private static final AdoptionRequest END_OF_REQUESTS = new AdoptionRequest(null, null, 0);
+
+    /**
+     * Shelter the adoptions are applied to.
+     */
+    private final ShelterManager shelterManager;
+    /**
+     * Largest number of adoptions applied and committed together.
+     */
+    private final int maxBatchSize;
+    /**
+     * Executor checking the eligibility of each request on its own virtual thread.
+     */
+    private final ExecutorService eligibilityExecutor;
+    /**
+     * Requests that passed the eligibility checks, in order of arrival.
+     */
+    private final BlockingQueue<AdoptionRequest> requests = new LinkedBlockingQueue<AdoptionRequest>();
+    /**
+     * Thread applying the queued requests in batches.
+     */
+    private final Thread committer;
+    /**
+     * Indicates if close() was called, no more requests are accepted.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Constructs an adoption service for the specified shelter with the default batch size.
+     * @param shelterManager shelter the adoptions are applied to
+     * @throws IllegalArgumentException if <code>shelterManager</code> is null
+     */
+    public AdoptionService(ShelterManager shelterManager) throws IllegalArgumentException
+    {
+        this(shelterManager, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs an adoption service for the specified shelter.
+     * @param shelterManager shelter the adoptions are applied to
+     * @param maxBatchSize largest number of adoptions applied and committed together, 1 or more
+     * @throws IllegalArgumentException if <code>shelterManager</code> is null or <code>maxBatchSize</code> is less than 1
+     */
+    public AdoptionService(ShelterManager shelterManager, int maxBatchSize) throws IllegalArgumentException
+    {
+        if (shelterManager == null)
+            throw new IllegalArgumentException("Shelter manager cannot be null.");
+        if (maxBatchSize < 1)
+            throw new IllegalArgumentException("Batch size must be at least 1: " + maxBatchSize);
+        this.shelterManager = shelterManager;
+        this.maxBatchSize = maxBatchSize;
+        eligibilityExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        committer = new Thread(this::commitRequests, "adoption-committer");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    /**
+     * Submits a request of the specified customer to adopt a pet of the specified type.
+     * @param customerRecord customer record of the adopting customer
+     * @param petType pet type desired for adoption (case-insensitive)
+     * @return future completed with the PetID of the adopted pet or the reason of the rejection, once the batch of the request is committed or its commit failed
+     * @throws IllegalArgumentException if a parameter is null
+     * @throws IllegalStateException if the service is closed
+     */
+    public CompletableFuture<AdoptionResult> submit(CustomerRecord customerRecord, String petType) throws IllegalArgumentException, IllegalStateException
+    {
+        if (customerRecord == null || petType == null)
+            throw new IllegalArgumentException("Customer record and pet type cannot be null.");
+        if (closed)
+            throw new IllegalStateException("Adoption service is closed.");
+        AdoptionRequest request = new AdoptionRequest(customerRecord, petType.toLowerCase(), 0);
+        try
+        {
+            eligibilityExecutor.execute(() -> checkEligibility(request));
+        }
+        catch (RejectedExecutionException e) //closed since the check above
+        {
+            throw new IllegalStateException("Adoption service is closed.");
+        }
+        return request.result;
+    }
+
+    /**
+     * Stops accepting requests and waits until all submitted requests are applied and committed.
+     */
+    @Override
+    public void close()
+    {
+        if (closed)
+            return;
+        closed = true;
+        eligibilityExecutor.shutdown();
+        boolean interrupted = false;
+        while (true)
+        {
+            try
+            {
+                eligibilityExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS); //all checked requests are queued
+                requests.put(END_OF_REQUESTS);
+                committer.join();
+                break;
+            }
+            catch (InterruptedException e) //finish closing, then restore the interrupt
+            {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Checks the customer's age and garden for the requested pet type, then queues the request or rejects it.
+     * Runs on the thread of the request.
+     * @param request submitted request
+     */
+    private void checkEligibility(AdoptionRequest request)
+    {
+        try
+        {
+            int customerAge = request.customerRecord.adoptionAge();
+            AdoptionRejection rejection = AdoptionRule.checkCustomer(AdoptionRule.rulesOf(request.petType), customerAge, request.customerRecord.getHasGarden());
+            if (rejection != null) //e.g. under 18, or dog for a customer without garden
+                request.result.complete(shelterManager.rejectAdoption(request.customerRecord.getCustomerNumber(), request.petType, rejection));
+            else
+                requests.add(new AdoptionRequest(request.customerRecord, request.petType, customerAge, request.result));
+        }
+        catch (RuntimeException e)
+        {
+            request.result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Applies the queued requests in batches until close() queues END_OF_REQUESTS. Runs on the committer thread.
+     */
+    private void commitRequests()
+    {
+        List<AdoptionRequest> batch = new ArrayList<AdoptionRequest>(maxBatchSize);
+        List<AdoptionResult> results = new ArrayList<AdoptionResult>(maxBatchSize);
+        boolean endOfRequests = false;
+        while (!endOfRequests)
+        {
+            try
+            {
+                batch.add(requests.take()); //wait for the first request of the batch
+            }
+            catch (InterruptedException e) //only close() stops the committer
+            {
+                continue;
+            }
+            requests.drainTo(batch, maxBatchSize - 1); //requests that arrived meanwhile join the batch
+
+            RuntimeException failure = null;
+            for (AdoptionRequest request : batch)
+            {
+                if (request == END_OF_REQUESTS)
+                {
+                    endOfRequests = true;
+                    results.add(null);
+                    continue;
+                }
+                try
+                {
+                    results.add(shelterManager.adoptPet(request.customerRecord, request.petType, request.customerAge));
+                }
+                catch (RuntimeException e)
+                {
+                    results.add(null);
+                    request.result.completeExceptionally(e);
+                }
+            }
+            try
+            {
+                shelterManager.commitJournal(); //one journal commit for the whole batch
+            }
+            catch (RuntimeException e) //e.g. journal write failed, the adoptions of the batch are applied but not known to be durable
+            {
+                failure = e;
+            }
+            for (int i = 0; i < batch.size(); i++)
+            {
+                AdoptionResult result = results.get(i);
+                if (result != null)
+                    batch.get(i).result.complete((failure != null && result.isAdopted()) ? result.withCommitFailure(failure) : result);
+            }
+            batch.clear();
+            results.clear();
+        }
+    }
+
+    /**
+     * AdoptionRequest - submitted adoption request and its future result.
+     */
+    private static final class AdoptionRequest {
+
+        /**
+         * Customer record of the adopting customer.
+         */
+        private final CustomerRecord customerRecord;
+        /**
+         * Lower-case pet type desired for adoption.
+         */
+        private final String petType;
+        /**
+         * Age of the customer, calculated by the eligibility check.
+         */
+        private final int customerAge;
+        /**
+         * Future result of the request.
+         */
+        private final CompletableFuture<AdoptionResult> result;
+
+        /**
+         * Constructs a request with a new future result.
+         * @param customerRecord customer record of the adopting customer
+         * @param petType lower-case pet type
+         * @param customerAge age of the customer
+         */
+        private AdoptionRequest(CustomerRecord customerRecord, String petType, int customerAge)
+        {
+            this(customerRecord, petType, customerAge, new CompletableFuture<AdoptionResult>());
+        }
+
+        /**
+         * Constructs a request with the specified future result.
+         * @param customerRecord customer record of the adopting customer
+         * @param petType lower-case pet type
+         * @param customerAge age of the customer
+         * @param result future result of the request
+         */
+        private AdoptionRequest(CustomerRecord customerRecord, String petType, int customerAge, CompletableFuture<AdoptionResult> result)
+        {
+            this.customerRecord = customerRecord;
+            this.petType = petType;
+            this.customerAge = customerAge;
+            this.result = result;
+        }
+    }
+}
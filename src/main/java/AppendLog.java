@@ -0,0 +1,69 @@
+import java.util.Arrays;
+
+/**
+ * AppendLog - append-only sequence of elements in chunks, readable without locks while elements are appended.
+ * An element is never moved or replaced once appended, so the first n elements read at any later time are the same,
+ * and a reader that remembers the length of the log has a consistent copy of it at no cost, see ShelterView.
+ * Appends are serialized by the lock of the log.
+ * @param <E> type of the elements
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+final class AppendLog<E> {
+
+    /**
+     * Number of bits of the element index within a chunk.
+     */
+    private static final int CHUNK_BITS = 10;
+    /**
+     * Number of elements in a chunk.
+     */
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    /**
+     * Chunks of elements, replaced by a longer copy when a chunk is added.
+     */
+    private volatile Object[][] chunks = new Object[0][];
+    /**
+     * Number of elements, written after the element so readers only see appended elements.
+     */
+    private volatile int size;
+
+    /**
+     * Appends an element.
+     * @param element element to append, not null
+     */
+    synchronized void append(E element)
+    {
+        int chunkIndex = size >>> CHUNK_BITS;
+        Object[][] currentChunks = chunks;
+        if (chunkIndex == currentChunks.length) //last chunk full, the elements of the other chunks stay where they are
+        {
+            currentChunks = Arrays.copyOf(currentChunks, chunkIndex + 1);
+            currentChunks[chunkIndex] = new Object[CHUNK_SIZE];
+            chunks = currentChunks;
+        }
+        currentChunks[chunkIndex][size & (CHUNK_SIZE - 1)] = element;
+        size = size + 1; //publishes the element
+    }
+
+    /**
+     * Returns the element at the specified position.
+     * @param position position of the element, less than a length returned by size()
+     * @return element
+     */
+    @SuppressWarnings("unchecked")
+    E get(int position)
+    {
+        return (E) chunks[position >>> CHUNK_BITS][position & (CHUNK_SIZE - 1)];
+    }
+
+    /**
+     * Returns the number of elements appended.
+     * @return length of the log
+     */
+    int size()
+    {
+        return size;
+    }
+}
@@ -6,12 +6,37 @@
  */
 final class Cat extends PetFactory {
 
+    /**
+     * Care instructions of a new cat.
+     */
+    static final String CARE_INSTRUCTIONS = "Feed two times a day.";
+
 /**
  * Constructs a Cat that is "Not adopted" with care instructions: "Feed two times a day."
+ * @param petID unique PetID of the cat
  */
-    Cat() //package-private constructor
+    Cat(PetID petID) //package-private constructor
+    {
+        super(petID);
+        setCareInstructions(CARE_INSTRUCTIONS);
+    }
+
+    /**
+     * Constructs a Cat that is a view over a row of a store.
+     * @param store store of the cat
+     * @param row row of the cat
+     */
+    Cat(PetStore store, int row)
+    {
+        super(store, row);
+    }
+
+    /**
+     * @see PetFactory#getTypeCode()
+     */
+    @Override
+    byte getTypeCode()
     {
-        super();
-        setCareInstructions("Feed two times a day.");
+        return PetStore.CAT;
     }
 }
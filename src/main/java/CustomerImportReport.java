@@ -0,0 +1,73 @@
+import java.util.List;
+
+/**
+ * CustomerImportReport - immutable summary of a customer import: the number of customers imported and the rows that were rejected.
+ * @see CustomerImporter
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public final class CustomerImportReport {
+
+    /**
+     * Number of customer records added to the shelter register.
+     */
+    private final long noOfImported;
+    /**
+     * Number of rows rejected.
+     */
+    private final long noOfRejected;
+    /**
+     * Rejected rows in input order, empty if the rejected rows were passed to a listener instead.
+     */
+    private final List<RejectedCustomerRow> rejectedRows;
+
+    /**
+     * Constructs an import report.
+     * @param noOfImported number of customer records added
+     * @param noOfRejected number of rows rejected
+     * @param rejectedRows rejected rows kept by the import, copied
+     */
+    CustomerImportReport(long noOfImported, long noOfRejected, List<RejectedCustomerRow> rejectedRows) //package-private constructor
+    {
+        this.noOfImported = noOfImported;
+        this.noOfRejected = noOfRejected;
+        this.rejectedRows = List.copyOf(rejectedRows); //defensive copy to ensure immutability
+    }
+
+    /**
+     * Returns the number of customer records added to the shelter register.
+     * @return number of imported customers
+     */
+    public long getNoOfImported()
+    {
+        return noOfImported;
+    }
+
+    /**
+     * Returns the number of rows rejected.
+     * @return number of rejected rows
+     */
+    public long getNoOfRejected()
+    {
+        return noOfRejected;
+    }
+
+    /**
+     * Returns the rejected rows in input order.
+     * @return unmodifiable List of rejected rows, empty if they were passed to a listener instead
+     */
+    public List<RejectedCustomerRow> getRejectedRows()
+    {
+        return rejectedRows;
+    }
+
+    /**
+     * Returns a string representation of the import counts.
+     * @see Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return noOfImported + " customers imported, " + noOfRejected + " rows rejected";
+    }
+}
@@ -0,0 +1,311 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * CustomerImporter - streaming bulk import of customer records into a shelter register from CSV text.
+ * Each row has the form firstName,lastName,dob,hasGarden where dob is an ISO date (yyyy-MM-dd) and hasGarden is true/false or yes/no.
+ * A header row with these column names and blank lines are skipped. Fields cannot contain commas.
+ * Rows are read in batches of a fixed size, so memory use does not grow with the size of the input.
+ * The rows of a batch are parsed and validated in parallel, then duplicates are removed and the customers registered in input order,
+ * so customer numbers are issued in the same order as by addCustomerRecord() called once per row.
+ * Invalid and duplicate rows are reported as rejected rows instead of stopping the import.
+ * @see ShelterManager#addCustomerRecord(String, String, Date, Boolean)
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public final class CustomerImporter {
+
+    /**
+     * Default number of rows read and validated together.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+    /**
+     * Column names of the optional header row.
+     */
+    private static final String[] HEADER = {"firstname", "lastname", "dob", "hasgarden"};
+
+    /**
+     * Shelter register the customers are added to.
+     */
+    private final ShelterManager shelterManager;
+    /**
+     * Number of rows read and validated together.
+     */
+    private final int batchSize;
+
+    /**
+     * Constructs an importer into the specified shelter register with the default batch size.
+     * @param shelterManager shelter register the customers are added to
+     * @throws IllegalArgumentException if <code>shelterManager</code> is null
+     */
+    public CustomerImporter(ShelterManager shelterManager) throws IllegalArgumentException
+    {
+        this(shelterManager, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs an importer into the specified shelter register.
+     * @param shelterManager shelter register the customers are added to
+     * @param batchSize number of rows read and validated together, 1 or more
+     * @throws IllegalArgumentException if <code>shelterManager</code> is null or <code>batchSize</code> is less than 1
+     */
+    public CustomerImporter(ShelterManager shelterManager, int batchSize) throws IllegalArgumentException
+    {
+        if (shelterManager == null)
+            throw new IllegalArgumentException("Shelter manager cannot be null.");
+        if (batchSize < 1)
+            throw new IllegalArgumentException("Batch size must be at least 1: " + batchSize);
+        this.shelterManager = shelterManager;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports all customer rows of the specified input, keeping the rejected rows in the report.
+     * @param input CSV text, not closed by this method
+     * @return report of the imported customers and rejected rows
+     * @throws IOException if the input cannot be read
+     */
+    public CustomerImportReport importCustomers(Reader input) throws IOException
+    {
+        List<RejectedCustomerRow> rejectedRows = new ArrayList<RejectedCustomerRow>();
+        return importCustomers(input, rejectedRows::add, rejectedRows);
+    }
+
+    /**
+     * Imports all customer rows of the specified input, passing each rejected row to the specified listener as soon as it is found.
+     * The rejected rows are not kept in the report, so inputs with many rejected rows can be imported with bounded memory.
+     * @param input CSV text, not closed by this method
+     * @param rejectedRowListener listener called with each rejected row, in input order
+     * @return report of the imported customers, without rejected rows
+     * @throws IOException if the input cannot be read
+     */
+    public CustomerImportReport importCustomers(Reader input, Consumer<RejectedCustomerRow> rejectedRowListener) throws IOException
+    {
+        return importCustomers(input, rejectedRowListener, Collections.<RejectedCustomerRow>emptyList());
+    }
+
+    /**
+     * Imports all customer rows of the specified input batch by batch.
+     * @param input CSV text
+     * @param rejectedRowListener listener called with each rejected row
+     * @param reportedRows rejected rows to include in the report
+     * @return import report
+     * @throws IOException if the input cannot be read
+     */
+    private CustomerImportReport importCustomers(Reader input, Consumer<RejectedCustomerRow> rejectedRowListener,
+                                                 List<RejectedCustomerRow> reportedRows) throws IOException
+    {
+        BufferedReader reader = (input instanceof BufferedReader) ? (BufferedReader) input : new BufferedReader(input);
+        List<String> lines = new ArrayList<String>(batchSize);
+        long[] lineNumbers = new long[batchSize];
+        long lineNumber = 0;
+        long noOfImported = 0;
+        long noOfRejected = 0;
+        boolean headerChecked = false;
+
+        String line;
+        do
+        {
+            line = reader.readLine();
+            if (line != null)
+            {
+                lineNumber++;
+                if (line.isBlank())
+                    continue;
+                if (!headerChecked) //only the first non-blank row can be a header
+                {
+                    headerChecked = true;
+                    if (isHeader(line))
+                        continue;
+                }
+                lineNumbers[lines.size()] = lineNumber;
+                lines.add(line);
+            }
+
+            if (lines.size() == batchSize || (line == null && !lines.isEmpty())) //batch full or end of input
+            {
+                RejectedCustomerRow[] rejections = new RejectedCustomerRow[lines.size()];
+                noOfImported += importBatch(lines, lineNumbers, rejections);
+                for (RejectedCustomerRow rejection : rejections) //report in input order
+                {
+                    if (rejection != null)
+                    {
+                        noOfRejected++;
+                        rejectedRowListener.accept(rejection);
+                    }
+                }
+                lines.clear();
+            }
+        }
+        while (line != null);
+
+        return new CustomerImportReport(noOfImported, noOfRejected, reportedRows);
+    }
+
+    /**
+     * Validates the rows of a batch in parallel, then registers the unique customers in input order.
+     * @param lines rows of the batch
+     * @param lineNumbers line numbers of the rows
+     * @param rejections filled with the rejection of each rejected row, by row index
+     * @return number of customers added to the shelter register
+     */
+    private int importBatch(List<String> lines, long[] lineNumbers, RejectedCustomerRow[] rejections)
+    {
+        CustomerRow[] rows = new CustomerRow[lines.size()];
+        IntStream.range(0, rows.length).parallel().forEach(i -> { //rows are independent, each task writes its own array element
+            try
+            {
+                rows[i] = parseRow(lines.get(i));
+            }
+            catch (IllegalArgumentException e)
+            {
+                rejections[i] = new RejectedCustomerRow(lineNumbers[i], lines.get(i), e.getMessage());
+            }
+        });
+
+        Map<CustomerRecord, Long> firstLineNumbers = new HashMap<CustomerRecord, Long>(); //customer identity by name and dob -> line imported in the batch
+        int noOfImported = 0;
+        for (int i = 0; i < rows.length; i++)
+        {
+            if (rows[i] == null) //rejected while parsing
+                continue;
+
+            Long firstLineNumber = firstLineNumbers.get(rows[i].identity);
+            if (firstLineNumber != null)
+            {
+                rejections[i] = new RejectedCustomerRow(lineNumbers[i], lines.get(i), "Duplicate of line " + firstLineNumber);
+                continue;
+            }
+
+            try
+            {
+                if (shelterManager.registerCustomerRecord(rows[i].firstName, rows[i].lastName, rows[i].dob, rows[i].hasGarden) == null)
+                {
+                    rejections[i] = new RejectedCustomerRow(lineNumbers[i], lines.get(i), "Customer with similar information exists in shelter register");
+                }
+                else
+                {
+                    firstLineNumbers.put(rows[i].identity, lineNumbers[i]); //only imported rows are reported as the original of later duplicates
+                    noOfImported++;
+                }
+            }
+            catch (IllegalArgumentException e) //e.g. no more customer numbers, reject this row and continue
+            {
+                rejections[i] = new RejectedCustomerRow(lineNumbers[i], lines.get(i), e.getMessage());
+            }
+        }
+        shelterManager.commitJournal(); //one journal commit for the whole batch
+        return noOfImported;
+    }
+
+    /**
+     * Returns true if the specified row is the header row, column names are case-insensitive.
+     * @param line row
+     * @return true if the row is the header row, false otherwise
+     */
+    private static boolean isHeader(String line)
+    {
+        String[] fields = line.split(",", -1);
+        if (fields.length != HEADER.length)
+            return false;
+        for (int i = 0; i < fields.length; i++)
+        {
+            if (!fields[i].trim().toLowerCase().equals(HEADER[i]))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Parses and validates a customer row.
+     * @param line row
+     * @return parsed customer row
+     * @throws IllegalArgumentException with the rejection reason if the row is invalid
+     */
+    private static CustomerRow parseRow(String line) throws IllegalArgumentException
+    {
+        String[] fields = line.split(",", -1);
+        if (fields.length != HEADER.length)
+            throw new IllegalArgumentException("Expected " + HEADER.length + " fields but found " + fields.length);
+
+        String firstName = fields[0].trim();
+        String lastName = fields[1].trim();
+        if (firstName.isEmpty() || lastName.isEmpty())
+            throw new IllegalArgumentException("First name and last name cannot be empty");
+        if (firstName.chars().anyMatch(Character::isWhitespace) || lastName.chars().anyMatch(Character::isWhitespace))
+            throw new IllegalArgumentException("First name and last name must be without whitespaces");
+
+        LocalDate dob;
+        try
+        {
+            dob = LocalDate.parse(fields[2].trim());
+        }
+        catch (DateTimeParseException e)
+        {
+            throw new IllegalArgumentException("Invalid date of birth: " + fields[2].trim());
+        }
+        if (dob.isAfter(LocalDate.now()))
+            throw new IllegalArgumentException("Date of birth cannot be in the future: " + dob);
+
+        String hasGarden = fields[3].trim().toLowerCase();
+        boolean customerHasGarden;
+        if (hasGarden.equals("true") || hasGarden.equals("yes"))
+            customerHasGarden = true;
+        else if (hasGarden.equals("false") || hasGarden.equals("no"))
+            customerHasGarden = false;
+        else
+            throw new IllegalArgumentException("Invalid garden status: " + fields[3].trim());
+
+        return new CustomerRow(firstName, lastName, Date.from(dob.atStartOfDay(ZoneId.systemDefault()).toInstant()), customerHasGarden);
+    }
+
+    /**
+     * CustomerRow - parsed and validated customer row.
+     */
+    private static final class CustomerRow {
+
+        /**
+         * First name of the customer.
+         */
+        private final String firstName;
+        /**
+         * Last name of the customer.
+         */
+        private final String lastName;
+        /**
+         * Date of birth of the customer.
+         */
+        private final Date dob;
+        /**
+         * Indicates if customer has a garden.
+         */
+        private final boolean hasGarden;
+        /**
+         * Temporary customer record, equal to customer records with the same name and dob.
+         */
+        private final CustomerRecord identity;
+
+        /**
+         * Constructs a parsed customer row.
+         * @param firstName first name of the customer
+         * @param lastName last name of the customer
+         * @param dob date of birth of the customer
+         * @param hasGarden indicates if customer has a garden
+         */
+        private CustomerRow(String firstName, String lastName, Date dob, boolean hasGarden)
+        {
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.dob = dob;
+            this.hasGarden = hasGarden;
+            this.identity = new CustomerRecord(firstName, lastName, dob);
+        }
+    }
+}
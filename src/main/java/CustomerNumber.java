@@ -1,11 +1,14 @@
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * CustomerNumber - class for generating unique, immutable customer numbers. CustomerNumber has the following format:
- * the first component is the concatenation of the initial of the first name of the customer with an arbitrary serial number.
+ * the first component is the concatenation of the initial of the first name of the customer with a serial number.
  * The second component is the concatenation of the month of issue with the year of issue of the record.
  * For example, the string representation of the CustomerNumber for a record issued to John Smith in January 2024 would have the form: J10.12024
  * where the 10 is a serial number that, with the initials and year, guarantees the uniqueness of the customer number as a whole (note the two parts are separated by a dot “.”).
+ * Serial numbers are allocated in sequence from a counter per initial and month of issue, so generating a customer number takes constant time.
  * @version 1.0 Date created: 06/02/2024
  * @author Robert Petecki
  */
@@ -13,73 +16,158 @@ public class CustomerNumber implements Comparable<CustomerNumber> {
 
     //private and final fields to ensure immutability
     /**
-     * Storing unique customer number.
+     * Last serial number allocated per initial and month of issue, see getSerialKey(char, int, int).
      */
-    private static final Set<CustomerNumber> CUSTOMER_NUMBERS = new HashSet<CustomerNumber>(); //set for imposing uniqueness of CustomerNumber
+    private static final Map<Long, AtomicInteger> LAST_SERIALS = new ConcurrentHashMap<Long, AtomicInteger>(); //counters imposing uniqueness of CustomerNumber
     /**
-     * Component 1 of customer number: concatenation of the initial of the first name of the customer with an arbitrary serial number.
+     * Component 1 of customer number: the initial of the first name of the customer.
      */
-    private final String componentCustomerNumber1; //concatenation of first name initial and an arbitrary serial number
+    private final char initial;
     /**
-     * Component 2 of customer number: concatenation of the month of issue with the year of issue of the record.
+     * Component 1 of customer number: the serial number, unique per initial and month of issue.
      */
-    private final String componentCustomerNumber2; //concatenation of the month of issue with the year of issue of the record
-
+    private final int serialNumber;
+    /**
+     * Component 2 of customer number: the month of issue of the record, 1 to 12.
+     */
+    private final int monthOfIssue;
     /**
-     * Random serial number generator used for generating serial number for component 1 of customer number.
-     * @see Random
+     * Component 2 of customer number: the year of issue of the record.
      */
-    private static Random random = new Random(); //random generator for generating serial number used in componentCustomerNumber1
+    private final int yearOfIssue;
 
     //private constructor to ensure uniqueness, client can't see it
 
     /**
-     * Constructs a customer number from specified first name and date of record issue.
-     * @param firstName first name of the customer needed for component 1 of the customer number
-     * @param dateRecordIssued date of record issue, needed for component 2 of the customer number
+     * Constructs a customer number from its components.
+     * @param initial initial of the first name of the customer, component 1 of the customer number
+     * @param serialNumber serial number, component 1 of the customer number
+     * @param monthOfIssue month of record issue, component 2 of the customer number
+     * @param yearOfIssue year of record issue, component 2 of the customer number
      */
-    private CustomerNumber(String firstName, Date dateRecordIssued)
+    private CustomerNumber(char initial, int serialNumber, int monthOfIssue, int yearOfIssue)
     {
-        componentCustomerNumber1 = firstName.substring(0, 1) + random.nextInt(100); //first letter of the firstName, and random number up to two digits
-        componentCustomerNumber2 = getComponentCustomerNumber2(dateRecordIssued); //date of record issue passed to the generator method
+        this.initial = initial;
+        this.serialNumber = serialNumber;
+        this.monthOfIssue = monthOfIssue;
+        this.yearOfIssue = yearOfIssue;
     }
 
-    //generator method to create a string concatenation of month and year for component customer no 2
+    //static factory method ensuring uniqueness
     /**
-     * Generates component 2 of the customer number from the specified date of record issue.
-     * @param dateRecordIssued specified date of reccord issue
-     * @return String representation of component 2 of the customer number
+     * Factory method for getting immutable, unique customer number instances from the specified customer first name and date of record issue.
+     * Thread-safe, the serial number is taken from an atomic counter per initial and month of issue.
+     * @param firstName specified customer first name
+     * @param dateRecordIssued specified date of record issue
+     * @return instance of a unique, immutable customer number
+     * @throws IllegalArgumentException if all serial numbers of the initial and month of issue are used
      */
-    private String getComponentCustomerNumber2(Date dateRecordIssued)
+    public static CustomerNumber getCustomerNumberInstance(String firstName, Date dateRecordIssued) throws IllegalArgumentException
     {
         Calendar calendar = Calendar.getInstance(); //local calendar instance
         calendar.setTime(dateRecordIssued); //set calendar to the dateOfIssue from parameter
-
+        char initial = firstName.charAt(0); //first letter of the firstName
         int monthNumber = calendar.get(Calendar.MONTH) + 1; //get int month from calendar, month indexes start from 0 so increment by 1
         int yearNumber = calendar.get(Calendar.YEAR); //get int year from calendar
 
-        return String.valueOf(monthNumber) + yearNumber; //return as a String
+        AtomicInteger lastSerial = LAST_SERIALS.computeIfAbsent(getSerialKey(initial, monthNumber, yearNumber), key -> new AtomicInteger());
+        int serialNumber = lastSerial.incrementAndGet(); //next serial number, first is 1
+        if (serialNumber <= 0) //int serial numbers used up
+        {
+            lastSerial.set(Integer.MAX_VALUE); //keep the counter from wrapping back to used serial numbers
+            throw new IllegalArgumentException("No more unique customer numbers can be generated for initial " + initial + " in " + monthNumber + "/" + yearNumber);
+        }
+        return new CustomerNumber(initial, serialNumber, monthNumber, yearNumber);
     }
 
-    //static factory method ensuring uniqueness
     /**
-     * Factory method for getting immutable, unique customer number instances from the specified customer first name and date of record issue.
-     * @param firstName specified customer first name
-     * @param dateRecordIssued specified date of record issue
-     * @return instance of a unique, immutable customer number
+     * Returns the customer number with the specified components, used to restore customer records from a journal.
+     * The serial number counter of the initial and month of issue is moved past the serial number, so it is not issued again.
+     * @param initial initial of the first name of the customer
+     * @param serialNumber serial number, 1 or more
+     * @param monthOfIssue month of issue, 1 to 12
+     * @param yearOfIssue year of issue
+     * @return customer number with the specified components
+     * @throws IllegalArgumentException if a component is out of range
      */
-    public static CustomerNumber getCustomerNumberInstance(String firstName, Date dateRecordIssued)
+    static CustomerNumber getCustomerNumberInstance(char initial, int serialNumber, int monthOfIssue, int yearOfIssue) throws IllegalArgumentException
     {
-        CustomerNumber customerNumberInstance = new CustomerNumber(firstName, dateRecordIssued);
-        boolean isUnique; //local boolean used to ensure unique customer number instance
-        isUnique = CUSTOMER_NUMBERS.add(customerNumberInstance); //add to set, true if unique and added to the set, false otherwise
+        if (serialNumber <= 0 || monthOfIssue < 1 || monthOfIssue > 12)
+            throw new IllegalArgumentException("Invalid customer number: " + initial + serialNumber + "." + monthOfIssue + yearOfIssue);
+        advanceLastSerial(getSerialKey(initial, monthOfIssue, yearOfIssue), serialNumber);
+        return new CustomerNumber(initial, serialNumber, monthOfIssue, yearOfIssue);
+    }
 
-        while (isUnique == false) //while loop until uniqueness achieved (serial number generator)
+    /**
+     * Returns a copy of the serial number counters, used to save the generator position in a snapshot.
+     * @return last serial number allocated per counter key, see getSerialKey(char, int, int)
+     */
+    static Map<Long, Integer> getLastSerials()
+    {
+        Map<Long, Integer> lastSerials = new HashMap<Long, Integer>();
+        for (Map.Entry<Long, AtomicInteger> entry : LAST_SERIALS.entrySet())
         {
-            customerNumberInstance = new CustomerNumber(firstName, dateRecordIssued); //new customer number
-            isUnique = CUSTOMER_NUMBERS.add(customerNumberInstance); //add to set, if is unique the boolean reassigned and while loop stops
+            lastSerials.put(entry.getKey(), entry.getValue().get());
         }
-        return customerNumberInstance;
+        return lastSerials;
+    }
+
+    /**
+     * Moves a serial number counter to at least the specified serial number, used to restore the generator position from a snapshot.
+     * @param serialKey counter key, see getSerialKey(char, int, int)
+     * @param lastSerial last serial number allocated
+     */
+    static void advanceLastSerial(long serialKey, int lastSerial)
+    {
+        LAST_SERIALS.computeIfAbsent(serialKey, key -> new AtomicInteger()).accumulateAndGet(lastSerial, Math::max); //never moves the counter back
+    }
+
+    /**
+     * Returns the key of the serial number counter of an initial and month of issue.
+     * @param initial initial of the first name
+     * @param monthOfIssue month of issue, 1 to 12
+     * @param yearOfIssue year of issue
+     * @return counter key packing the initial, year and month
+     */
+    private static long getSerialKey(char initial, int monthOfIssue, int yearOfIssue)
+    {
+        return ((long) initial << 32) | (yearOfIssue * 12L + monthOfIssue - 1);
+    }
+
+    /**
+     * Returns component 1 of the customer number: the initial of the first name of the customer.
+     * @return initial
+     */
+    char getInitial()
+    {
+        return initial;
+    }
+
+    /**
+     * Returns component 1 of the customer number: the serial number.
+     * @return serial number
+     */
+    int getSerialNumber()
+    {
+        return serialNumber;
+    }
+
+    /**
+     * Returns component 2 of the customer number: the month of issue.
+     * @return month of issue, 1 to 12
+     */
+    int getMonthOfIssue()
+    {
+        return monthOfIssue;
+    }
+
+    /**
+     * Returns component 2 of the customer number: the year of issue.
+     * @return year of issue
+     */
+    int getYearOfIssue()
+    {
+        return yearOfIssue;
     }
 
     /**
@@ -89,15 +177,56 @@ public class CustomerNumber implements Comparable<CustomerNumber> {
     @Override
     public String toString()
     {
-        return componentCustomerNumber1 + "." + componentCustomerNumber2;
+        return String.valueOf(initial) + serialNumber + "." + monthOfIssue + yearOfIssue;
+    }
+
+    /**
+     * Returns logical equivalence of customer numbers based on all their components.
+     * @param otherCustomerNumber object to compare
+     * @return true if logically the same, false otherwise
+     */
+    @Override
+    public boolean equals(Object otherCustomerNumber)
+    {
+        if (this == otherCustomerNumber) return true; // reflexivity
+        if (!(otherCustomerNumber instanceof CustomerNumber)) return false; // non-nullity
+        CustomerNumber c = (CustomerNumber) otherCustomerNumber; // consistency
+        return initial == c.initial
+                && serialNumber == c.serialNumber
+                && monthOfIssue == c.monthOfIssue
+                && yearOfIssue == c.yearOfIssue;
+    }
+
+    /**
+     * Returns a hash code value for the object.
+     * @return hash code value for this distinct object
+     */
+    @Override
+    public int hashCode()
+    {
+        int hc = 17;
+        int multiplier = 37;
+        hc = multiplier * hc + initial;
+        hc = multiplier * hc + serialNumber;
+        hc = multiplier * hc + monthOfIssue;
+        hc = multiplier * hc + yearOfIssue;
+
+        return hc;
     }
 
     /**
-     * Compares CustomerNumber string representation.
+     * Compares CustomerNumber components: initial and serial number, then year and month of issue.
      * @param otherCustomerNumber the CustomerNumber to be compared
      * @return a negative integer, zero, or a positive integer as this CustomerNumber is less than, equal to, or greater than the specified CustomerNumber.
      */
     public int compareTo(CustomerNumber otherCustomerNumber) {
-        return this.toString().compareTo(otherCustomerNumber.toString());
+        int result = Character.compare(initial, otherCustomerNumber.initial);
+        if (result == 0)
+            result = Integer.compare(serialNumber, otherCustomerNumber.serialNumber);
+        if (result == 0)
+            result = Integer.compare(yearOfIssue, otherCustomerNumber.yearOfIssue);
+        if (result == 0)
+            result = Integer.compare(monthOfIssue, otherCustomerNumber.monthOfIssue);
+        return result;
     }
 }
@@ -1,4 +1,3 @@
-import java.util.Calendar;
 import java.util.Date;
 
 /**
@@ -33,22 +32,61 @@ public final class CustomerRecord extends CustomerRecordFactory implements Compa
         super(firstName, lastName, dob);
     }
 
+    /**
+     * CustomerRecord constructor for a customer record restored with its customer number and date of issue
+     * @param firstName first name of a customer
+     * @param lastName last name of a customer
+     * @param dob date of birth of a customer
+     * @param dateIssuedRecord date of customer record issue
+     * @param hasGarden whether the customer has a garden true or false
+     * @param customerNumber customer number issued with the record
+     */
+    CustomerRecord(String firstName, String lastName, Date dob, Date dateIssuedRecord, boolean hasGarden, CustomerNumber customerNumber)
+    {
+        super(firstName, lastName, dob, dateIssuedRecord, customerNumber);
+        this.setHasGarden(hasGarden);
+    }
+
     /**
      * @see Customer#ageCalculator()
      */
     public int ageCalculator() {
-        //Setting calendars
-        Calendar calendarNow = Calendar.getInstance(); //calendar with current date
-        Calendar calendarDOB = Calendar.getInstance(); //calendar for date of birth
-        calendarDOB.setTime(getCustomerDOB()); //calendarDOB set to date of birth from the customer record
-
-        //Calculating age using calendars with conditional if birthday is later than current date in the current year
-        int age = calendarNow.get(Calendar.YEAR) - calendarDOB.get(Calendar.YEAR); //age based on years
-        age -= (calendarNow.get(Calendar.DAY_OF_YEAR) < calendarDOB.get(Calendar.DAY_OF_YEAR)) ? 1 : 0; //actual age, based on full DOB
+        return ageOn(Today.get()); //cached date, nothing allocated
+    }
 
+    /**
+     * Returns the customer's age on the specified date.
+     * @param today date of interest
+     * @return age in full years, birthday counted from its month and day so leap years do not shift it
+     */
+    int ageOn(Today today) {
+        int age = today.getYear() - getCustomerBirthYear(); //age based on years
+        age -= (today.getMonthDay() < getCustomerBirthMonthDay()) ? 1 : 0; //actual age, birthday not reached yet this year
         return age;
     }
 
+    /**
+     * Returns the customer's age for the adoption rules, capped at 21 as no rule depends on older ages.
+     * Uses the precomputed 18th and 21st birthdays, so an adult costs two comparisons.
+     * @return 21 from the 21st birthday, 18 from the 18th birthday, the age otherwise
+     */
+    int adoptionAge() {
+        return adoptionAgeOn(Today.get());
+    }
+
+    /**
+     * Returns the customer's age for the adoption rules on the specified date, see adoptionAge().
+     * @param today date of interest
+     * @return 21 from the 21st birthday, 18 from the 18th birthday, the age otherwise
+     */
+    int adoptionAgeOn(Today today) {
+        long epochDay = today.getEpochDay();
+        if (epochDay >= getCustomerEpochDay21())
+            return 21;
+        if (epochDay >= getCustomerEpochDay18())
+            return 18;
+        return ageOn(today);
+    }
 
     /**
      * Compares CustomerRecord based on CustomerNumber.
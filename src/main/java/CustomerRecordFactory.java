@@ -1,3 +1,6 @@
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -25,6 +28,26 @@ public abstract class CustomerRecordFactory implements Customer {
      */
     private final Date customerDOB;
 
+    /**
+     * Year of the customer's date of birth in the default time zone.
+     */
+    private final int customerBirthYear;
+
+    /**
+     * Month and day of the customer's date of birth, see Today.monthDayOf(int, int).
+     */
+    private final int customerBirthMonthDay;
+
+    /**
+     * Epoch day of the customer's 18th birthday.
+     */
+    private final long customerEpochDay18;
+
+    /**
+     * Epoch day of the customer's 21st birthday.
+     */
+    private final long customerEpochDay21;
+
     /**
      * Unique, immutable customer number.
      */
@@ -55,24 +78,59 @@ public abstract class CustomerRecordFactory implements Customer {
      * @param dob date of birth
      */
     CustomerRecordFactory(String firstName, String lastName, Date dob)
+    {
+        this(firstName, lastName, dob, new Date(), customerNumberInstance);
+    }
+
+    /**
+     * Initialising state of common variables of a customer record restored from a journal.
+     * @param firstName first name of the customer
+     * @param lastName last name of the customer
+     * @param dob date of birth
+     * @param dateIssuedRecord date of customer record issue
+     * @param customerNumber customer number issued with the record
+     */
+    CustomerRecordFactory(String firstName, String lastName, Date dob, Date dateIssuedRecord, CustomerNumber customerNumber)
     {
         customerName = new Name(firstName, lastName);
         customerDOB = new Date(dob.getTime());
-        customerNumber = customerNumberInstance;
-        customerDateIssuedRecord = new Date();
+        this.customerNumber = customerNumber;
+        customerDateIssuedRecord = new Date(dateIssuedRecord.getTime());
+
+        //birth date and birthdays as primitives, age checks need no calendar
+        LocalDate birthDate = Instant.ofEpochMilli(dob.getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+        customerBirthYear = birthDate.getYear();
+        customerBirthMonthDay = Today.monthDayOf(birthDate.getMonthValue(), birthDate.getDayOfMonth());
+        customerEpochDay18 = birthdayEpochDay(birthDate, 18);
+        customerEpochDay21 = birthdayEpochDay(birthDate, 21);
+    }
 
+    /**
+     * Returns the epoch day the customer reaches the specified age.
+     * A customer born on 29th February reaches it on 1st March if the birthday year is not a leap year.
+     * @param birthDate date of birth
+     * @param age age in years
+     * @return epoch day of the birthday
+     */
+    private static long birthdayEpochDay(LocalDate birthDate, int age)
+    {
+        LocalDate birthday = birthDate.plusYears(age); //29th February moves to 28th February
+        if (birthday.getDayOfMonth() != birthDate.getDayOfMonth())
+            birthday = birthday.plusDays(1);
+        return birthday.toEpochDay();
     }
 
     //factory method
     /**
      * Factory method creating unique instances of customer records with unique customer number per customer.
+     * Synchronized as the customer number instance and the map of customer records are shared by all threads.
      * @param firstName first name of the customer
      * @param lastName last name of the customer
      * @param dob date of birth
      * @param hasGarden indicating if customer has a garden
      * @return unique instance of a customer record, based on customer number-customer record
      */
-    public static CustomerRecord getCustomerRecordInstance(String firstName, String lastName, Date dob, Boolean hasGarden)
+    public static synchronized CustomerRecord getCustomerRecordInstance(String firstName, String lastName, Date dob, Boolean hasGarden)
     {
         final Date dateIssuedNow = new Date(); //date of issue won't be changed during the method execution
 
@@ -91,6 +149,24 @@ public abstract class CustomerRecordFactory implements Customer {
         return (CustomerRecord) customerRecord;
     }
 
+    /**
+     * Factory method restoring a customer record with the specified customer number and date of issue, e.g. from a journal.
+     * @param firstName first name of the customer
+     * @param lastName last name of the customer
+     * @param dob date of birth
+     * @param dateIssuedRecord date of customer record issue
+     * @param hasGarden indicating if customer has a garden
+     * @param customerNumber customer number issued with the record
+     * @return customer record registered with the specified customer number
+     */
+    static synchronized CustomerRecord restoreCustomerRecordInstance(String firstName, String lastName, Date dob, Date dateIssuedRecord,
+                                                                     boolean hasGarden, CustomerNumber customerNumber)
+    {
+        CustomerRecord customerRecord = new CustomerRecord(firstName, lastName, dob, dateIssuedRecord, hasGarden, customerNumber);
+        CUSTOMER_RECORDS.put(customerNumber, customerRecord); //restored customer number is registered like a newly issued one
+        return customerRecord;
+    }
+
     /**
      * @see Customer#getCustomerName()
      */
@@ -107,6 +183,42 @@ public abstract class CustomerRecordFactory implements Customer {
         return (Date) customerDOB.clone(); //defensive copy to ensure immutability
     }
 
+    /**
+     * Returns the year of the customer's date of birth.
+     * @return birth year
+     */
+    int getCustomerBirthYear()
+    {
+        return customerBirthYear;
+    }
+
+    /**
+     * Returns the month and day of the customer's date of birth, see Today.monthDayOf(int, int).
+     * @return birth month and day
+     */
+    int getCustomerBirthMonthDay()
+    {
+        return customerBirthMonthDay;
+    }
+
+    /**
+     * Returns the epoch day of the customer's 18th birthday.
+     * @return epoch day
+     */
+    long getCustomerEpochDay18()
+    {
+        return customerEpochDay18;
+    }
+
+    /**
+     * Returns the epoch day of the customer's 21st birthday.
+     * @return epoch day
+     */
+    long getCustomerEpochDay21()
+    {
+        return customerEpochDay21;
+    }
+
     /**
      * @see Customer#getDateIssuedRecord()
      */
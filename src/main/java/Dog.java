@@ -6,27 +6,43 @@
 final class Dog extends PetFactory implements Trainable {
 
     /**
-     * Training status of a Dog. Initialised to false in the constructor.
+     * Care instructions of a new dog.
      */
-    private boolean trained; //mutable using setTrained(boolean)
+    static final String CARE_INSTRUCTIONS = "Feed three times a day, walk once a day.";
+
+    /**
+     * Training status of a new Dog. Initialised to false in the constructor.
+     */
+    private volatile boolean trained; //mutable using setTrained(boolean), volatile so a change is visible to all adoption desks
 
     /**
      * Constructs a Dog that is "Not adopted" and "Not trained" with care instructions "Feed three times a day, walk once a day.".
+     * @param petID unique PetID of the dog
      */
-    Dog()
+    Dog(PetID petID)
     {
-        super(); //PetFactory constructor
-        setCareInstructions("Feed three times a day, walk once a day."); //Dog-specific
+        super(petID); //PetFactory constructor
+        setCareInstructions(CARE_INSTRUCTIONS); //Dog-specific
         trained = false; //Dog-specific
     }
 
+    /**
+     * Constructs a Dog that is a view over a row of a store.
+     * @param store store of the dog
+     * @param row row of the dog
+     */
+    Dog(PetStore store, int row)
+    {
+        super(store, row);
+    }
+
     /**
      * @see Trainable#getTrained()
      * @return true if dog is trained and false otherwise
      */
     public boolean getTrained()
     {
-        return trained;
+        return (getStore() != null) ? getStore().isTrained(getRow()) : trained;
     }
 
     /**
@@ -37,13 +53,27 @@ final class Dog extends PetFactory implements Trainable {
     }
 
     /**
+     * Sets the training status of a new dog. The training status of a dog in a shelter is set by ShelterManager.updatePetRecord(PetID, Boolean),
+     * which also updates the pet counts and the journal.
      * @see Trainable#setTrained(boolean)
+     * @throws UnsupportedOperationException if the dog is in a shelter or a view
      */
-    public void setTrained(boolean trainedUpdate)
+    public void setTrained(boolean trainedUpdate) throws UnsupportedOperationException
     {
+        if (getStore() != null)
+            throw new UnsupportedOperationException("Training status of dog " + getPetID() + " is set by ShelterManager.updatePetRecord(PetID, Boolean)");
         this.trained = trainedUpdate;
     }
 
+    /**
+     * @see PetFactory#getTypeCode()
+     */
+    @Override
+    byte getTypeCode()
+    {
+        return PetStore.DOG;
+    }
+
 
     @Override
     public String toString() {
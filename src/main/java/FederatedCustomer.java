@@ -0,0 +1,83 @@
+/**
+ * FederatedCustomer - immutable reference to a customer registered in a shelter federation: the customer number
+ * and the index of the home shard that holds the customer record and routes the customer's adoptions.
+ * Customer numbers are unique within a shard, so a customer is identified by both.
+ * @see ShelterFederation#addCustomerRecord(String, String, java.util.Date, Boolean)
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public final class FederatedCustomer {
+
+    /**
+     * Index of the home shard of the customer.
+     */
+    private final int shardIndex;
+    /**
+     * String representation of the customer number issued by the home shard.
+     */
+    private final String customerNumber;
+
+    /**
+     * Constructs a reference to a customer of the specified shard.
+     * @param shardIndex index of the home shard
+     * @param customerNumber customer number issued by the home shard
+     */
+    FederatedCustomer(int shardIndex, String customerNumber)
+    {
+        this.shardIndex = shardIndex;
+        this.customerNumber = customerNumber;
+    }
+
+    /**
+     * Returns the index of the home shard of the customer.
+     * @return shard index, 0 or more
+     */
+    public int getShardIndex()
+    {
+        return shardIndex;
+    }
+
+    /**
+     * Returns the customer number issued by the home shard.
+     * @return String representation of the customer number
+     */
+    public String getCustomerNumber()
+    {
+        return customerNumber;
+    }
+
+    /**
+     * Compares the customer with another object.
+     * @see Object#equals(Object)
+     */
+    @Override
+    public boolean equals(Object otherCustomer)
+    {
+        if (this == otherCustomer)
+            return true;
+        if (!(otherCustomer instanceof FederatedCustomer))
+            return false;
+        FederatedCustomer other = (FederatedCustomer) otherCustomer;
+        return shardIndex == other.shardIndex && customerNumber.equals(other.customerNumber);
+    }
+
+    /**
+     * Returns a hash code of the customer.
+     * @see Object#hashCode()
+     */
+    @Override
+    public int hashCode()
+    {
+        return 31 * shardIndex + customerNumber.hashCode();
+    }
+
+    /**
+     * Returns a string representation of the customer, e.g. "J10.12024@1".
+     * @see Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return customerNumber + "@" + shardIndex;
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * LetterSerialPetIDFormat - default PetID display format, a single letter followed by a serial number.
+ * The first 2600 PetIDs have the original format of a letter followed by a two-digit number, A00 to Z99.
+ * Once Z99 is reached the serial number gets one digit wider and starts again from letter A (A100 to Z999, then A1000 to Z9999, and so on),
+ * so every String representation is unique and PetIDs in the original format are still accepted.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public final class LetterSerialPetIDFormat implements PetIDFormat {
+
+    /**
+     * Number of letters used for component 1, A to Z.
+     */
+    private static final int NO_OF_LETTERS = 26;
+    /**
+     * Number of serial number widths needed to cover all int PetID values, widths 2 to 8.
+     */
+    private static final int NO_OF_WIDTHS = 7;
+    /**
+     * First PetID value of each serial number width, index 0 is the original two-digit format.
+     */
+    private static final long[] WIDTH_START = new long[NO_OF_WIDTHS];
+    /**
+     * First serial number of each width, 0 for two digits, then 100, 1000...
+     */
+    private static final long[] WIDTH_FIRST_SERIAL = new long[NO_OF_WIDTHS];
+    /**
+     * Number of serial numbers per letter of each width, 100 for two digits, then 900, 9000...
+     */
+    private static final long[] WIDTH_SERIALS = new long[NO_OF_WIDTHS];
+
+    static
+    {
+        WIDTH_SERIALS[0] = 100; //A00 to A99
+        for (int i = 1; i < NO_OF_WIDTHS; i++)
+        {
+            WIDTH_START[i] = WIDTH_START[i - 1] + NO_OF_LETTERS * WIDTH_SERIALS[i - 1]; //after Z of the previous width
+            WIDTH_FIRST_SERIAL[i] = (i == 1) ? 100 : WIDTH_FIRST_SERIAL[i - 1] * 10; //no leading zeros
+            WIDTH_SERIALS[i] = 9 * WIDTH_FIRST_SERIAL[i];
+        }
+    }
+
+    /**
+     * Returns the serial number width index of the PetID with the specified value.
+     * @param value packed int value of a PetID
+     * @return width index, 0 for the original two-digit format
+     */
+    private static int getWidthIndex(int value)
+    {
+        int i = 0;
+        while (i + 1 < NO_OF_WIDTHS && value >= WIDTH_START[i + 1])
+            i++;
+        return i;
+    }
+
+    /**
+     * Returns component 1 of the PetID with the specified value, a single letter.
+     * @param value packed int value of a PetID
+     * @return letter A to Z
+     */
+    static char getLetter(int value)
+    {
+        int i = getWidthIndex(value);
+        return (char) ('A' + (value - WIDTH_START[i]) / WIDTH_SERIALS[i]);
+    }
+
+    /**
+     * Returns component 2 of the PetID with the specified value, a serial number.
+     * @param value packed int value of a PetID
+     * @return serial number, 0 to 99 in the original format
+     */
+    static long getSerial(int value)
+    {
+        int i = getWidthIndex(value);
+        return WIDTH_FIRST_SERIAL[i] + (value - WIDTH_START[i]) % WIDTH_SERIALS[i];
+    }
+
+    /**
+     * @see PetIDFormat#format(int)
+     */
+    public String format(int value)
+    {
+        long serial = getSerial(value);
+        return getLetter(value) + ((serial < 10) ? "0" : "") + serial; //two-digit number in the original format
+    }
+
+    /**
+     * @see PetIDFormat#parse(String)
+     */
+    public int parse(String stringPetID) throws IllegalArgumentException
+    {
+        int i = (stringPetID == null) ? -1 : stringPetID.length() - 3; //width index from the number of digits
+        if (i < 0 || i >= NO_OF_WIDTHS)
+            throw new IllegalArgumentException("Invalid PetID: " + stringPetID);
+
+        char letter = stringPetID.charAt(0);
+        String digits = stringPetID.substring(1);
+        if (letter < 'A' || letter > 'Z' || !digits.chars().allMatch(c -> c >= '0' && c <= '9'))
+            throw new IllegalArgumentException("Invalid PetID: " + stringPetID);
+        if (i > 0 && digits.charAt(0) == '0') //wider formats have no leading zeros
+            throw new IllegalArgumentException("Invalid PetID: " + stringPetID);
+
+        long value = WIDTH_START[i] + (letter - 'A') * WIDTH_SERIALS[i] + (Long.parseLong(digits) - WIDTH_FIRST_SERIAL[i]);
+        if (value > Integer.MAX_VALUE) //beyond the last PetID
+            throw new IllegalArgumentException("Invalid PetID: " + stringPetID);
+        return (int) value;
+    }
+}
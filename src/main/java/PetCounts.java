@@ -0,0 +1,153 @@
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * PetCounts - immutable snapshot of the number of pets in the shelter register per pet type and per status (adopted, trained).
+ * Use ShelterManager.getPetCounts() to get an instance.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public final class PetCounts {
+
+    //count cell indexes, a cell is (adopted ? 2 : 0) + (trained ? 1 : 0)
+    /**
+     * Cell of pets that are not adopted and not trained.
+     */
+    static final int AVAILABLE_UNTRAINED = 0;
+    /**
+     * Cell of pets that are not adopted and trained.
+     */
+    static final int AVAILABLE_TRAINED = 1;
+    /**
+     * Cell of pets that are adopted and not trained.
+     */
+    static final int ADOPTED_UNTRAINED = 2;
+    /**
+     * Cell of pets that are adopted and trained.
+     */
+    static final int ADOPTED_TRAINED = 3;
+    /**
+     * Number of count cells per pet type.
+     */
+    static final int NO_OF_CELLS = 4;
+
+    /**
+     * Copy of the count cells, mapped by lower-case pet type.
+     */
+    private final Map<String, int[]> counts;
+
+    /**
+     * Constructs a snapshot by copying the specified count cells.
+     * @param liveCounts count cells per lower-case pet type, copied so later updates are not visible
+     */
+    PetCounts(Map<String, int[]> liveCounts) //package-private constructor
+    {
+        counts = new HashMap<String, int[]>();
+        for (Map.Entry<String, int[]> entry : liveCounts.entrySet())
+        {
+            counts.put(entry.getKey(), entry.getValue().clone()); //defensive copy to ensure immutability
+        }
+    }
+
+    /**
+     * Returns the count cell index for a pet with the specified status.
+     * @param adopted adoption status of the pet
+     * @param trained training status of the pet, false for pets that cannot be trained
+     * @return count cell index
+     */
+    static int cellOf(boolean adopted, boolean trained)
+    {
+        return (adopted ? 2 : 0) + (trained ? 1 : 0);
+    }
+
+    /**
+     * Returns the lower-case pet types that have at least one pet in the snapshot.
+     * @return unmodifiable Set of pet types
+     */
+    public Set<String> getPetTypes()
+    {
+        return Collections.unmodifiableSet(counts.keySet());
+    }
+
+    /**
+     * Returns the number of pets of the specified type (adopted or not).
+     * @param petType specified pet type (case-insensitive)
+     * @return number of pets of the specified type, 0 for unknown pet types
+     */
+    public int getTotal(String petType)
+    {
+        return getAvailable(petType) + getAdopted(petType);
+    }
+
+    /**
+     * Returns the number of pets of the specified type that are not adopted.
+     * @param petType specified pet type (case-insensitive)
+     * @return number of available pets of the specified type
+     */
+    public int getAvailable(String petType)
+    {
+        return count(petType, AVAILABLE_UNTRAINED) + count(petType, AVAILABLE_TRAINED);
+    }
+
+    /**
+     * Returns the number of pets of the specified type that are not adopted and are trained.
+     * @param petType specified pet type (case-insensitive)
+     * @return number of available trained pets of the specified type
+     */
+    public int getAvailableTrained(String petType)
+    {
+        return count(petType, AVAILABLE_TRAINED);
+    }
+
+    /**
+     * Returns the number of pets of the specified type that are adopted.
+     * @param petType specified pet type (case-insensitive)
+     * @return number of adopted pets of the specified type
+     */
+    public int getAdopted(String petType)
+    {
+        return count(petType, ADOPTED_UNTRAINED) + count(petType, ADOPTED_TRAINED);
+    }
+
+    /**
+     * Returns the number of pets of the specified type that are trained (adopted or not).
+     * @param petType specified pet type (case-insensitive)
+     * @return number of trained pets of the specified type
+     */
+    public int getTrained(String petType)
+    {
+        return count(petType, AVAILABLE_TRAINED) + count(petType, ADOPTED_TRAINED);
+    }
+
+    /**
+     * Returns a single count cell of the specified pet type, e.g. to send the snapshot to another shelter.
+     * @param petType specified pet type (case-insensitive)
+     * @param cell count cell index
+     * @return count, 0 if there are no pets of the specified type
+     */
+    int count(String petType, int cell)
+    {
+        int[] petTypeCounts = counts.get(petType.toLowerCase());
+        return (petTypeCounts == null) ? 0 : petTypeCounts[cell];
+    }
+
+    /**
+     * Returns a string representation of the available and adopted counts of each pet type.
+     * @see Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        for (String petType : counts.keySet())
+        {
+            sb.append(petType).append(": ")
+                    .append(getAvailable(petType)).append(" available, ")
+                    .append(getAdopted(petType)).append(" adopted, ")
+                    .append(getTrained(petType)).append(" trained; ");
+        }
+        return sb.toString().trim();
+    }
+}
@@ -1,8 +1,10 @@
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * PetFactory - abstract implementation of Pet with a factory method for getting unique Pet instances .getPetInstance()
+ * A new Pet holds its own fields. Once added to a shelter, the shelter keeps the pet as a row of its PetStore and returns Pets that are views over the row.
  * @version 1.0 Date created: 12/02/2024
  * @author Robert Petecki
  */
@@ -19,95 +21,157 @@ public abstract class PetFactory implements Pet {
     public static final String DOG_PET = "dog";
 
 
-    //map of pet instances
-    /**
-     * Storing unique Pets based on their PetID, used for ensuring unique instances.
-     */
-    private static final Map<PetID, Pet> pets = new HashMap<PetID, Pet>();
-
-
     //fields
     /**
-     * Immutable, unique PetID.
+     * Store the pet is a row of, null for a new pet that is not yet in a shelter.
      */
-    private final PetID petID;
-    /**
-     * Storing PetID instance.
-     */
-    private static PetID petIDInstance;
+    private final PetStore store;
     /**
-     * Immutable pet type.
+     * Row of the pet in its store.
      */
-    private final String petType;
+    private final int row;
     /**
-     * Mutable adoption status.
+     * Immutable, unique PetID, null for a row of a store.
      */
-    private boolean isAdopted;
+    private final PetID petID;
     /**
-     * Adoption status String representation
+     * Mutable adoption status of a new pet, volatile so a change is visible to all adoption desks.
      */
-    private String isAdoptedString;
+    private volatile boolean isAdopted;
     /**
-     * Care instructions.
+     * Care instructions of a new pet.
      */
     private String careInstructions;
 
 
-    //package-private constructor
+    //package-private constructors
     /**
      * Assumes pet is not adopted when it's created.
+     * @param petID unique PetID of the pet
      */
-    PetFactory() {
+    PetFactory(PetID petID) {
         isAdopted = false;
-        petType = this.getClass().toString().substring(6);
-        petID = petIDInstance;
+        this.petID = petID;
+        store = null;
+        row = -1;
+    }
+
+    /**
+     * Constructs a view over a row of a store, reading and writing the columns of the row.
+     * @param store store of the pet
+     * @param row row of the pet
+     */
+    PetFactory(PetStore store, int row) {
+        this.store = store;
+        this.row = row;
+        petID = null;
     }
 
 
     //factory method
     /**
      * Creates a unique Pet instance of specified pet type.
+     * Each instance gets a newly allocated PetID, so instances are unique without keeping a map of all pets created.
      * @param petType specified pet type
-     * @return unique Pet instance with randomly generated unique PetID
+     * @return unique Pet instance with generated unique PetID
      */
     public static Pet getPetInstance(String petType)
     {
         petType = petType.toLowerCase(); //petType parameter is case-insensitive
 
-        petIDInstance = PetID.getPetIDInstance();
-
-        Pet pet = pets.get(petIDInstance); //ensuring single instance per pet ID
-
-        if (pet != null) //imposing uniqueness
-            return pet;
-
+        Pet pet;
         if (petType.equals(CAT_PET))
         {
-            pet = new Cat();
+            pet = new Cat(PetID.getPetIDInstance());
         }
         else if (petType.equals(DOG_PET))
         {
-            pet = new Dog();
+            pet = new Dog(PetID.getPetIDInstance());
         }
         else
         {
             throw new IllegalArgumentException("Invalid pet type: " + petType);
         }
 
-        //put pet in pets map
-        pets.put(pet.getPetID(), pet);
-        //System.out.println(pets); CODE TEST
-
         //return the instance
         return pet;
     }
 
+    /**
+     * Creates unique Pet instances for the specified intakes in one pass, allocating one block of consecutive PetIDs for all of them.
+     * @param intakes pet types, numbers and training status of the pets to create
+     * @return List of unique Pet instances in PetID order, following the order of the intakes
+     * @throws IllegalArgumentException if the total number of pets is too large or no more unique PetIDs can be generated
+     */
+    public static List<Pet> getPetInstances(Collection<PetIntake> intakes) throws IllegalArgumentException
+    {
+        int totalCount = 0;
+        for (PetIntake intake : intakes)
+        {
+            totalCount += intake.getCount();
+            if (totalCount < 0) //int overflow
+                throw new IllegalArgumentException("Too many pets in one intake.");
+        }
+
+        int petIDValue = PetID.reservePetIDs(totalCount); //first PetID of the block
+        List<Pet> pets = new ArrayList<Pet>(totalCount);
+        for (PetIntake intake : intakes)
+        {
+            addPetInstances(intake, petIDValue, pets);
+            petIDValue += intake.getCount();
+        }
+        return pets;
+    }
+
+    /**
+     * Restores the Pet instances of an intake with the specified consecutive PetIDs, e.g. from a journal.
+     * The PetID counter is moved past the restored PetIDs, so they are not allocated again.
+     * @param intake pet type, number and training status of the pets
+     * @param firstPetIDValue value of the PetID of the first pet, 0 or more
+     * @return List of the restored Pet instances in PetID order
+     * @throws IllegalArgumentException if the PetIDs are out of range
+     */
+    static List<Pet> restorePetInstances(PetIntake intake, int firstPetIDValue) throws IllegalArgumentException
+    {
+        if (firstPetIDValue < 0 || firstPetIDValue > Integer.MAX_VALUE - intake.getCount())
+            throw new IllegalArgumentException("Invalid PetID value: " + firstPetIDValue);
+        List<Pet> pets = new ArrayList<Pet>(intake.getCount());
+        addPetInstances(intake, firstPetIDValue, pets);
+        PetID.advancePetIDs(firstPetIDValue + intake.getCount());
+        return pets;
+    }
+
+    /**
+     * Creates the Pet instances of an intake with consecutive PetIDs.
+     * @param intake pet type, number and training status of the pets
+     * @param petIDValue value of the PetID of the first pet
+     * @param pets List the created Pet instances are added to
+     */
+    private static void addPetInstances(PetIntake intake, int petIDValue, List<Pet> pets)
+    {
+        boolean isCat = intake.getPetType().equals(CAT_PET);
+        for (int i = 0; i < intake.getCount(); i++)
+        {
+            PetID petID = PetID.getPetIDInstance(petIDValue++);
+            if (isCat)
+            {
+                pets.add(new Cat(petID));
+            }
+            else
+            {
+                Dog dog = new Dog(petID);
+                dog.setTrained(intake.getTrained());
+                pets.add(dog);
+            }
+        }
+    }
+
     /**
      * @see Pet#getPetID()
      */
     public PetID getPetID()
     {
-        return petID;
+        return (store != null) ? store.getPetID(row) : petID;
     }
 
 
@@ -115,14 +179,14 @@ public abstract class PetFactory implements Pet {
      * @see Pet#getPetType()
      */
     public String getPetType() {
-        return petType;
+        return PetStore.petTypeNameOf(getTypeCode());
     }
 
     /**
      * @see Pet#getAdopted()
      */
     public boolean getAdopted() {
-        return isAdopted;
+        return (store != null) ? store.isAdopted(row) : isAdopted;
     }
 
     /**
@@ -133,10 +197,15 @@ public abstract class PetFactory implements Pet {
     }
 
     /**
+     * Sets the adoption status of a new pet. The adoption status of a pet in a shelter is set by ShelterManager.adoptPet(CustomerRecord, String),
+     * which also takes the pet out of its PetPool and updates the pet counts and the journal.
      * @see Pet#setAdopted(boolean)
+     * @throws UnsupportedOperationException if the pet is in a shelter or a view
      */
-    public void setAdopted(boolean adopted)
+    public void setAdopted(boolean adopted) throws UnsupportedOperationException
     {
+        if (store != null)
+            throw new UnsupportedOperationException("Adoption status of pet " + getPetID() + " is set by ShelterManager.adoptPet(CustomerRecord, String)");
         isAdopted = adopted;
     }
 
@@ -145,7 +214,7 @@ public abstract class PetFactory implements Pet {
      */
     public String getCareInstructions()
     {
-        return careInstructions;
+        return (store != null) ? store.getCareInstructions(row) : careInstructions;
     }
 
     /**
@@ -153,7 +222,59 @@ public abstract class PetFactory implements Pet {
      */
     public void setCareInstructions(String careInstructions)
     {
-        this.careInstructions = careInstructions;
+        if (store != null)
+            store.setCareInstructions(row, careInstructions);
+        else
+            this.careInstructions = careInstructions;
+    }
+
+    /**
+     * Returns the type code of the pet type.
+     * @return PetStore.CAT or PetStore.DOG
+     */
+    abstract byte getTypeCode();
+
+    /**
+     * Returns the store the pet is a row of.
+     * @return store, null for a new pet that is not yet in a shelter
+     */
+    PetStore getStore()
+    {
+        return store;
+    }
+
+    /**
+     * Returns the row of the pet in its store.
+     * @return row, -1 for a new pet that is not yet in a shelter
+     */
+    int getRow()
+    {
+        return row;
+    }
+
+    /**
+     * Returns true if the specified pet is a view over the same row of the same store.
+     * A new pet that is not yet in a shelter is only equal to itself.
+     * @see Object#equals(Object)
+     */
+    @Override
+    public boolean equals(Object other)
+    {
+        if (this == other)
+            return true;
+        if (store == null || !(other instanceof PetFactory))
+            return false;
+        PetFactory otherPet = (PetFactory) other;
+        return store == otherPet.store && row == otherPet.row;
+    }
+
+    /**
+     * @see Object#hashCode()
+     */
+    @Override
+    public int hashCode()
+    {
+        return (store != null) ? row : super.hashCode();
     }
 
     /**
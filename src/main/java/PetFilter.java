@@ -0,0 +1,120 @@
+/**
+ * PetFilter - immutable condition on the pet type, adoption status and training status of pets, each of which can be left open.
+ * For example new PetFilter("dog", false, true) selects the available trained dogs, and new PetFilter(null, true, null) all adopted pets.
+ * @see ShelterManager#noOfPets(PetFilter)
+ * @see ShelterManager#getPets(PetFilter)
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public final class PetFilter {
+
+    /**
+     * Value of a condition that accepts any pet.
+     */
+    static final int ANY = -1;
+
+    /**
+     * Lower-case pet type of the pets, null for any pet type.
+     */
+    private final String petType;
+    /**
+     * Adoption status of the pets, null for any adoption status.
+     */
+    private final Boolean adopted;
+    /**
+     * Training status of the pets, null for any training status.
+     */
+    private final Boolean trained;
+
+    /**
+     * Constructs a filter, a null condition accepts any pet.
+     * @param petType type of the pets, "dog" or "cat" (case-insensitive), or null
+     * @param adopted adoption status of the pets, or null
+     * @param trained training status of the pets, pets that cannot be trained are not trained, or null
+     * @throws IllegalArgumentException if the pet type is invalid
+     */
+    public PetFilter(String petType, Boolean adopted, Boolean trained) throws IllegalArgumentException
+    {
+        if (petType != null && !petType.toLowerCase().equals(PetFactory.CAT_PET) && !petType.toLowerCase().equals(PetFactory.DOG_PET))
+            throw new IllegalArgumentException("Invalid pet type: " + petType);
+        this.petType = (petType == null) ? null : petType.toLowerCase();
+        this.adopted = adopted;
+        this.trained = trained;
+    }
+
+    /**
+     * Returns the lower-case pet type of the pets.
+     * @return "cat", "dog" or null for any pet type
+     */
+    public String getPetType()
+    {
+        return petType;
+    }
+
+    /**
+     * Returns the adoption status of the pets.
+     * @return adoption status, null for any adoption status
+     */
+    public Boolean getAdopted()
+    {
+        return adopted;
+    }
+
+    /**
+     * Returns the training status of the pets.
+     * @return training status, null for any training status
+     */
+    public Boolean getTrained()
+    {
+        return trained;
+    }
+
+    /**
+     * Returns the type code of the pet type, see PetStore.typeCodeOf(String).
+     * @return PetStore.CAT, PetStore.DOG or ANY
+     */
+    int getTypeCode()
+    {
+        return (petType == null) ? ANY : PetStore.typeCodeOf(petType);
+    }
+
+    /**
+     * Returns the adoption status as 1 for adopted, 0 for not adopted.
+     * @return 1, 0 or ANY
+     */
+    int getAdoptedCode()
+    {
+        return codeOf(adopted);
+    }
+
+    /**
+     * Returns the training status as 1 for trained, 0 for not trained.
+     * @return 1, 0 or ANY
+     */
+    int getTrainedCode()
+    {
+        return codeOf(trained);
+    }
+
+    /**
+     * Returns a string representation of the filter.
+     * @see Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return ((adopted == null) ? "" : adopted ? "adopted " : "available ") +
+                ((trained == null) ? "" : trained ? "trained " : "untrained ") +
+                ((petType == null) ? "pets" : petType + "s");
+    }
+
+    /**
+     * Returns a condition as an int.
+     * @param condition condition, or null
+     * @return 1 for true, 0 for false, ANY for null
+     */
+    private static int codeOf(Boolean condition)
+    {
+        return (condition == null) ? ANY : condition ? 1 : 0;
+    }
+}
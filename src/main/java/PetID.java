@@ -1,8 +1,11 @@
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
- * PetID - class for generating unique, immutable PetIDs. PetID has the following format: A pet ID has two components - a single letter followed
- * by a two-digit number. For example: A00. Allows up to 2600 unique PetIDs.
+ * PetID - class for generating unique, immutable PetIDs. A PetID is a packed int value allocated in sequence, shown by a configurable
+ * display format. The default format has two components - a single letter followed by a serial number, for example: A00.
+ * The first 2600 PetIDs keep the original letter and two-digit number format (A00 to Z99), later PetIDs have wider serial numbers.
+ * PetIDs are allocated with an atomic counter, so they can be generated by many threads at the same time.
+ * @see LetterSerialPetIDFormat
  * @version 1.0 Date created: 12/02/2024
  * @author Robert Petecki
  */
@@ -11,123 +14,217 @@ public final class PetID implements Comparable<PetID> {
     //private and final fields to ensure immutability
 
     /**
-     * Storing unique PetIDs, mapped by their String representation
+     * Next PetID value to allocate, shared by all threads.
      */
-    private static final Map<String, PetID> PET_IDS = new HashMap<String, PetID>(); //map for imposing uniqueness
+    private static final AtomicInteger NEXT_VALUE = new AtomicInteger();
     /**
-     * Immutable component 1 of PetID - a single letter.
+     * Default display format, a letter and a serial number, that also accepts PetIDs in the original format.
      */
-    private final char componentPetID1;
+    private static final PetIDFormat DEFAULT_FORMAT = new LetterSerialPetIDFormat();
     /**
-     * Immutable component 2 of PetID - a two-digit number.
+     * Display format used by toString().
      */
-    private final int componentPetID2;
+    private static volatile PetIDFormat displayFormat = DEFAULT_FORMAT;
     /**
-     * Immutable String representation of PetID.
+     * Immutable packed value of PetID, unique per pet.
      */
-    private final String stringPetID;
+    private final int value;
+
+
+    //private constructor to ensure uniqueness, client can't use
     /**
-     * Character iteration for generating component 1 of PetID.
+     * Constructs an immutable PetID with the specified value.
+     * @param value packed int value
      */
-    private static char charComponentCount = 'A';
+    private PetID(int value)
+    {
+        this.value = value;
+    }
+
+    //static factory method ensuring uniqueness
     /**
-     * int iteration for generating component 2 of PetID
+     * Factory method for generating unique PetID instances.
+     * @return next unique PetID
+     * @throws IllegalArgumentException if no more unique PetIDs can be generated
      */
-    private static int intComponentCount = -1; //start at -1 to include 0 in the componentID2 instances
+    public static PetID getPetIDInstance() throws IllegalArgumentException
+    {
+        return new PetID(allocateValues(1));
+    }
 
+    /**
+     * Allocates a block of consecutive PetID values in one step, used for bulk intake of pets.
+     * @param count number of PetIDs to allocate, 0 or more
+     * @return value of the first PetID in the block, see getPetIDInstance(int)
+     * @throws IllegalArgumentException if no more unique PetIDs can be generated
+     */
+    static int reservePetIDs(int count) throws IllegalArgumentException
+    {
+        return allocateValues(count);
+    }
 
-    //private constructor to ensure uniqueness, client can't use
     /**
-     * Constructs a unique, immutable PetID.
+     * Returns the PetID with the specified value, used with values allocated by reservePetIDs(int).
+     * @param value packed int value, 0 or more
+     * @return PetID with the specified value
      */
-    private PetID()
+    static PetID getPetIDInstance(int value)
     {
-        int cID2 = generateComponentID(); //generator method
-        stringPetID = charComponentCount + String.format("%02d", intComponentCount); //String representation of PetID ensuring two-digit number format
-        componentPetID1 = charComponentCount; //component 1
-        componentPetID2 = cID2; //component 2
+        return new PetID(value);
+    }
 
+    /**
+     * Moves the PetID counter to at least the specified value, used after restoring pets from a journal,
+     * so PetIDs of restored pets are not allocated again.
+     * @param nextValue value of the next PetID to allocate
+     */
+    static void advancePetIDs(int nextValue)
+    {
+        NEXT_VALUE.accumulateAndGet(nextValue, Math::max); //never moves the counter back
     }
 
-    //static factory method ensuring uniqueness
     /**
-     * Factory method for generating unique PetID instances.
-     * @return
+     * Returns the value of the next PetID to allocate, used to save the generator position in a snapshot.
+     * @return next PetID value
+     */
+    static int getNextPetIDValue()
+    {
+        return NEXT_VALUE.get();
+    }
+
+    /**
+     * Returns the PetID with the specified String representation in the current display format or in the default format.
+     * PetIDs in the original format (A00 to Z99) are always accepted.
+     * @param stringPetID String representation of a PetID
+     * @return PetID equal to the PetID the String representation was made from
+     * @throws IllegalArgumentException if <code>stringPetID</code> is not a valid PetID
+     */
+    public static PetID valueOf(String stringPetID) throws IllegalArgumentException
+    {
+        int parsedValue;
+        try
+        {
+            parsedValue = displayFormat.parse(stringPetID);
+        }
+        catch (IllegalArgumentException e) //not in the current display format, try the default format
+        {
+            if (displayFormat == DEFAULT_FORMAT)
+                throw e;
+            parsedValue = DEFAULT_FORMAT.parse(stringPetID);
+        }
+        if (parsedValue < 0)
+            throw new IllegalArgumentException("Invalid PetID: " + stringPetID);
+        return new PetID(parsedValue);
+    }
+
+    /**
+     * Sets the display format used for the String representation of all PetIDs.
+     * @param format display format
+     * @throws NullPointerException if <code>format</code> is null
+     */
+    public static void setDisplayFormat(PetIDFormat format) throws NullPointerException
+    {
+        if (format == null)
+            throw new NullPointerException("PetID display format cannot be null.");
+        displayFormat = format;
+    }
+
+    /**
+     * Returns the display format used for the String representation of all PetIDs.
+     * @return display format
+     */
+    public static PetIDFormat getDisplayFormat()
+    {
+        return displayFormat;
+    }
+
+    //generator method for allocating unique values
+    /**
+     * Allocates the specified number of consecutive PetID values without locking.
+     * @param count number of values to allocate
+     * @return first allocated value
+     * @throws IllegalArgumentException if no more unique PetIDs can be generated
      */
-    public static PetID getPetIDInstance()
+    private static int allocateValues(int count) throws IllegalArgumentException
     {
-        String stringPetID = charComponentCount + "" + intComponentCount;
-        PetID petID = PET_IDS.get(stringPetID); //ensuring uniqueness
-        if (petID == null) //unique
+        while (true)
         {
-            petID = new PetID(); //unique pet id instance
-            PET_IDS.put(stringPetID, petID); //add to the map
+            int first = NEXT_VALUE.get();
+            if (first > Integer.MAX_VALUE - count) //int value space used up
+                throw new IllegalArgumentException("No more unique PetIDs can be generated");
+            if (NEXT_VALUE.compareAndSet(first, first + count)) //another thread may have allocated in the meantime, retry if so
+                return first;
         }
-        return petID;
     }
 
     //access to each component of PetID
 
     /**
      * Returns component 1 of PetID.
-     * @return componentPetID1
+     * @return single letter
      */
     public String getComponentID1()
     {
-        return String.valueOf(componentPetID1);
+        return String.valueOf(LetterSerialPetIDFormat.getLetter(value));
     }
 
     /**
      * Returns component 2 of PetID.
-     * @return componentPetID2
+     * @return serial number
      */
     public String getComponentID2()
     {
-        return String.valueOf(componentPetID2);
+        return String.valueOf(LetterSerialPetIDFormat.getSerial(value));
     }
 
-
-    //generator method for generating unique components
     /**
-     * Generates next component 2 of PetID and changes charComponentCount to the next char if 100 (not two-digit) reached.
-     * @return int
+     * Returns the packed int value of PetID, PetIDs are allocated in increasing value order.
+     * @return value
      */
-    private int generateComponentID()
+    int getValue()
     {
-        //back to -1 if reaches 100 as compID2 needs to be two digit
-        if(intComponentCount == 99)
-        {
-            intComponentCount = 0;
-            if (charComponentCount == 'Z')
-            {
-                throw new IllegalArgumentException("No more letters can be used to generate unique ID in the current ID format");
-            }
-            else
-            {
-                charComponentCount ++; //next letter when 100 reached
-            }
-            return intComponentCount;
-        }
-        intComponentCount++;
-        return intComponentCount;
+        return value;
     }
 
     /**
-     * Returns string representation of PetID
+     * Returns string representation of PetID in the current display format.
      * @return
      */
     @Override
     public String toString()
     {
-        return stringPetID;
+        return displayFormat.format(value);
+    }
+
+    /**
+     * Returns logical equivalence of PetIDs based on their value.
+     * @param otherPetID object to compare
+     * @return true if logically the same, false otherwise
+     */
+    @Override
+    public boolean equals(Object otherPetID)
+    {
+        if (this == otherPetID) return true; // reflexivity
+        if (!(otherPetID instanceof PetID)) return false; // non-nullity
+        return value == ((PetID) otherPetID).value;
+    }
+
+    /**
+     * Returns a hash code value for the object.
+     * @return hash code value for this distinct PetID
+     */
+    @Override
+    public int hashCode()
+    {
+        return value;
     }
 
     /**
-     * Overriden compareTo for TreeMap implementation in shelter manager, that compares two PetID String representations
+     * Overriden compareTo for sorted maps in shelter manager, that compares the values (order of allocation) of two PetIDs.
      * @param otherPetID other PetID to comnpare to.
      * @return a negative integer, zero, or a positive integer as this PetID is less than, equal to, or greater than the specified PetID.
      */
     public int compareTo(PetID otherPetID) {
-         return this.stringPetID.compareTo(otherPetID.stringPetID);
+         return Integer.compare(this.value, otherPetID.value);
     }
 }
@@ -0,0 +1,23 @@
+/**
+ * PetIDFormat - interface to a display format of PetIDs, converting between the packed int value of a PetID and its String representation.
+ * @see PetID#setDisplayFormat(PetIDFormat)
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public interface PetIDFormat {
+
+    /**
+     * Returns the String representation of the specified PetID value.
+     * @param value packed int value of a PetID, 0 or more
+     * @return String representation of the PetID
+     */
+    String format(int value);
+
+    /**
+     * Returns the PetID value of the specified String representation.
+     * @param stringPetID String representation of a PetID
+     * @return packed int value of the PetID
+     * @throws IllegalArgumentException if <code>stringPetID</code> is not a PetID in this format
+     */
+    int parse(String stringPetID) throws IllegalArgumentException;
+}
@@ -0,0 +1,89 @@
+/**
+ * PetIntake - immutable specification of a group of pets of one type arriving at the shelter together, e.g. from a transfer or seizure.
+ * @see ShelterManager#addPets(java.util.Collection)
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public final class PetIntake {
+
+    /**
+     * Lower-case pet type of the pets, "cat" or "dog".
+     */
+    private final String petType;
+    /**
+     * Number of pets.
+     */
+    private final int count;
+    /**
+     * Training status of the pets, only dogs can be trained.
+     */
+    private final boolean trained;
+
+    /**
+     * Constructs an intake of untrained pets.
+     * @param petType type of the pets, must be String "dog" or "cat" (case-insensitive)
+     * @param count number of pets, 0 or more
+     * @throws IllegalArgumentException if the pet type or count is invalid
+     */
+    public PetIntake(String petType, int count) throws IllegalArgumentException
+    {
+        this(petType, count, false);
+    }
+
+    /**
+     * Constructs an intake of pets with the specified training status.
+     * @param petType type of the pets, must be String "dog" or "cat" (case-insensitive)
+     * @param count number of pets, 0 or more
+     * @param trained training status of the pets, can be true only for dogs
+     * @throws IllegalArgumentException if the pet type or count is invalid, or cats are trained
+     */
+    public PetIntake(String petType, int count, boolean trained) throws IllegalArgumentException
+    {
+        if (petType == null || (!petType.toLowerCase().equals(PetFactory.CAT_PET) && !petType.toLowerCase().equals(PetFactory.DOG_PET)))
+            throw new IllegalArgumentException("Invalid pet type: " + petType);
+        if (count < 0)
+            throw new IllegalArgumentException("Number of pets cannot be negative: " + count);
+        if (trained && !petType.toLowerCase().equals(PetFactory.DOG_PET))
+            throw new IllegalArgumentException("Only dogs can be trained.");
+        this.petType = petType.toLowerCase();
+        this.count = count;
+        this.trained = trained;
+    }
+
+    /**
+     * Returns the lower-case pet type of the pets.
+     * @return "cat" or "dog"
+     */
+    public String getPetType()
+    {
+        return petType;
+    }
+
+    /**
+     * Returns the number of pets.
+     * @return number of pets
+     */
+    public int getCount()
+    {
+        return count;
+    }
+
+    /**
+     * Returns the training status of the pets.
+     * @return true if the pets are trained dogs, false otherwise
+     */
+    public boolean getTrained()
+    {
+        return trained;
+    }
+
+    /**
+     * Returns a string representation of the intake.
+     * @see Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return count + " " + (trained ? "trained " : "") + petType + (count == 1 ? "" : "s");
+    }
+}
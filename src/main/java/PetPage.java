@@ -0,0 +1,105 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * PetPage - immutable page of pets that match a PetFilter, in PetID order, with the cursor of the next page.
+ * The first page is requested with a null cursor, and each next page with the cursor of the page before:
+ * <pre>
+ * for (PetPage page = sm.getPets(filter, null, 50); ; page = sm.getPets(filter, page.getNextCursor(), 50))
+ * {
+ *     show(page.getPets());
+ *     if (!page.hasNextPage())
+ *         break;
+ * }
+ * </pre>
+ * A page starts after the PetID of its cursor, so pets added or changed between pages do not shift the following pages.
+ * @see ShelterManager#getPets(PetFilter, PetID, int)
+ * @see ShelterView#getPets(PetFilter, PetID, int)
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public final class PetPage {
+
+    /**
+     * Pets of the page in PetID order.
+     */
+    private final List<Pet> pets;
+    /**
+     * PetID of the last pet of the page, null if there is no next page.
+     */
+    private final PetID nextCursor;
+
+    /**
+     * Constructs a page.
+     * @param pets pets of the page in PetID order
+     * @param nextCursor cursor of the next page, null if there is none
+     */
+    private PetPage(List<Pet> pets, PetID nextCursor)
+    {
+        this.pets = pets;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Reads a page of the pets of a store that match a filter and come after a cursor.
+     * @param store pet register or view
+     * @param filter pet type, adoption status and training status of the pets, each can be left open
+     * @param cursor PetID the page starts after, null for the first page
+     * @param pageSize maximum number of pets of the page, 1 or more
+     * @return page of matching pets
+     * @throws IllegalArgumentException if the page size is less than 1
+     * @throws NullPointerException if the filter is null
+     */
+    static PetPage of(PetStore store, PetFilter filter, PetID cursor, int pageSize) throws IllegalArgumentException, NullPointerException
+    {
+        if (pageSize < 1)
+            throw new IllegalArgumentException("Invalid page size: " + pageSize);
+        int[] rows = store.findRows(filter, (cursor == null) ? -1 : cursor.getValue(), (pageSize == Integer.MAX_VALUE) ? pageSize : pageSize + 1); //one more row tells if there is a next page
+        int noOfPets = Math.min(rows.length, pageSize);
+        List<Pet> pets = new ArrayList<Pet>(noOfPets);
+        for (int i = 0; i < noOfPets; i++)
+        {
+            pets.add(store.petAt(rows[i])); //view over the row
+        }
+        PetID nextCursor = (rows.length > pageSize) ? pets.get(noOfPets - 1).getPetID() : null;
+        return new PetPage(Collections.unmodifiableList(pets), nextCursor);
+    }
+
+    /**
+     * Returns the pets of the page.
+     * @return unmodifiable List of pets in PetID order, empty if no pet matches
+     */
+    public List<Pet> getPets()
+    {
+        return pets;
+    }
+
+    /**
+     * Returns true if more pets matched when the page was read.
+     * @return true if there is a next page
+     */
+    public boolean hasNextPage()
+    {
+        return nextCursor != null;
+    }
+
+    /**
+     * Returns the cursor of the next page, the PetID of the last pet of the page.
+     * @return cursor of the next page, null if there is no next page
+     */
+    public PetID getNextCursor()
+    {
+        return nextCursor;
+    }
+
+    /**
+     * Returns a string representation of the page.
+     * @see Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return pets.size() + " pets" + (hasNextPage() ? ", next page after " + nextCursor : "");
+    }
+}
@@ -0,0 +1,156 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * PetPool - pets of one pet type that are available for adoption, partitioned by training status, as rows of the shelter's PetStore.
+ * Each partition is a dense array of rows, and a removed row is replaced by the last row of its partition,
+ * so adding, removing and picking a pet at random take constant time whatever the number of pets.
+ * The position of each row in the pool is kept in a column of the PetStore, so the pool takes no memory for adopted pets.
+ * A PetPool is not thread-safe, ShelterManager uses it as the lock of its pet type.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+final class PetPool {
+
+    /**
+     * Partition of pets that are not trained, all pets that cannot be trained are in it.
+     */
+    private static final int UNTRAINED = 0;
+    /**
+     * Partition of trained pets.
+     */
+    private static final int TRAINED = 1;
+    /**
+     * Initial capacity of a partition.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+    /**
+     * Position of a row that is not in the pool, the value of a new row of the store.
+     */
+    private static final int ABSENT = 0;
+
+    /**
+     * Store of the rows, recording the position of each row in the pool.
+     */
+    private final PetStore store;
+    /**
+     * Rows of each partition, the first sizes[partition] elements are used.
+     */
+    private final int[][] partitions = {new int[INITIAL_CAPACITY], new int[INITIAL_CAPACITY]};
+    /**
+     * Number of rows in each partition.
+     */
+    private final int[] sizes = new int[2];
+
+    /**
+     * Constructs an empty pool of rows of the specified store.
+     * @param store store of the rows, whose pool position column the pool uses
+     */
+    PetPool(PetStore store)
+    {
+        this.store = store;
+    }
+
+    /**
+     * Adds a row to the partition of the specified training status.
+     * @param row row of an available pet
+     * @param trained true if the pet is trained
+     * @return true if the row was added, false if it is already in the pool
+     */
+    boolean add(int row, boolean trained)
+    {
+        if (contains(row))
+            return false;
+        int partition = trained ? TRAINED : UNTRAINED;
+        int index = sizes[partition];
+        if (index == partitions[partition].length)
+            partitions[partition] = Arrays.copyOf(partitions[partition], index * 2);
+        partitions[partition][index] = row;
+        sizes[partition] = index + 1;
+        store.setPoolPosition(row, positionOf(index, partition));
+        return true;
+    }
+
+    /**
+     * Removes a row, moving the last row of its partition into its place.
+     * @param row row of a pet in the pool, e.g. adopted
+     * @return true if the row was removed, false if it is not in the pool
+     */
+    boolean remove(int row)
+    {
+        if (!contains(row))
+            return false;
+        int position = store.getPoolPosition(row) - 1;
+        store.setPoolPosition(row, ABSENT);
+        int partition = position & 1;
+        int index = position >>> 1;
+        int lastIndex = --sizes[partition];
+        int lastRow = partitions[partition][lastIndex];
+        if (index != lastIndex) //fill the gap with the last row
+        {
+            partitions[partition][index] = lastRow;
+            store.setPoolPosition(lastRow, positionOf(index, partition));
+        }
+        return true;
+    }
+
+    /**
+     * Moves a row to the partition of the specified training status, call after its training status changed.
+     * @param row row of a pet whose training status changed
+     * @param trained new training status
+     */
+    void updateTraining(int row, boolean trained)
+    {
+        if (remove(row))
+            add(row, trained);
+    }
+
+    /**
+     * Returns a row picked uniformly at random from the pool, or from its trained rows only. The row is not removed.
+     * @param random source of randomness, e.g. ThreadLocalRandom.current()
+     * @param trainedOnly true to pick only from trained pets
+     * @return random row, -1 if there is no row to pick from
+     */
+    int getRandomRow(Random random, boolean trainedOnly)
+    {
+        int noOfTrained = sizes[TRAINED];
+        int noOfCandidates = trainedOnly ? noOfTrained : noOfTrained + sizes[UNTRAINED];
+        if (noOfCandidates == 0)
+            return -1;
+        int randomIndex = random.nextInt(noOfCandidates); //index over trained rows followed by untrained rows
+        if (randomIndex < noOfTrained)
+            return partitions[TRAINED][randomIndex];
+        return partitions[UNTRAINED][randomIndex - noOfTrained];
+    }
+
+    /**
+     * Returns the number of rows in the pool.
+     * @return number of available pets
+     */
+    int size()
+    {
+        return sizes[UNTRAINED] + sizes[TRAINED];
+    }
+
+    /**
+     * Returns true if the pool contains the specified row.
+     * @param row row of a pet
+     * @return true if the row is in the pool, false otherwise
+     */
+    boolean contains(int row)
+    {
+        return store.getPoolPosition(row) != ABSENT;
+    }
+
+    /**
+     * Returns the position of a row to record in the store: the index in its partition shifted left by one bit, ORed with the partition, plus 1.
+     * The partition is recorded, so a row is found even after its training status changed.
+     * @param index index of the row in its partition
+     * @param partition partition of the row
+     * @return position, never ABSENT
+     */
+    private static int positionOf(int index, int partition)
+    {
+        return ((index << 1) | partition) + 1;
+    }
+}
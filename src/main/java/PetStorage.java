@@ -0,0 +1,21 @@
+/**
+ * PetStorage - memory the shelter register of pets is kept in, chosen when a ShelterManager is constructed.
+ * Only the pet register is affected: customer records always stay on the heap, as they are the objects returned to and kept by the desks.
+ * @see ShelterManager#ShelterManager(PetStorage)
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public enum PetStorage {
+
+    /**
+     * Rows in Java arrays on the heap (default).
+     */
+    HEAP,
+    /**
+     * Rows in direct ByteBuffers outside the heap with a fixed layout, only the index from PetID to row (a primitive array) is on the heap.
+     * Customer records are not moved off the heap.
+     * The columns are never copied or scanned by the garbage collector.
+     * Limited by -XX:MaxDirectMemorySize, which defaults to the maximum heap size.
+     */
+    OFF_HEAP
+}
@@ -0,0 +1,1181 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PetStore - columnar register of all pets of a shelter. Each pet is a row with a dense ordinal. The PetID values are an int column,
+ * and the pet type, adoption status and training status are bitmaps over the rows, one bitmap per pet type and one per status.
+ * A second int column holds the position of each available pet in the PetPool of its pet type.
+ * Rows are stored in chunks, so the register grows without copying rows and a status written to a row is never lost by a resize.
+ * Chunks are Java arrays on the heap, or direct ByteBuffers outside the heap, see PetStorage.
+ * A PetID is found by a primitive open-addressing index of rows, hashed by PetID value and checked against the PetID column.
+ * No object is kept per pet: get() returns a Cat or Dog that is a view over the row, reading and writing the columns.
+ * A pet costs about 8.5 bytes in the columns and 5 to 11 bytes in the index, instead of a Pet object, a PetID object and a map entry.
+ * Filters on type and status are evaluated 64 rows at a time by ANDing bitmap words, and counted by popcount, see count(PetFilter).
+ * PetStore is a read-only Map by PetID in PetID order, rows are added with add(Pet).
+ * Rows are added under the lock of the store, statuses are written under the lock of the pet type (see ShelterManager).
+ * Bitmap words are shared by rows of all pet types, so they are updated atomically.
+ * freeze() returns a read-only copy of the store that shares its chunks: the store copies a chunk shared with a frozen copy
+ * the first time the chunk is written after the copy was made, so a frozen copy costs nothing until pets change.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+final class PetStore extends AbstractMap<PetID, Pet> {
+
+    /**
+     * Type code of a cat.
+     */
+    static final byte CAT = 0;
+    /**
+     * Type code of a dog.
+     */
+    static final byte DOG = 1;
+    /**
+     * Status bit of an adopted pet.
+     */
+    static final int ADOPTED = 1;
+    /**
+     * Status bit of a trained pet.
+     */
+    static final int TRAINED = 2;
+
+    /**
+     * Number of pet types, type codes are 0 to NO_OF_TYPES - 1.
+     */
+    private static final int NO_OF_TYPES = 2;
+    /**
+     * Pet type returned by Pet.getPetType() by type code.
+     */
+    private static final String[] PET_TYPE_NAMES = {"Cat", "Dog"};
+    /**
+     * Number of bits of the row index within a chunk.
+     */
+    private static final int CHUNK_BITS = 14;
+    /**
+     * Number of rows in a chunk.
+     */
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    /**
+     * Number of bitmap words of a chunk, a word holds the bits of 64 consecutive rows.
+     */
+    private static final int WORDS_PER_CHUNK = CHUNK_SIZE >>> 6;
+    /**
+     * Bitmap of the adopted rows, after the bitmaps of the pet types numbered by type code.
+     */
+    private static final int ADOPTED_BITMAP = NO_OF_TYPES;
+    /**
+     * Bitmap of the trained rows.
+     */
+    private static final int TRAINED_BITMAP = NO_OF_TYPES + 1;
+    /**
+     * Number of bitmaps of a chunk.
+     */
+    private static final int NO_OF_BITMAPS = NO_OF_TYPES + 2;
+    /**
+     * Initial number of slots of the PetID index, a power of two.
+     */
+    private static final int INITIAL_INDEX_CAPACITY = 64;
+    /**
+     * Version of a frozen copy, no chunk has it so every write is refused.
+     */
+    private static final int FROZEN = -1;
+
+    /**
+     * Volatile and atomic access to the bitmap words of a chunk on the heap.
+     */
+    private static final VarHandle BITMAP_WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    /**
+     * Volatile and atomic access to the bitmap words of a chunk outside the heap.
+     */
+    private static final VarHandle DIRECT_BITMAP_WORDS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    /**
+     * Release and acquire access to the slots of the PetID index.
+     */
+    private static final VarHandle INDEX_SLOTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    /**
+     * Memory the chunks are allocated in.
+     */
+    private final PetStorage storage;
+    /**
+     * Chunks of rows, the chunk of row r is chunks[r >>> CHUNK_BITS]. Replaced by a copy when a chunk is added or copied,
+     * so an array once read by a frozen copy is never written again.
+     */
+    private volatile Chunk[] chunks = new Chunk[0];
+    /**
+     * Number of rows, written after the columns of a new row so readers only see complete rows.
+     */
+    private volatile int size;
+    /**
+     * Version of the store, incremented by freeze(). A chunk of an earlier version may be read by a frozen copy and is copied before it is written.
+     * FROZEN in a frozen copy. Written under the lock of the store.
+     */
+    private volatile int version;
+    /**
+     * PetID index, each slot is a row + 1, 0 if the slot is empty. The PetID value is read from the PetID column of the row.
+     * Replaced by a larger table when three quarters full.
+     */
+    private volatile int[] index = new int[INITIAL_INDEX_CAPACITY];
+    /**
+     * Indicates if rows were added in increasing PetID order, guarded by the lock of the store.
+     */
+    private boolean inPetIDOrder = true;
+    /**
+     * Rows in PetID order, kept for stores with rows added out of PetID order, see getPetIDOrder(int).
+     * Replaced, never changed, when rows are added. Guarded by the lock of the store.
+     */
+    private int[] petIDOrder = new int[0];
+    /**
+     * Care instructions that differ from the default of the pet type, by row. Rarely used.
+     */
+    private final Map<Integer, String> careInstructions = new ConcurrentHashMap<Integer, String>();
+
+    /**
+     * Constructs an empty store with its rows on the heap.
+     */
+    PetStore()
+    {
+        this(PetStorage.HEAP);
+    }
+
+    /**
+     * Constructs an empty store with its rows in the specified memory.
+     * @param storage memory the rows are allocated in
+     */
+    PetStore(PetStorage storage)
+    {
+        this.storage = storage;
+    }
+
+    /**
+     * Constructs a frozen copy of the specified store, sharing its chunks and index. Caller must hold the lock of the store.
+     * @param store store to copy
+     */
+    private PetStore(PetStore store)
+    {
+        storage = store.storage;
+        chunks = store.chunks;
+        size = store.size;
+        index = store.index; //rows added later are past the size of the copy, see rowOf(int)
+        inPetIDOrder = store.inPetIDOrder;
+        petIDOrder = store.petIDOrder;
+        careInstructions.putAll(store.careInstructions);
+        version = FROZEN;
+    }
+
+    /**
+     * Returns the type code of the specified pet type.
+     * @param petType pet type (case-insensitive)
+     * @return CAT or DOG
+     * @throws IllegalArgumentException if the pet type is neither a cat nor a dog
+     */
+    static byte typeCodeOf(String petType) throws IllegalArgumentException
+    {
+        if (petType.equalsIgnoreCase(PetFactory.CAT_PET))
+            return CAT;
+        if (petType.equalsIgnoreCase(PetFactory.DOG_PET))
+            return DOG;
+        throw new IllegalArgumentException("Invalid pet type: " + petType);
+    }
+
+    /**
+     * Returns the pet type of the specified type code, as returned by Pet.getPetType().
+     * @param typeCode CAT or DOG
+     * @return "Cat" or "Dog"
+     */
+    static String petTypeNameOf(int typeCode)
+    {
+        return PET_TYPE_NAMES[typeCode];
+    }
+
+    /**
+     * Adds a row with the PetID, type and status of the specified pet, unless its PetID is already in the store.
+     * @param pet pet to copy, e.g. a new pet from PetFactory
+     * @return row of the pet, -1 if its PetID is already in the store
+     */
+    synchronized int add(Pet pet)
+    {
+        checkWritable();
+        int petIDValue = pet.getPetID().getValue();
+        if (rowOf(petIDValue) >= 0)
+            return -1;
+        int row = size;
+        int chunkIndex = row >>> CHUNK_BITS;
+        Chunk[] currentChunks = chunks;
+        if (chunkIndex == currentChunks.length) //last chunk full, rows of the other chunks stay where they are
+        {
+            currentChunks = Arrays.copyOf(currentChunks, chunkIndex + 1);
+            currentChunks[chunkIndex] = (storage == PetStorage.OFF_HEAP) ? new DirectChunk(version) : new HeapChunk(version);
+            chunks = currentChunks;
+        }
+        Chunk chunk = writableChunkOf(row);
+        byte typeCode = typeCodeOf(pet.getPetType());
+        chunk.setPetIDValue(row & (CHUNK_SIZE - 1), petIDValue);
+        setBit(chunk, typeCode, row, true);
+        setBit(chunk, ADOPTED_BITMAP, row, pet.getAdopted());
+        setBit(chunk, TRAINED_BITMAP, row, pet instanceof Trainable && ((Trainable) pet).getTrained());
+        String petCareInstructions = pet.getCareInstructions();
+        if (petCareInstructions != null && !petCareInstructions.equals(defaultCareInstructionsOf(typeCode)))
+            careInstructions.put(row, petCareInstructions);
+        if (row > 0 && petIDValue < getPetIDValue(row - 1))
+            inPetIDOrder = false;
+        addToIndex(petIDValue, row);
+        size = row + 1; //publishes the row
+        return row;
+    }
+
+    /**
+     * Returns a read-only copy of the store as it is now, sharing its chunks. Rows added and statuses written later are not seen by the copy.
+     * Caller must hold the locks of all pet types, so no status is being written. Views over the rows of the copy cannot be changed.
+     * @return frozen copy
+     */
+    synchronized PetStore freeze()
+    {
+        checkWritable();
+        PetStore frozenCopy = new PetStore(this);
+        version++; //every chunk is now shared with the copy
+        return frozenCopy;
+    }
+
+    /**
+     * Returns the version of the store, the number of frozen copies made.
+     * @return version, FROZEN for a frozen copy
+     */
+    int getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * Returns the row of the pet with the specified PetID value.
+     * @param petIDValue PetID value, see PetID.getValue()
+     * @return row, -1 if no pet has the PetID
+     */
+    int rowOf(int petIDValue)
+    {
+        int noOfRows = size;
+        int[] slots = index;
+        int mask = slots.length - 1;
+        for (int slot = hashOf(petIDValue) & mask; ; slot = (slot + 1) & mask)
+        {
+            int entry = (int) INDEX_SLOTS.getAcquire(slots, slot);
+            if (entry == 0 || entry > noOfRows) //rows are indexed in increasing order, so the slot of a later row was empty for the earlier rows
+                return -1;
+            if (getPetIDValue(entry - 1) == petIDValue) //column written before the slot
+                return entry - 1;
+        }
+    }
+
+    /**
+     * Returns the row of the pet with the specified PetID.
+     * @param petID PetID
+     * @return row, -1 if no pet has the PetID
+     */
+    int rowOf(PetID petID)
+    {
+        return rowOf(petID.getValue());
+    }
+
+    /**
+     * Returns a view over the specified row.
+     * @param row row of a pet
+     * @return Cat or Dog reading and writing the row
+     */
+    Pet petAt(int row)
+    {
+        return (getTypeCode(row) == DOG) ? new Dog(this, row) : new Cat(this, row);
+    }
+
+    /**
+     * Returns the PetID value of the specified row.
+     * @param row row of a pet
+     * @return PetID value
+     */
+    int getPetIDValue(int row)
+    {
+        return chunkOf(row).getPetIDValue(row & (CHUNK_SIZE - 1));
+    }
+
+    /**
+     * Returns the PetID of the specified row.
+     * @param row row of a pet
+     * @return PetID
+     */
+    PetID getPetID(int row)
+    {
+        return PetID.getPetIDInstance(getPetIDValue(row));
+    }
+
+    /**
+     * Returns the type code of the specified row.
+     * @param row row of a pet
+     * @return CAT or DOG
+     */
+    byte getTypeCode(int row)
+    {
+        Chunk chunk = chunkOf(row);
+        for (byte typeCode = 0; typeCode < NO_OF_TYPES - 1; typeCode++)
+        {
+            if (getBit(chunk, typeCode, row))
+                return typeCode;
+        }
+        return NO_OF_TYPES - 1;
+    }
+
+    /**
+     * Returns the status bits of the specified row.
+     * @param row row of a pet
+     * @return ADOPTED and TRAINED bits
+     */
+    int getStatus(int row)
+    {
+        Chunk chunk = chunkOf(row);
+        return (getBit(chunk, ADOPTED_BITMAP, row) ? ADOPTED : 0) | (getBit(chunk, TRAINED_BITMAP, row) ? TRAINED : 0);
+    }
+
+    /**
+     * Returns true if the pet of the specified row is adopted.
+     * @param row row of a pet
+     * @return adoption status
+     */
+    boolean isAdopted(int row)
+    {
+        return getBit(chunkOf(row), ADOPTED_BITMAP, row);
+    }
+
+    /**
+     * Returns true if the pet of the specified row is trained.
+     * @param row row of a pet
+     * @return training status, false for a cat
+     */
+    boolean isTrained(int row)
+    {
+        return getBit(chunkOf(row), TRAINED_BITMAP, row);
+    }
+
+    /**
+     * Sets the adoption status of the specified row. Caller must hold the lock of the pet type.
+     * @param row row of a pet
+     * @param adopted adoption status
+     */
+    void setAdopted(int row, boolean adopted)
+    {
+        setBit(writableChunkOf(row), ADOPTED_BITMAP, row, adopted);
+    }
+
+    /**
+     * Sets the training status of the specified row. Caller must hold the lock of the pet type.
+     * @param row row of a dog
+     * @param trained training status
+     */
+    void setTrained(int row, boolean trained)
+    {
+        setBit(writableChunkOf(row), TRAINED_BITMAP, row, trained);
+    }
+
+    /**
+     * Returns the position of the specified row in the PetPool of its pet type. Caller must hold the lock of the pet type.
+     * @param row row of a pet
+     * @return position recorded by setPoolPosition(int, int), 0 if none was recorded
+     */
+    int getPoolPosition(int row)
+    {
+        return chunkOf(row).getPoolPosition(row & (CHUNK_SIZE - 1));
+    }
+
+    /**
+     * Records the position of the specified row in the PetPool of its pet type. Caller must hold the lock of the pet type.
+     * @param row row of a pet
+     * @param poolPosition position, 0 if the row is not in the pool
+     */
+    void setPoolPosition(int row, int poolPosition)
+    {
+        writableChunkOf(row).setPoolPosition(row & (CHUNK_SIZE - 1), poolPosition);
+    }
+
+    /**
+     * Returns the care instructions of the specified row.
+     * @param row row of a pet
+     * @return care instructions set for the pet, or the default of its pet type
+     */
+    String getCareInstructions(int row)
+    {
+        String petCareInstructions = careInstructions.get(row);
+        return (petCareInstructions != null) ? petCareInstructions : defaultCareInstructionsOf(getTypeCode(row));
+    }
+
+    /**
+     * Sets the care instructions of the specified row.
+     * @param row row of a pet
+     * @param petCareInstructions care instructions, null or the default of the pet type to use the default
+     */
+    void setCareInstructions(int row, String petCareInstructions)
+    {
+        checkWritable();
+        if (petCareInstructions == null || petCareInstructions.equals(defaultCareInstructionsOf(getTypeCode(row))))
+            careInstructions.remove(row);
+        else
+            careInstructions.put(row, petCareInstructions);
+    }
+
+    /**
+     * Returns the rows of the store in increasing PetID order. Rows added while the rows are listed may be left out.
+     * @return rows in PetID order
+     */
+    int[] getRowsInPetIDOrder()
+    {
+        int noOfRows;
+        boolean ordered;
+        synchronized (this) //size and order flag read together
+        {
+            noOfRows = size;
+            ordered = inPetIDOrder;
+        }
+        int[] rows = new int[noOfRows];
+        for (int row = 0; row < noOfRows; row++)
+            rows[row] = row;
+        if (!ordered) //usually ordered, pets are added in the order their PetIDs are allocated
+            sortByPetID(rows);
+        return rows;
+    }
+
+    /**
+     * Sorts rows by their PetID values.
+     * @param rows rows of pets, sorted in place
+     */
+    private void sortByPetID(int[] rows)
+    {
+        long[] keys = new long[rows.length];
+        for (int i = 0; i < rows.length; i++)
+            keys[i] = ((long) getPetIDValue(rows[i]) << 32) | rows[i]; //PetID values are not negative, so keys sort by PetID value
+        Arrays.sort(keys);
+        for (int i = 0; i < rows.length; i++)
+            rows[i] = (int) keys[i];
+    }
+
+    /**
+     * Returns the bits of a bitmap word that belong to existing rows.
+     * @param firstRow first row of the word, a multiple of 64
+     * @param noOfRows number of rows
+     * @return all bits, or the low bits of the rows before noOfRows in the last word
+     */
+    private static long rowMask(int firstRow, int noOfRows)
+    {
+        int noOfRowsInWord = noOfRows - firstRow;
+        return (noOfRowsInWord >= 64) ? -1L : (1L << noOfRowsInWord) - 1;
+    }
+
+    /**
+     * Returns the number of pets that match the specified filter, by popcount of the matching bits of each bitmap word.
+     * Pets whose status changes during the count may be counted with either status.
+     * @param filter pet type and statuses
+     * @return number of matching rows
+     */
+    int count(PetFilter filter)
+    {
+        int typeCode = filter.getTypeCode();
+        int adopted = filter.getAdoptedCode();
+        int trained = filter.getTrainedCode();
+        int noOfRows = size;
+        Chunk[] currentChunks = chunks;
+        int count = 0;
+        for (int firstRow = 0; firstRow < noOfRows; firstRow += 64)
+        {
+            Chunk chunk = currentChunks[firstRow >>> CHUNK_BITS];
+            long bits = matchingBits(chunk, (firstRow & (CHUNK_SIZE - 1)) >>> 6, typeCode, adopted, trained);
+            count += Long.bitCount(bits & rowMask(firstRow, noOfRows));
+        }
+        return count;
+    }
+
+    /**
+     * Returns the rows of the pets that match the specified filter, in PetID order.
+     * Pets whose status changes during the search may be returned with either status.
+     * @param filter pet type and statuses
+     * @return matching rows in PetID order
+     */
+    int[] findRows(PetFilter filter)
+    {
+        int typeCode = filter.getTypeCode();
+        int adopted = filter.getAdoptedCode();
+        int trained = filter.getTrainedCode();
+        int noOfRows;
+        boolean ordered;
+        synchronized (this) //size and order flag read together
+        {
+            noOfRows = size;
+            ordered = inPetIDOrder;
+        }
+        Chunk[] currentChunks = chunks;
+        int[] rows = new int[16];
+        int noOfMatches = 0;
+        for (int firstRow = 0; firstRow < noOfRows; firstRow += 64)
+        {
+            Chunk chunk = currentChunks[firstRow >>> CHUNK_BITS];
+            long bits = matchingBits(chunk, (firstRow & (CHUNK_SIZE - 1)) >>> 6, typeCode, adopted, trained) & rowMask(firstRow, noOfRows);
+            while (bits != 0) //one iteration per matching row
+            {
+                if (noOfMatches == rows.length)
+                    rows = Arrays.copyOf(rows, noOfMatches * 2);
+                rows[noOfMatches++] = firstRow + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1; //clear lowest set bit
+            }
+        }
+        rows = Arrays.copyOf(rows, noOfMatches);
+        if (!ordered)
+            sortByPetID(rows);
+        return rows;
+    }
+
+    /**
+     * Counts the rows of a range per pet type and status by popcount of the bitmap words, for reports that split the store into ranges.
+     * @param fromRow first row of the range, a multiple of 64
+     * @param toRow row after the range, at most the size of the store
+     * @return counts of the cells of PetCounts, PetCounts.NO_OF_CELLS per type code
+     */
+    int[] countCells(int fromRow, int toRow)
+    {
+        Chunk[] currentChunks = chunks;
+        int[] cells = new int[NO_OF_TYPES * PetCounts.NO_OF_CELLS];
+        for (int firstRow = fromRow; firstRow < toRow; firstRow += 64)
+        {
+            Chunk chunk = currentChunks[firstRow >>> CHUNK_BITS];
+            int word = (firstRow & (CHUNK_SIZE - 1)) >>> 6;
+            long rowBits = rowMask(firstRow, toRow);
+            long adoptedBits = chunk.getWord(ADOPTED_BITMAP, word);
+            long trainedBits = chunk.getWord(TRAINED_BITMAP, word);
+            for (int typeCode = 0; typeCode < NO_OF_TYPES; typeCode++)
+            {
+                long typeBits = chunk.getWord(typeCode, word) & rowBits;
+                int cell = typeCode * PetCounts.NO_OF_CELLS;
+                cells[cell + PetCounts.AVAILABLE_UNTRAINED] += Long.bitCount(typeBits & ~adoptedBits & ~trainedBits);
+                cells[cell + PetCounts.AVAILABLE_TRAINED] += Long.bitCount(typeBits & ~adoptedBits & trainedBits);
+                cells[cell + PetCounts.ADOPTED_UNTRAINED] += Long.bitCount(typeBits & adoptedBits & ~trainedBits);
+                cells[cell + PetCounts.ADOPTED_TRAINED] += Long.bitCount(typeBits & adoptedBits & trainedBits);
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Returns the rows of up to limit pets that match the specified filter and come after a PetID, in PetID order.
+     * The first row after the PetID is found by binary search over the rows in PetID order and the rows are read from there,
+     * so the time taken depends on the rows read, not on the number of rows before the PetID.
+     * Pets whose status changes during the search may be returned with either status.
+     * @param filter pet type and statuses
+     * @param afterPetIDValue PetID value the rows come after, -1 for the first rows
+     * @param limit maximum number of rows, 1 or more
+     * @return matching rows in PetID order
+     */
+    int[] findRows(PetFilter filter, int afterPetIDValue, int limit)
+    {
+        int typeCode = filter.getTypeCode();
+        int adopted = filter.getAdoptedCode();
+        int trained = filter.getTrainedCode();
+        int noOfRows;
+        boolean ordered;
+        synchronized (this) //size and order flag read together
+        {
+            noOfRows = size;
+            ordered = inPetIDOrder;
+        }
+        int[] rows = new int[Math.min(limit, 64)];
+        int noOfMatches = 0;
+        if (ordered) //rows are in PetID order, matching rows are read a bitmap word at a time
+        {
+            Chunk[] currentChunks = chunks;
+            int firstRow = firstPositionAfter(null, noOfRows, afterPetIDValue);
+            for (int wordRow = firstRow & ~63; wordRow < noOfRows && noOfMatches < limit; wordRow += 64)
+            {
+                Chunk chunk = currentChunks[wordRow >>> CHUNK_BITS];
+                long bits = matchingBits(chunk, (wordRow & (CHUNK_SIZE - 1)) >>> 6, typeCode, adopted, trained) & rowMask(wordRow, noOfRows);
+                if (wordRow < firstRow)
+                    bits &= -1L << firstRow; //rows before the first row, shift distance is taken modulo 64
+                while (bits != 0 && noOfMatches < limit)
+                {
+                    if (noOfMatches == rows.length)
+                        rows = Arrays.copyOf(rows, Math.min(limit, noOfMatches * 2));
+                    rows[noOfMatches++] = wordRow + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1; //clear lowest set bit
+                }
+            }
+        }
+        else //rows are read in the order kept by getPetIDOrder(int)
+        {
+            int[] order = getPetIDOrder(noOfRows); //may include rows added since the size was read
+            for (int position = firstPositionAfter(order, order.length, afterPetIDValue); position < order.length && noOfMatches < limit; position++)
+            {
+                int row = order[position];
+                long bits = matchingBits(chunkOf(row), (row & (CHUNK_SIZE - 1)) >>> 6, typeCode, adopted, trained);
+                if ((bits & (1L << row)) != 0)
+                {
+                    if (noOfMatches == rows.length)
+                        rows = Arrays.copyOf(rows, Math.min(limit, noOfMatches * 2));
+                    rows[noOfMatches++] = row;
+                }
+            }
+        }
+        return Arrays.copyOf(rows, noOfMatches);
+    }
+
+    /**
+     * Returns the first position in PetID order whose PetID value is greater than the specified value, by binary search.
+     * @param order rows in PetID order, or null if the rows are in PetID order
+     * @param noOfRows number of rows searched
+     * @param afterPetIDValue PetID value
+     * @return position, noOfRows if no PetID value is greater
+     */
+    private int firstPositionAfter(int[] order, int noOfRows, int afterPetIDValue)
+    {
+        int low = 0;
+        int high = noOfRows;
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if (getPetIDValue((order == null) ? middle : order[middle]) <= afterPetIDValue)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Returns the rows of the store in PetID order, for a store with rows added out of PetID order.
+     * The order is kept between calls, rows added since the last call are sorted and merged into it.
+     * @param noOfRows number of rows, at most the size of the store
+     * @return at least the first noOfRows rows, all in PetID order, not to be changed
+     */
+    private synchronized int[] getPetIDOrder(int noOfRows)
+    {
+        int[] order = petIDOrder;
+        if (order.length >= noOfRows)
+            return order;
+        int[] addedRows = new int[noOfRows - order.length];
+        for (int i = 0; i < addedRows.length; i++)
+            addedRows[i] = order.length + i;
+        sortByPetID(addedRows);
+        int[] mergedOrder = new int[noOfRows];
+        int i = 0;
+        int j = 0;
+        for (int position = 0; position < noOfRows; position++) //merge of two runs in PetID order
+        {
+            if (j == addedRows.length || (i < order.length && getPetIDValue(order[i]) < getPetIDValue(addedRows[j])))
+                mergedOrder[position] = order[i++];
+            else
+                mergedOrder[position] = addedRows[j++];
+        }
+        petIDOrder = mergedOrder;
+        return mergedOrder;
+    }
+
+    /**
+     * Returns the number of pets in the store.
+     * @return number of rows
+     */
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns a view over the pet with the specified PetID.
+     * @param petID PetID
+     * @return Cat or Dog view, null if no pet has the PetID
+     */
+    @Override
+    public Pet get(Object petID)
+    {
+        if (!(petID instanceof PetID))
+            return null;
+        int row = rowOf((PetID) petID);
+        return (row < 0) ? null : petAt(row);
+    }
+
+    /**
+     * Returns true if a pet has the specified PetID.
+     * @param petID PetID
+     * @return true if the PetID is in the store
+     */
+    @Override
+    public boolean containsKey(Object petID)
+    {
+        return petID instanceof PetID && rowOf((PetID) petID) >= 0;
+    }
+
+    /**
+     * Returns the pets of the store by PetID in PetID order, each entry is created when iterated.
+     * @return read-only set of entries
+     */
+    @Override
+    public Set<Map.Entry<PetID, Pet>> entrySet()
+    {
+        return new AbstractSet<Map.Entry<PetID, Pet>>() {
+            @Override
+            public Iterator<Map.Entry<PetID, Pet>> iterator()
+            {
+                int[] rows = getRowsInPetIDOrder();
+                return new Iterator<Map.Entry<PetID, Pet>>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext()
+                    {
+                        return next < rows.length;
+                    }
+
+                    @Override
+                    public Map.Entry<PetID, Pet> next()
+                    {
+                        if (next == rows.length)
+                            throw new NoSuchElementException();
+                        int row = rows[next++];
+                        return new AbstractMap.SimpleImmutableEntry<PetID, Pet>(getPetID(row), petAt(row));
+                    }
+                };
+            }
+
+            @Override
+            public int size()
+            {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Returns the default care instructions of a pet type.
+     * @param typeCode CAT or DOG
+     * @return care instructions of a new pet of the type
+     */
+    private static String defaultCareInstructionsOf(int typeCode)
+    {
+        return (typeCode == DOG) ? Dog.CARE_INSTRUCTIONS : Cat.CARE_INSTRUCTIONS;
+    }
+
+    /**
+     * Returns the chunk of the specified row.
+     * @param row row of a pet
+     * @return chunk holding the row
+     */
+    private Chunk chunkOf(int row)
+    {
+        return chunks[row >>> CHUNK_BITS];
+    }
+
+    /**
+     * Returns the chunk of the specified row for writing, after copying it if it is shared with a frozen copy.
+     * @param row row of a pet
+     * @return chunk holding the row, of the current version
+     * @throws UnsupportedOperationException if the store is a frozen copy
+     */
+    private Chunk writableChunkOf(int row)
+    {
+        Chunk chunk = chunks[row >>> CHUNK_BITS];
+        return (chunk.version == version) ? chunk : copyChunk(row >>> CHUNK_BITS);
+    }
+
+    /**
+     * Replaces a chunk shared with a frozen copy by a copy of the current version, once per chunk and version.
+     * @param chunkIndex index of the chunk
+     * @return chunk of the current version
+     * @throws UnsupportedOperationException if the store is a frozen copy
+     */
+    private synchronized Chunk copyChunk(int chunkIndex)
+    {
+        checkWritable();
+        Chunk[] currentChunks = chunks;
+        Chunk chunk = currentChunks[chunkIndex];
+        if (chunk.version != version) //not copied by a writer of another pet type meanwhile
+        {
+            chunk = chunk.copy(version);
+            currentChunks = currentChunks.clone(); //the array of the frozen copy is kept as it is
+            currentChunks[chunkIndex] = chunk;
+            chunks = currentChunks;
+        }
+        return chunk;
+    }
+
+    /**
+     * Refuses to write a frozen copy.
+     * @throws UnsupportedOperationException if the store is a frozen copy
+     */
+    private void checkWritable()
+    {
+        if (version == FROZEN)
+            throw new UnsupportedOperationException("Pets of a shelter view cannot be changed.");
+    }
+
+    /**
+     * Returns the bit of the specified row in a bitmap of its chunk.
+     * @param chunk chunk of the row
+     * @param bitmap bitmap, a type code, ADOPTED_BITMAP or TRAINED_BITMAP
+     * @param row row of a pet
+     * @return true if the bit is set
+     */
+    private static boolean getBit(Chunk chunk, int bitmap, int row)
+    {
+        return (chunk.getWord(bitmap, (row & (CHUNK_SIZE - 1)) >>> 6) & (1L << row)) != 0;
+    }
+
+    /**
+     * Sets or clears the bit of the specified row in a bitmap of its chunk, atomically as the word is shared with other rows.
+     * @param chunk chunk of the row
+     * @param bitmap bitmap, a type code, ADOPTED_BITMAP or TRAINED_BITMAP
+     * @param row row of a pet
+     * @param value true to set the bit, false to clear it
+     */
+    private static void setBit(Chunk chunk, int bitmap, int row, boolean value)
+    {
+        int word = (row & (CHUNK_SIZE - 1)) >>> 6;
+        if (value)
+            chunk.orWord(bitmap, word, 1L << row); //shift distance is taken modulo 64
+        else
+            chunk.andWord(bitmap, word, ~(1L << row));
+    }
+
+    /**
+     * Returns the bits of the rows of a bitmap word that match a filter.
+     * @param chunk chunk of the rows
+     * @param word index of the word in the chunk
+     * @param typeCode type code of the filter, or PetFilter.ANY
+     * @param adopted adoption status of the filter as 1 or 0, or PetFilter.ANY
+     * @param trained training status of the filter as 1 or 0, or PetFilter.ANY
+     * @return bit set for each matching row of the word
+     */
+    private static long matchingBits(Chunk chunk, int word, int typeCode, int adopted, int trained)
+    {
+        long bits = (typeCode == PetFilter.ANY) ? -1L : chunk.getWord(typeCode, word);
+        if (adopted != PetFilter.ANY)
+        {
+            long adoptedBits = chunk.getWord(ADOPTED_BITMAP, word);
+            bits &= (adopted == 1) ? adoptedBits : ~adoptedBits; //AND or ANDNOT
+        }
+        if (trained != PetFilter.ANY)
+        {
+            long trainedBits = chunk.getWord(TRAINED_BITMAP, word);
+            bits &= (trained == 1) ? trainedBits : ~trainedBits;
+        }
+        return bits;
+    }
+
+    /**
+     * Adds a row to the index, doubling the index when it is three quarters full. Caller must hold the lock of the store.
+     * @param petIDValue PetID value of the row, not yet in the index
+     * @param row row of the pet, its PetID value already written
+     */
+    private void addToIndex(int petIDValue, int row)
+    {
+        int[] slots = index;
+        if ((long) (size + 1) * 4 > (long) slots.length * 3)
+        {
+            int[] largerSlots = new int[slots.length * 2];
+            for (int entry : slots)
+            {
+                if (entry != 0)
+                    insert(largerSlots, getPetIDValue(entry - 1), entry);
+            }
+            insert(largerSlots, petIDValue, row + 1);
+            index = largerSlots; //published complete, readers of the old index find every earlier pet
+            return;
+        }
+        insert(slots, petIDValue, row + 1);
+    }
+
+    /**
+     * Inserts an entry in the first free slot of its probe sequence.
+     * @param slots index table
+     * @param petIDValue PetID value of the row
+     * @param entry row + 1
+     */
+    private static void insert(int[] slots, int petIDValue, int entry)
+    {
+        int mask = slots.length - 1;
+        int slot = hashOf(petIDValue) & mask;
+        while (slots[slot] != 0)
+            slot = (slot + 1) & mask;
+        INDEX_SLOTS.setRelease(slots, slot, entry);
+    }
+
+    /**
+     * Returns the hash of a PetID value, spreading consecutive values over the index.
+     * @param petIDValue PetID value
+     * @return hash
+     */
+    private static int hashOf(int petIDValue)
+    {
+        return petIDValue * 0x9E3779B9;
+    }
+
+    /**
+     * Chunk - PetID column, pool position column and bitmaps of CHUNK_SIZE consecutive rows.
+     */
+    private abstract static class Chunk {
+
+        /**
+         * Version of the store the chunk was created or copied in, the chunk is only written in that version.
+         */
+        final int version;
+
+        /**
+         * Constructs a chunk of the specified version.
+         * @param version version of the store
+         */
+        Chunk(int version)
+        {
+            this.version = version;
+        }
+
+        /**
+         * Returns a copy of the chunk, called when no row of the chunk is being written.
+         * @param copyVersion version of the store the copy is written in
+         * @return chunk with the same columns and bitmaps
+         */
+        abstract Chunk copy(int copyVersion);
+
+        /**
+         * Returns the pool position of a row.
+         * @param position position of the row in the chunk
+         * @return pool position, 0 if the row is not in a pool
+         */
+        abstract int getPoolPosition(int position);
+
+        /**
+         * Sets the pool position of a row.
+         * @param position position of the row in the chunk
+         * @param poolPosition pool position, 0 if the row is not in a pool
+         */
+        abstract void setPoolPosition(int position, int poolPosition);
+
+        /**
+         * Returns the PetID value of a row.
+         * @param position position of the row in the chunk
+         * @return PetID value
+         */
+        abstract int getPetIDValue(int position);
+
+        /**
+         * Sets the PetID value of a row, before the row is published.
+         * @param position position of the row in the chunk
+         * @param petIDValue PetID value
+         */
+        abstract void setPetIDValue(int position, int petIDValue);
+
+        /**
+         * Returns a bitmap word with volatile access.
+         * @param bitmap bitmap, a type code, ADOPTED_BITMAP or TRAINED_BITMAP
+         * @param word index of the word in the bitmap
+         * @return bits of 64 consecutive rows
+         */
+        abstract long getWord(int bitmap, int word);
+
+        /**
+         * ORs bits into a bitmap word atomically.
+         * @param bitmap bitmap, a type code, ADOPTED_BITMAP or TRAINED_BITMAP
+         * @param word index of the word in the bitmap
+         * @param bits bits to set
+         */
+        abstract void orWord(int bitmap, int word, long bits);
+
+        /**
+         * ANDs bits into a bitmap word atomically.
+         * @param bitmap bitmap, a type code, ADOPTED_BITMAP or TRAINED_BITMAP
+         * @param word index of the word in the bitmap
+         * @param bits bits to keep
+         */
+        abstract void andWord(int bitmap, int word, long bits);
+    }
+
+    /**
+     * HeapChunk - chunk in Java arrays on the heap.
+     */
+    private static final class HeapChunk extends Chunk {
+
+        /**
+         * PetID value of each row.
+         */
+        private final int[] petIDValues;
+        /**
+         * Pool position of each row.
+         */
+        private final int[] poolPositions;
+        /**
+         * Words of all bitmaps, bitmap after bitmap.
+         */
+        private final long[] bitmapWords;
+
+        /**
+         * Constructs an empty chunk.
+         * @param version version of the store
+         */
+        HeapChunk(int version)
+        {
+            super(version);
+            petIDValues = new int[CHUNK_SIZE];
+            poolPositions = new int[CHUNK_SIZE];
+            bitmapWords = new long[NO_OF_BITMAPS * WORDS_PER_CHUNK];
+        }
+
+        /**
+         * Constructs a copy of a chunk.
+         * @param chunk chunk to copy
+         * @param version version of the store
+         */
+        private HeapChunk(HeapChunk chunk, int version)
+        {
+            super(version);
+            petIDValues = chunk.petIDValues.clone();
+            poolPositions = chunk.poolPositions.clone();
+            bitmapWords = chunk.bitmapWords.clone();
+        }
+
+        @Override
+        Chunk copy(int copyVersion)
+        {
+            return new HeapChunk(this, copyVersion);
+        }
+
+        @Override
+        int getPoolPosition(int position)
+        {
+            return poolPositions[position];
+        }
+
+        @Override
+        void setPoolPosition(int position, int poolPosition)
+        {
+            poolPositions[position] = poolPosition;
+        }
+
+        @Override
+        int getPetIDValue(int position)
+        {
+            return petIDValues[position];
+        }
+
+        @Override
+        void setPetIDValue(int position, int petIDValue)
+        {
+            petIDValues[position] = petIDValue;
+        }
+
+        @Override
+        long getWord(int bitmap, int word)
+        {
+            return (long) BITMAP_WORDS.getVolatile(bitmapWords, bitmap * WORDS_PER_CHUNK + word);
+        }
+
+        @Override
+        void orWord(int bitmap, int word, long bits)
+        {
+            BITMAP_WORDS.getAndBitwiseOr(bitmapWords, bitmap * WORDS_PER_CHUNK + word, bits);
+        }
+
+        @Override
+        void andWord(int bitmap, int word, long bits)
+        {
+            BITMAP_WORDS.getAndBitwiseAnd(bitmapWords, bitmap * WORDS_PER_CHUNK + word, bits);
+        }
+    }
+
+    /**
+     * DirectChunk - chunk in a direct ByteBuffer outside the heap, with a fixed layout: the PetID column, the pool position column, then the bitmaps.
+     * The garbage collector sees one small ByteBuffer object per chunk, and the memory is freed when the store is collected.
+     */
+    private static final class DirectChunk extends Chunk {
+
+        /**
+         * Byte offset of the pool position column, after the PetID column.
+         */
+        private static final int POOL_POSITIONS_OFFSET = CHUNK_SIZE * Integer.BYTES;
+        /**
+         * Byte offset of the first bitmap, after the int columns, a multiple of 8 so words are aligned.
+         */
+        private static final int BITMAPS_OFFSET = 2 * CHUNK_SIZE * Integer.BYTES;
+
+        /**
+         * Memory of the chunk in native byte order.
+         */
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BITMAPS_OFFSET + NO_OF_BITMAPS * WORDS_PER_CHUNK * Long.BYTES).order(ByteOrder.nativeOrder());
+
+        /**
+         * Constructs an empty chunk.
+         * @param version version of the store
+         */
+        DirectChunk(int version)
+        {
+            super(version);
+        }
+
+        @Override
+        Chunk copy(int copyVersion)
+        {
+            DirectChunk chunk = new DirectChunk(copyVersion);
+            chunk.buffer.duplicate().put(buffer.duplicate().clear()); //duplicates, positions of the buffers stay 0
+            return chunk;
+        }
+
+        @Override
+        int getPoolPosition(int position)
+        {
+            return buffer.getInt(POOL_POSITIONS_OFFSET + position * Integer.BYTES);
+        }
+
+        @Override
+        void setPoolPosition(int position, int poolPosition)
+        {
+            buffer.putInt(POOL_POSITIONS_OFFSET + position * Integer.BYTES, poolPosition);
+        }
+
+        @Override
+        int getPetIDValue(int position)
+        {
+            return buffer.getInt(position * Integer.BYTES);
+        }
+
+        @Override
+        void setPetIDValue(int position, int petIDValue)
+        {
+            buffer.putInt(position * Integer.BYTES, petIDValue);
+        }
+
+        @Override
+        long getWord(int bitmap, int word)
+        {
+            return (long) DIRECT_BITMAP_WORDS.getVolatile(buffer, offsetOf(bitmap, word));
+        }
+
+        @Override
+        void orWord(int bitmap, int word, long bits)
+        {
+            DIRECT_BITMAP_WORDS.getAndBitwiseOr(buffer, offsetOf(bitmap, word), bits);
+        }
+
+        @Override
+        void andWord(int bitmap, int word, long bits)
+        {
+            DIRECT_BITMAP_WORDS.getAndBitwiseAnd(buffer, offsetOf(bitmap, word), bits);
+        }
+
+        /**
+         * Returns the byte offset of a bitmap word.
+         * @param bitmap bitmap, a type code, ADOPTED_BITMAP or TRAINED_BITMAP
+         * @param word index of the word in the bitmap
+         * @return offset in the buffer
+         */
+        private static int offsetOf(int bitmap, int word)
+        {
+            return BITMAPS_OFFSET + (bitmap * WORDS_PER_CHUNK + word) * Long.BYTES;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * RejectedCustomerRow - immutable record of an input row that CustomerImporter did not import, with the reason it was rejected.
+ * @see CustomerImporter
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public final class RejectedCustomerRow {
+
+    /**
+     * Line number of the row in the input, the first line is 1.
+     */
+    private final long lineNumber;
+    /**
+     * Text of the row as read from the input.
+     */
+    private final String line;
+    /**
+     * Reason the row was rejected.
+     */
+    private final String reason;
+
+    /**
+     * Constructs a rejected row.
+     * @param lineNumber line number of the row in the input
+     * @param line text of the row
+     * @param reason reason the row was rejected
+     */
+    RejectedCustomerRow(long lineNumber, String line, String reason) //package-private constructor
+    {
+        this.lineNumber = lineNumber;
+        this.line = line;
+        this.reason = reason;
+    }
+
+    /**
+     * Returns the line number of the row in the input.
+     * @return line number, the first line is 1
+     */
+    public long getLineNumber()
+    {
+        return lineNumber;
+    }
+
+    /**
+     * Returns the text of the row as read from the input.
+     * @return row text
+     */
+    public String getLine()
+    {
+        return line;
+    }
+
+    /**
+     * Returns the reason the row was rejected.
+     * @return rejection reason
+     */
+    public String getReason()
+    {
+        return reason;
+    }
+
+    /**
+     * Returns a string representation of the rejected row.
+     * @see Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "line " + lineNumber + ": " + reason + " [" + line + "]";
+    }
+}
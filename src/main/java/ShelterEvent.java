@@ -0,0 +1,143 @@
+import java.time.Instant;
+
+/**
+ * ShelterEvent - structured event of a ShelterEventLog, e.g. an adoption or a rejected adoption request.
+ * Events are preallocated slots of the ring buffer of the log and are reused: an event passed to a consumer is only valid
+ * during that call, so a consumer keeping events must copy the fields it needs.
+ * The fields are references to the objects of the event, the text of toString() is built only when a consumer calls it.
+ * @see ShelterEventLog
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public final class ShelterEvent {
+
+    /**
+     * Kind of event.
+     */
+    private ShelterEventType type;
+    /**
+     * Time of the event in milliseconds since the epoch.
+     */
+    private long timeMillis;
+    /**
+     * Customer number of the customer, null if not known.
+     */
+    private CustomerNumber customerNumber;
+    /**
+     * Lower-case pet type of the event.
+     */
+    private String petType;
+    /**
+     * PetID of the adopted pet, null if no pet was adopted.
+     */
+    private PetID petID;
+    /**
+     * Reason of a rejection, null if the request was not rejected.
+     */
+    private AdoptionRejection rejection;
+
+    /**
+     * Constructs an empty event slot.
+     */
+    ShelterEvent() //package-private constructor, slots are created by ShelterEventLog
+    {
+    }
+
+    /**
+     * Sets all fields of the event, called by the producer that claimed the slot.
+     * @param type kind of event
+     * @param timeMillis time of the event in milliseconds since the epoch
+     * @param customerNumber customer number of the customer
+     * @param petType lower-case pet type
+     * @param petID PetID of the adopted pet, or null
+     * @param rejection reason of a rejection, or null
+     */
+    void set(ShelterEventType type, long timeMillis, CustomerNumber customerNumber, String petType, PetID petID, AdoptionRejection rejection)
+    {
+        this.type = type;
+        this.timeMillis = timeMillis;
+        this.customerNumber = customerNumber;
+        this.petType = petType;
+        this.petID = petID;
+        this.rejection = rejection;
+    }
+
+    /**
+     * Clears the references of the event after it was consumed, so the slot does not keep objects alive.
+     */
+    void clear()
+    {
+        set(null, 0, null, null, null, null);
+    }
+
+    /**
+     * Returns the kind of event.
+     * @return event type
+     */
+    public ShelterEventType getType()
+    {
+        return type;
+    }
+
+    /**
+     * Returns the time of the event.
+     * @return milliseconds since the epoch
+     */
+    public long getTimeMillis()
+    {
+        return timeMillis;
+    }
+
+    /**
+     * Returns the customer number of the customer.
+     * @return customer number, null if not known
+     */
+    public CustomerNumber getCustomerNumber()
+    {
+        return customerNumber;
+    }
+
+    /**
+     * Returns the pet type of the event.
+     * @return lower-case pet type
+     */
+    public String getPetType()
+    {
+        return petType;
+    }
+
+    /**
+     * Returns the PetID of the adopted pet.
+     * @return PetID, null if no pet was adopted
+     */
+    public PetID getPetID()
+    {
+        return petID;
+    }
+
+    /**
+     * Returns the reason of a rejection.
+     * @return rejection reason, null if the request was not rejected
+     */
+    public AdoptionRejection getRejection()
+    {
+        return rejection;
+    }
+
+    /**
+     * Returns the event as one line of text: ISO time, event type and key=value fields.
+     * @return String representation of the event
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder line = new StringBuilder(96);
+        line.append(Instant.ofEpochMilli(timeMillis)).append(' ').append(type);
+        line.append(" customer=").append(customerNumber).append(" petType=").append(petType);
+        if (petID != null)
+            line.append(" petID=").append(petID);
+        if (rejection != null)
+            line.append(" reason=").append(rejection);
+        return line.toString();
+    }
+}
@@ -0,0 +1,416 @@
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * ShelterEventLog - asynchronous structured log of adoption events, e.g. to a rolling log file.
+ * Events are written into a preallocated ring buffer without locks: an adoption desk claims a slot with one compare-and-set,
+ * fills in references to the customer number, pet type, PetID and rejection reason and publishes the slot.
+ * A background writer thread passes the published events in order to the consumer of the log, so no I/O and no formatting
+ * happen on the thread of the adoption. If the ring buffer is full the event is dropped and counted instead of waiting for the writer.
+ * A consumer that is Flushable is flushed whenever the writer has no more events, and a consumer that is Closeable is closed by close().
+ * @see ShelterManager#setEventLog(ShelterEventLog)
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public final class ShelterEventLog implements Closeable {
+
+    /**
+     * Default number of slots of the ring buffer.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+
+    /**
+     * Time the writer thread parks while there are no events, in nanoseconds.
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Value of nextSequence after the writer stopped, no slot can be claimed from it.
+     */
+    private static final long STOPPED_SEQUENCE = Long.MAX_VALUE;
+
+    /**
+     * Preallocated event slots, the event of sequence s is in slot s & mask.
+     */
+    private final ShelterEvent[] events;
+    /**
+     * Sequence published in each slot, -1 if no event was published in it yet.
+     */
+    private final AtomicLongArray publishedSequences;
+    /**
+     * Number of slots minus one, the number of slots is a power of two.
+     */
+    private final int mask;
+    /**
+     * Next sequence to be claimed by a producer.
+     */
+    private final AtomicLong nextSequence = new AtomicLong();
+    /**
+     * Sequence of the next event to be consumed by the writer, slots of lower sequences can be reused.
+     */
+    private volatile long consumedSequence;
+    /**
+     * Number of events dropped because the ring buffer was full, the log was closed or the consumer failed.
+     */
+    private final LongAdder droppedEvents = new LongAdder();
+    /**
+     * Consumer of the events, called only by the writer thread.
+     */
+    private final Consumer<? super ShelterEvent> consumer;
+    /**
+     * Thread passing the published events to the consumer.
+     */
+    private final Thread writer;
+    /**
+     * Indicates if close() was called, no more events are accepted.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Constructs an event log passing the events to the specified consumer, with the default capacity.
+     * @param consumer consumer of the events, called by the writer thread only
+     * @throws IllegalArgumentException if <code>consumer</code> is null
+     */
+    public ShelterEventLog(Consumer<? super ShelterEvent> consumer) throws IllegalArgumentException
+    {
+        this(consumer, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an event log passing the events to the specified consumer.
+     * @param consumer consumer of the events, called by the writer thread only
+     * @param capacity number of slots of the ring buffer, a power of two
+     * @throws IllegalArgumentException if <code>consumer</code> is null or <code>capacity</code> is not a positive power of two
+     */
+    public ShelterEventLog(Consumer<? super ShelterEvent> consumer, int capacity) throws IllegalArgumentException
+    {
+        if (consumer == null)
+            throw new IllegalArgumentException("Event consumer cannot be null.");
+        if (capacity < 1 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("Capacity must be a positive power of two: " + capacity);
+        this.consumer = consumer;
+        events = new ShelterEvent[capacity];
+        publishedSequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++)
+        {
+            events[i] = new ShelterEvent();
+            publishedSequences.set(i, -1);
+        }
+        mask = capacity - 1;
+        writer = new Thread(this::writeEvents, "shelter-event-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Opens an event log writing one line per event to a rolling log file. When the file reaches <code>maxFileSize</code> bytes
+     * it is renamed to file.1, file.1 to file.2 and so on, and the oldest file beyond <code>maxBackups</code> is deleted.
+     * @param file log file, created with its parent directories if needed and appended to if it exists
+     * @param maxFileSize size of the log file in bytes that starts a new file, 1 or more
+     * @param maxBackups number of older log files kept, 0 or more
+     * @return event log writing to the file
+     * @throws IllegalArgumentException if <code>file</code> is null or a limit is out of range
+     * @throws IOException if the log file cannot be opened
+     */
+    public static ShelterEventLog openRollingFile(Path file, long maxFileSize, int maxBackups) throws IllegalArgumentException, IOException
+    {
+        return new ShelterEventLog(new RollingFileConsumer(file, maxFileSize, maxBackups));
+    }
+
+    /**
+     * Publishes an adoption. Never blocks: the event is dropped if the ring buffer is full.
+     * @param customerNumber customer number of the adopting customer
+     * @param petType lower-case pet type
+     * @param petID PetID of the adopted pet
+     * @return true if the event was published, false if it was dropped
+     */
+    boolean publishAdoption(CustomerNumber customerNumber, String petType, PetID petID)
+    {
+        return publish(ShelterEventType.PET_ADOPTED, customerNumber, petType, petID, null);
+    }
+
+    /**
+     * Publishes a rejected adoption request. Never blocks: the event is dropped if the ring buffer is full.
+     * @param customerNumber customer number of the customer, or null if not known
+     * @param petType lower-case pet type requested
+     * @param rejection reason of the rejection
+     * @return true if the event was published, false if it was dropped
+     */
+    boolean publishRejection(CustomerNumber customerNumber, String petType, AdoptionRejection rejection)
+    {
+        return publish(ShelterEventType.ADOPTION_REJECTED, customerNumber, petType, null, rejection);
+    }
+
+    /**
+     * Claims the next slot, fills it in and publishes it to the writer.
+     * @param type kind of event
+     * @param customerNumber customer number of the customer
+     * @param petType lower-case pet type
+     * @param petID PetID of the adopted pet, or null
+     * @param rejection reason of a rejection, or null
+     * @return true if the event was published, false if it was dropped
+     */
+    private boolean publish(ShelterEventType type, CustomerNumber customerNumber, String petType, PetID petID, AdoptionRejection rejection)
+    {
+        long sequence;
+        do
+        {
+            sequence = nextSequence.get();
+            if (closed || sequence - consumedSequence >= events.length) //closed, writer stopped, or the slot still holds an event not consumed
+            {
+                droppedEvents.increment();
+                return false;
+            }
+        }
+        while (!nextSequence.compareAndSet(sequence, sequence + 1));
+        int index = (int) sequence & mask;
+        events[index].set(type, System.currentTimeMillis(), customerNumber, petType, petID, rejection);
+        publishedSequences.set(index, sequence); //volatile write publishes the fields of the event to the writer
+        return true;
+    }
+
+    /**
+     * Returns the number of events dropped because the ring buffer was full, the log was closed or the consumer failed.
+     * @return number of dropped events
+     */
+    public long getDroppedEvents()
+    {
+        return droppedEvents.sum();
+    }
+
+    /**
+     * Stops accepting events, waits until the writer passed all published events to the consumer and closes the consumer if it is Closeable.
+     * @throws IOException if the consumer cannot be closed
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if (closed)
+            return;
+        closed = true;
+        LockSupport.unpark(writer);
+        boolean interrupted = false;
+        while (writer.isAlive())
+        {
+            try
+            {
+                writer.join();
+            }
+            catch (InterruptedException e) //finish closing, then restore the interrupt
+            {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+        if (consumer instanceof Closeable)
+            ((Closeable) consumer).close();
+    }
+
+    /**
+     * Passes the published events in order to the consumer until the log is closed and all claimed events are consumed.
+     * Runs on the writer thread.
+     */
+    private void writeEvents()
+    {
+        long sequence = 0;
+        boolean flushed = true;
+        while (true)
+        {
+            int index = (int) sequence & mask;
+            if (publishedSequences.get(index) == sequence)
+            {
+                ShelterEvent event = events[index];
+                try
+                {
+                    consumer.accept(event);
+                }
+                catch (RuntimeException e) //e.g. log file not writable, the event is lost but the writer goes on
+                {
+                    droppedEvents.increment();
+                }
+                event.clear();
+                consumedSequence = ++sequence; //slot can be reused
+                flushed = false;
+            }
+            else if (closed && nextSequence.compareAndSet(sequence, STOPPED_SEQUENCE)) //no event claimed and not yet published, and none can be claimed now
+            {
+                flush();
+                return;
+            }
+            else
+            {
+                if (!flushed)
+                {
+                    flush();
+                    flushed = true;
+                }
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Flushes the consumer if it is Flushable. Runs on the writer thread.
+     */
+    private void flush()
+    {
+        if (consumer instanceof Flushable)
+        {
+            try
+            {
+                ((Flushable) consumer).flush();
+            }
+            catch (IOException | RuntimeException e) //retried at the next flush
+            {
+            }
+        }
+    }
+
+    /**
+     * RollingFileConsumer - consumer writing one line per event to a log file, renaming it to a backup when it is full.
+     */
+    private static final class RollingFileConsumer implements Consumer<ShelterEvent>, Flushable, Closeable {
+
+        /**
+         * Current log file.
+         */
+        private final Path file;
+        /**
+         * Size of the log file in bytes that starts a new file.
+         */
+        private final long maxFileSize;
+        /**
+         * Number of older log files kept.
+         */
+        private final int maxBackups;
+        /**
+         * Writer of the current log file.
+         */
+        private BufferedWriter fileWriter;
+        /**
+         * Number of bytes in the current log file.
+         */
+        private long fileSize;
+
+        /**
+         * Opens the log file.
+         * @param file log file
+         * @param maxFileSize size of the log file in bytes that starts a new file, 1 or more
+         * @param maxBackups number of older log files kept, 0 or more
+         * @throws IllegalArgumentException if <code>file</code> is null or a limit is out of range
+         * @throws IOException if the log file cannot be opened
+         */
+        private RollingFileConsumer(Path file, long maxFileSize, int maxBackups) throws IllegalArgumentException, IOException
+        {
+            if (file == null)
+                throw new IllegalArgumentException("Log file cannot be null.");
+            if (maxFileSize < 1 || maxBackups < 0)
+                throw new IllegalArgumentException("Maximum file size must be at least 1 and maximum backups at least 0.");
+            this.file = file.toAbsolutePath();
+            this.maxFileSize = maxFileSize;
+            this.maxBackups = maxBackups;
+            Files.createDirectories(this.file.getParent());
+            open();
+        }
+
+        /**
+         * Writes the event as one line, starting a new file first if the current one is full.
+         * @param event published event
+         * @throws UncheckedIOException if the line cannot be written
+         */
+        @Override
+        public void accept(ShelterEvent event) throws UncheckedIOException
+        {
+            String line = event.toString();
+            try
+            {
+                if (fileSize > 0 && fileSize + line.length() + 1 > maxFileSize)
+                    roll();
+                fileWriter.write(line);
+                fileWriter.newLine();
+                fileSize += line.length() + 1; //events are ASCII
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Flushes the buffered lines to the log file.
+         * @throws IOException if the lines cannot be written
+         */
+        @Override
+        public void flush() throws IOException
+        {
+            fileWriter.flush();
+        }
+
+        /**
+         * Flushes and closes the log file.
+         * @throws IOException if the log file cannot be closed
+         */
+        @Override
+        public void close() throws IOException
+        {
+            fileWriter.close();
+        }
+
+        /**
+         * Closes the full log file, shifts the backups by one and opens a new log file.
+         * @throws IOException if a file cannot be renamed, deleted or opened
+         */
+        private void roll() throws IOException
+        {
+            fileWriter.close();
+            if (maxBackups == 0)
+                Files.delete(file);
+            else
+            {
+                Files.deleteIfExists(backupOf(maxBackups));
+                for (int i = maxBackups - 1; i >= 1; i--)
+                {
+                    if (Files.exists(backupOf(i)))
+                        Files.move(backupOf(i), backupOf(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+                Files.move(file, backupOf(1), StandardCopyOption.REPLACE_EXISTING);
+            }
+            open();
+        }
+
+        /**
+         * Opens the log file for appending.
+         * @throws IOException if the log file cannot be opened
+         */
+        private void open() throws IOException
+        {
+            fileWriter = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            fileSize = Files.size(file);
+        }
+
+        /**
+         * Returns the path of a backup of the log file.
+         * @param number number of the backup, 1 is the newest
+         * @return path of the backup, the log file name followed by the number
+         */
+        private Path backupOf(int number)
+        {
+            return file.resolveSibling(file.getFileName() + "." + number);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+/**
+ * ShelterEventType - kinds of events written to a ShelterEventLog.
+ * @see ShelterEvent
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public enum ShelterEventType {
+
+    /**
+     * A customer adopted a pet.
+     */
+    PET_ADOPTED,
+    /**
+     * An adoption request was rejected.
+     */
+    ADOPTION_REJECTED
+}
@@ -0,0 +1,538 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ShelterFederation - client of a federation of shelters partitioned into shards, each served by a ShelterServer process.
+ * <p>
+ * Pets are partitioned by PetID range: a shard allocates PetIDs from its own range, so updates are routed by the PetID alone.
+ * Customers are partitioned by hash of their name and date of birth: a customer is registered at one home shard,
+ * which detects duplicate customers and keeps the customer's adoptions and adoption quota. Adoptions are made from the pets of the home shard.
+ * Counts are the totals of all shards, requested from all shards before the responses are read.
+ * <p>
+ * A federation holds one connection per shard, used by one request at a time. A connection that fails, e.g. when a response is not read in time,
+ * is closed, so its late response is never read as the response of another request, and the next request of the shard reconnects.
+ * @see ShelterServer
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public final class ShelterFederation implements Closeable {
+
+    /**
+     * Default read timeout of a shard connection in milliseconds.
+     */
+    public static final int DEFAULT_TIMEOUT_MILLIS = 10000;
+
+    /**
+     * Connections to the shards, by shard index.
+     */
+    private final List<ShardConnection> shards;
+
+    /**
+     * Connects to the shards of a federation, the shards being listed in shard index order.
+     * @param shardAddresses addresses of the ShelterServers of the shards, shard 0 first
+     * @throws IOException if a shard cannot be reached
+     * @throws IllegalArgumentException if the list is empty, or a server serves another shard or federation
+     */
+    public ShelterFederation(List<InetSocketAddress> shardAddresses) throws IOException, IllegalArgumentException
+    {
+        this(shardAddresses, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Connects to the shards of a federation, the shards being listed in shard index order.
+     * @param shardAddresses addresses of the ShelterServers of the shards, shard 0 first
+     * @param timeoutMillis connect and read timeout of a shard connection in milliseconds, more than 0
+     * @throws IOException if a shard cannot be reached
+     * @throws IllegalArgumentException if the list is empty or the timeout is invalid, or a server serves another shard or federation
+     */
+    public ShelterFederation(List<InetSocketAddress> shardAddresses, int timeoutMillis) throws IOException, IllegalArgumentException
+    {
+        if (shardAddresses == null || shardAddresses.isEmpty())
+            throw new IllegalArgumentException("A federation needs at least one shard.");
+        if (timeoutMillis <= 0)
+            throw new IllegalArgumentException("Invalid timeout: " + timeoutMillis);
+        shards = new ArrayList<ShardConnection>(shardAddresses.size());
+        try
+        {
+            for (int shardIndex = 0; shardIndex < shardAddresses.size(); shardIndex++)
+            {
+                ShardConnection shard = new ShardConnection(shardAddresses.get(shardIndex), shardIndex, shardAddresses.size(), timeoutMillis);
+                shards.add(shard);
+                synchronized (shard)
+                {
+                    shard.open(); //every shard is checked now, not at its first request
+                }
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of shards of the federation.
+     * @return number of shards, 1 or more
+     */
+    public int getNoOfShards()
+    {
+        return shards.size();
+    }
+
+    /**
+     * Returns the index of the shard that holds the pet with the specified PetID, see ShelterServer.petIDRangeOf(int, int).
+     * @param petID PetID of the pet
+     * @return shard index
+     */
+    public int shardOf(PetID petID)
+    {
+        long rangeSize = Integer.MAX_VALUE / shards.size();
+        return (int) Math.min(petID.getValue() / rangeSize, shards.size() - 1);
+    }
+
+    /**
+     * Returns the index of the home shard of a customer, customers with the same name and date of birth have the same home shard.
+     * @param firstName first name of the customer
+     * @param lastName last name of the customer
+     * @param dob date of birth of the customer
+     * @return shard index
+     */
+    int homeShardOf(String firstName, String lastName, Date dob)
+    {
+        return Math.floorMod(31 * new Name(firstName, lastName).hashCode() + dob.hashCode(), shards.size());
+    }
+
+    /**
+     * Adds pets of the specified type to the specified shard.
+     * @param shardIndex index of the shard
+     * @param petType "dog" or "cat" (case-insensitive)
+     * @param count number of pets to add, 0 or more
+     * @return PetIDs of the added pets
+     * @throws IOException if the shard cannot be reached
+     * @throws IllegalArgumentException if the pet type or count is invalid, or the PetID range of the shard is used up
+     */
+    public List<PetID> addPets(int shardIndex, String petType, int count) throws IOException, IllegalArgumentException
+    {
+        if (petType == null)
+            throw new IllegalArgumentException("Pet type cannot be null!");
+        int firstValue = request(shardIndex, shard -> {
+            shard.out.writeByte(ShelterServer.ADD_PETS);
+            shard.out.writeUTF(petType);
+            shard.out.writeInt(count);
+            shard.out.flush();
+            shard.readStatus();
+            return shard.in.readInt();
+        });
+        List<PetID> petIDs = new ArrayList<PetID>(count);
+        for (int i = 0; i < count; i++) //consecutive PetIDs of one reservation
+        {
+            petIDs.add(PetID.getPetIDInstance(firstValue + i));
+        }
+        return petIDs;
+    }
+
+    /**
+     * Updates the training status of a dog at the shard that holds it.
+     * @param petID PetID of the dog
+     * @param trained new training status
+     * @return true if updated, false otherwise
+     * @throws IOException if the shard cannot be reached
+     * @throws IllegalArgumentException if a value is null or the shard has no dog with the PetID
+     */
+    public boolean updatePetRecord(PetID petID, Boolean trained) throws IOException, IllegalArgumentException
+    {
+        if (petID == null || trained == null)
+            throw new IllegalArgumentException("Values passed in parameters cannot be null!");
+        return request(shardOf(petID), shard -> {
+            shard.out.writeByte(ShelterServer.UPDATE_PET_RECORD);
+            shard.out.writeInt(petID.getValue());
+            shard.out.writeBoolean(trained);
+            shard.out.flush();
+            shard.readStatus();
+            return shard.in.readBoolean();
+        });
+    }
+
+    /**
+     * Returns the number of available pets of the specified type in all shards.
+     * @param petType "dog" or "cat" (case-insensitive)
+     * @return number of available pets, 0 for other pet types
+     * @throws IOException if a shard cannot be reached
+     * @throws IllegalArgumentException if the pet type is null
+     */
+    public int noOfAvailablePets(String petType) throws IOException, IllegalArgumentException
+    {
+        if (petType == null)
+            throw new IllegalArgumentException("Pet type cannot be null!");
+        return broadcast(0, out -> {
+            out.writeByte(ShelterServer.NO_OF_AVAILABLE_PETS);
+            out.writeUTF(petType);
+        }, in -> in.readInt());
+    }
+
+    /**
+     * Returns the pet counts of all shards added up per pet type and status.
+     * @return pet counts of the federation
+     * @throws IOException if a shard cannot be reached
+     */
+    public PetCounts getPetCounts() throws IOException
+    {
+        Map<String, int[]> counts = new HashMap<String, int[]>();
+        broadcast(0, out -> out.writeByte(ShelterServer.GET_PET_COUNTS), in -> {
+            int noOfPetTypes = in.readInt();
+            for (int i = 0; i < noOfPetTypes; i++)
+            {
+                int[] cells = counts.computeIfAbsent(in.readUTF(), petType -> new int[PetCounts.NO_OF_CELLS]);
+                for (int cell = 0; cell < PetCounts.NO_OF_CELLS; cell++)
+                    cells[cell] += in.readInt();
+            }
+            return 0;
+        });
+        return new PetCounts(counts);
+    }
+
+    /**
+     * Registers a customer at the customer's home shard.
+     * @param firstName first name of the customer
+     * @param lastName last name of the customer
+     * @param dob date of birth of the customer
+     * @param hasGarden indicates if customer has a garden
+     * @return reference to the registered customer
+     * @throws IOException if the home shard cannot be reached
+     * @throws IllegalArgumentException if a value is null or invalid
+     * @throws Error if the customer is already registered
+     */
+    public FederatedCustomer addCustomerRecord(String firstName, String lastName, Date dob, Boolean hasGarden) throws IOException, IllegalArgumentException, Error
+    {
+        if (firstName == null || lastName == null || dob == null || hasGarden == null)
+            throw new IllegalArgumentException("Values passed in parameters cannot be null!");
+        int shardIndex = homeShardOf(firstName, lastName, dob);
+        return request(shardIndex, shard -> {
+            shard.out.writeByte(ShelterServer.ADD_CUSTOMER_RECORD);
+            shard.out.writeUTF(firstName);
+            shard.out.writeUTF(lastName);
+            shard.out.writeLong(dob.getTime());
+            shard.out.writeBoolean(hasGarden);
+            shard.out.flush();
+            shard.readStatus();
+            return new FederatedCustomer(shardIndex, shard.in.readUTF());
+        });
+    }
+
+    /**
+     * Adopts a pet of the specified type for a customer at the customer's home shard, following the adoption rules of ShelterManager.
+     * @param customer customer registered in the federation
+     * @param petType "dog" or "cat" (case-insensitive)
+     * @return the adopted PetID, or why the customer cannot adopt a pet
+     * @throws IOException if the home shard cannot be reached
+     * @throws IllegalArgumentException if a value is null, the pet type is invalid or the customer is not registered at the home shard
+     */
+    public AdoptionResult adoptPet(FederatedCustomer customer, String petType) throws IOException, IllegalArgumentException
+    {
+        if (customer == null || petType == null)
+            throw new IllegalArgumentException("Values passed in parameters cannot be null!");
+        return request(customer.getShardIndex(), shard -> {
+            shard.out.writeByte(ShelterServer.ADOPT_PET);
+            shard.out.writeUTF(customer.getCustomerNumber());
+            shard.out.writeUTF(petType);
+            shard.out.flush();
+            shard.readStatus();
+            int petIDValue = shard.in.readInt();
+            if (petIDValue >= 0)
+                return AdoptionResult.adopted(PetID.getPetIDInstance(petIDValue));
+            return AdoptionResult.rejected(AdoptionRejection.valueOf(shard.in.readUTF()));
+        });
+    }
+
+    /**
+     * Closes the connections to the shards, the shards keep running.
+     */
+    @Override
+    public void close()
+    {
+        for (ShardConnection shard : shards)
+        {
+            synchronized (shard)
+            {
+                shard.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Sends a request to one shard and reads its result, reconnecting first if the connection failed before.
+     * The connection is closed if the request fails with an IOException, as the response may still arrive and must not be read by the next request.
+     * @param shardIndex index of the shard
+     * @param call writes the request and reads the response
+     * @param <T> result of the request
+     * @return result of the request
+     * @throws IOException if the shard cannot be reached, does not respond in time or fails
+     * @throws IllegalArgumentException if the shard rejects the request
+     */
+    private <T> T request(int shardIndex, ShardCall<T> call) throws IOException, IllegalArgumentException
+    {
+        ShardConnection shard = shards.get(shardIndex);
+        synchronized (shard)
+        {
+            shard.open();
+            try
+            {
+                return call.call(shard);
+            }
+            catch (IOException e) //e.g. read timeout, the stream is no longer in step with the requests
+            {
+                shard.disconnect();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Sends a request to all shards and adds up their results. The connections are locked in shard index order,
+     * from the specified shard on, and all requests are sent before the first response is read.
+     * @param shardIndex first shard to lock, 0 when called
+     * @param request writes the request
+     * @param response reads the result of a successful response
+     * @return sum of the results
+     * @throws IOException if a shard cannot be reached or fails
+     * @throws IllegalArgumentException if a shard rejects the request
+     */
+    private int broadcast(int shardIndex, ShardRequest request, ShardResponse response) throws IOException, IllegalArgumentException
+    {
+        if (shardIndex < shards.size())
+        {
+            synchronized (shards.get(shardIndex))
+            {
+                return broadcast(shardIndex + 1, request, response);
+            }
+        }
+        for (ShardConnection shard : shards)
+            shard.open();
+        int total = 0;
+        byte failedStatus = ShelterServer.OK;
+        String failure = null;
+        try
+        {
+            for (ShardConnection shard : shards)
+            {
+                request.write(shard.out);
+                shard.out.flush();
+            }
+            for (ShardConnection shard : shards) //every response is read, so the connections stay usable after a failed response
+            {
+                byte status = shard.in.readByte();
+                if (status == ShelterServer.OK)
+                {
+                    total += response.read(shard.in);
+                }
+                else
+                {
+                    String message = shard.in.readUTF();
+                    if (failure == null)
+                    {
+                        failedStatus = status;
+                        failure = message;
+                    }
+                }
+            }
+        }
+        catch (IOException e) //responses of the other shards may not have been read either
+        {
+            for (ShardConnection shard : shards)
+                shard.disconnect();
+            throw e;
+        }
+        if (failure != null)
+            throwFailure(failedStatus, failure);
+        return total;
+    }
+
+    /**
+     * Throws the exception of a failed response.
+     * @param status response code
+     * @param message message of the exception at the shard
+     * @throws IOException if the request failed at the shard
+     * @throws IllegalArgumentException if the shard rejected the request
+     * @throws Error if the request failed with an Error at the shard
+     */
+    private static void throwFailure(byte status, String message) throws IOException, IllegalArgumentException, Error
+    {
+        if (status == ShelterServer.INVALID_ARGUMENT)
+            throw new IllegalArgumentException(message);
+        if (status == ShelterServer.ERROR)
+            throw new Error(message);
+        throw new IOException("Shard failed: " + message);
+    }
+
+    /**
+     * Connection to the ShelterServer of a shard, used by one request at a time while locked.
+     */
+    private static final class ShardConnection
+    {
+        /**
+         * Address of the ShelterServer of the shard.
+         */
+        private final InetSocketAddress address;
+        /**
+         * Index of the shard.
+         */
+        private final int shardIndex;
+        /**
+         * Number of shards of the federation.
+         */
+        private final int noOfShards;
+        /**
+         * Connect and read timeout in milliseconds.
+         */
+        private final int timeoutMillis;
+        /**
+         * Socket of the connection, null while not connected.
+         */
+        private Socket socket;
+        /**
+         * Buffered input of the socket.
+         */
+        private DataInputStream in;
+        /**
+         * Buffered output of the socket, flushed after each request.
+         */
+        private DataOutputStream out;
+
+        /**
+         * Constructs a connection to a shard, connected by open().
+         * @param address address of the ShelterServer
+         * @param shardIndex index of the shard
+         * @param noOfShards number of shards of the federation
+         * @param timeoutMillis connect and read timeout in milliseconds
+         */
+        private ShardConnection(InetSocketAddress address, int shardIndex, int noOfShards, int timeoutMillis)
+        {
+            this.address = address;
+            this.shardIndex = shardIndex;
+            this.noOfShards = noOfShards;
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        /**
+         * Connects to the shard if not connected, and checks that the server serves this shard. Caller must hold the lock of the connection.
+         * @throws IOException if the shard cannot be reached
+         * @throws IllegalArgumentException if the server serves another shard or federation
+         */
+        private void open() throws IOException, IllegalArgumentException
+        {
+            if (socket != null)
+                return;
+            socket = new Socket();
+            try
+            {
+                socket.connect(address, timeoutMillis);
+                socket.setSoTimeout(timeoutMillis);
+                socket.setTcpNoDelay(true); //requests and responses are small
+                in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                out.writeByte(ShelterServer.HELLO);
+                out.flush();
+                readStatus();
+                int servedIndex = in.readInt();
+                int servedNoOfShards = in.readInt();
+                if (servedIndex != shardIndex || servedNoOfShards != noOfShards)
+                    throw new IllegalArgumentException(address + " serves shard " + servedIndex + " of " + servedNoOfShards +
+                            ", not shard " + shardIndex + " of " + noOfShards);
+            }
+            catch (IOException | RuntimeException e)
+            {
+                disconnect();
+                throw e;
+            }
+        }
+
+        /**
+         * Closes the connection, the next request reconnects. Caller must hold the lock of the connection.
+         */
+        private void disconnect()
+        {
+            if (socket == null)
+                return;
+            try
+            {
+                socket.close();
+            }
+            catch (IOException e) //nothing to release
+            {
+            }
+            socket = null;
+            in = null;
+            out = null;
+        }
+
+        /**
+         * Reads the response code, throwing the exception of a failed response.
+         * @throws IOException if the shard cannot be reached or the request failed at the shard
+         * @throws IllegalArgumentException if the shard rejected the request
+         * @throws Error if the request failed with an Error at the shard
+         */
+        private void readStatus() throws IOException, IllegalArgumentException, Error
+        {
+            byte status = in.readByte();
+            if (status != ShelterServer.OK)
+                throwFailure(status, in.readUTF());
+        }
+    }
+
+    /**
+     * Request to one shard and the reading of its result.
+     * @param <T> result of the request
+     */
+    @FunctionalInterface
+    private interface ShardCall<T>
+    {
+        /**
+         * Writes the request to the connection and reads the response.
+         * @param shard connection to the shard, locked
+         * @return result of the request
+         * @throws IOException if the shard cannot be reached
+         */
+        T call(ShardConnection shard) throws IOException;
+    }
+
+    /**
+     * Writer of the request of an operation sent to all shards.
+     */
+    @FunctionalInterface
+    private interface ShardRequest
+    {
+        /**
+         * Writes the operation code and arguments.
+         * @param out output of a shard connection
+         * @throws IOException if the shard cannot be reached
+         */
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Reader of the result of a successful response of a shard.
+     */
+    @FunctionalInterface
+    private interface ShardResponse
+    {
+        /**
+         * Reads the result following the response code.
+         * @param in input of a shard connection
+         * @return result of the shard
+         * @throws IOException if the shard cannot be reached
+         */
+        int read(DataInputStream in) throws IOException;
+    }
+}
@@ -0,0 +1,712 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * ShelterJournal - append-only write-ahead journal of the mutations of a ShelterManager, so the shelter register survives a restart.
+ * Every successful addPet, addPets, updatePetRecord, addCustomerRecord and adoptPet is appended as a compact binary record
+ * before the mutating method returns, and the journal is replayed by ShelterManager(ShelterJournal) to restore the exact register,
+ * including the positions of the PetID and CustomerNumber generators.
+ * <p>
+ * Records are written to a FileChannel with group commit: a thread that needs its record on disk writes all records appended so far
+ * in one write (and one fsync), while threads arriving in the meantime wait for that write and share the next one.
+ * The committing thread can wait a short time for more records to join its batch, see open(Path, int, long, boolean).
+ * <p>
+ * File format: an 8 byte header (magic number, version), followed by records of the form
+ * [int payload length][byte record type][payload][int CRC32 of type and payload]. A torn or corrupt record at the end of the file,
+ * e.g. after a crash during a write, ends the replay and is truncated.
+ * @see ShelterManager#ShelterManager(ShelterJournal)
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public final class ShelterJournal implements Closeable {
+
+    //constants
+    /**
+     * Magic number at the start of a journal file, "SHJ" and a zero byte.
+     */
+    private static final int MAGIC = 0x53484A00;
+    /**
+     * Version of the journal file format.
+     */
+    private static final int VERSION = 1;
+    /**
+     * Length of the file header: magic number and version.
+     */
+    private static final int HEADER_LENGTH = 8;
+    /**
+     * Length of a record frame without payload: payload length, record type and CRC32.
+     */
+    private static final int FRAME_LENGTH = 9;
+    /**
+     * Largest payload of a valid record, larger lengths are treated as corruption.
+     */
+    private static final int MAX_PAYLOAD_LENGTH = 1 << 20;
+    /**
+     * Default number of records the committing thread waits for, see open(Path, int, long, boolean).
+     */
+    public static final int DEFAULT_GROUP_COMMIT_SIZE = 64;
+
+    //record types
+    /**
+     * Record of pets of one type and training status with consecutive PetIDs added to the shelter.
+     */
+    static final byte ADD_PETS = 1;
+    /**
+     * Record of a training status update.
+     */
+    static final byte UPDATE_PET = 2;
+    /**
+     * Record of a customer record added to the shelter.
+     */
+    static final byte ADD_CUSTOMER = 3;
+    /**
+     * Record of a pet adopted by a customer.
+     */
+    static final byte ADOPT_PET = 4;
+
+    //fields
+    /**
+     * Channel of the journal file, written only by the committing thread.
+     */
+    private final FileChannel channel;
+    /**
+     * Number of records the committing thread waits for before writing.
+     */
+    private final int groupCommitSize;
+    /**
+     * Longest time in nanoseconds the committing thread waits for groupCommitSize records.
+     */
+    private final long groupCommitNanos;
+    /**
+     * Indicates if commits are forced to the storage device (fsync), otherwise they are only written to the operating system.
+     */
+    private final boolean fsync;
+    /**
+     * Checksum of records, guarded by this.
+     */
+    private final CRC32 checksum = new CRC32();
+    /**
+     * Records appended and not yet written, guarded by this.
+     */
+    private ByteBuffer pending = ByteBuffer.allocate(64 * 1024);
+    /**
+     * Empty buffer swapped with pending by the committing thread, null while a commit is writing it, guarded by this.
+     */
+    private ByteBuffer spare = ByteBuffer.allocate(64 * 1024);
+    /**
+     * Sequence number of the last record appended, guarded by this.
+     */
+    private long appendedSeq;
+    /**
+     * File position after the last record appended, guarded by this.
+     */
+    private long appendedPosition;
+    /**
+     * Sequence number of the last record written (and forced if fsync), guarded by this.
+     */
+    private long committedSeq;
+    /**
+     * Position of the record being appended in the pending buffer, set by begin(byte, int), guarded by this.
+     */
+    private int recordStart;
+    /**
+     * Indicates if a thread is committing, guarded by this.
+     */
+    private boolean committing;
+    /**
+     * Indicates if the journal was attached to a ShelterManager, guarded by this.
+     */
+    private boolean attached;
+    /**
+     * Indicates if the journal is closed, guarded by this.
+     */
+    private boolean closed;
+    /**
+     * First write failure, after which no more records are accepted, guarded by this.
+     */
+    private IOException failure;
+
+
+    //private constructor, use open()
+    /**
+     * Constructs a journal writing to the specified channel.
+     * @param channel channel of the journal file, positioned at the end of the file header
+     * @param groupCommitSize number of records the committing thread waits for
+     * @param groupCommitNanos longest time the committing thread waits
+     * @param fsync whether commits are forced to the storage device
+     */
+    private ShelterJournal(FileChannel channel, int groupCommitSize, long groupCommitNanos, boolean fsync)
+    {
+        this.channel = channel;
+        this.groupCommitSize = groupCommitSize;
+        this.groupCommitNanos = groupCommitNanos;
+        this.fsync = fsync;
+    }
+
+    //static factory methods
+    /**
+     * Opens or creates the journal file with the default settings: commits are forced to the storage device and
+     * the committing thread does not wait for more records (records appended during a commit still share the next one).
+     * @param file journal file
+     * @return open journal, to be replayed by ShelterManager(ShelterJournal)
+     * @throws IOException if the file cannot be opened or is not a journal file
+     */
+    public static ShelterJournal open(Path file) throws IOException
+    {
+        return open(file, DEFAULT_GROUP_COMMIT_SIZE, 0, true);
+    }
+
+    /**
+     * Opens or creates the journal file with the specified group commit settings.
+     * @param file journal file
+     * @param groupCommitSize number of records the committing thread waits for before writing, 1 or more
+     * @param groupCommitDelayMillis longest time in milliseconds the committing thread waits for groupCommitSize records, 0 or more
+     * @param fsync true to force each commit to the storage device, false to only write it to the operating system
+     * @return open journal, to be replayed by ShelterManager(ShelterJournal)
+     * @throws IOException if the file cannot be opened or is not a journal file
+     * @throws IllegalArgumentException if <code>groupCommitSize</code> or <code>groupCommitDelayMillis</code> is out of range
+     */
+    public static ShelterJournal open(Path file, int groupCommitSize, long groupCommitDelayMillis, boolean fsync) throws IOException, IllegalArgumentException
+    {
+        if (groupCommitSize < 1)
+            throw new IllegalArgumentException("Group commit size must be at least 1: " + groupCommitSize);
+        if (groupCommitDelayMillis < 0)
+            throw new IllegalArgumentException("Group commit delay cannot be negative: " + groupCommitDelayMillis);
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try
+        {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+            if (channel.size() < HEADER_LENGTH) //new file, or crash before the header was written
+            {
+                header.putInt(MAGIC).putInt(VERSION).flip();
+                channel.truncate(0);
+                channel.write(header, 0);
+                channel.force(true);
+            }
+            else
+            {
+                channel.read(header, 0);
+                header.flip();
+                if (header.getInt() != MAGIC)
+                    throw new IOException(file + " is not a shelter journal.");
+                int version = header.getInt();
+                if (version != VERSION)
+                    throw new IOException("Unsupported shelter journal version " + version + " in " + file);
+            }
+            channel.position(HEADER_LENGTH);
+            return new ShelterJournal(channel, groupCommitSize, TimeUnit.MILLISECONDS.toNanos(groupCommitDelayMillis), fsync);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            channel.close();
+            throw e;
+        }
+    }
+
+    //replay
+    /**
+     * Replays all records of the journal into the specified empty shelter register and attaches the journal to it.
+     * A torn or corrupt record ends the replay and is truncated with the rest of the file.
+     * @param shelterManager empty shelter register
+     * @return number of records replayed
+     * @throws IOException if the journal cannot be read
+     * @throws IllegalStateException if the journal is closed or was already attached to a shelter register
+     */
+    long replay(ShelterManager shelterManager) throws IOException, IllegalStateException
+    {
+        return replay(shelterManager, HEADER_LENGTH);
+    }
+
+    /**
+     * Replays the records of the journal from the specified position into the specified shelter register and attaches the journal to it.
+     * Used after loading a snapshot, see getCheckpointPosition().
+     * A torn or corrupt record ends the replay and is truncated with the rest of the file.
+     * @param shelterManager shelter register restored up to the specified position
+     * @param fromPosition file position of the first record to replay
+     * @return number of records replayed
+     * @throws IOException if the journal cannot be read or ends before the specified position
+     * @throws IllegalStateException if the journal is closed or was already attached to a shelter register
+     */
+    synchronized long replay(ShelterManager shelterManager, long fromPosition) throws IOException, IllegalStateException
+    {
+        if (closed)
+            throw new IllegalStateException("Journal is closed.");
+        if (attached)
+            throw new IllegalStateException("Journal is already attached to a shelter register.");
+
+        long fileSize = channel.size();
+        if (fromPosition < HEADER_LENGTH || fromPosition > fileSize)
+            throw new IOException("Shelter journal ends before position " + fromPosition + ", it is older than the snapshot.");
+        long position = fromPosition; //position of the next record
+        long noOfRecords = 0;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 21); //large enough for the largest record
+        buffer.flip(); //empty, ready to read from
+
+        while (position + FRAME_LENGTH <= fileSize)
+        {
+            if (!fill(buffer, position, FRAME_LENGTH))
+                break;
+            int payloadLength = buffer.getInt(buffer.position());
+            if (payloadLength < 0 || payloadLength > MAX_PAYLOAD_LENGTH || position + FRAME_LENGTH + payloadLength > fileSize)
+                break; //torn or corrupt length
+            if (!fill(buffer, position, FRAME_LENGTH + payloadLength))
+                break;
+
+            int start = buffer.position();
+            checksum.reset();
+            checksum.update(buffer.slice(start + 4, 1 + payloadLength));
+            if ((int) checksum.getValue() != buffer.getInt(start + 5 + payloadLength))
+                break; //torn or corrupt record
+
+            buffer.position(start + 4);
+            byte recordType = buffer.get();
+            ByteBuffer payload = buffer.slice(start + 5, payloadLength);
+            apply(shelterManager, recordType, payload);
+            buffer.position(start + FRAME_LENGTH + payloadLength);
+
+            position += FRAME_LENGTH + payloadLength;
+            noOfRecords++;
+        }
+
+        if (position < fileSize) //drop the torn or corrupt tail, later records are appended after the last valid record
+        {
+            channel.truncate(position);
+            channel.force(true);
+        }
+        channel.position(position);
+        appendedPosition = position;
+        attached = true;
+        return noOfRecords;
+    }
+
+    /**
+     * Ensures the buffer holds at least the specified number of bytes from the file position of its next byte.
+     * @param buffer read buffer, its position is the next byte at file position <code>position</code>
+     * @param position file position of the next byte of the buffer
+     * @param length number of bytes needed
+     * @return true if the bytes are in the buffer, false if the file ends first
+     * @throws IOException if the file cannot be read
+     */
+    private boolean fill(ByteBuffer buffer, long position, int length) throws IOException
+    {
+        if (buffer.remaining() >= length)
+            return true;
+        buffer.compact(); //keep the unread bytes, then read after them
+        long readPosition = position + buffer.position();
+        while (buffer.position() < length)
+        {
+            int read = channel.read(buffer, readPosition);
+            if (read < 0)
+                break;
+            readPosition += read;
+        }
+        buffer.flip();
+        return buffer.remaining() >= length;
+    }
+
+    /**
+     * Applies a replayed record to the shelter register.
+     * @param shelterManager shelter register being restored
+     * @param recordType type of the record
+     * @param payload payload of the record
+     * @throws IOException if the record type is unknown
+     */
+    private static void apply(ShelterManager shelterManager, byte recordType, ByteBuffer payload) throws IOException
+    {
+        switch (recordType)
+        {
+            case ADD_PETS:
+            {
+                String petType = (payload.get() == 0) ? PetFactory.CAT_PET : PetFactory.DOG_PET;
+                boolean trained = payload.get() != 0;
+                int firstPetIDValue = payload.getInt();
+                int count = payload.getInt();
+                shelterManager.restorePets(PetFactory.restorePetInstances(new PetIntake(petType, count, trained), firstPetIDValue));
+                break;
+            }
+            case UPDATE_PET:
+            {
+                PetID petID = PetID.getPetIDInstance(payload.getInt());
+                shelterManager.restorePetTraining(petID, payload.get() != 0);
+                break;
+            }
+            case ADD_CUSTOMER:
+            {
+                CustomerNumber customerNumber = getCustomerNumber(payload);
+                String firstName = getString(payload);
+                String lastName = getString(payload);
+                Date dob = new Date(payload.getLong());
+                Date dateIssuedRecord = new Date(payload.getLong());
+                boolean hasGarden = payload.get() != 0;
+                shelterManager.restoreCustomerRecord(CustomerRecordFactory.restoreCustomerRecordInstance(
+                        firstName, lastName, dob, dateIssuedRecord, hasGarden, customerNumber));
+                break;
+            }
+            case ADOPT_PET:
+            {
+                CustomerNumber customerNumber = getCustomerNumber(payload);
+                shelterManager.restoreAdoption(customerNumber, PetID.getPetIDInstance(payload.getInt()));
+                break;
+            }
+            default:
+                throw new IOException("Unknown shelter journal record type " + recordType);
+        }
+    }
+
+    //appending
+    /**
+     * Appends records of pets added to the shelter, one record per run of pets of the same type and training status with consecutive PetIDs.
+     * @param pets added pets
+     * @return sequence number of the last record, to pass to commit(long)
+     */
+    synchronized long appendAddPets(List<Pet> pets)
+    {
+        int runStart = 0;
+        for (int i = 1; i <= pets.size(); i++)
+        {
+            if (i == pets.size() || !isSameRun(pets.get(i - 1), pets.get(i)))
+            {
+                Pet firstPet = pets.get(runStart);
+                begin(ADD_PETS, 10);
+                pending.put(firstPet.getPetType().equalsIgnoreCase(PetFactory.CAT_PET) ? (byte) 0 : (byte) 1);
+                pending.put(isTrained(firstPet) ? (byte) 1 : (byte) 0);
+                pending.putInt(firstPet.getPetID().getValue());
+                pending.putInt(i - runStart);
+                end();
+                runStart = i;
+            }
+        }
+        return appendedSeq;
+    }
+
+    /**
+     * Appends the record of a training status update.
+     * @param petID PetID of the updated dog
+     * @param trained updated training status
+     * @return sequence number of the record, to pass to commit(long)
+     */
+    synchronized long appendUpdatePet(PetID petID, boolean trained)
+    {
+        begin(UPDATE_PET, 5);
+        pending.putInt(petID.getValue());
+        pending.put(trained ? (byte) 1 : (byte) 0);
+        end();
+        return appendedSeq;
+    }
+
+    /**
+     * Appends the record of a customer record added to the shelter.
+     * @param customerRecord added customer record
+     * @return sequence number of the record, to pass to commit(long)
+     */
+    synchronized long appendAddCustomer(CustomerRecord customerRecord)
+    {
+        byte[] firstName = customerRecord.getCustomerName().getFirstName().getBytes(StandardCharsets.UTF_8);
+        byte[] lastName = customerRecord.getCustomerName().getLastName().getBytes(StandardCharsets.UTF_8);
+        if (firstName.length > 0xFFFF || lastName.length > 0xFFFF) //checked before the record is started
+            throw new IllegalArgumentException("Customer name too long for the journal.");
+        begin(ADD_CUSTOMER, 9 + 2 + firstName.length + 2 + lastName.length + 17);
+        putCustomerNumber(customerRecord.getCustomerNumber());
+        putString(firstName);
+        putString(lastName);
+        pending.putLong(customerRecord.getCustomerDOB().getTime());
+        pending.putLong(customerRecord.getDateIssuedRecord().getTime());
+        pending.put(customerRecord.getHasGarden() ? (byte) 1 : (byte) 0);
+        end();
+        return appendedSeq;
+    }
+
+    /**
+     * Appends the record of a pet adopted by a customer.
+     * @param customerNumber customer number of the adopting customer
+     * @param petID PetID of the adopted pet
+     * @return sequence number of the record, to pass to commit(long)
+     */
+    synchronized long appendAdoption(CustomerNumber customerNumber, PetID petID)
+    {
+        begin(ADOPT_PET, 9 + 4);
+        putCustomerNumber(customerNumber);
+        pending.putInt(petID.getValue());
+        end();
+        return appendedSeq;
+    }
+
+    /**
+     * Starts a record in the pending buffer, growing the buffer if needed. Caller must hold the lock of this journal.
+     * @param recordType type of the record
+     * @param payloadLength length of the payload
+     * @throws IllegalStateException if the journal is closed or not attached
+     * @throws UncheckedIOException if the journal failed
+     */
+    private void begin(byte recordType, int payloadLength) throws IllegalStateException, UncheckedIOException
+    {
+        checkOpen();
+        if (payloadLength > MAX_PAYLOAD_LENGTH)
+            throw new IllegalArgumentException("Journal record too large: " + payloadLength + " bytes");
+        if (pending.remaining() < FRAME_LENGTH + payloadLength)
+        {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + FRAME_LENGTH + payloadLength));
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+        recordStart = pending.position();
+        pending.putInt(payloadLength);
+        pending.put(recordType);
+    }
+
+    /**
+     * Ends the record started by begin(byte, int) with its checksum. Caller must hold the lock of this journal.
+     */
+    private void end()
+    {
+        checksum.reset();
+        checksum.update(pending.slice(recordStart + 4, pending.position() - recordStart - 4)); //record type and payload
+        pending.putInt((int) checksum.getValue());
+        appendedPosition += pending.position() - recordStart;
+        appendedSeq++;
+        if (appendedSeq - committedSeq >= groupCommitSize)
+            notifyAll(); //a committing thread may be waiting for a full batch
+    }
+
+    //committing
+    /**
+     * Waits until the record with the specified sequence number and all records before it are written (and forced if fsync).
+     * The calling thread either writes all appended records itself, or waits for the thread that is writing them.
+     * @param seq sequence number returned by an append method
+     * @throws UncheckedIOException if the journal cannot be written, no more records are accepted afterwards
+     */
+    void commit(long seq) throws UncheckedIOException
+    {
+        boolean interrupted = false;
+        try
+        {
+            while (true)
+            {
+                ByteBuffer batch;
+                long batchSeq;
+                synchronized (this)
+                {
+                    while (committedSeq < seq && committing && failure == null) //another thread is writing, wait for it
+                    {
+                        try
+                        {
+                            wait();
+                        }
+                        catch (InterruptedException e)
+                        {
+                            interrupted = true; //the record must still be committed, restore the interrupt status when done
+                        }
+                    }
+                    if (committedSeq >= seq)
+                        return;
+                    if (failure != null)
+                        throw new UncheckedIOException("Shelter journal write failed.", failure);
+
+                    committing = true; //this thread commits the batch
+                    long deadline = System.nanoTime() + groupCommitNanos;
+                    long remaining = groupCommitNanos;
+                    while (appendedSeq - committedSeq < groupCommitSize && remaining > 0) //let more records join the batch
+                    {
+                        try
+                        {
+                            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                        }
+                        catch (InterruptedException e)
+                        {
+                            interrupted = true;
+                            break;
+                        }
+                        remaining = deadline - System.nanoTime();
+                    }
+                    batch = pending;
+                    pending = spare;
+                    spare = null;
+                    batchSeq = appendedSeq;
+                }
+
+                IOException writeFailure = null;
+                try
+                {
+                    batch.flip();
+                    while (batch.hasRemaining())
+                        channel.write(batch);
+                    if (fsync)
+                        channel.force(false);
+                }
+                catch (IOException e)
+                {
+                    writeFailure = e;
+                }
+
+                synchronized (this)
+                {
+                    batch.clear();
+                    spare = batch;
+                    committing = false;
+                    if (writeFailure != null)
+                        failure = writeFailure;
+                    else
+                        committedSeq = batchSeq;
+                    notifyAll();
+                }
+            }
+        }
+        finally
+        {
+            if (interrupted)
+                Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the file position after the last record appended, where the replay after loading a snapshot starts.
+     * Caller must make sure no mutation is in progress, and commit the journal before the snapshot is saved.
+     * @return file position after the last record appended
+     */
+    synchronized long getCheckpointPosition()
+    {
+        return appendedPosition;
+    }
+
+    /**
+     * Waits until all appended records are written (and forced if fsync).
+     * @throws UncheckedIOException if the journal cannot be written
+     */
+    void commit() throws UncheckedIOException
+    {
+        long seq;
+        synchronized (this)
+        {
+            seq = appendedSeq;
+        }
+        commit(seq);
+    }
+
+    /**
+     * Commits all appended records and closes the journal file. Closing a closed journal has no effect.
+     * @throws IOException if the journal cannot be written or closed
+     */
+    @Override
+    public void close() throws IOException
+    {
+        synchronized (this)
+        {
+            if (closed)
+                return;
+        }
+        try
+        {
+            commit();
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+        finally
+        {
+            synchronized (this)
+            {
+                closed = true;
+            }
+            channel.close();
+        }
+    }
+
+    //encoding helpers
+    /**
+     * Throws an exception if records cannot be appended. Caller must hold the lock of this journal.
+     * @throws IllegalStateException if the journal is closed, not attached, or failed
+     */
+    private void checkOpen() throws IllegalStateException
+    {
+        if (closed)
+            throw new IllegalStateException("Journal is closed.");
+        if (!attached)
+            throw new IllegalStateException("Journal must be replayed before records are appended.");
+        if (failure != null)
+            throw new UncheckedIOException("Shelter journal write failed.", failure);
+    }
+
+    /**
+     * Returns true if two pets with consecutive PetIDs belong to one ADD_PETS record.
+     * @param pet pet
+     * @param nextPet pet after <code>pet</code>
+     * @return true if the pets have the same type and training status and consecutive PetIDs
+     */
+    private static boolean isSameRun(Pet pet, Pet nextPet)
+    {
+        return nextPet.getPetID().getValue() == pet.getPetID().getValue() + 1
+                && nextPet.getPetType().equals(pet.getPetType())
+                && isTrained(nextPet) == isTrained(pet);
+    }
+
+    /**
+     * Returns the training status of a pet.
+     * @param pet pet
+     * @return true if the pet is trainable and trained
+     */
+    private static boolean isTrained(Pet pet)
+    {
+        return pet instanceof Trainable && ((Trainable) pet).getTrained();
+    }
+
+    /**
+     * Puts the components of a customer number in the pending buffer (9 bytes).
+     * @param customerNumber customer number
+     */
+    private void putCustomerNumber(CustomerNumber customerNumber)
+    {
+        pending.putChar(customerNumber.getInitial());
+        pending.putInt(customerNumber.getSerialNumber());
+        pending.put((byte) customerNumber.getMonthOfIssue());
+        pending.putShort((short) customerNumber.getYearOfIssue());
+    }
+
+    /**
+     * Reads the components of a customer number written by putCustomerNumber(CustomerNumber).
+     * @param payload record payload
+     * @return customer number, its serial number is not issued again
+     */
+    private static CustomerNumber getCustomerNumber(ByteBuffer payload)
+    {
+        char initial = payload.getChar();
+        int serialNumber = payload.getInt();
+        int monthOfIssue = payload.get();
+        int yearOfIssue = payload.getShort();
+        return CustomerNumber.getCustomerNumberInstance(initial, serialNumber, monthOfIssue, yearOfIssue);
+    }
+
+    /**
+     * Puts a UTF-8 encoded String with its length in the pending buffer.
+     * @param utf8 UTF-8 bytes, at most 65535
+     */
+    private void putString(byte[] utf8)
+    {
+        pending.putShort((short) utf8.length);
+        pending.put(utf8);
+    }
+
+    /**
+     * Reads a String written by putString(byte[]).
+     * @param payload record payload
+     * @return String
+     */
+    private static String getString(ByteBuffer payload)
+    {
+        byte[] utf8 = new byte[Short.toUnsignedInt(payload.getShort())];
+        payload.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -1,31 +1,217 @@
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
- * ShelterManager class - implementation of shelter management system maintainaning a TreeMap of all pets added to the shelter.
+ * ShelterManager class - implementation of shelter management system maintainaning a sorted map of all pets added to the shelter.
+ * ShelterManager is thread-safe and can be shared by several adoption desks. Status changes of pets of one type are guarded by
+ * the index of available pets of that type, and adoptions of one customer by a striped customer lock, so desks working on
+ * different pet types or different customers do not block each other.
  * @version 1.0 Date created: 12/02/2024
  * @author Robert Petecki
  */
 
 public class ShelterManager {
 	/**
-	 * TreeMap for maintaining sorted record (by PetID) of all pets added to the shelter.
+	 * Number of striped locks guarding customers, a customer is guarded by the stripe selected by its hash code.
 	 */
-	Map<PetID, Pet> shelterAllPets = new TreeMap<PetID, Pet>();
+	private static final int CUSTOMER_LOCK_STRIPES = 64;
 
 	/**
-	 * LinkedList for maintaining record of pets available for adoption, updated with method updateListAvailablePets().
+	 * Start time of a call that is not timed because metrics are disabled, see startTimer().
 	 */
-	List<Pet> shelterAvailablePets = new LinkedList<Pet>();
+	private static final long NOT_TIMED = Long.MIN_VALUE;
 
 	/**
-	 * TreeSet for maintaining ordered record of all existing customer records (by CustomerNumber).
+	 * Number of customers in a row that findCustomers(String, String, int) reads without a match before it seeks past them in the name index.
 	 */
-	Set<CustomerRecord> shelterAllCustomerRecords = new TreeSet<CustomerRecord>();
+	private static final int MAX_SKIPPED_NAMES = 16;
 
 	/**
-	 * HashMap for maintaining record of the existing customer numbers and the list of their adopted pets
+	 * PetStore for maintaining columnar record of all pets added to the shelter, one row per pet with primitive columns for PetID, type and status.
+	 * Read as a Map sorted by PetID, whose values are views over the rows.
 	 */
-	Map<CustomerNumber, List<Pet>> shelterAdoptionsRecord = new HashMap<CustomerNumber, List<Pet>>();
+	PetStore shelterAllPets;
+
+	/**
+	 * ConcurrentHashMap for maintaining record of pets available for adoption, indexed by lower-case pet type ("cat" or "dog").
+	 * Each pet type index is a PetPool of rows of shelterAllPets partitioned by training status, updated in place,
+	 * and is also the lock that must be held while changing the status of a pet of that type.
+	 */
+	Map<String, PetPool> shelterAvailablePets = new ConcurrentHashMap<String, PetPool>();
+
+	/**
+	 * ConcurrentHashMap for maintaining live counters of pets per lower-case pet type and status, updated with method countPet(int[], int, int).
+	 * Each pet type has the count cells described in PetCounts, guarded by the lock of the pet type index.
+	 */
+	Map<String, int[]> shelterPetCounts = new ConcurrentHashMap<String, int[]>();
+
+	/**
+	 * ConcurrentSkipListSet for maintaining ordered record of all existing customer records (by CustomerNumber).
+	 */
+	Set<CustomerRecord> shelterAllCustomerRecords = new ConcurrentSkipListSet<CustomerRecord>();
+
+	/**
+	 * Concurrent hash set indexing the same customer records by name and date of birth (see CustomerRecordFactory equals() and hashCode()),
+	 * used for constant-time detection of existing customers.
+	 */
+	Set<CustomerRecord> shelterCustomerIdentities = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * ConcurrentHashMap indexing the same customer records by customer number, used by getCustomer(CustomerNumber).
+	 */
+	Map<CustomerNumber, CustomerRecord> shelterCustomersByNumber = new ConcurrentHashMap<CustomerNumber, CustomerRecord>();
+
+	/**
+	 * ConcurrentSkipListMap indexing the same customer records by name key (see nameKeyOf(CustomerRecord)), sorted so that
+	 * the customers whose last names start with a prefix are one range of keys, used by findCustomers(String, String, int).
+	 */
+	NavigableMap<String, CustomerRecord> shelterCustomersByName = new ConcurrentSkipListMap<String, CustomerRecord>();
+
+	/**
+	 * ConcurrentHashMap for maintaining record of the existing customer numbers and the list of their adopted pets.
+	 * Lists are copy-on-write so they can be read while the customer adopts another pet.
+	 */
+	Map<CustomerNumber, List<Pet>> shelterAdoptionsRecord = new ConcurrentHashMap<CustomerNumber, List<Pet>>();
+
+	/**
+	 * Append-only log of the customer records in the order they were added, read by views up to its length when they were taken, see getView().
+	 */
+	final AppendLog<CustomerRecord> shelterCustomerLog = new AppendLog<CustomerRecord>();
+
+	/**
+	 * Append-only log of the adoptions (customer number and PetID) in the order they were made, appended under the pet type lock, see getView().
+	 */
+	final AppendLog<Map.Entry<CustomerNumber, PetID>> shelterAdoptionLog = new AppendLog<Map.Entry<CustomerNumber, PetID>>();
+
+	/**
+	 * Striped locks guarding customers, see getCustomerLock(int).
+	 */
+	private final Object[] customerLocks = newCustomerLocks();
+
+	/**
+	 * Write-ahead journal of the mutations of the shelter, null if the shelter is not journaled.
+	 */
+	private final ShelterJournal journal;
+
+	/**
+	 * Receiver of latencies and rejections, null if metrics are disabled (default).
+	 */
+	private volatile ShelterMetrics metrics;
+
+	/**
+	 * Log of adoptions and rejected adoptions, null if events are not logged (default).
+	 */
+	private volatile ShelterEventLog eventLog;
+
+	/**
+	 * Constructs an empty shelter that is not journaled.
+	 */
+	public ShelterManager() {
+		this(PetStorage.HEAP);
+	}
+
+	/**
+	 * Constructs an empty shelter that is not journaled, keeping its register of pets in the specified memory.
+	 *
+	 * @param petStorage memory of the register of pets, e.g. PetStorage.OFF_HEAP for a long-running shelter with many pets
+	 * @throws IllegalArgumentException if <code>petStorage</code> is null
+	 */
+	public ShelterManager(PetStorage petStorage) throws IllegalArgumentException {
+		if (petStorage == null)
+			throw new IllegalArgumentException("Pet storage cannot be null.");
+		shelterAllPets = new PetStore(petStorage);
+		journal = null;
+	}
+
+	/**
+	 * Constructs a shelter restored from the specified journal, and appends all later mutations to the journal.
+	 * Pets, customer records, adoptions and the positions of the PetID and CustomerNumber generators are restored as they were
+	 * after the last mutation committed to the journal.
+	 *
+	 * @param journal open journal, not yet used by another shelter
+	 * @throws IOException if the journal cannot be read
+	 * @throws IllegalArgumentException if <code>journal</code> is null
+	 * @throws IllegalStateException if the journal is closed or already used by another shelter
+	 */
+	public ShelterManager(ShelterJournal journal) throws IOException, IllegalArgumentException, IllegalStateException {
+		if (journal == null)
+			throw new IllegalArgumentException("Journal cannot be null.");
+		shelterAllPets = new PetStore();
+		this.journal = journal;
+		journal.replay(this); //restore the shelter before new mutations are appended
+	}
+
+	/**
+	 * Constructs a shelter restored from the newest valid snapshot in the specified directory, that is not journaled.
+	 * The shelter is empty if the directory has no valid snapshot.
+	 *
+	 * @param snapshotDirectory directory of snapshots written by writeSnapshot(Path)
+	 * @throws IOException if the directory cannot be read
+	 * @throws IllegalArgumentException if <code>snapshotDirectory</code> is null
+	 */
+	public ShelterManager(Path snapshotDirectory) throws IOException, IllegalArgumentException {
+		if (snapshotDirectory == null)
+			throw new IllegalArgumentException("Snapshot directory cannot be null.");
+		shelterAllPets = new PetStore();
+		journal = null;
+		ShelterSnapshot.loadNewest(snapshotDirectory, this);
+	}
+
+	/**
+	 * Constructs a shelter restored from the newest valid snapshot in the specified directory and the journal records written after it,
+	 * and appends all later mutations to the journal. Only the end of the journal is replayed, so startup time does not grow with its length.
+	 *
+	 * @param snapshotDirectory directory of snapshots written by writeSnapshot(Path)
+	 * @param journal open journal the snapshots were taken from, not yet used by another shelter
+	 * @throws IOException if the snapshot directory or the journal cannot be read
+	 * @throws IllegalArgumentException if a parameter is null
+	 * @throws IllegalStateException if the journal is closed or already used by another shelter
+	 */
+	public ShelterManager(Path snapshotDirectory, ShelterJournal journal) throws IOException, IllegalArgumentException, IllegalStateException {
+		this(PetStorage.HEAP, snapshotDirectory, journal);
+	}
+
+	/**
+	 * Constructs a shelter restored like ShelterManager(Path, ShelterJournal), keeping its register of pets in the specified memory.
+	 *
+	 * @param petStorage memory of the register of pets, e.g. PetStorage.OFF_HEAP for a long-running shelter with many pets
+	 * @param snapshotDirectory directory of snapshots written by writeSnapshot(Path)
+	 * @param journal open journal the snapshots were taken from, not yet used by another shelter
+	 * @throws IOException if the snapshot directory or the journal cannot be read
+	 * @throws IllegalArgumentException if a parameter is null
+	 * @throws IllegalStateException if the journal is closed or already used by another shelter
+	 */
+	public ShelterManager(PetStorage petStorage, Path snapshotDirectory, ShelterJournal journal) throws IOException, IllegalArgumentException, IllegalStateException {
+		if (petStorage == null)
+			throw new IllegalArgumentException("Pet storage cannot be null.");
+		if (snapshotDirectory == null || journal == null)
+			throw new IllegalArgumentException("Snapshot directory and journal cannot be null.");
+		shelterAllPets = new PetStore(petStorage);
+		this.journal = journal;
+		long journalPosition = ShelterSnapshot.loadNewest(snapshotDirectory, this);
+		if (journalPosition < 0) //no snapshot, or snapshot of a shelter that was not journaled
+			journal.replay(this);
+		else
+			journal.replay(this, journalPosition); //records before the position are in the snapshot
+	}
+
+	/**
+	 * Returns new striped locks guarding customers.
+	 *
+	 * @return lock objects, CUSTOMER_LOCK_STRIPES of them
+	 */
+	private static Object[] newCustomerLocks() {
+		Object[] locks = new Object[CUSTOMER_LOCK_STRIPES];
+		for (int i = 0; i < locks.length; i++)
+			locks[i] = new Object();
+		return locks;
+	}
 
 
 	/**
@@ -37,20 +223,131 @@ public class ShelterManager {
 	 * @throws NullPointerException
 	 */
 	public Pet addPet(String petType) throws IllegalArgumentException, NullPointerException {
-		if (!petType.toLowerCase().equals("cat") && !petType.toLowerCase().equals("dog")) //valid petType parameters, case-insensitive
-			throw new IllegalArgumentException("Invalid pet type. Pet was not added."); //exception message for invalid pet type
+		long startNanos = startTimer();
+		try
+		{
+			if (!petType.toLowerCase().equals("cat") && !petType.toLowerCase().equals("dog")) //valid petType parameters, case-insensitive
+				throw new IllegalArgumentException("Invalid pet type. Pet was not added."); //exception message for invalid pet type
+
+			//code below reached only if petType parameter is valid
+			Pet addedPet = PetFactory.getPetInstance(petType); //using factory method to create a unique Pet instance
+
+			if (addedPet.equals(null)) //if Pet object was not successfully created
+				throw new NullPointerException("Pet object was not created. Pet was not added."); //exception message
+
+			//code below reached only if Pet object was successfully created
+			long journalSeq = 0;
+			int addedRow;
+			PetPool availablePetType = getAvailablePetTypeIndex(addedPet.getPetType());
+			synchronized (availablePetType) //pet type lock, the pet is journaled and added together
+			{
+				if (journal != null) //journaled before other desks can see the pet
+					journalSeq = journal.appendAddPets(Collections.singletonList(addedPet));
+				addedRow = shelterAllPets.add(addedPet); //add pet to shelter register as a new row
+				availablePetType.add(addedRow, false); //newly added pet is "not adopted" and not trained so add it to the index of available pets
+				countPet(getPetTypeCounts(addedPet.getPetType()), addedRow, 1); //count the new pet under its type and status
+			}
+			commitJournal(journalSeq);
+
+			return shelterAllPets.petAt(addedRow); //view over the row in the shelter register
+		}
+		finally
+		{
+			stopTimer(ShelterOperation.ADD_PET, startNanos);
+		}
+	}
+
+	/**
+	 * Adds the specified number of new pets of the specified type to the shelter in one pass, e.g. for a transfer or seizure.
+	 *
+	 * @param petType is the type of pets to be added, must be String "dog" or "cat" (case-insensitive)
+	 * @param count number of pets to be added, 0 or more
+	 * @return List of the added pets, with consecutive PetIDs
+	 * @throws IllegalArgumentException
+	 * @see #addPets(Collection)
+	 */
+	public List<Pet> addPets(String petType, int count) throws IllegalArgumentException {
+		return addPets(Collections.singletonList(new PetIntake(petType, count))); //validates pet type and count
+	}
+
+	/**
+	 * Adds the pets of all specified intakes to the shelter in one pass.
+	 * PetIDs are allocated as one block, so the added pets have consecutive PetIDs, and the index of available pets
+	 * and the counters of each pet type are updated once for all pets of that type.
+	 *
+	 * @param intakes pet types, numbers and training status of the pets to be added
+	 * @return List of the added pets in PetID order, following the order of the intakes
+	 * @throws IllegalArgumentException
+	 * @throws NullPointerException
+	 */
+	public List<Pet> addPets(Collection<PetIntake> intakes) throws IllegalArgumentException, NullPointerException {
+		long startNanos = startTimer();
+		try
+		{
+			for (PetIntake intake : intakes) //validate intakes parameter, before any pet is created
+			{
+				if (intake == null)
+					throw new NullPointerException("Pet intakes cannot be null. Pets were not added.");
+			}
 
-		//code below reached only if petType parameter is valid
-		Pet addedPet = PetFactory.getPetInstance(petType); //using factory method to create a unique Pet instance
+			List<Pet> addedPets = PetFactory.getPetInstances(intakes); //using factory method to create unique Pet instances with one block of PetIDs
 
-		if (addedPet.equals(null)) //if Pet object was not successfully created
-			throw new NullPointerException("Pet object was not created. Pet was not added."); //exception message
+			commitJournal(registerPets(addedPets, true));
+			addedPets.replaceAll(addedPet -> shelterAllPets.get(addedPet.getPetID())); //views over the rows in the shelter register
+			return addedPets;
+		}
+		finally
+		{
+			stopTimer(ShelterOperation.ADD_PETS, startNanos);
+		}
+	}
 
-		//code below reached only if Pet object was successfully created
-		shelterAllPets.put(addedPet.getPetID(), addedPet); //add pet to shelter register
-		updateListAvailablePets(); //newly added pet is "not adopted" so update shelter list of available pets
+	/**
+	 * Adds the specified pets to the shelter register, the index of available pets and the counters, without journaling them.
+	 * Used to restore pets from a snapshot or the journal, pets already in the shelter register are skipped.
+	 *
+	 * @param restoredPets restored pets, not adopted
+	 */
+	void restorePets(List<Pet> restoredPets) {
+		registerPets(restoredPets, false);
+	}
 
-		return addedPet;
+	/**
+	 * Adds the specified new pets to the shelter register, the index of available pets and the counters, pets already in the
+	 * shelter register are skipped. The pets of each pet type are journaled and added together under the lock of the pet type.
+	 *
+	 * @param addedPets new pets, not adopted
+	 * @param journaled true to append the pets to the journal, if the shelter is journaled
+	 * @return sequence number of the last journal record, 0 if nothing was journaled
+	 */
+	private long registerPets(List<Pet> addedPets, boolean journaled) {
+		Map<String, List<Pet>> addedPetsByType = new HashMap<String, List<Pet>>(); //group added pets by pet type, as returned by getPetType()
+		for (Pet addedPet : addedPets)
+		{
+			addedPetsByType.computeIfAbsent(addedPet.getPetType(), petType -> new ArrayList<Pet>()).add(addedPet);
+		}
+		long journalSeq = 0;
+		for (Map.Entry<String, List<Pet>> entry : addedPetsByType.entrySet())
+		{
+			String petTypeKey = entry.getKey().toLowerCase(); //index and counter key, looked up once per pet type
+			PetPool availablePetType = getAvailablePetTypeIndex(petTypeKey);
+			synchronized (availablePetType) //pet type lock, taken once per pet type
+			{
+				if (journaled && journal != null) //journaled before other desks can see the pets
+					journalSeq = journal.appendAddPets(entry.getValue());
+				int[] petTypeCounts = getPetTypeCounts(petTypeKey);
+				for (Pet addedPet : entry.getValue())
+				{
+					int addedRow = shelterAllPets.add(addedPet); //add pet to shelter register as a new row, unless restored before
+					if (addedRow >= 0)
+					{
+						availablePetType.add(addedRow, shelterAllPets.isTrained(addedRow)); //newly added pets are "not adopted"
+						countPet(petTypeCounts, addedRow, 1); //count the new pet under its type and status
+					}
+				}
+			}
+		}
+		return journalSeq;
 	}
 
 	/**
@@ -63,35 +360,53 @@ public class ShelterManager {
 	 * @throws NullPointerException
 	 */
 	public Boolean updatePetRecord(PetID petID, Boolean trained) throws IllegalArgumentException, NullPointerException {
-		if (petID.equals(null)) //validate petID parameter
-			throw new NullPointerException("PetID cannot be null, must have a value. Pet record was not updated."); //exception message
-
-		//code below reached only if petID parameter has a value
-		boolean updateStatus = false; //update operation status
+		long startNanos = startTimer();
+		try
+		{
+			if (petID.equals(null)) //validate petID parameter
+				throw new NullPointerException("PetID cannot be null, must have a value. Pet record was not updated."); //exception message
+			if (trained == null) //validate trained parameter before any counter or journal is touched
+				throw new NullPointerException("Trained status cannot be null. Pet record was not updated.");
 
-		Pet petToUpdate = shelterAllPets.get(petID);//retrieve Pet object with the PetID specified in parameter, from shelter register
+			//code below reached only if petID parameter has a value
+			boolean updateStatus = false; //update operation status
 
+			int rowToUpdate = shelterAllPets.rowOf(petID); //retrieve row of the pet with the PetID specified in parameter, from shelter register
 
-		//conditionals validating pet entry exists in the register, and if it can be trained (must be dog)
-		if (petToUpdate != null && petToUpdate.getPetType().equals("Dog")) //validate Pet is in the register and is a dog
-		{
-			((Dog) petToUpdate).setTrained(trained); //update trained status as specified in parameter
 
-			shelterAllPets.put(petID, petToUpdate); //update pet in shelter register
+			//conditionals validating pet entry exists in the register, and if it can be trained (must be dog)
+			if (rowToUpdate >= 0 && shelterAllPets.getTypeCode(rowToUpdate) == PetStore.DOG) //validate Pet is in the register and is a dog
+			{
+				long journalSeq = 0;
+				PetPool availableDogs = getAvailablePetTypeIndex(PetFactory.DOG_PET);
+				synchronized (availableDogs) //pet type lock, training status is read by adoptions of dogs
+				{
+					if (journal != null) //journaled under the lock, in the same order as adoptions of dogs
+						journalSeq = journal.appendUpdatePet(petID, trained);
+					int[] dogCounts = getPetTypeCounts(PetFactory.DOG_PET);
+					countPet(dogCounts, rowToUpdate, -1); //uncount the pet under its previous status
+					shelterAllPets.setTrained(rowToUpdate, trained); //update trained status as specified in parameter, in place in the shelter register
+					countPet(dogCounts, rowToUpdate, 1); //count the pet under its updated status
+					availableDogs.updateTraining(rowToUpdate, trained); //move an available dog to the pool of its training status
+				}
+				commitJournal(journalSeq);
 
-			//check if update was successful
-			petToUpdate = shelterAllPets.get(petID); //get register entry, expected updated Pet
-			updateStatus = ((Dog) petToUpdate).getTrained() == trained;//true if successful update
-			updateListAvailablePets(); //update shelter list of available pets
-			return updateStatus;
-		} else if (petToUpdate == null) //exceptional case, Pet object cannot be retrieved from shelter register depending on PetID
-		{
-			throw new IllegalArgumentException("Pet with PetID " + petID + " could not be retrieved from the shelter register. Pet record was not updated.");
-		} else if (!petToUpdate.getPetType().equals("Dog")) //exceptional case, pet specified in parameter is not a dog
+				//check if update was successful
+				updateStatus = shelterAllPets.isTrained(rowToUpdate) == trained;//true if successful update
+				return updateStatus; //training status does not change availability, index of available pets unchanged
+			} else if (rowToUpdate < 0) //exceptional case, Pet object cannot be retrieved from shelter register depending on PetID
+			{
+				throw new IllegalArgumentException("Pet with PetID " + petID + " could not be retrieved from the shelter register. Pet record was not updated.");
+			} else if (shelterAllPets.getTypeCode(rowToUpdate) != PetStore.DOG) //exceptional case, pet specified in parameter is not a dog
+			{
+				throw new IllegalArgumentException("Pet with PetID " + petID + " is not a dog and cannot be trained. Pet record was not updated.");
+			}
+			return false;
+		}
+		finally
 		{
-			throw new IllegalArgumentException("Pet with PetID " + petID + " is not a dog and cannot be trained. Pet record was not updated.");
+			stopTimer(ShelterOperation.UPDATE_PET_RECORD, startNanos);
 		}
-		return false;
 	}
 
 	/**
@@ -101,16 +416,143 @@ public class ShelterManager {
 	 * @return int indicating the number of available pet of the specified type (available)
 	 */
 	public int noOfAvailablePets(String petType) {
-		int countPets = 0; //initialise counter to 0
+		long startNanos = startTimer();
+		try
+		{
+			return countAvailablePets(petType);
+		}
+		finally
+		{
+			stopTimer(ShelterOperation.NO_OF_AVAILABLE_PETS, startNanos);
+		}
+	}
+
+	/**
+	 * Returns the number of pets of the specified type that are not adopted, without recording metrics.
+	 *
+	 * @param petType specifies the pet type of interest
+	 * @return int indicating the number of available pet of the specified type (available)
+	 */
+	private int countAvailablePets(String petType) {
 		petType = petType.toLowerCase(); //ensuring case-insensitive pet type parameter
+		PetPool availablePetType = shelterAvailablePets.get(petType);
+		if (availablePetType == null) //no pets of this type were ever added (or invalid pet type)
+			return 0;
+		synchronized (availablePetType) //pet type lock, counters are read together
+		{
+			int[] petTypeCounts = shelterPetCounts.get(petType); //live counters
+			if (petTypeCounts == null) //index created but first pet of this type not counted yet
+				return 0;
+			return petTypeCounts[PetCounts.AVAILABLE_UNTRAINED] + petTypeCounts[PetCounts.AVAILABLE_TRAINED];
+		}
+	}
 
-		for (Pet pet : shelterAllPets.values()) {
-			if (pet.getPetType().toLowerCase().equals(petType) && !pet.getAdopted()) //checking pet type match and adopted status == false
+	/**
+	 * Returns a snapshot of the number of pets per pet type and status (available, adopted, trained).
+	 *
+	 * @return PetCounts snapshot, not affected by later changes to the shelter
+	 */
+	public PetCounts getPetCounts() {
+		long startNanos = startTimer();
+		try
+		{
+			return copyPetCounts();
+		}
+		finally
+		{
+			stopTimer(ShelterOperation.GET_PET_COUNTS, startNanos);
+		}
+	}
+
+	/**
+	 * Returns the number of pets that match the specified filter, e.g. new PetFilter("dog", false, true) for the available trained dogs.
+	 * Counted from the bitmap indexes of the shelter register by popcount, 64 pets at a time, without reading pets.
+	 * Pets whose status changes during the count may be counted with either status, use getPetCounts() for counters read together.
+	 *
+	 * @param filter pet type, adoption status and training status of the pets, each can be left open
+	 * @return int indicating the number of matching pets
+	 * @throws NullPointerException if the filter is null
+	 */
+	public int noOfPets(PetFilter filter) throws NullPointerException {
+		long startNanos = startTimer();
+		try
+		{
+			return shelterAllPets.count(filter);
+		}
+		finally
+		{
+			stopTimer(ShelterOperation.NO_OF_PETS, startNanos);
+		}
+	}
+
+	/**
+	 * Returns the pets that match the specified filter in PetID order, found by combining the bitmap indexes of the shelter register.
+	 * Pets whose status changes during the search may be returned with either status.
+	 *
+	 * @param filter pet type, adoption status and training status of the pets, each can be left open
+	 * @return unmodifiable List of the matching pets in PetID order
+	 * @throws NullPointerException if the filter is null
+	 */
+	public List<Pet> getPets(PetFilter filter) throws NullPointerException {
+		long startNanos = startTimer();
+		try
+		{
+			int[] rows = shelterAllPets.findRows(filter);
+			List<Pet> pets = new ArrayList<Pet>(rows.length);
+			for (int row : rows)
+			{
+				pets.add(shelterAllPets.petAt(row)); //view over the row
+			}
+			return Collections.unmodifiableList(pets);
+		}
+		finally
+		{
+			stopTimer(ShelterOperation.GET_PETS, startNanos);
+		}
+	}
+
+	/**
+	 * Returns a page of the pets that match the specified filter, in PetID order after the cursor.
+	 * The page is found by seeking to the cursor in the shelter register and reading matching pets from there,
+	 * so a page takes the same time however deep it is, and no list of all matching pets is made.
+	 * Pets whose status changes while the page is read may be returned with either status. For pages of one consistent version, use getView().
+	 *
+	 * @param filter   pet type, adoption status and training status of the pets, each can be left open
+	 * @param cursor   PetID the page starts after, null for the first page, see PetPage.getNextCursor()
+	 * @param pageSize maximum number of pets of the page, 1 or more
+	 * @return page of the matching pets and the cursor of the next page
+	 * @throws IllegalArgumentException if the page size is less than 1
+	 * @throws NullPointerException if the filter is null
+	 */
+	public PetPage getPets(PetFilter filter, PetID cursor, int pageSize) throws IllegalArgumentException, NullPointerException {
+		long startNanos = startTimer();
+		try
+		{
+			return PetPage.of(shelterAllPets, filter, cursor, pageSize);
+		}
+		finally
+		{
+			stopTimer(ShelterOperation.GET_PET_PAGE, startNanos);
+		}
+	}
+
+	/**
+	 * Returns a snapshot of the number of pets per pet type and status, without recording metrics. Used by the metrics gauges.
+	 *
+	 * @return PetCounts snapshot, not affected by later changes to the shelter
+	 */
+	PetCounts copyPetCounts() {
+		Map<String, int[]> petCounts = new HashMap<String, int[]>();
+		for (Map.Entry<String, PetPool> entry : shelterAvailablePets.entrySet())
+		{
+			synchronized (entry.getValue()) //pet type lock, counters of one type are copied together
 			{
-				countPets++;
+				int[] petTypeCounts = shelterPetCounts.get(entry.getKey());
+				if (petTypeCounts != null) //index created but first pet of this type not counted yet
+					petCounts.put(entry.getKey(), petTypeCounts);
 			}
 		}
-		return countPets;
+		return new PetCounts(petCounts);
 	}
 
 	/**
@@ -125,32 +567,181 @@ public class ShelterManager {
 	 * @throws Error
 	 */
 	public CustomerRecord addCustomerRecord(String firstName, String lastName, Date dob, Boolean hasGarden) throws IllegalArgumentException, Error {
-		//Validate if parameter values are not null
-		if (firstName == null || lastName == null || dob == null || hasGarden == null) //OR conditionals
-			throw new IllegalArgumentException("Values passed in parameters cannot be null!"); //exception message
+		long startNanos = startTimer();
+		try
+		{
+			//Validate if parameter values are not null
+			if (firstName == null || lastName == null || dob == null || hasGarden == null) //OR conditionals
+				throw new IllegalArgumentException("Values passed in parameters cannot be null!"); //exception message
 
-		//Validate if new customer is unique based on firstName, lastName, and dob
-		CustomerRecord tempCustomerRecord = new CustomerRecord(firstName, lastName, dob); //temporary customer record
-		boolean isUniqueCustomer = true; //local validation boolean, start as true meaning customer from parameters is unique
-		for (CustomerRecord customerRecord : shelterAllCustomerRecords) //loop over customer records registered
+			//Validate if new customer is unique based on firstName, lastName, and dob
+			CustomerRecord addedCustomerRecord = registerCustomerRecord(firstName, lastName, dob, hasGarden);
+			if (addedCustomerRecord == null) //null meaning customer is not a unique customer
+				throw new Error("Customer with similar information exists in shelter register"); //error if not a unique customer
+
+			commitJournal();
+			return addedCustomerRecord; //method was successful
+		}
+		finally
 		{
-			if (tempCustomerRecord.equals(customerRecord))
-				isUniqueCustomer = false; //true only if matching customer record is found (logical equivalence)
+			stopTimer(ShelterOperation.ADD_CUSTOMER_RECORD, startNanos);
 		}
+	}
 
-		if (!isUniqueCustomer) //false meaning customer is not a unique customer
-			throw new Error("Customer with similar information exists in shelter register"); //error if not a unique customer
+	/**
+	 * Creates and registers a customerRecord with today's date of issue, unless a customer with the same firstName, lastName, and dob is registered.
+	 * Used by addCustomerRecord() and by bulk imports, which report existing customers instead of stopping.
+	 * The new record is appended to the journal but not committed, see commitJournal().
+	 *
+	 * @param firstName first name of the customer, not null
+	 * @param lastName  last name of the customer, not null
+	 * @param dob       date of birth of the customer, not null
+	 * @param hasGarden indicates if customer has a garden
+	 * @return customerRecord based on the given information, or null if the customer is already registered
+	 * @throws IllegalArgumentException
+	 */
+	CustomerRecord registerCustomerRecord(String firstName, String lastName, Date dob, boolean hasGarden) throws IllegalArgumentException {
+		CustomerRecord tempCustomerRecord = new CustomerRecord(firstName, lastName, dob); //temporary customer record
+		synchronized (getCustomerLock(tempCustomerRecord.hashCode())) //customers with the same name and dob share a lock stripe
+		{
+			boolean isUniqueCustomer = !shelterCustomerIdentities.contains(tempCustomerRecord); //hash lookup by name and dob (logical equivalence)
 
-		//Validated: code below reached if customer is unique based on firstName, lastName, and dob
-		CustomerRecord addedCustomerRecord = CustomerRecordFactory.getCustomerRecordInstance(firstName, lastName, dob, hasGarden);
+			if (!isUniqueCustomer) //false meaning customer is not a unique customer
+				return null;
 
-		if (shelterAllCustomerRecords.add(addedCustomerRecord)) //add to set, true if unique record added to the set, false otherwise
-			return addedCustomerRecord; //method was successful
+			//Validated: code below reached if customer is unique based on firstName, lastName, and dob
+			CustomerRecord addedCustomerRecord = CustomerRecordFactory.getCustomerRecordInstance(firstName, lastName, dob, hasGarden);
+
+			if (journal != null) //journaled before the customer can adopt
+				journal.appendAddCustomer(addedCustomerRecord);
+			if (shelterAllCustomerRecords.add(addedCustomerRecord)) //add to set, true if unique record added to the set, false otherwise
+			{
+				indexCustomerRecord(addedCustomerRecord);
+				return addedCustomerRecord; //method was successful
+			}
+		}
 
 		//code below ignored if method was successful
 		throw new IllegalArgumentException("Unsuccessful, customer record was not added. Customer record was not unique.");
 	}
 
+	/**
+	 * Adds a customer record added to shelterAllCustomerRecords to the other customer indexes.
+	 *
+	 * @param customerRecord new customer record
+	 */
+	private void indexCustomerRecord(CustomerRecord customerRecord) {
+		shelterCustomerIdentities.add(customerRecord); //index the new customer by name and dob
+		shelterCustomersByNumber.put(customerRecord.getCustomerNumber(), customerRecord);
+		shelterCustomersByName.put(nameKeyOf(customerRecord), customerRecord);
+		shelterCustomerLog.append(customerRecord); //seen by views taken from now on
+	}
+
+	/**
+	 * Returns the key of a customer record in shelterCustomersByName: the lower-case last name, the lower-case first name and the customer number,
+	 * separated by '\0' so that keys sort by last name, then first name, and are unique.
+	 *
+	 * @param customerRecord customer record
+	 * @return name key
+	 */
+	private static String nameKeyOf(CustomerRecord customerRecord) {
+		Name customerName = customerRecord.getCustomerName();
+		return customerName.getLastName().toLowerCase(Locale.ROOT) + '\0' + customerName.getFirstName().toLowerCase(Locale.ROOT) + '\0' + customerRecord.getCustomerNumber();
+	}
+
+	/**
+	 * Returns the customer record with the specified customer number, by hash lookup.
+	 *
+	 * @param customerNumber customer number of the customer
+	 * @return customer record, null if no customer has the customer number
+	 * @throws NullPointerException if the customer number is null
+	 */
+	public CustomerRecord getCustomer(CustomerNumber customerNumber) throws NullPointerException {
+		long startNanos = startTimer();
+		try
+		{
+			return shelterCustomersByNumber.get(customerNumber);
+		}
+		finally
+		{
+			stopTimer(ShelterOperation.GET_CUSTOMER, startNanos);
+		}
+	}
+
+	/**
+	 * Returns the customers whose last name and first name start with the specified prefixes (case-insensitive), sorted by last name, then first name.
+	 * The sorted name index is read from the last name prefix, and skips the first names of a last name that cannot match by seeking,
+	 * so the time taken depends on the customers and last names read, not on the number of customers of the shelter.
+	 *
+	 * @param lastNamePrefix  start of the last name, "" for any last name
+	 * @param firstNamePrefix start of the first name, "" or null for any first name
+	 * @param maxResults      maximum number of customers returned, 1 or more
+	 * @return unmodifiable List of at most maxResults matching customer records
+	 * @throws IllegalArgumentException if the last name prefix is null or maxResults is less than 1
+	 */
+	public List<CustomerRecord> findCustomers(String lastNamePrefix, String firstNamePrefix, int maxResults) throws IllegalArgumentException {
+		long startNanos = startTimer();
+		try
+		{
+			if (lastNamePrefix == null || maxResults < 1)
+				throw new IllegalArgumentException("Invalid search: last name prefix " + lastNamePrefix + ", " + maxResults + " results");
+			String lastNameStart = lastNamePrefix.toLowerCase(Locale.ROOT);
+			String firstNameStart = (firstNamePrefix == null) ? "" : firstNamePrefix.toLowerCase(Locale.ROOT);
+			List<CustomerRecord> matchingCustomers = new ArrayList<CustomerRecord>();
+			Iterator<Map.Entry<String, CustomerRecord>> entries = shelterCustomersByName.tailMap(lastNameStart).entrySet().iterator();
+			int skippedNames = 0;
+			while (entries.hasNext() && matchingCustomers.size() < maxResults)
+			{
+				Map.Entry<String, CustomerRecord> entry = entries.next();
+				String nameKey = entry.getKey();
+				if (!nameKey.startsWith(lastNameStart))
+					break;
+				int lastNameEnd = nameKey.indexOf('\0'); //first name follows the last name
+				if (nameKey.startsWith(firstNameStart, lastNameEnd + 1))
+				{
+					matchingCustomers.add(entry.getValue());
+					skippedNames = 0;
+				}
+				else if (++skippedNames == MAX_SKIPPED_NAMES) //seeking is cheaper than skipping more customers one by one
+				{
+					String firstNamesKey = nameKey.substring(0, lastNameEnd + 1) + firstNameStart;
+					String seekKey = (nameKey.compareTo(firstNamesKey) < 0)
+							? firstNamesKey //the first names of this last name that match
+							: nameKey.substring(0, lastNameEnd) + '\1'; //the next last name, no more first names of this last name match
+					entries = shelterCustomersByName.tailMap(seekKey).entrySet().iterator();
+					skippedNames = 0;
+				}
+			}
+			return Collections.unmodifiableList(matchingCustomers);
+		}
+		finally
+		{
+			stopTimer(ShelterOperation.FIND_CUSTOMERS, startNanos);
+		}
+	}
+
+	/**
+	 * Returns the reason the customer would be rejected if they tried to adopt a pet of the specified type now, see adoptPet(CustomerRecord, String) for the rules.
+	 * Nothing is adopted, printed, journaled or published to the event log, so customers can be pre-screened before adoption attempts that are bound to fail.
+	 * The answer may be outdated as soon as another desk adopts or adds a pet.
+	 *
+	 * @param customerRecord customer record of the customer
+	 * @param petType        specified pet type desired for adoption (case-insensitive)
+	 * @return reason of the rejection, null if the customer can adopt a pet of the specified type
+	 */
+	public AdoptionRejection canAdopt(CustomerRecord customerRecord, String petType) {
+		long startNanos = startTimer();
+		try
+		{
+			petType = petType.toLowerCase(); //ensuring case-insensitivity of method parameter
+			return checkAdoptionRules(AdoptionRule.rulesOf(petType), customerRecord, petType, customerRecord.adoptionAge());
+		}
+		finally
+		{
+			stopTimer(ShelterOperation.CAN_ADOPT, startNanos);
+		}
+	}
+
 	/**
 	 * Returns Boolean indicating whether adoption was successful or not, determined through eligibility criteria.
 	 * If the customer can adopt the pet and there is a pet available in the shelter, it gives them a pet of the specified type (at random).
@@ -164,72 +755,92 @@ public class ShelterManager {
 	 * - if the available dog is an untrained Dog, a customer must be at least 21 years old and have a garden to adopt it.
 	 * - to adopt a uk.ac.ncl.csc8014.cw.factory.pet.Cat, a customer must be at least 18 years old.
 	 *
+	 * Nothing is printed: the adoption or the reason of the rejection is published to the event log, see setEventLog(ShelterEventLog).
+	 *
 	 * @param customerRecord customer record of the adopting customer
 	 * @param petType        specified pet type desired for adoption
-	 * @return true and a confirmation message with details if adoption successful, false and message with a reason otherwise
+	 * @return true if adoption successful, false otherwise
 	 */
 	public Boolean adoptPet(CustomerRecord customerRecord, String petType) {
-		petType = petType.toLowerCase(); //ensuring case-insensitivity of method parameter
-		//Customer age calculation, local variable
-		int customerAge = customerRecord.ageCalculator(); //used for pet type adoption eligibility criteria
-
-		//First check, adoption criteria: customer age must be at least 18 to progress with any adoption
-		if (!getIs18(customerAge))
-			return false; //adoption unsuccessful
+		long startNanos = startTimer();
+		try
+		{
+			petType = petType.toLowerCase(); //ensuring case-insensitivity of method parameter
+			//Customer age calculation, local variable
+			int customerAge = customerRecord.adoptionAge(); //used for pet type adoption eligibility criteria, allocation-free
 
-		//Adoption criteria: pet type from parameter is available for adoption
-		if (noOfAvailablePets(petType) == 0) {
-			System.out.println("Adoption unsuccessful. There are no " + petType + "s available.");
-			return false; //adoption unsuccessful
+			AdoptionResult adoptionResult = adoptPet(customerRecord, petType, customerAge); //adoption or rejection published to the event log
+			if (!adoptionResult.isAdopted())
+				return false; //adoption unsuccessful
+			commitJournal();
+			return true; //adoption successful
 		}
-
-		//List for storing individual adoptions record, used by subsequent methods
-		List<Pet> customerIndividualAdoptionsRecord = shelterAdoptionsRecord.get(customerRecord.getCustomerNumber()); //assign individual customer adoption record found (or null) to the variable;
-
-		//Adoption criteria: eligibility based on number of adoptions by the customer
-		if (!getIsEligibleAdoptionNumber(customerIndividualAdoptionsRecord)) //check eligibility for adoption: number of adoptions, prints explanation
-			return false; //method returns false if not eligible, the rest of method code ignored
-
-		//Adoption: get available pets of pet type specified from parameters
-		List<Pet> listAvailablePetType = shelterAvailablePets; //initialise to shelter list of available pets
-		if (petType.equals("cat")) //for cat, age not needed for list of available pets
-		{
-			listAvailablePetType = getListAvailablePetType(petType);
-		} else if (petType.equals("dog")) //for dog, age needed as per age eligibility requirement depending on dog trained status
+		finally
 		{
-			listAvailablePetType = getListAvailablePetType(petType, customerAge); //list of dogs that customer is eligible for based on age
-			if (listAvailablePetType.isEmpty()) {
-				System.out.println("Adoption unsuccessful. There are no dogs available based on the customer's age eligibility.");
-				return false; //adoption unsuccessful
-			}
+			stopTimer(ShelterOperation.ADOPT_PET, startNanos);
 		}
+	}
 
-		//Adoption: get a random pet from available pets assign to Pet object called adoptedPet
-		Random random = new Random(); //random number generator object
-		int randomIndex = random.nextInt(listAvailablePetType.size()); //random number with an exclusive bound of list size
-		Pet adoptedPet = listAvailablePetType.get(randomIndex); //get a random pet from available pets, assign to Pet object
-
-		//Adoption criteria: checking eligibility based on random pet from available pets
-		if (!getIsEligibleAdoptionPet(customerAge, customerRecord.getHasGarden(), petType, adoptedPet))
-			return false; //not eligible, adoption unsuccessful
+	/**
+	 * Gives the customer a random pet of the specified type that they are eligible for, see adoptPet(CustomerRecord, String) for the rules.
+	 * Used by adoptPet() and by AdoptionService, the adoption or rejection is published to the event log and the adoption is appended to the journal but not committed, see commitJournal().
+	 *
+	 * @param customerRecord customer record of the adopting customer
+	 * @param petType        lower-case pet type desired for adoption
+	 * @param customerAge    age of the customer, see CustomerRecord.adoptionAge()
+	 * @return PetID of the adopted pet, or the reason the adoption was rejected
+	 */
+	AdoptionResult adoptPet(CustomerRecord customerRecord, String petType, int customerAge) {
+		CustomerNumber customerNumber = customerRecord.getCustomerNumber(); //customer number needed for updating Map of shelter adoption records
+		//Adoption criteria: rule table of the pet type, the same rules as canAdopt()
+		AdoptionRule[] rules = AdoptionRule.rulesOf(petType);
+		AdoptionRejection rejection = checkAdoptionRules(rules, customerRecord, petType, customerAge); //pre-screen without the customer lock
+		if (rejection != null)
+			return rejectAdoption(customerNumber, petType, rejection); //adoption unsuccessful
 
-		//Adoption: add newly adopted Pet to the individual adoption record list, update the shelter manager map maintaining individual adoption records
-		adoptedPet.setAdopted(true);
-		shelterAllPets.put(adoptedPet.getPetID(), adoptedPet); //update adopted Pet's status from "not adopted" to "adopted"
-		if (customerIndividualAdoptionsRecord == null) // if customer hasn't adopted before their individual adoption record is null
+		Pet adoptedPet; //pet given to the customer
+		synchronized (getCustomerLock(customerNumber.hashCode())) //one adoption at a time per customer, so the number of adoptions cannot be exceeded
 		{
-			customerIndividualAdoptionsRecord = new ArrayList<Pet>();
-		}
-		customerIndividualAdoptionsRecord.add(adoptedPet); //updated individual adoption record
-		CustomerNumber customerNumber = customerRecord.getCustomerNumber(); //customer number needed for updating Map of shelter adoption records
-		shelterAdoptionsRecord.put(customerNumber, customerIndividualAdoptionsRecord); //updated Map
+			//List for storing individual adoptions record, used by subsequent methods
+			List<Pet> customerIndividualAdoptionsRecord = shelterAdoptionsRecord.get(customerNumber); //assign individual customer adoption record found (or null) to the variable;
+
+			PetPool availablePetType = shelterAvailablePets.get(petType); //exists, pets of this type were counted above
+			synchronized (availablePetType) //pet type lock, no other desk can adopt the same pet
+			{
+				//Adoption criteria: rules checked again under the locks, another desk may have adopted meanwhile
+				int[] petTypeCounts = shelterPetCounts.get(petType);
+				rejection = AdoptionRule.check(rules, customerAge, customerRecord.getHasGarden(), noOfAdoptions(customerIndividualAdoptionsRecord),
+						petTypeCounts[PetCounts.AVAILABLE_UNTRAINED], petTypeCounts[PetCounts.AVAILABLE_TRAINED]);
+				if (rejection != null)
+					return rejectAdoption(customerNumber, petType, rejection); //not eligible, the rest of method code ignored
+
+				//Adoption: get a random pet from the available pets of pet type specified from parameters that the customer is eligible for based on age
+				boolean trainedOnly = petType.equals(PetFactory.DOG_PET) && customerAge < 21; //for dog, untrained dogs need a customer at least 21 years old
+				int adoptedRow = availablePetType.getRandomRow(ThreadLocalRandom.current(), trainedOnly); //uniform pick from the pool, a pet exists as the rules are met
+				adoptedPet = shelterAllPets.petAt(adoptedRow);
 
-		//Post-adoption: update Pet's adopted status, and update shelter list of available pets
-		updateListAvailablePets(); //update shelter list of available pets
+				//Adoption: update adopted Pet's status from "not adopted" to "adopted" in the shelter register and remove it from the index of available pets
+				if (journal != null) //journaled under the lock, in the same order as other changes of pets of this type
+					journal.appendAdoption(customerNumber, adoptedPet.getPetID());
+				countPet(petTypeCounts, adoptedRow, -1); //uncount the pet as "not adopted"
+				shelterAllPets.setAdopted(adoptedRow, true);
+				countPet(petTypeCounts, adoptedRow, 1); //count the pet as "adopted"
+				availablePetType.remove(adoptedRow);
+				shelterAdoptionLog.append(new AbstractMap.SimpleImmutableEntry<CustomerNumber, PetID>(customerNumber, adoptedPet.getPetID())); //with the status, views see both or neither
+			}
 
-		//Adoption successful: return adoption information
-		System.out.println("Customer number " + customerRecord.getCustomerNumber() + " is adopting a " + petType + " with PetID: " + adoptedPet.getPetID());
-		return true; //adoption successful
+			//Adoption: add newly adopted Pet to the individual adoption record list, update the shelter manager map maintaining individual adoption records
+			if (customerIndividualAdoptionsRecord == null) // if customer hasn't adopted before their individual adoption record is null
+			{
+				customerIndividualAdoptionsRecord = new CopyOnWriteArrayList<Pet>();
+			}
+			customerIndividualAdoptionsRecord.add(adoptedPet); //updated individual adoption record
+			shelterAdoptionsRecord.put(customerNumber, customerIndividualAdoptionsRecord); //updated Map
+		}
+		ShelterEventLog currentEventLog = eventLog;
+		if (currentEventLog != null) //published after the locks are released, never waits for the log
+			currentEventLog.publishAdoption(customerNumber, petType, adoptedPet.getPetID());
+		return AdoptionResult.adopted(adoptedPet.getPetID());
 	}
 
 	/**
@@ -240,151 +851,349 @@ public class ShelterManager {
 	 * @throws NullPointerException
 	 */
 	public Collection<Pet> adoptedPetsByCustomer(CustomerNumber customerNumber) throws NullPointerException {
-
-		if (shelterAdoptionsRecord.get(customerNumber) == null) {
-			return Collections.unmodifiableList(new ArrayList<>()); //unmodifiable empty list if no adoptions
+		long startNanos = startTimer();
+		try
+		{
+			if (shelterAdoptionsRecord.get(customerNumber) == null) {
+				return Collections.unmodifiableList(new ArrayList<>()); //unmodifiable empty list if no adoptions
+			}
+			return Collections.unmodifiableList(shelterAdoptionsRecord.get(customerNumber)); //unmodifiable
+		}
+		finally
+		{
+			stopTimer(ShelterOperation.ADOPTED_PETS_BY_CUSTOMER, startNanos);
 		}
-		return Collections.unmodifiableList(shelterAdoptionsRecord.get(customerNumber)); //unmodifiable
 	}
 
-	//Validator methods
 	/**
-	 * Validates if customer is at least 18 years old (must be at least 18 for any adoption).
-	 * @param customerAge customer's age
-	 * @return true if is at least 18, false otherwise
+	 * Returns a consistent read-only view of the shelter as it is now, for reports that read many pets, customers or adoptions
+	 * while desks keep adopting. Taking a view copies nothing and holds the pet type locks only for a moment.
+	 * The first status change of a pet after a view is taken copies the chunk of 16384 pets it is in, see ShelterView.
+	 *
+	 * @return view of the pets, customers and adoptions at the current version of the shelter
 	 */
-	private boolean getIs18(int customerAge) {
-		if (customerAge < 18) {
-			System.out.println("Customer needs to be at least 18 years old.");
-			return false;
+	public ShelterView getView() {
+		long startNanos = startTimer();
+		try
+		{
+			PetPool availableCats = getAvailablePetTypeIndex(PetFactory.CAT_PET); //pet type locks exist before they are taken
+			PetPool availableDogs = getAvailablePetTypeIndex(PetFactory.DOG_PET);
+			synchronized (availableCats) //pet type locks, no status, count or adoption is being changed
+			{
+				synchronized (availableDogs)
+				{
+					int version = shelterAllPets.getVersion();
+					PetStore frozenPets = shelterAllPets.freeze();
+					return new ShelterView(version, frozenPets, new PetCounts(shelterPetCounts), shelterCustomerLog, shelterAdoptionLog);
+				}
+			}
+		}
+		finally
+		{
+			stopTimer(ShelterOperation.GET_VIEW, startNanos);
 		}
-		return true;
 	}
 
 	/**
-	 * Validates if customer has adopted before.
-	 * @param customerIndividualAdoptionsRecord individual adoptions record of a customer of interest
-	 * @return true if has adopted before (individual adoptions record exists), false otherwise
+	 * Returns the shelter-wide statistics of a new view of the shelter, computed in parallel on the common ForkJoinPool.
+	 * Desks are held up only while the view is taken, see getView().
+	 *
+	 * @return pet type mix, training and adoption ratios, adoptions per customer and quota saturation
 	 */
-	private boolean getHasAdoptedBefore(List<Pet> customerIndividualAdoptionsRecord) {
-		if (customerIndividualAdoptionsRecord != null) //customer has adopted before, i.e. has adoptions record
-			return true;
-		//code below ignored if has adopted before
-		System.out.println();
-		return false; //has not adopted before, i.e. new adoptions record needs to be created
+	public ShelterStatistics getStatistics() {
+		long startNanos = startTimer();
+		try
+		{
+			return getView().getStatistics();
+		}
+		finally
+		{
+			stopTimer(ShelterOperation.GET_STATISTICS, startNanos);
+		}
 	}
 
+	//Journal methods
 	/**
-	 * Validates if customer is eligible for adoption of the specified Pet.
-	 * @param customerAge customer's age for checking age eligibility criteria depending on the petType and petForAdoption training status if is a dog
-	 * @param hasGarden indicates if customer has a garden, eligibility criteria for dogs
-	 * @param petType pet type of the pet to be adopted
-	 * @param petForAdoption Pet to be adopted
-	 * @return true if eligibility criteria met by customer and can adopt specified pet, false otherwise
-	 * @throws IllegalArgumentException if specified pet type is invalid
+	 * Sets the training status of a dog restored from the journal, without journaling it.
+	 *
+	 * @param petID PetID of a dog in the shelter register
+	 * @param trained training status
+	 * @throws IllegalArgumentException if the pet is not a dog in the shelter register
 	 */
-	private boolean getIsEligibleAdoptionPet(int customerAge, boolean hasGarden, String petType, Pet petForAdoption) throws IllegalArgumentException {
-		if (petType.toLowerCase().equals("cat")) //cat criteria: age
+	void restorePetTraining(PetID petID, boolean trained) throws IllegalArgumentException {
+		int rowToUpdate = shelterAllPets.rowOf(petID);
+		if (rowToUpdate < 0 || shelterAllPets.getTypeCode(rowToUpdate) != PetStore.DOG)
+			throw new IllegalArgumentException("Journal refers to unknown dog " + petID);
+		PetPool availableDogs = getAvailablePetTypeIndex(PetFactory.DOG_PET);
+		synchronized (availableDogs) //pet type lock
 		{
-			return customerAge >= 18;
-		} else if (petType.toLowerCase().equals("dog")) //dog criteria: garden, age < 21 trained, age > 21 trained or not trained
+			int[] dogCounts = getPetTypeCounts(PetFactory.DOG_PET);
+			countPet(dogCounts, rowToUpdate, -1);
+			shelterAllPets.setTrained(rowToUpdate, trained);
+			countPet(dogCounts, rowToUpdate, 1);
+			availableDogs.updateTraining(rowToUpdate, trained);
+		}
+	}
+
+	/**
+	 * Adds a customer record restored from a snapshot or the journal, without journaling it.
+	 * A customer record with the same customer number restored before is kept.
+	 *
+	 * @param customerRecord restored customer record
+	 */
+	void restoreCustomerRecord(CustomerRecord customerRecord) {
+		if (shelterAllCustomerRecords.add(customerRecord)) //ordered by customer number
+			indexCustomerRecord(customerRecord);
+	}
+
+	/**
+	 * Restores an adoption from a snapshot or the journal, without checking eligibility or journaling it.
+	 * An adoption restored before is kept.
+	 *
+	 * @param customerNumber customer number of the adopting customer
+	 * @param petID PetID of the adopted pet
+	 * @throws IllegalArgumentException if the pet is not in the shelter register
+	 */
+	void restoreAdoption(CustomerNumber customerNumber, PetID petID) throws IllegalArgumentException {
+		int adoptedRow = shelterAllPets.rowOf(petID);
+		if (adoptedRow < 0)
+			throw new IllegalArgumentException("Adoption of unknown pet " + petID);
+		Pet adoptedPet = shelterAllPets.petAt(adoptedRow);
+		PetPool availablePetType = getAvailablePetTypeIndex(adoptedPet.getPetType());
+		synchronized (availablePetType) //pet type lock
 		{
-			//garden criteria
-			if (hasGarden) //must have garden regardless of dog's training status
+			if (!shelterAllPets.isAdopted(adoptedRow))
 			{
-				Dog dogForAdoption = (Dog) petForAdoption; //cast to dog
-
-				//age-training criteria
-				if (dogForAdoption.getTrained()) //age criteria based on training: trained == true then at least 18
-				{
-					return customerAge >= 18; //true if age eligible, false otherwise
-				} else //age criteria based on training: trained == false then at least 21 years old
-				{
-					return customerAge >= 21; //true if age eligible, false otherwise
-				}
+				int[] petTypeCounts = getPetTypeCounts(adoptedPet.getPetType());
+				countPet(petTypeCounts, adoptedRow, -1);
+				shelterAllPets.setAdopted(adoptedRow, true);
+				countPet(petTypeCounts, adoptedRow, 1);
+				availablePetType.remove(adoptedRow);
 			}
-			System.out.println("Customer needs to have a garden to adopt a dog"); //garden criteria message for dog adoption
-			return false; //not eligible
 		}
-		throw new IllegalArgumentException("Invalid pet type."); //exception, pet type in parameters is invalid
+		List<Pet> customerIndividualAdoptionsRecord = shelterAdoptionsRecord.computeIfAbsent(customerNumber, key -> new CopyOnWriteArrayList<Pet>());
+		if (!customerIndividualAdoptionsRecord.contains(adoptedPet))
+		{
+			customerIndividualAdoptionsRecord.add(adoptedPet);
+			shelterAdoptionLog.append(new AbstractMap.SimpleImmutableEntry<CustomerNumber, PetID>(customerNumber, petID));
+		}
 	}
 
 	/**
-	 * Validates if a customer can adopt more pets (cannot adopt more than 3 pets of all types).
-	 * @param customerIndividualAdoptionsRecord individual adoptions record of a customer that will be checked
-	 * @return true if customer can adopt more pets (adopted < 3 pets), false otherwise
+	 * Writes a point-in-time snapshot of the shelter to a new file in the specified directory, while other desks keep working.
+	 * If the shelter is journaled, a shelter restored with ShelterManager(Path, ShelterJournal) replays only the journal records
+	 * written after the snapshot. Call periodically, e.g. from a ScheduledExecutorService, to keep startup time short.
+	 *
+	 * @param snapshotDirectory directory of snapshots, created if needed
+	 * @return path of the new snapshot file
+	 * @throws IOException if the snapshot cannot be written
 	 */
-	private boolean getIsEligibleAdoptionNumber(List<Pet> customerIndividualAdoptionsRecord) {
-		if (!getHasAdoptedBefore(customerIndividualAdoptionsRecord)) //check if customer has adopted before
-			return true; //hasn't adopted before so number of adoptions irrelevant to check further
-		//adoption eligibility criteria: a customer can adopt at most three pets of all types
-		if (customerIndividualAdoptionsRecord.size() == 3) //cannot adopt more than three pets of all types
+	public Path writeSnapshot(Path snapshotDirectory) throws IOException {
+		long startNanos = startTimer();
+		try
 		{
-			System.out.println("Customer cannot adopt more than three pets (of all types)."); //explanation for eligibility failure
-			return false;
+			return ShelterSnapshot.write(this, snapshotDirectory);
+		}
+		finally
+		{
+			stopTimer(ShelterOperation.WRITE_SNAPSHOT, startNanos);
 		}
-		return true; //reached only if can adopt
 	}
 
-	//Available pets methods
 	/**
-	 * Updates List of available pets in the shelter based on pet's adoption status (available means "not adopted")
+	 * Returns the journal position a snapshot starts from, after committing the journal up to that position.
+	 * All locks are held for a moment while the position is taken, so every mutation journaled before the position is complete
+	 * and is seen by the snapshot, and every later mutation is replayed from the journal (restoring is idempotent).
+	 *
+	 * @return journal position, -1 if the shelter is not journaled
+	 */
+	long checkpointJournal() {
+		if (journal == null)
+			return -1;
+		getAvailablePetTypeIndex(PetFactory.CAT_PET); //pet type locks exist before they are taken
+		getAvailablePetTypeIndex(PetFactory.DOG_PET);
+		long journalPosition = getCheckpointPosition(0);
+		journal.commit(); //records before the position are on disk before the snapshot is
+		return journalPosition;
+	}
+
+	/**
+	 * Takes the customer locks from the specified stripe on and the pet type locks, in the same order as adoptPet(), and returns the journal position.
+	 *
+	 * @param stripe first customer lock stripe to take
+	 * @return journal position after the last record appended
 	 */
-	private void updateListAvailablePets() {
-		List<Pet> tempShelterAvailablePets = new ArrayList<Pet>();
-		for (Pet pet : shelterAllPets.values()) {
-			if (!pet.getAdopted()) //checking adopted status == false
+	private long getCheckpointPosition(int stripe) {
+		if (stripe < customerLocks.length)
+		{
+			synchronized (customerLocks[stripe])
+			{
+				return getCheckpointPosition(stripe + 1);
+			}
+		}
+		synchronized (shelterAvailablePets.get(PetFactory.CAT_PET))
+		{
+			synchronized (shelterAvailablePets.get(PetFactory.DOG_PET))
 			{
-				tempShelterAvailablePets.add(pet);
+				return journal.getCheckpointPosition();
 			}
-			shelterAvailablePets = tempShelterAvailablePets; //reassign list to the updated one
 		}
 	}
 
 	/**
-	 * Returns a List of available pet of the specified pet type.
-	 * @param petType specified pet type
-	 * @return ArrayList of available pets of the specified pet type
+	 * Waits until the journal record with the specified sequence number is committed, nothing to do if the shelter is not journaled.
+	 *
+	 * @param journalSeq sequence number returned by the journal, 0 if nothing was journaled
 	 */
-	private List<Pet> getListAvailablePetType(String petType) {
-		List<Pet> listAvailablePetType = new ArrayList<Pet>(); //ArrayList of available pets of the specified type, later returned
-        for (Pet petIteration : shelterAvailablePets) { //loop through shelterAvailablePets LinkedList
-            String petTypeIteration = petIteration.getPetType().toLowerCase(); //ensuring case-insensitive pet type of pet
-            if (petTypeIteration.equals(petType.toLowerCase())) //ensuring case-insensitive pet type of parameter
-            {
-                listAvailablePetType.add(petIteration); //add pet iteration if pet type matched to the specified pet type
-            }
-        }
-		return listAvailablePetType; //ArrayList with available pets of the specified type
+	private void commitJournal(long journalSeq) {
+		if (journal != null && journalSeq > 0)
+			journal.commit(journalSeq);
 	}
 
 	/**
-	 * Returns a List of available pets of the specified pet types that a customer with the specified age could be eligible for.
-	 * @param petType specified pet type
-	 * @param customerAge age of a customer of interest
-	 * @return ArrayList of Pets that a customer of the specified age could be eligible for
+	 * Waits until all records appended to the journal are committed, nothing to do if the shelter is not journaled.
+	 * Used after registerCustomerRecord(), so a bulk import commits once per batch.
 	 */
-	//overloading
-	private List<Pet> getListAvailablePetType(String petType, int customerAge) //use only for Dog!!
-	{
-		List<Pet> listAvailablePetType = new ArrayList<Pet>();
-		for (int i = 0; i < shelterAvailablePets.size(); i++) {
-			Pet petIteration = shelterAvailablePets.get(i);
-			String petTypeIteration = petIteration.getPetType().toLowerCase(); //ensuring case-insensitive pet type of pet
-			if (petTypeIteration.equals(petType.toLowerCase())) //ensuring case-insensitive pet type of parameter
-			{
-				listAvailablePetType.add(petIteration);
-			}
-		}
-		//depending on age filter dogs based on trained status
-		if (customerAge < 21) //dogs must be trained
+	void commitJournal() {
+		if (journal != null)
+			journal.commit();
+	}
+
+	//Metrics methods
+	/**
+	 * Sets the log that adoptions and rejected adoptions are published to, e.g. a rolling log file.
+	 * Publishing never blocks the adoption: the event is formatted and written by the writer thread of the log.
+	 * While no log is set, events are not recorded.
+	 *
+	 * @param eventLog log of adoption events, null to stop logging
+	 */
+	public void setEventLog(ShelterEventLog eventLog) {
+		this.eventLog = eventLog;
+	}
+
+	/**
+	 * Sets the receiver of the latency of every public method call and of every rejected adoption, e.g. a ShelterMetricsRecorder.
+	 * While no receiver is set, the cost of metrics is one field read per call.
+	 *
+	 * @param metrics receiver of the measurements, null to disable metrics
+	 */
+	public void setMetrics(ShelterMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Returns the start time of a timed call, see stopTimer(ShelterOperation, long).
+	 *
+	 * @return System.nanoTime(), or NOT_TIMED if metrics are disabled
+	 */
+	private long startTimer() {
+		return (metrics == null) ? NOT_TIMED : System.nanoTime();
+	}
+
+	/**
+	 * Records the latency of a timed call, nothing to do if metrics were disabled when it started.
+	 *
+	 * @param operation public method called
+	 * @param startNanos value returned by startTimer()
+	 */
+	private void stopTimer(ShelterOperation operation, long startNanos) {
+		ShelterMetrics currentMetrics = metrics;
+		if (startNanos != NOT_TIMED && currentMetrics != null)
+			currentMetrics.recordLatency(operation, System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Records a rejected adoption, publishes it to the event log and returns its result. Used by adoptPet() and by AdoptionService.
+	 *
+	 * @param customerNumber customer number of the customer
+	 * @param petType        lower-case pet type requested
+	 * @param rejection      reason of the rejection
+	 * @return rejected adoption result
+	 */
+	AdoptionResult rejectAdoption(CustomerNumber customerNumber, String petType, AdoptionRejection rejection) {
+		ShelterMetrics currentMetrics = metrics;
+		if (currentMetrics != null)
+			currentMetrics.recordRejection(rejection);
+		ShelterEventLog currentEventLog = eventLog;
+		if (currentEventLog != null)
+			currentEventLog.publishRejection(customerNumber, petType, rejection);
+		return AdoptionResult.rejected(rejection);
+	}
+
+	//Validator methods
+	/**
+	 * Evaluates the rule table of a pet type for the specified customer against the current pets and adoptions, without locking the customer.
+	 * The counters of the pet type are read together under its lock.
+	 *
+	 * @param rules          rule table of the pet type, see AdoptionRule.rulesOf(String)
+	 * @param customerRecord customer record of the customer
+	 * @param petType        lower-case pet type
+	 * @param customerAge    age of the customer
+	 * @return rejection reason, null if all rules are met
+	 */
+	private AdoptionRejection checkAdoptionRules(AdoptionRule[] rules, CustomerRecord customerRecord, String petType, int customerAge) {
+		boolean hasGarden = customerRecord.getHasGarden();
+		int noOfAdoptions = noOfAdoptions(shelterAdoptionsRecord.get(customerRecord.getCustomerNumber()));
+		PetPool availablePetType = shelterAvailablePets.get(petType);
+		if (availablePetType == null) //no pets of this type were ever added (or invalid pet type)
+			return AdoptionRule.check(rules, customerAge, hasGarden, noOfAdoptions, 0, 0);
+		synchronized (availablePetType) //pet type lock, counters are read together
 		{
-			for (int i = 0; i < listAvailablePetType.size(); i++) {
-				Pet petIteration = listAvailablePetType.get(i);
-				if (!((Dog) petIteration).getTrained())
-					listAvailablePetType.remove(petIteration);
-			}
+			int[] petTypeCounts = shelterPetCounts.get(petType);
+			if (petTypeCounts == null) //index created but first pet of this type not counted yet
+				return AdoptionRule.check(rules, customerAge, hasGarden, noOfAdoptions, 0, 0);
+			return AdoptionRule.check(rules, customerAge, hasGarden, noOfAdoptions,
+					petTypeCounts[PetCounts.AVAILABLE_UNTRAINED], petTypeCounts[PetCounts.AVAILABLE_TRAINED]);
 		}
-		return listAvailablePetType;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Returns the number of pets adopted by a customer.
+	 * @param customerIndividualAdoptionsRecord individual adoptions record of a customer, null if the customer has not adopted before
+	 * @return number of adopted pets
+	 */
+	private static int noOfAdoptions(List<Pet> customerIndividualAdoptionsRecord) {
+		return (customerIndividualAdoptionsRecord == null) ? 0 : customerIndividualAdoptionsRecord.size(); //no record if the customer hasn't adopted before
+	}
+
+	//Available pets methods
+	/**
+	 * Adds delta to the counter of the current status (adopted, trained) of the pet in the specified row, in the counters of its pet type.
+	 * Caller must hold the lock of the pet type index.
+	 * @param petTypeCounts counters of the pet type, see getPetTypeCounts(String)
+	 * @param row row of the pet in the shelter register
+	 * @param delta 1 when the pet enters the cell, -1 when it leaves it
+	 */
+	private void countPet(int[] petTypeCounts, int row, int delta) {
+		int status = shelterAllPets.getStatus(row); //only trainable pets can be trained
+		petTypeCounts[PetCounts.cellOf((status & PetStore.ADOPTED) != 0, (status & PetStore.TRAINED) != 0)] += delta;
+	}
+
+	/**
+	 * Returns the counters of the specified pet type, creating them if needed.
+	 * @param petType specified pet type (case-insensitive)
+	 * @return counters of the pet type indexed by PetCounts cell
+	 */
+	private int[] getPetTypeCounts(String petType) {
+		return shelterPetCounts.computeIfAbsent(petType.toLowerCase(), key -> new int[PetCounts.NO_OF_CELLS]); //first pet of this type creates its counters
+	}
+
+	/**
+	 * Returns the index of available pets of the specified pet type, creating it if needed.
+	 * The index is also the lock guarding status changes and counters of pets of that type.
+	 * @param petType specified pet type (case-insensitive)
+	 * @return PetPool of available pets of the specified type
+	 */
+	private PetPool getAvailablePetTypeIndex(String petType) {
+		return shelterAvailablePets.computeIfAbsent(petType.toLowerCase(), petTypeKey -> new PetPool(shelterAllPets));
+	}
+
+	/**
+	 * Returns the striped lock guarding customers with the specified hash code.
+	 * @param hashCode hash code of the customer record or customer number
+	 * @return lock object
+	 */
+	private Object getCustomerLock(int hashCode) {
+		return customerLocks[Math.floorMod(hashCode, customerLocks.length)];
+	}
+}
@@ -0,0 +1,23 @@
+/**
+ * ShelterMetrics - receiver of the measurements of a ShelterManager, set with ShelterManager.setMetrics(ShelterMetrics).
+ * Methods are called by the adoption desks on the hot path, concurrently, so implementations must be thread-safe and fast,
+ * and must not throw. ShelterMetricsRecorder is the built-in implementation with latency histograms and JMX.
+ * @see ShelterMetricsRecorder
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public interface ShelterMetrics {
+
+    /**
+     * Records the latency of a completed call of a public ShelterManager method, including calls that threw.
+     * @param operation method called
+     * @param nanos elapsed time in nanoseconds
+     */
+    void recordLatency(ShelterOperation operation, long nanos);
+
+    /**
+     * Records a rejected adoption request, from ShelterManager.adoptPet() or AdoptionService.
+     * @param rejection reason of the rejection
+     */
+    void recordRejection(AdoptionRejection rejection);
+}
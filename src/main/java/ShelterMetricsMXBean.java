@@ -0,0 +1,65 @@
+import java.util.Map;
+
+/**
+ * ShelterMetricsMXBean - JMX view of a shelter and of the measurements recorded by its ShelterMetricsRecorder,
+ * registered with ShelterMetricsRecorder.registerMBean(ShelterManager, String). Latencies are in microseconds,
+ * maps are keyed by ShelterOperation or AdoptionRejection name.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public interface ShelterMetricsMXBean {
+
+    /**
+     * Returns the number of pets in the shelter register.
+     * @return number of pets
+     */
+    long getNoOfPets();
+
+    /**
+     * Returns the number of pets available for adoption.
+     * @return number of available pets
+     */
+    long getNoOfAvailablePets();
+
+    /**
+     * Returns the number of adopted pets.
+     * @return number of adopted pets
+     */
+    long getNoOfAdoptedPets();
+
+    /**
+     * Returns the number of customer records.
+     * @return number of customers
+     */
+    long getNoOfCustomers();
+
+    /**
+     * Returns the number of calls of each operation.
+     * @return number of calls by operation
+     */
+    Map<String, Long> getOperationCounts();
+
+    /**
+     * Returns the mean latency of each operation.
+     * @return mean latency in microseconds by operation
+     */
+    Map<String, Double> getMeanLatencies();
+
+    /**
+     * Returns the 99th percentile latency of each operation.
+     * @return 99th percentile latency in microseconds by operation
+     */
+    Map<String, Double> getP99Latencies();
+
+    /**
+     * Returns the largest latency of each operation.
+     * @return largest latency in microseconds by operation
+     */
+    Map<String, Double> getMaxLatencies();
+
+    /**
+     * Returns the number of rejected adoption requests by reason.
+     * @return number of rejections by reason
+     */
+    Map<String, Long> getRejectionCounts();
+}
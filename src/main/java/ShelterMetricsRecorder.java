@@ -0,0 +1,202 @@
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * ShelterMetricsRecorder - built-in ShelterMetrics keeping a latency histogram per ShelterOperation and a counter per AdoptionRejection.
+ * Set it on a shelter with ShelterManager.setMetrics(ShelterMetrics), and expose it with registerMBean(ShelterManager, String)
+ * to read it from JConsole or any JMX client together with gauges of the register sizes.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public final class ShelterMetricsRecorder implements ShelterMetrics {
+
+    /**
+     * Latency histogram of each operation.
+     */
+    private final Map<ShelterOperation, LatencyHistogram> latencies = new EnumMap<ShelterOperation, LatencyHistogram>(ShelterOperation.class);
+    /**
+     * Number of rejections of each reason.
+     */
+    private final Map<AdoptionRejection, LongAdder> rejections = new EnumMap<AdoptionRejection, LongAdder>(AdoptionRejection.class);
+
+    /**
+     * Constructs a recorder with empty histograms and counters.
+     */
+    public ShelterMetricsRecorder()
+    {
+        for (ShelterOperation operation : ShelterOperation.values())
+            latencies.put(operation, new LatencyHistogram()); //never modified after construction, safe to read concurrently
+        for (AdoptionRejection rejection : AdoptionRejection.values())
+            rejections.put(rejection, new LongAdder());
+    }
+
+    /**
+     * @see ShelterMetrics#recordLatency(ShelterOperation, long)
+     */
+    @Override
+    public void recordLatency(ShelterOperation operation, long nanos)
+    {
+        latencies.get(operation).record(nanos);
+    }
+
+    /**
+     * @see ShelterMetrics#recordRejection(AdoptionRejection)
+     */
+    @Override
+    public void recordRejection(AdoptionRejection rejection)
+    {
+        rejections.get(rejection).increment();
+    }
+
+    /**
+     * Returns the latency histogram of the specified operation.
+     * @param operation shelter operation
+     * @return live histogram
+     */
+    public LatencyHistogram getLatencyHistogram(ShelterOperation operation)
+    {
+        return latencies.get(operation);
+    }
+
+    /**
+     * Returns the number of adoption requests rejected for the specified reason.
+     * @param rejection rejection reason
+     * @return number of rejections
+     */
+    public long getRejectionCount(AdoptionRejection rejection)
+    {
+        return rejections.get(rejection).sum();
+    }
+
+    /**
+     * Registers an MXBean showing this recorder and the register sizes of the specified shelter with the platform MBean server,
+     * under the name ShelterManager:type=Metrics,name=<code>shelterName</code>.
+     * @param shelterManager shelter whose register sizes are shown, usually the shelter this recorder is set on
+     * @param shelterName name of the shelter, unique in the JVM
+     * @return name the MXBean is registered under, use it to unregister the MXBean
+     * @throws JMException if the name is invalid or already registered
+     */
+    public ObjectName registerMBean(ShelterManager shelterManager, String shelterName) throws JMException
+    {
+        ObjectName objectName = new ObjectName("ShelterManager:type=Metrics,name=" + ObjectName.quote(shelterName));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new ShelterMetricsView(shelterManager, this), objectName);
+        return objectName;
+    }
+
+    /**
+     * ShelterMetricsView - MXBean reading a shelter and a recorder.
+     */
+    private static final class ShelterMetricsView implements ShelterMetricsMXBean {
+
+        /**
+         * Number of nanoseconds per microsecond.
+         */
+        private static final double NANOS_PER_MICRO = 1000.0;
+
+        /**
+         * Shelter whose register sizes are shown.
+         */
+        private final ShelterManager shelterManager;
+        /**
+         * Recorder of the measurements.
+         */
+        private final ShelterMetricsRecorder recorder;
+
+        /**
+         * Constructs a view.
+         * @param shelterManager shelter whose register sizes are shown
+         * @param recorder recorder of the measurements
+         */
+        private ShelterMetricsView(ShelterManager shelterManager, ShelterMetricsRecorder recorder)
+        {
+            this.shelterManager = shelterManager;
+            this.recorder = recorder;
+        }
+
+        @Override
+        public long getNoOfPets()
+        {
+            PetCounts petCounts = shelterManager.copyPetCounts(); //live counters, not a scan of the register
+            long noOfPets = 0;
+            for (String petType : petCounts.getPetTypes())
+                noOfPets += petCounts.getTotal(petType);
+            return noOfPets;
+        }
+
+        @Override
+        public long getNoOfAvailablePets()
+        {
+            PetCounts petCounts = shelterManager.copyPetCounts();
+            long noOfAvailablePets = 0;
+            for (String petType : petCounts.getPetTypes())
+                noOfAvailablePets += petCounts.getAvailable(petType);
+            return noOfAvailablePets;
+        }
+
+        @Override
+        public long getNoOfAdoptedPets()
+        {
+            PetCounts petCounts = shelterManager.copyPetCounts();
+            long noOfAdoptedPets = 0;
+            for (String petType : petCounts.getPetTypes())
+                noOfAdoptedPets += petCounts.getAdopted(petType);
+            return noOfAdoptedPets;
+        }
+
+        @Override
+        public long getNoOfCustomers()
+        {
+            return shelterManager.shelterCustomerIdentities.size(); //hash set size, the ordered set would count its elements
+        }
+
+        @Override
+        public Map<String, Long> getOperationCounts()
+        {
+            Map<String, Long> operationCounts = new LinkedHashMap<String, Long>();
+            for (Map.Entry<ShelterOperation, LatencyHistogram> entry : recorder.latencies.entrySet())
+                operationCounts.put(entry.getKey().name(), entry.getValue().getCount());
+            return operationCounts;
+        }
+
+        @Override
+        public Map<String, Double> getMeanLatencies()
+        {
+            Map<String, Double> meanLatencies = new LinkedHashMap<String, Double>();
+            for (Map.Entry<ShelterOperation, LatencyHistogram> entry : recorder.latencies.entrySet())
+                meanLatencies.put(entry.getKey().name(), entry.getValue().getMean() / NANOS_PER_MICRO);
+            return meanLatencies;
+        }
+
+        @Override
+        public Map<String, Double> getP99Latencies()
+        {
+            Map<String, Double> p99Latencies = new LinkedHashMap<String, Double>();
+            for (Map.Entry<ShelterOperation, LatencyHistogram> entry : recorder.latencies.entrySet())
+                p99Latencies.put(entry.getKey().name(), entry.getValue().getValueAtPercentile(99) / NANOS_PER_MICRO);
+            return p99Latencies;
+        }
+
+        @Override
+        public Map<String, Double> getMaxLatencies()
+        {
+            Map<String, Double> maxLatencies = new LinkedHashMap<String, Double>();
+            for (Map.Entry<ShelterOperation, LatencyHistogram> entry : recorder.latencies.entrySet())
+                maxLatencies.put(entry.getKey().name(), entry.getValue().getMax() / NANOS_PER_MICRO);
+            return maxLatencies;
+        }
+
+        @Override
+        public Map<String, Long> getRejectionCounts()
+        {
+            Map<String, Long> rejectionCounts = new LinkedHashMap<String, Long>();
+            for (AdoptionRejection rejection : AdoptionRejection.values())
+                rejectionCounts.put(rejection.name(), recorder.getRejectionCount(rejection));
+            return rejectionCounts;
+        }
+    }
+}
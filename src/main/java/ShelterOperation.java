@@ -0,0 +1,77 @@
+/**
+ * ShelterOperation - public ShelterManager operations whose latency is recorded by ShelterMetrics.
+ * @see ShelterMetrics#recordLatency(ShelterOperation, long)
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public enum ShelterOperation {
+
+    /**
+     * ShelterManager.addPet(String).
+     */
+    ADD_PET,
+    /**
+     * ShelterManager.addPets(String, int) and ShelterManager.addPets(Collection).
+     */
+    ADD_PETS,
+    /**
+     * ShelterManager.updatePetRecord(PetID, Boolean).
+     */
+    UPDATE_PET_RECORD,
+    /**
+     * ShelterManager.noOfAvailablePets(String).
+     */
+    NO_OF_AVAILABLE_PETS,
+    /**
+     * ShelterManager.getPetCounts().
+     */
+    GET_PET_COUNTS,
+    /**
+     * ShelterManager.noOfPets(PetFilter).
+     */
+    NO_OF_PETS,
+    /**
+     * ShelterManager.getPets(PetFilter).
+     */
+    GET_PETS,
+    /**
+     * ShelterManager.getPets(PetFilter, PetID, int).
+     */
+    GET_PET_PAGE,
+    /**
+     * ShelterManager.addCustomerRecord(String, String, Date, Boolean).
+     */
+    ADD_CUSTOMER_RECORD,
+    /**
+     * ShelterManager.getCustomer(CustomerNumber).
+     */
+    GET_CUSTOMER,
+    /**
+     * ShelterManager.findCustomers(String, String, int).
+     */
+    FIND_CUSTOMERS,
+    /**
+     * ShelterManager.canAdopt(CustomerRecord, String).
+     */
+    CAN_ADOPT,
+    /**
+     * ShelterManager.adoptPet(CustomerRecord, String).
+     */
+    ADOPT_PET,
+    /**
+     * ShelterManager.adoptedPetsByCustomer(CustomerNumber).
+     */
+    ADOPTED_PETS_BY_CUSTOMER,
+    /**
+     * ShelterManager.getView().
+     */
+    GET_VIEW,
+    /**
+     * ShelterManager.getStatistics().
+     */
+    GET_STATISTICS,
+    /**
+     * ShelterManager.writeSnapshot(Path).
+     */
+    WRITE_SNAPSHOT
+}
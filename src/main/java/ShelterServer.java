@@ -0,0 +1,378 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ShelterServer - serves one shard of a shelter federation: a ShelterManager answering requests of ShelterFederation clients
+ * over a binary protocol on a loopback TCP port. Each connection is served by its own thread, one request at a time.
+ * <p>
+ * Shard i of n owns the PetIDs from i * (Integer.MAX_VALUE / n), so a PetID tells which shard holds the pet, see petIDRangeOf(int).
+ * The PetID generator is shared by all shelters of a JVM, so a JVM serves one shard, e.g. started with main(String[]).
+ * <p>
+ * A request is an operation code followed by its arguments, and a response is OK followed by the result,
+ * or INVALID_ARGUMENT, FAILED or ERROR followed by the message of the exception. Strings are written with DataOutput.writeUTF.
+ * @see ShelterFederation
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public final class ShelterServer implements Closeable {
+
+    //operation codes
+    /**
+     * Request of the shard index and number of shards: returns int shardIndex, int noOfShards.
+     */
+    static final byte HELLO = 1;
+    /**
+     * Request of the number of available pets: String petType, returns int.
+     */
+    static final byte NO_OF_AVAILABLE_PETS = 2;
+    /**
+     * Request of the pet counts: returns int number of pet types, then String petType and the PetCounts cells of each.
+     */
+    static final byte GET_PET_COUNTS = 3;
+    /**
+     * Request to add pets: String petType, int count, returns int value of the first of count consecutive PetIDs.
+     */
+    static final byte ADD_PETS = 4;
+    /**
+     * Request to update a training status: int PetID value, boolean trained, returns boolean.
+     */
+    static final byte UPDATE_PET_RECORD = 5;
+    /**
+     * Request to add a customer record: String firstName, String lastName, long dob, boolean hasGarden, returns String customer number.
+     */
+    static final byte ADD_CUSTOMER_RECORD = 6;
+    /**
+     * Request to adopt a pet: String customer number, String petType, returns int PetID value, or -1 and String AdoptionRejection name.
+     */
+    static final byte ADOPT_PET = 7;
+
+    //response codes
+    /**
+     * Response to a successful request, followed by the result.
+     */
+    static final byte OK = 0;
+    /**
+     * Response to a request rejected with an IllegalArgumentException, followed by its message.
+     */
+    static final byte INVALID_ARGUMENT = 1;
+    /**
+     * Response to a request that failed otherwise, followed by the exception.
+     */
+    static final byte FAILED = 2;
+    /**
+     * Response to a request that failed with an Error, e.g. a customer that is already registered, followed by its message.
+     */
+    static final byte ERROR = 3;
+
+    //fields
+    /**
+     * Shelter of the shard.
+     */
+    private final ShelterManager shelterManager;
+    /**
+     * Index of the shard, 0 to noOfShards - 1.
+     */
+    private final int shardIndex;
+    /**
+     * Number of shards of the federation.
+     */
+    private final int noOfShards;
+    /**
+     * First PetID value after the PetID range of the shard.
+     */
+    private final long petIDRangeEnd;
+    /**
+     * Lock serializing ADD_PETS, so the check of the PetID range and the allocation of the PetIDs are one step for all connections.
+     */
+    private final Object petIDRangeLock = new Object();
+    /**
+     * Customer records of the shelter by the String representation of their customer numbers.
+     */
+    private final Map<String, CustomerRecord> customersByNumber = new ConcurrentHashMap<String, CustomerRecord>();
+    /**
+     * Listening socket on the loopback address.
+     */
+    private final ServerSocket serverSocket;
+    /**
+     * Open connections, closed with the server.
+     */
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Starts serving the specified shelter as a shard on the specified loopback port.
+     * The PetID generator of the JVM is moved to the start of the PetID range of the shard.
+     * @param shelterManager shelter of the shard, e.g. restored from its journal
+     * @param shardIndex index of the shard, 0 to noOfShards - 1
+     * @param noOfShards number of shards of the federation
+     * @param port TCP port, 0 for any free port
+     * @throws IOException if the port cannot be opened
+     * @throws IllegalArgumentException if the shard index or number of shards is invalid, or the shelter has PetIDs of another shard
+     */
+    public ShelterServer(ShelterManager shelterManager, int shardIndex, int noOfShards, int port) throws IOException, IllegalArgumentException
+    {
+        if (noOfShards < 1 || shardIndex < 0 || shardIndex >= noOfShards)
+            throw new IllegalArgumentException("Invalid shard " + shardIndex + " of " + noOfShards);
+        long[] petIDRange = petIDRangeOf(shardIndex, noOfShards);
+        if (PetID.getNextPetIDValue() > petIDRange[1])
+            throw new IllegalArgumentException("PetIDs of shard " + shardIndex + " were allocated past its range.");
+        PetID.advancePetIDs((int) petIDRange[0]);
+        this.shelterManager = shelterManager;
+        this.shardIndex = shardIndex;
+        this.noOfShards = noOfShards;
+        petIDRangeEnd = petIDRange[1];
+        for (CustomerRecord customerRecord : shelterManager.shelterAllCustomerRecords) //restored customers
+        {
+            customersByNumber.put(customerRecord.getCustomerNumber().toString(), customerRecord);
+        }
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptConnections, "shelter-server-" + shardIndex);
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Starts a shard in this JVM with an empty shelter, or a shelter restored from a journal, and prints its port.
+     * Usage: java ShelterServer shardIndex noOfShards [port [journalFile]]
+     * @param args shard index, number of shards, optional port (default 0, any free port) and optional journal file
+     * @throws IOException if the port or the journal cannot be opened
+     */
+    public static void main(String[] args) throws IOException
+    {
+        int shardIndex = Integer.parseInt(args[0]);
+        int noOfShards = Integer.parseInt(args[1]);
+        int port = (args.length > 2) ? Integer.parseInt(args[2]) : 0;
+        ShelterManager shelterManager = (args.length > 3) ? new ShelterManager(ShelterJournal.open(Path.of(args[3]))) : new ShelterManager();
+        ShelterServer server = new ShelterServer(shelterManager, shardIndex, noOfShards, port);
+        System.out.println("Shard " + shardIndex + " of " + noOfShards + " listening on port " + server.getPort());
+        System.out.flush();
+        while (System.in.read() >= 0) //serves until standard input is closed, e.g. when the parent process ends
+        {
+        }
+        server.close();
+    }
+
+    /**
+     * Returns the PetID range of a shard, the range of PetID values is divided into noOfShards equal ranges.
+     * @param shardIndex index of the shard
+     * @param noOfShards number of shards
+     * @return first PetID value of the range and first value after it
+     */
+    static long[] petIDRangeOf(int shardIndex, int noOfShards)
+    {
+        long rangeSize = Integer.MAX_VALUE / noOfShards;
+        return new long[] {shardIndex * rangeSize, (shardIndex + 1) * rangeSize};
+    }
+
+    /**
+     * Returns the local port the server listens on.
+     * @return TCP port on the loopback address
+     */
+    public int getPort()
+    {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Stops accepting connections and closes the open connections. The shelter is not closed.
+     * @throws IOException if the listening socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException
+    {
+        serverSocket.close();
+        for (Socket connection : connections)
+        {
+            connection.close();
+        }
+    }
+
+    /**
+     * Accepts connections until the server is closed, starting a thread for each.
+     */
+    private void acceptConnections()
+    {
+        try
+        {
+            while (true)
+            {
+                Socket connection = serverSocket.accept();
+                connection.setTcpNoDelay(true); //requests and responses are small
+                connections.add(connection);
+                Thread worker = new Thread(() -> serve(connection), "shelter-server-" + shardIndex + "-connection");
+                worker.setDaemon(true);
+                worker.start();
+            }
+        }
+        catch (IOException e) //server closed
+        {
+        }
+    }
+
+    /**
+     * Serves the requests of a connection until it is closed.
+     * @param connection connection of a ShelterFederation client
+     */
+    private void serve(Socket connection)
+    {
+        try (Socket socket = connection)
+        {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            while (true)
+            {
+                byte operation;
+                try
+                {
+                    operation = in.readByte();
+                }
+                catch (EOFException e) //client closed the connection
+                {
+                    return;
+                }
+                handle(operation, in, out);
+                out.flush();
+            }
+        }
+        catch (IOException e) //connection lost or server closed
+        {
+        }
+        finally
+        {
+            connections.remove(connection);
+        }
+    }
+
+    /**
+     * Reads the arguments of a request, performs it on the shelter and writes the response.
+     * @param operation operation code
+     * @param in input of the connection, positioned after the operation code
+     * @param out output of the connection
+     * @throws IOException if the connection fails
+     */
+    private void handle(byte operation, DataInputStream in, DataOutputStream out) throws IOException
+    {
+        try
+        {
+            switch (operation)
+            {
+                case HELLO:
+                    out.writeByte(OK);
+                    out.writeInt(shardIndex);
+                    out.writeInt(noOfShards);
+                    break;
+                case NO_OF_AVAILABLE_PETS:
+                {
+                    int noOfAvailablePets = shelterManager.noOfAvailablePets(in.readUTF());
+                    out.writeByte(OK);
+                    out.writeInt(noOfAvailablePets);
+                    break;
+                }
+                case GET_PET_COUNTS:
+                {
+                    PetCounts petCounts = shelterManager.getPetCounts();
+                    out.writeByte(OK);
+                    out.writeInt(petCounts.getPetTypes().size());
+                    for (String petType : petCounts.getPetTypes())
+                    {
+                        out.writeUTF(petType);
+                        for (int cell = 0; cell < PetCounts.NO_OF_CELLS; cell++)
+                            out.writeInt(petCounts.count(petType, cell));
+                    }
+                    break;
+                }
+                case ADD_PETS:
+                {
+                    String petType = in.readUTF();
+                    int count = in.readInt();
+                    if (count < 0)
+                        throw new IllegalArgumentException("Invalid number of pets: " + count);
+                    List<Pet> addedPets;
+                    synchronized (petIDRangeLock) //another connection could otherwise allocate between the check and addPets
+                    {
+                        if (PetID.getNextPetIDValue() + (long) count > petIDRangeEnd)
+                            throw new IllegalArgumentException("PetID range of shard " + shardIndex + " is used up.");
+                        addedPets = shelterManager.addPets(petType, count);
+                    }
+                    out.writeByte(OK);
+                    out.writeInt(addedPets.isEmpty() ? -1 : addedPets.get(0).getPetID().getValue());
+                    break;
+                }
+                case UPDATE_PET_RECORD:
+                {
+                    PetID petID = PetID.getPetIDInstance(in.readInt());
+                    boolean trained = in.readBoolean();
+                    boolean updated = shelterManager.updatePetRecord(petID, trained);
+                    out.writeByte(OK);
+                    out.writeBoolean(updated);
+                    break;
+                }
+                case ADD_CUSTOMER_RECORD:
+                {
+                    String firstName = in.readUTF();
+                    String lastName = in.readUTF();
+                    Date dob = new Date(in.readLong());
+                    boolean hasGarden = in.readBoolean();
+                    CustomerRecord customerRecord = shelterManager.addCustomerRecord(firstName, lastName, dob, hasGarden);
+                    String customerNumber = customerRecord.getCustomerNumber().toString();
+                    customersByNumber.put(customerNumber, customerRecord);
+                    out.writeByte(OK);
+                    out.writeUTF(customerNumber);
+                    break;
+                }
+                case ADOPT_PET:
+                {
+                    String customerNumber = in.readUTF();
+                    String petType = in.readUTF().toLowerCase();
+                    CustomerRecord customerRecord = customersByNumber.get(customerNumber);
+                    if (customerRecord == null)
+                        throw new IllegalArgumentException("Customer " + customerNumber + " is not registered at shard " + shardIndex);
+                    AdoptionResult result = shelterManager.adoptPet(customerRecord, petType, customerRecord.adoptionAge());
+                    if (result.isAdopted())
+                        shelterManager.commitJournal(); //on disk before the client is told
+                    out.writeByte(OK);
+                    if (result.isAdopted())
+                    {
+                        out.writeInt(result.getPetID().getValue());
+                    }
+                    else
+                    {
+                        out.writeInt(-1);
+                        out.writeUTF(result.getRejection().name());
+                    }
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown operation " + operation);
+            }
+        }
+        catch (IllegalArgumentException | NullPointerException e) //invalid request, the connection stays usable
+        {
+            out.writeByte(INVALID_ARGUMENT);
+            out.writeUTF(String.valueOf(e.getMessage()));
+        }
+        catch (RuntimeException e)
+        {
+            out.writeByte(FAILED);
+            out.writeUTF(e.toString());
+        }
+        catch (Error e) //ShelterManager reports duplicate customers as an Error
+        {
+            out.writeByte(ERROR);
+            out.writeUTF(String.valueOf(e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,404 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * ShelterSnapshot - compact, versioned binary snapshot of a shelter register: all pets, customer records, adoptions and the positions
+ * of the PetID and CustomerNumber generators. Snapshots are written by ShelterManager.writeSnapshot(Path) while other desks keep working,
+ * and loaded by the ShelterManager(Path) and ShelterManager(Path, ShelterJournal) constructors, which memory-map the newest valid snapshot.
+ * <p>
+ * A snapshot is taken by scanning the live register, so a mutation in progress during the scan may or may not be included.
+ * Adoption records are scanned first and the adoption status of pets is taken from them, so each adoption is either fully included
+ * or not at all, and refers to pets and customer records included in the snapshot.
+ * For a journaled shelter the snapshot also stores the journal position taken just before the scan: replaying the journal from
+ * that position redoes every later mutation, and mutations already included are skipped, so the restored register is exact.
+ * <p>
+ * File format (big-endian): header [int magic][int version][long journal position, -1 if not journaled][long time written],
+ * pets [int PetID value][byte flags: dog, trained] ending with PetID -1, customer records and adoptions each starting with byte 1
+ * and ending with byte 0, generator positions, and an int CRC32 of all previous bytes.
+ * Files are written to a temporary file and renamed, so a snapshot file is either complete or missing.
+ * The two newest snapshots are kept, the older one is loaded if the newest is unreadable.
+ * @see ShelterManager#writeSnapshot(Path)
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+final class ShelterSnapshot {
+
+    //constants
+    /**
+     * Magic number at the start of a snapshot file, "SHS" and a zero byte.
+     */
+    private static final int MAGIC = 0x53485300;
+    /**
+     * Version of the snapshot file format.
+     */
+    private static final int VERSION = 1;
+    /**
+     * Prefix of snapshot file names, followed by a zero-padded sequence number so names sort by age.
+     */
+    private static final String FILE_PREFIX = "shelter-";
+    /**
+     * Suffix of snapshot file names.
+     */
+    private static final String FILE_SUFFIX = ".snapshot";
+    /**
+     * Pet flag of a dog, pets without it are cats.
+     */
+    private static final int DOG_FLAG = 1;
+    /**
+     * Pet flag of a trained pet.
+     */
+    private static final int TRAINED_FLAG = 2;
+
+    //private constructor, only static methods
+    private ShelterSnapshot() { }
+
+    //writing
+    /**
+     * Writes a snapshot of the specified shelter to a new file in the specified directory.
+     * @param shelterManager shelter register, other desks can keep working while the snapshot is written
+     * @param snapshotDirectory directory of snapshots, created if needed
+     * @return path of the new snapshot file
+     * @throws IOException if the snapshot cannot be written
+     */
+    static Path write(ShelterManager shelterManager, Path snapshotDirectory) throws IOException
+    {
+        Files.createDirectories(snapshotDirectory);
+        long journalPosition = shelterManager.checkpointJournal(); //before the scan, later mutations are replayed from the journal
+
+        Path tempFile = Files.createTempFile(snapshotDirectory, FILE_PREFIX, FILE_SUFFIX + ".tmp");
+        try
+        {
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE))
+            {
+                CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16), new CRC32());
+                DataOutputStream out = new DataOutputStream(checked);
+                writeContents(shelterManager, journalPosition, out);
+                out.flush();
+                out.writeInt((int) checked.getChecksum().getValue()); //checksum of all previous bytes
+                out.flush();
+                channel.force(true); //complete on disk before it is renamed
+            }
+            return moveToNextFile(tempFile, snapshotDirectory, 2);
+        }
+        finally
+        {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Writes the header and the contents of the shelter.
+     * @param shelterManager shelter register
+     * @param journalPosition journal position of the snapshot, -1 if not journaled
+     * @param out output, bytes before the checksum
+     * @throws IOException if the snapshot cannot be written
+     */
+    private static void writeContents(ShelterManager shelterManager, long journalPosition, DataOutputStream out) throws IOException
+    {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(journalPosition);
+        out.writeLong(System.currentTimeMillis());
+
+        //adoptions are scanned first, so their customers and pets are seen by the later scans (pets and customers are never removed)
+        Map<CustomerNumber, List<Pet>> adoptions = new HashMap<CustomerNumber, List<Pet>>();
+        for (Map.Entry<CustomerNumber, List<Pet>> entry : shelterManager.shelterAdoptionsRecord.entrySet())
+        {
+            adoptions.put(entry.getKey(), new ArrayList<Pet>(entry.getValue())); //copy-on-write list, copied once so its size is consistent
+        }
+
+        PetStore pets = shelterManager.shelterAllPets;
+        for (int row : pets.getRowsInPetIDOrder()) //in PetID order, read from the columns without a view per pet
+        {
+            int flags = (pets.getTypeCode(row) == PetStore.DOG) ? DOG_FLAG : 0;
+            if (pets.isTrained(row))
+                flags |= TRAINED_FLAG;
+            out.writeInt(pets.getPetIDValue(row));
+            out.writeByte(flags);
+        }
+        out.writeInt(-1); //end of pets
+
+        for (CustomerRecord customerRecord : shelterManager.shelterAllCustomerRecords)
+        {
+            out.writeByte(1);
+            writeCustomerNumber(customerRecord.getCustomerNumber(), out);
+            writeString(customerRecord.getCustomerName().getFirstName(), out);
+            writeString(customerRecord.getCustomerName().getLastName(), out);
+            out.writeLong(customerRecord.getCustomerDOB().getTime());
+            out.writeLong(customerRecord.getDateIssuedRecord().getTime());
+            out.writeBoolean(customerRecord.getHasGarden());
+        }
+        out.writeByte(0); //end of customer records
+
+        for (Map.Entry<CustomerNumber, List<Pet>> entry : adoptions.entrySet())
+        {
+            List<Pet> adoptedPets = entry.getValue();
+            out.writeByte(1);
+            writeCustomerNumber(entry.getKey(), out);
+            out.writeByte(adoptedPets.size());
+            for (Pet adoptedPet : adoptedPets)
+            {
+                out.writeInt(adoptedPet.getPetID().getValue());
+            }
+        }
+        out.writeByte(0); //end of adoptions
+
+        //generator positions, taken after the scan so they are past every PetID and customer number in the snapshot
+        out.writeInt(PetID.getNextPetIDValue());
+        Map<Long, Integer> lastSerials = CustomerNumber.getLastSerials();
+        out.writeInt(lastSerials.size());
+        for (Map.Entry<Long, Integer> entry : lastSerials.entrySet())
+        {
+            out.writeLong(entry.getKey());
+            out.writeInt(entry.getValue());
+        }
+    }
+
+    /**
+     * Renames a complete snapshot file to the next snapshot file name and deletes the oldest snapshots.
+     * Synchronized so concurrent snapshots get different sequence numbers.
+     * @param tempFile complete snapshot file
+     * @param snapshotDirectory directory of snapshots
+     * @param noOfKept number of newest snapshots kept, including the new one
+     * @return path of the snapshot file
+     * @throws IOException if the file cannot be renamed
+     */
+    private static synchronized Path moveToNextFile(Path tempFile, Path snapshotDirectory, int noOfKept) throws IOException
+    {
+        List<Path> snapshotFiles = listSnapshotFiles(snapshotDirectory);
+        long sequence = snapshotFiles.isEmpty() ? 1 : getSequence(snapshotFiles.get(0)) + 1;
+        Path snapshotFile = snapshotDirectory.resolve(String.format("%s%019d%s", FILE_PREFIX, sequence, FILE_SUFFIX));
+        Files.move(tempFile, snapshotFile, StandardCopyOption.ATOMIC_MOVE);
+        for (int i = noOfKept - 1; i < snapshotFiles.size(); i++) //older snapshots, the new one is not in the list
+        {
+            Files.deleteIfExists(snapshotFiles.get(i));
+        }
+        return snapshotFile;
+    }
+
+    //loading
+    /**
+     * Restores the newest valid snapshot in the specified directory into the specified empty shelter register.
+     * Snapshots that are incomplete or corrupt are skipped in favour of the next newest one.
+     * @param snapshotDirectory directory of snapshots
+     * @param shelterManager empty shelter register
+     * @return journal position of the snapshot, -1 if the shelter was not journaled or there is no valid snapshot
+     * @throws IOException if the directory cannot be read
+     */
+    static long loadNewest(Path snapshotDirectory, ShelterManager shelterManager) throws IOException
+    {
+        if (!Files.isDirectory(snapshotDirectory))
+            return -1;
+        for (Path snapshotFile : listSnapshotFiles(snapshotDirectory))
+        {
+            ByteBuffer contents;
+            try
+            {
+                contents = map(snapshotFile);
+            }
+            catch (IOException e) //incomplete or corrupt, try the next newest
+            {
+                continue;
+            }
+            return load(contents, shelterManager);
+        }
+        return -1;
+    }
+
+    /**
+     * Memory-maps a snapshot file and checks its header and checksum.
+     * @param snapshotFile snapshot file
+     * @return contents without the checksum, positioned after the header magic number and version
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    private static ByteBuffer map(Path snapshotFile) throws IOException
+    {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ))
+        {
+            long size = channel.size();
+            if (size < 28 || size > Integer.MAX_VALUE)
+                throw new IOException("Invalid snapshot size " + size + " of " + snapshotFile);
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size); //stays valid after the channel is closed
+        }
+        int contentsLength = mapped.capacity() - 4;
+        CRC32 checksum = new CRC32();
+        checksum.update(mapped.slice(0, contentsLength));
+        if ((int) checksum.getValue() != mapped.getInt(contentsLength))
+            throw new IOException("Corrupt snapshot " + snapshotFile);
+        ByteBuffer contents = mapped.slice(0, contentsLength);
+        if (contents.getInt() != MAGIC || contents.getInt() != VERSION)
+            throw new IOException("Unsupported snapshot " + snapshotFile);
+        return contents;
+    }
+
+    /**
+     * Restores the contents of a snapshot into the specified shelter register.
+     * @param contents snapshot contents positioned after the magic number and version
+     * @param shelterManager empty shelter register
+     * @return journal position of the snapshot, -1 if the shelter was not journaled
+     */
+    private static long load(ByteBuffer contents, ShelterManager shelterManager)
+    {
+        long journalPosition = contents.getLong();
+        contents.getLong(); //time written
+
+        List<Pet> pets = new ArrayList<Pet>();
+        for (int petIDValue = contents.getInt(); petIDValue >= 0; petIDValue = contents.getInt())
+        {
+            int flags = contents.get();
+            Pet pet;
+            if ((flags & DOG_FLAG) == 0)
+            {
+                pet = new Cat(PetID.getPetIDInstance(petIDValue));
+            }
+            else
+            {
+                Dog dog = new Dog(PetID.getPetIDInstance(petIDValue));
+                dog.setTrained((flags & TRAINED_FLAG) != 0);
+                pet = dog;
+            }
+            pets.add(pet);
+        }
+        shelterManager.restorePets(pets);
+
+        while (contents.get() != 0)
+        {
+            CustomerNumber customerNumber = readCustomerNumber(contents);
+            String firstName = readString(contents);
+            String lastName = readString(contents);
+            Date dob = new Date(contents.getLong());
+            Date dateIssuedRecord = new Date(contents.getLong());
+            boolean hasGarden = contents.get() != 0;
+            shelterManager.restoreCustomerRecord(CustomerRecordFactory.restoreCustomerRecordInstance(
+                    firstName, lastName, dob, dateIssuedRecord, hasGarden, customerNumber));
+        }
+
+        while (contents.get() != 0)
+        {
+            CustomerNumber customerNumber = readCustomerNumber(contents);
+            int noOfAdoptedPets = contents.get();
+            for (int i = 0; i < noOfAdoptedPets; i++)
+            {
+                shelterManager.restoreAdoption(customerNumber, PetID.getPetIDInstance(contents.getInt()));
+            }
+        }
+
+        PetID.advancePetIDs(contents.getInt());
+        int noOfLastSerials = contents.getInt();
+        for (int i = 0; i < noOfLastSerials; i++)
+        {
+            CustomerNumber.advanceLastSerial(contents.getLong(), contents.getInt());
+        }
+        return journalPosition;
+    }
+
+    //helpers
+    /**
+     * Returns the snapshot files in the specified directory, newest first.
+     * @param snapshotDirectory directory of snapshots
+     * @return snapshot files sorted by descending sequence number
+     * @throws IOException if the directory cannot be read
+     */
+    private static List<Path> listSnapshotFiles(Path snapshotDirectory) throws IOException
+    {
+        List<Path> snapshotFiles = new ArrayList<Path>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(snapshotDirectory, FILE_PREFIX + "*" + FILE_SUFFIX))
+        {
+            for (Path file : files)
+            {
+                if (getSequence(file) > 0)
+                    snapshotFiles.add(file);
+            }
+        }
+        snapshotFiles.sort(Comparator.comparingLong(ShelterSnapshot::getSequence).reversed());
+        return snapshotFiles;
+    }
+
+    /**
+     * Returns the sequence number in the name of a snapshot file.
+     * @param snapshotFile snapshot file
+     * @return sequence number, 0 if the name has no valid sequence number
+     */
+    private static long getSequence(Path snapshotFile)
+    {
+        String fileName = snapshotFile.getFileName().toString();
+        try
+        {
+            return Long.parseLong(fileName.substring(FILE_PREFIX.length(), fileName.length() - FILE_SUFFIX.length()));
+        }
+        catch (NumberFormatException | IndexOutOfBoundsException e)
+        {
+            return 0;
+        }
+    }
+
+    /**
+     * Writes the components of a customer number (9 bytes).
+     * @param customerNumber customer number
+     * @param out output
+     * @throws IOException if it cannot be written
+     */
+    private static void writeCustomerNumber(CustomerNumber customerNumber, DataOutputStream out) throws IOException
+    {
+        out.writeChar(customerNumber.getInitial());
+        out.writeInt(customerNumber.getSerialNumber());
+        out.writeByte(customerNumber.getMonthOfIssue());
+        out.writeShort(customerNumber.getYearOfIssue());
+    }
+
+    /**
+     * Reads a customer number written by writeCustomerNumber(CustomerNumber, DataOutputStream).
+     * @param contents snapshot contents
+     * @return customer number, its serial number is not issued again
+     */
+    private static CustomerNumber readCustomerNumber(ByteBuffer contents)
+    {
+        char initial = contents.getChar();
+        int serialNumber = contents.getInt();
+        int monthOfIssue = contents.get();
+        int yearOfIssue = contents.getShort();
+        return CustomerNumber.getCustomerNumberInstance(initial, serialNumber, monthOfIssue, yearOfIssue);
+    }
+
+    /**
+     * Writes a UTF-8 encoded String with its length.
+     * @param string String, at most 65535 bytes in UTF-8
+     * @param out output
+     * @throws IOException if it cannot be written or is too long
+     */
+    private static void writeString(String string, DataOutputStream out) throws IOException
+    {
+        byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length > 0xFFFF)
+            throw new IOException("Customer name too long for the snapshot.");
+        out.writeShort(utf8.length);
+        out.write(utf8);
+    }
+
+    /**
+     * Reads a String written by writeString(String, DataOutputStream).
+     * @param contents snapshot contents
+     * @return String
+     */
+    private static String readString(ByteBuffer contents)
+    {
+        byte[] utf8 = new byte[Short.toUnsignedInt(contents.getShort())];
+        contents.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,356 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * ShelterStatistics - immutable shelter-wide statistics of one ShelterView: the pet type mix, training and adoption ratios,
+ * adoptions per customer and saturation of the adoption quota.
+ * The statistics are computed on a ForkJoinPool: the pet register is split into ranges of rows counted by popcount of their bitmap words,
+ * and the logs of customers and adoptions into ranges aggregated separately, then the results of the ranges are added up.
+ * Use ShelterView.getStatistics() or ShelterManager.getStatistics() to get an instance.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public final class ShelterStatistics {
+
+    /**
+     * Number of rows of the pet register counted by one task, a multiple of 64.
+     */
+    private static final int PET_ROWS_PER_TASK = 1 << 15;
+    /**
+     * Number of customers or adoptions aggregated by one task.
+     */
+    private static final int LOG_ENTRIES_PER_TASK = 1 << 13;
+
+    /**
+     * Version of the view the statistics were computed from.
+     */
+    private final int version;
+    /**
+     * Number of pets per pet type and status.
+     */
+    private final PetCounts petCounts;
+    /**
+     * Number of customer records.
+     */
+    private final int noOfCustomers;
+    /**
+     * Number of customers who have a garden.
+     */
+    private final int noOfCustomersWithGarden;
+    /**
+     * Number of customers by number of adoptions, 0 to AdoptionRule.MAX_ADOPTIONS.
+     */
+    private final int[] customersByNoOfAdoptions;
+    /**
+     * Number of adoptions.
+     */
+    private final int noOfAdoptions;
+
+    /**
+     * Constructs the statistics.
+     * @param version version of the view
+     * @param petCounts number of pets per pet type and status
+     * @param noOfCustomers number of customer records
+     * @param noOfCustomersWithGarden number of customers who have a garden
+     * @param customersByNoOfAdoptions number of customers by number of adoptions
+     * @param noOfAdoptions number of adoptions
+     */
+    private ShelterStatistics(int version, PetCounts petCounts, int noOfCustomers, int noOfCustomersWithGarden, int[] customersByNoOfAdoptions, int noOfAdoptions)
+    {
+        this.version = version;
+        this.petCounts = petCounts;
+        this.noOfCustomers = noOfCustomers;
+        this.noOfCustomersWithGarden = noOfCustomersWithGarden;
+        this.customersByNoOfAdoptions = customersByNoOfAdoptions;
+        this.noOfAdoptions = noOfAdoptions;
+    }
+
+    /**
+     * Computes the statistics of a view on the specified pool.
+     * @param version version of the view
+     * @param pets frozen pet register of the view
+     * @param customerLog log of the customer records, read up to noOfCustomers
+     * @param noOfCustomers number of customer records of the view
+     * @param adoptionLog log of the adoptions, read up to noOfAdoptions
+     * @param noOfAdoptions number of adoptions of the view
+     * @param pool pool the ranges are aggregated on
+     * @return statistics of the view
+     */
+    static ShelterStatistics compute(int version, PetStore pets, AppendLog<CustomerRecord> customerLog, int noOfCustomers,
+                                     AppendLog<Map.Entry<CustomerNumber, PetID>> adoptionLog, int noOfAdoptions, ForkJoinPool pool)
+    {
+        //pet register: cells of PetCounts per type code, ranges split at multiples of 64 rows so no bitmap word is shared
+        int[] cells = pool.invoke(new RangeTask<int[]>(0, pets.size(), PET_ROWS_PER_TASK, 64, pets::countCells, ShelterStatistics::addCells));
+        Map<String, int[]> cellsByPetType = new HashMap<String, int[]>();
+        for (int typeCode = 0; typeCode * PetCounts.NO_OF_CELLS < cells.length; typeCode++)
+        {
+            int[] typeCells = new int[PetCounts.NO_OF_CELLS];
+            System.arraycopy(cells, typeCode * PetCounts.NO_OF_CELLS, typeCells, 0, PetCounts.NO_OF_CELLS);
+            if (typeCells[0] + typeCells[1] + typeCells[2] + typeCells[3] > 0) //pet types with at least one pet
+                cellsByPetType.put(PetStore.petTypeNameOf(typeCode).toLowerCase(), typeCells);
+        }
+
+        //customers: number of customers with a garden
+        int noOfCustomersWithGarden = pool.invoke(new RangeTask<Integer>(0, noOfCustomers, LOG_ENTRIES_PER_TASK, 1, (from, to) -> {
+            int count = 0;
+            for (int i = from; i < to; i++)
+            {
+                if (customerLog.get(i).getHasGarden())
+                    count++;
+            }
+            return count;
+        }, Integer::sum));
+
+        //adoptions: number of adoptions per customer number, then customers by number of adoptions
+        Map<CustomerNumber, Integer> adoptionsByCustomer = pool.invoke(new RangeTask<Map<CustomerNumber, Integer>>(0, noOfAdoptions, LOG_ENTRIES_PER_TASK, 1, (from, to) -> {
+            Map<CustomerNumber, Integer> counts = new HashMap<CustomerNumber, Integer>();
+            for (int i = from; i < to; i++)
+            {
+                counts.merge(adoptionLog.get(i).getKey(), 1, Integer::sum);
+            }
+            return counts;
+        }, ShelterStatistics::addCounts));
+        int[] customersByNoOfAdoptions = new int[AdoptionRule.MAX_ADOPTIONS + 1];
+        for (int customerAdoptions : adoptionsByCustomer.values())
+        {
+            customersByNoOfAdoptions[Math.min(customerAdoptions, AdoptionRule.MAX_ADOPTIONS)]++;
+        }
+        customersByNoOfAdoptions[0] = noOfCustomers - adoptionsByCustomer.size(); //customers who never adopted are not in the log
+        return new ShelterStatistics(version, new PetCounts(cellsByPetType), noOfCustomers, noOfCustomersWithGarden, customersByNoOfAdoptions, noOfAdoptions);
+    }
+
+    /**
+     * Returns the version of the view the statistics were computed from, see ShelterView.getVersion().
+     * @return version
+     */
+    public int getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * Returns the number of pets per pet type and status, the type mix of the shelter.
+     * @return pet counts
+     */
+    public PetCounts getPetCounts()
+    {
+        return petCounts;
+    }
+
+    /**
+     * Returns the share of the pets of the specified type that are trained.
+     * @param petType pet type (case-insensitive)
+     * @return trained pets divided by all pets of the type, 0 if there are none
+     */
+    public double getTrainingRatio(String petType)
+    {
+        return ratio(petCounts.getTrained(petType), petCounts.getTotal(petType));
+    }
+
+    /**
+     * Returns the share of the pets of the specified type that are adopted.
+     * @param petType pet type (case-insensitive)
+     * @return adopted pets divided by all pets of the type, 0 if there are none
+     */
+    public double getAdoptionRatio(String petType)
+    {
+        return ratio(petCounts.getAdopted(petType), petCounts.getTotal(petType));
+    }
+
+    /**
+     * Returns the number of customer records.
+     * @return number of customers
+     */
+    public int getNoOfCustomers()
+    {
+        return noOfCustomers;
+    }
+
+    /**
+     * Returns the number of customers who have a garden, as required to adopt a dog.
+     * @return number of customers with a garden
+     */
+    public int getNoOfCustomersWithGarden()
+    {
+        return noOfCustomersWithGarden;
+    }
+
+    /**
+     * Returns the number of adoptions.
+     * @return number of adopted pets
+     */
+    public int getNoOfAdoptions()
+    {
+        return noOfAdoptions;
+    }
+
+    /**
+     * Returns the number of customers who adopted the specified number of pets.
+     * @param noOfAdoptions number of adoptions, 0 to the maximum number of adoptions per customer
+     * @return number of customers
+     * @throws IllegalArgumentException if the number of adoptions is out of range
+     */
+    public int getNoOfCustomersWithAdoptions(int noOfAdoptions) throws IllegalArgumentException
+    {
+        if (noOfAdoptions < 0 || noOfAdoptions >= customersByNoOfAdoptions.length)
+            throw new IllegalArgumentException("Invalid number of adoptions: " + noOfAdoptions);
+        return customersByNoOfAdoptions[noOfAdoptions];
+    }
+
+    /**
+     * Returns the average number of pets adopted per customer.
+     * @return adoptions divided by customers, 0 if there are no customers
+     */
+    public double getAdoptionsPerCustomer()
+    {
+        return ratio(noOfAdoptions, noOfCustomers);
+    }
+
+    /**
+     * Returns the share of the customers who reached the maximum number of adoptions and cannot adopt another pet.
+     * @return customers at the quota divided by all customers, 0 if there are no customers
+     */
+    public double getQuotaSaturation()
+    {
+        return ratio(customersByNoOfAdoptions[AdoptionRule.MAX_ADOPTIONS], noOfCustomers);
+    }
+
+    /**
+     * Returns a string representation of the statistics.
+     * @see Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "Shelter statistics " + version + ": " + petCounts + ", " + noOfCustomers + " customers (" + noOfCustomersWithGarden + " with a garden), "
+                + noOfAdoptions + " adoptions, quota saturation " + String.format("%.1f%%", 100 * getQuotaSaturation());
+    }
+
+    /**
+     * Returns a ratio, 0 if the denominator is 0.
+     * @param numerator numerator
+     * @param denominator denominator
+     * @return numerator divided by denominator
+     */
+    private static double ratio(int numerator, int denominator)
+    {
+        return (denominator == 0) ? 0 : (double) numerator / denominator;
+    }
+
+    /**
+     * Adds the cells of two ranges of the pet register.
+     * @param cells cells of the first range, updated
+     * @param otherCells cells of the second range
+     * @return cells of both ranges
+     */
+    private static int[] addCells(int[] cells, int[] otherCells)
+    {
+        for (int cell = 0; cell < cells.length; cell++)
+            cells[cell] += otherCells[cell];
+        return cells;
+    }
+
+    /**
+     * Adds the adoptions per customer of two ranges of the adoption log, merging the smaller map into the larger.
+     * @param counts adoptions per customer of one range
+     * @param otherCounts adoptions per customer of the other range
+     * @return adoptions per customer of both ranges
+     */
+    private static Map<CustomerNumber, Integer> addCounts(Map<CustomerNumber, Integer> counts, Map<CustomerNumber, Integer> otherCounts)
+    {
+        if (counts.size() < otherCounts.size())
+            return addCounts(otherCounts, counts);
+        for (Map.Entry<CustomerNumber, Integer> entry : otherCounts.entrySet())
+        {
+            counts.merge(entry.getKey(), entry.getValue(), Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Aggregation of one range of positions, e.g. rows of the pet register.
+     * @param <R> result of a range
+     */
+    @FunctionalInterface
+    private interface RangeAggregator<R>
+    {
+        /**
+         * Aggregates a range.
+         * @param from first position
+         * @param to position after the range
+         * @return result of the range
+         */
+        R aggregate(int from, int to);
+    }
+
+    /**
+     * RangeTask - fork-join task aggregating a range of positions, split in halves until a range is small enough for one task.
+     * @param <R> result of a range
+     */
+    private static final class RangeTask<R> extends RecursiveTask<R> {
+
+        /**
+         * Serialization version, the task is Serializable through ForkJoinTask but never serialized.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * First position of the range.
+         */
+        private final int from;
+        /**
+         * Position after the range.
+         */
+        private final int to;
+        /**
+         * Largest range aggregated without splitting.
+         */
+        private final int maxRange;
+        /**
+         * Positions ranges are split at a multiple of.
+         */
+        private final int alignment;
+        /**
+         * Aggregation of a range that is not split.
+         */
+        private final RangeAggregator<R> aggregator;
+        /**
+         * Combination of the results of two adjacent ranges.
+         */
+        private final BinaryOperator<R> combiner;
+
+        /**
+         * Constructs a task.
+         * @param from first position of the range
+         * @param to position after the range
+         * @param maxRange largest range aggregated without splitting, a multiple of alignment
+         * @param alignment positions ranges are split at a multiple of, a power of two
+         * @param aggregator aggregation of a range that is not split
+         * @param combiner combination of the results of two adjacent ranges
+         */
+        RangeTask(int from, int to, int maxRange, int alignment, RangeAggregator<R> aggregator, BinaryOperator<R> combiner)
+        {
+            this.from = from;
+            this.to = to;
+            this.maxRange = maxRange;
+            this.alignment = alignment;
+            this.aggregator = aggregator;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected R compute()
+        {
+            if (to - from <= maxRange)
+                return aggregator.aggregate(from, to);
+            int middle = (from + (to - from) / 2) & -alignment; //beyond from, as the range is longer than maxRange
+            RangeTask<R> firstHalf = new RangeTask<R>(from, middle, maxRange, alignment, aggregator, combiner);
+            firstHalf.fork(); //taken by an idle worker, or joined below
+            R secondResult = new RangeTask<R>(middle, to, maxRange, alignment, aggregator, combiner).compute();
+            return combiner.apply(firstHalf.join(), secondResult);
+        }
+    }
+}
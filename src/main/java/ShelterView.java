@@ -0,0 +1,251 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * ShelterView - consistent read-only view of a shelter at one version, for reports that read many pets and customers while desks keep working.
+ * Every pet, customer and adoption of the view was in the shelter at the same moment, and nothing done later is seen by the view.
+ * <p>
+ * A view copies nothing when it is taken: it shares the chunks of the pet register, which the shelter copies only when it writes a chunk
+ * still shared with a view, and it reads the append-only logs of customers and adoptions up to their lengths at its version.
+ * A view that is kept keeps the chunks it shares, so take a new view for each report.
+ * Customer records are shared with the shelter.
+ * Use ShelterManager.getView() to get an instance.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+public final class ShelterView {
+
+    /**
+     * Version of the shelter the view was taken at.
+     */
+    private final int version;
+    /**
+     * Frozen copy of the pet register.
+     */
+    private final PetStore pets;
+    /**
+     * Pet counts at the version.
+     */
+    private final PetCounts petCounts;
+    /**
+     * Log of the customer records of the shelter, read up to noOfCustomers.
+     */
+    private final AppendLog<CustomerRecord> customerLog;
+    /**
+     * Number of customer records at the version.
+     */
+    private final int noOfCustomers;
+    /**
+     * Log of the adoptions of the shelter, read up to noOfAdoptions.
+     */
+    private final AppendLog<Map.Entry<CustomerNumber, PetID>> adoptionLog;
+    /**
+     * Number of adoptions at the version.
+     */
+    private final int noOfAdoptions;
+    /**
+     * Customer records in customer number order, sorted when first read.
+     */
+    private volatile List<CustomerRecord> customerRecords;
+    /**
+     * Adopted pets by customer number, collected when first read.
+     */
+    private volatile Map<CustomerNumber, List<Pet>> adoptionsRecord;
+
+    /**
+     * Constructs a view. Called by ShelterManager.getView() while no pet, customer or adoption is being added.
+     * @param version version of the shelter
+     * @param pets frozen copy of the pet register, see PetStore.freeze()
+     * @param petCounts pet counts at the version
+     * @param customerLog log of the customer records
+     * @param adoptionLog log of the adoptions
+     */
+    ShelterView(int version, PetStore pets, PetCounts petCounts, AppendLog<CustomerRecord> customerLog, AppendLog<Map.Entry<CustomerNumber, PetID>> adoptionLog)
+    {
+        this.version = version;
+        this.pets = pets;
+        this.petCounts = petCounts;
+        this.customerLog = customerLog;
+        noOfCustomers = customerLog.size();
+        this.adoptionLog = adoptionLog;
+        noOfAdoptions = adoptionLog.size();
+    }
+
+    /**
+     * Returns the version of the shelter the view was taken at, later views have higher versions.
+     * @return version, 0 or more
+     */
+    public int getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * Returns all pets of the view by PetID, in PetID order. The pets cannot be changed.
+     * @return read-only Map of the pets
+     */
+    public Map<PetID, Pet> getAllPets()
+    {
+        return pets;
+    }
+
+    /**
+     * Returns the number of pets of the view that match the specified filter.
+     * @param filter pet type, adoption status and training status of the pets, each can be left open
+     * @return number of matching pets
+     * @throws NullPointerException if the filter is null
+     */
+    public int noOfPets(PetFilter filter) throws NullPointerException
+    {
+        return pets.count(filter);
+    }
+
+    /**
+     * Returns the pets of the view that match the specified filter in PetID order. The pets cannot be changed.
+     * @param filter pet type, adoption status and training status of the pets, each can be left open
+     * @return unmodifiable List of the matching pets in PetID order
+     * @throws NullPointerException if the filter is null
+     */
+    public List<Pet> getPets(PetFilter filter) throws NullPointerException
+    {
+        int[] rows = pets.findRows(filter);
+        List<Pet> matchingPets = new ArrayList<Pet>(rows.length);
+        for (int row : rows)
+        {
+            matchingPets.add(pets.petAt(row));
+        }
+        return Collections.unmodifiableList(matchingPets);
+    }
+
+    /**
+     * Returns a page of the pets of the view that match the specified filter, in PetID order after the cursor. The pets cannot be changed.
+     * Pages of one view are consistent with each other.
+     * @param filter pet type, adoption status and training status of the pets, each can be left open
+     * @param cursor PetID the page starts after, null for the first page, see PetPage.getNextCursor()
+     * @param pageSize maximum number of pets of the page, 1 or more
+     * @return page of the matching pets and the cursor of the next page
+     * @throws IllegalArgumentException if the page size is less than 1
+     * @throws NullPointerException if the filter is null
+     */
+    public PetPage getPets(PetFilter filter, PetID cursor, int pageSize) throws IllegalArgumentException, NullPointerException
+    {
+        return PetPage.of(pets, filter, cursor, pageSize);
+    }
+
+    /**
+     * Returns the number of pets of the specified type that were not adopted.
+     * @param petType pet type (case-insensitive)
+     * @return number of available pets, 0 for unknown pet types
+     */
+    public int noOfAvailablePets(String petType)
+    {
+        return petCounts.getAvailable(petType);
+    }
+
+    /**
+     * Returns the number of pets per pet type and status.
+     * @return pet counts at the version of the view
+     */
+    public PetCounts getPetCounts()
+    {
+        return petCounts;
+    }
+
+    /**
+     * Returns the customer records of the view in customer number order.
+     * @return unmodifiable List of customer records
+     */
+    public List<CustomerRecord> getCustomerRecords()
+    {
+        List<CustomerRecord> sortedCustomerRecords = customerRecords;
+        if (sortedCustomerRecords == null) //sorted by the first report that needs it, never by a desk
+        {
+            sortedCustomerRecords = new ArrayList<CustomerRecord>(noOfCustomers);
+            for (int i = 0; i < noOfCustomers; i++)
+            {
+                sortedCustomerRecords.add(customerLog.get(i));
+            }
+            Collections.sort(sortedCustomerRecords); //by customer number, restored customers are logged out of order
+            sortedCustomerRecords = Collections.unmodifiableList(sortedCustomerRecords);
+            customerRecords = sortedCustomerRecords;
+        }
+        return sortedCustomerRecords;
+    }
+
+    /**
+     * Returns the number of customer records of the view.
+     * @return number of customers
+     */
+    public int noOfCustomers()
+    {
+        return noOfCustomers;
+    }
+
+    /**
+     * Returns the pets adopted by the customer with the specified customer number, in the order they were adopted. The pets cannot be changed.
+     * @param customerNumber customer of interest
+     * @return unmodifiable Collection of the pets adopted by the customer, empty if none
+     * @throws NullPointerException if the customer number is null
+     */
+    public Collection<Pet> adoptedPetsByCustomer(CustomerNumber customerNumber) throws NullPointerException
+    {
+        Map<CustomerNumber, List<Pet>> adoptions = adoptionsRecord;
+        if (adoptions == null) //collected by the first report that needs it
+        {
+            adoptions = new HashMap<CustomerNumber, List<Pet>>();
+            for (int i = 0; i < noOfAdoptions; i++)
+            {
+                Map.Entry<CustomerNumber, PetID> adoption = adoptionLog.get(i);
+                adoptions.computeIfAbsent(adoption.getKey(), key -> new ArrayList<Pet>()).add(pets.get(adoption.getValue()));
+            }
+            adoptionsRecord = adoptions;
+        }
+        List<Pet> adoptedPets = adoptions.get(Objects.requireNonNull(customerNumber));
+        return (adoptedPets == null) ? Collections.<Pet>emptyList() : Collections.unmodifiableList(adoptedPets);
+    }
+
+    /**
+     * Returns the number of adoptions of the view.
+     * @return number of adopted pets
+     */
+    public int noOfAdoptions()
+    {
+        return noOfAdoptions;
+    }
+
+    /**
+     * Returns the shelter-wide statistics of the view, computed in parallel on the common ForkJoinPool.
+     * @return statistics of the view
+     */
+    public ShelterStatistics getStatistics()
+    {
+        return getStatistics(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the shelter-wide statistics of the view, computed in parallel on the specified pool, e.g. a pool kept for reports.
+     * @param pool pool the statistics are computed on
+     * @return statistics of the view
+     * @throws NullPointerException if the pool is null
+     */
+    public ShelterStatistics getStatistics(ForkJoinPool pool) throws NullPointerException
+    {
+        return ShelterStatistics.compute(version, pets, customerLog, noOfCustomers, adoptionLog, noOfAdoptions, Objects.requireNonNull(pool));
+    }
+
+    /**
+     * Returns a string representation of the view.
+     * @see Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "Shelter view " + version + ": " + pets.size() + " pets, " + noOfCustomers + " customers, " + noOfAdoptions + " adoptions";
+    }
+}
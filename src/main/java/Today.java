@@ -0,0 +1,129 @@
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Today - current date in the default time zone, as the primitive values needed for age checks.
+ * The date is computed once and cached until midnight, so get() allocates nothing for the rest of the day.
+ * @see CustomerRecord#ageCalculator()
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+final class Today {
+
+    /**
+     * Cached date, replaced by get() at midnight.
+     */
+    private static volatile Today current = computeToday(System.currentTimeMillis());
+
+    /**
+     * Days since 1st January 1970.
+     */
+    private final long epochDay;
+    /**
+     * Year of the date.
+     */
+    private final int year;
+    /**
+     * Month and day of the date, see monthDayOf(int, int).
+     */
+    private final int monthDay;
+    /**
+     * First millisecond of the date.
+     */
+    private final long startMillis;
+    /**
+     * First millisecond of the next date.
+     */
+    private final long endMillis;
+
+    /**
+     * Constructs a date valid between the specified times.
+     * @param date date
+     * @param startMillis first millisecond of the date
+     * @param endMillis first millisecond of the next date
+     */
+    private Today(LocalDate date, long startMillis, long endMillis)
+    {
+        epochDay = date.toEpochDay();
+        year = date.getYear();
+        monthDay = monthDayOf(date.getMonthValue(), date.getDayOfMonth());
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+    }
+
+    /**
+     * Returns the current date, computing it only if the cached date has passed (or the clock was set back).
+     * @return today's date
+     */
+    static Today get()
+    {
+        Today today = current;
+        long nowMillis = System.currentTimeMillis();
+        if (nowMillis >= today.endMillis || nowMillis < today.startMillis)
+        {
+            today = computeToday(nowMillis);
+            current = today; //concurrent callers compute the same date
+        }
+        return today;
+    }
+
+    /**
+     * Returns the specified date as a Today, e.g. for checking ages on another date.
+     * @param date date
+     * @return date valid for the whole of that day
+     */
+    static Today of(LocalDate date)
+    {
+        ZoneId zone = ZoneId.systemDefault();
+        return new Today(date, date.atStartOfDay(zone).toInstant().toEpochMilli(), date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+    }
+
+    /**
+     * Computes the date of the specified time in the default time zone.
+     * @param nowMillis time in milliseconds since the epoch
+     * @return date containing the time
+     */
+    private static Today computeToday(long nowMillis)
+    {
+        return of(Instant.ofEpochMilli(nowMillis).atZone(ZoneId.systemDefault()).toLocalDate());
+    }
+
+    /**
+     * Returns the month and day of a date as one int that orders dates within a year.
+     * @param month month from 1 to 12
+     * @param dayOfMonth day of the month from 1 to 31
+     * @return month * 32 + dayOfMonth
+     */
+    static int monthDayOf(int month, int dayOfMonth)
+    {
+        return month * 32 + dayOfMonth;
+    }
+
+    /**
+     * Returns the number of days since 1st January 1970.
+     * @return epoch day
+     */
+    long getEpochDay()
+    {
+        return epochDay;
+    }
+
+    /**
+     * Returns the year of the date.
+     * @return year
+     */
+    int getYear()
+    {
+        return year;
+    }
+
+    /**
+     * Returns the month and day of the date, see monthDayOf(int, int).
+     * @return month and day
+     */
+    int getMonthDay()
+    {
+        return monthDay;
+    }
+}
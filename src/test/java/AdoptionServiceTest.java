@@ -0,0 +1,170 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test AdoptionService class - testing asynchronous adoption requests applied in batches.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+class AdoptionServiceTest {
+
+    /**
+     * Returns a date of birth of a customer of the specified age.
+     * @param age age in years
+     * @return date of birth the specified number of years and one month ago
+     */
+    private static Date dobOfAge(int age) {
+        Calendar calendar1 = Calendar.getInstance(); //calendar object, today
+        calendar1.add(Calendar.YEAR, -age);
+        calendar1.add(Calendar.MONTH, -1);
+        return calendar1.getTime();
+    }
+
+    /**
+     * Testing submit() with eligible and not eligible customers.
+     * @see AdoptionService#submit(CustomerRecord, String)
+     * Normal case: eligible customer adopts a cat, PetID of the adopted cat returned
+     * Boundary cases: 1- customer under 18, 2- dog for customer without garden, 3- untrained dog for customer under 21, 4- fourth adoption, 5- no pets left
+     * Exceptional cases: null parameters, request after close()
+     */
+    @Test
+    void testSubmit() throws Exception {
+        //Normal case: eligible customer adopts a cat, PetID of the adopted cat returned
+        var sm = new ShelterManager(); //empty shelter
+        Pet cat = sm.addPet("cat");
+        sm.addPets("dog", 3); //untrained dogs
+        CustomerRecord customer1 = sm.addCustomerRecord("Jan", "Kowalski", dobOfAge(30), true);
+        AdoptionService adoptionService = new AdoptionService(sm);
+
+        AdoptionResult result = adoptionService.submit(customer1, "Cat").get(10, TimeUnit.SECONDS);
+
+        assertTrue(result.isAdopted());
+        assertEquals(cat.getPetID(), result.getPetID()); //assert the only cat adopted
+        assertNull(result.getRejection());
+        assertTrue(sm.shelterAllPets.get(cat.getPetID()).getAdopted());
+        assertTrue(sm.adoptedPetsByCustomer(customer1.getCustomerNumber()).contains(cat));
+
+
+        //Boundary cases: customer under 18, dog for customer without garden, untrained dog for customer under 21, fourth adoption, no pets left
+        CustomerRecord customer2 = sm.addCustomerRecord("Anna", "Nowak", dobOfAge(17), true);
+        CustomerRecord customer3 = sm.addCustomerRecord("Jon", "Smith", dobOfAge(40), false);
+        CustomerRecord customer4 = sm.addCustomerRecord("Ewa", "Lis", dobOfAge(19), true);
+        assertEquals(AdoptionRejection.UNDERAGE, adoptionService.submit(customer2, "cat").get(10, TimeUnit.SECONDS).getRejection());
+        assertEquals(AdoptionRejection.NO_GARDEN, adoptionService.submit(customer3, "dog").get(10, TimeUnit.SECONDS).getRejection());
+        assertEquals(AdoptionRejection.UNDERAGE, adoptionService.submit(customer4, "dog").get(10, TimeUnit.SECONDS).getRejection());
+
+        assertTrue(adoptionService.submit(customer1, "dog").get(10, TimeUnit.SECONDS).isAdopted());
+        assertTrue(adoptionService.submit(customer1, "dog").get(10, TimeUnit.SECONDS).isAdopted());
+        assertEquals(AdoptionRejection.QUOTA_REACHED, adoptionService.submit(customer1, "dog").get(10, TimeUnit.SECONDS).getRejection());
+        assertEquals(AdoptionRejection.NONE_AVAILABLE, adoptionService.submit(customer3, "cat").get(10, TimeUnit.SECONDS).getRejection());
+        assertEquals(AdoptionRejection.NONE_AVAILABLE, adoptionService.submit(customer3, "bird").get(10, TimeUnit.SECONDS).getRejection());
+
+
+        //Exceptional cases: null parameters, request after close()
+        assertThrows(IllegalArgumentException.class, () -> adoptionService.submit(null, "cat"));
+        assertThrows(IllegalArgumentException.class, () -> adoptionService.submit(customer1, null));
+        adoptionService.close();
+        assertThrows(IllegalStateException.class, () -> adoptionService.submit(customer3, "dog"));
+        assertThrows(IllegalArgumentException.class, () -> new AdoptionService(null));
+    }
+
+    /**
+     * Testing submit() with a burst of requests to a journaled shelter.
+     * @see AdoptionService#submit(CustomerRecord, String)
+     * Normal case: 320 requests for 200 cats in batches of 16, every cat adopted once, no customer over the limit, all adoptions journaled
+     * Boundary case: close() waits for requests submitted before it
+     */
+    @Test
+    void testSubmitBurst(@TempDir Path dir) throws Exception {
+        //Normal case: 320 requests for 200 cats in batches of 16, every cat adopted once, no customer over the limit, all adoptions journaled
+        Path file = dir.resolve("shelter.journal");
+        ShelterJournal journal = ShelterJournal.open(file, 64, 0, false);
+        var sm = new ShelterManager(journal);
+        sm.addPets("cat", 200);
+        List<CustomerRecord> customers = new ArrayList<CustomerRecord>();
+        for (int i = 0; i < 80; i++)
+        {
+            customers.add(sm.addCustomerRecord((char) ('A' + i % 26) + "nna" + i, "Smith", dobOfAge(30), true));
+        }
+        AdoptionService adoptionService = new AdoptionService(sm, 16);
+
+        List<CompletableFuture<AdoptionResult>> results = new ArrayList<CompletableFuture<AdoptionResult>>();
+        for (int attempt = 0; attempt < 4; attempt++)
+        {
+            for (CustomerRecord customer : customers)
+                results.add(adoptionService.submit(customer, "cat")); //80 customers, 4 requests each, 3 allowed
+        }
+        CompletableFuture<AdoptionResult> lastResult = results.get(results.size() - 1);
+        adoptionService.close();
+
+        //Boundary case: close() waits for requests submitted before it
+        assertTrue(lastResult.isDone());
+
+        Set<PetID> adoptedPetIDs = new HashSet<PetID>();
+        for (CompletableFuture<AdoptionResult> result : results)
+        {
+            if (result.get().isAdopted())
+                assertTrue(adoptedPetIDs.add(result.get().getPetID())); //assert no cat adopted twice
+            else //fourth request of a customer, or no cats left
+                assertTrue(result.get().getRejection() == AdoptionRejection.QUOTA_REACHED || result.get().getRejection() == AdoptionRejection.NONE_AVAILABLE);
+        }
+        assertEquals(200, adoptedPetIDs.size()); //assert every cat adopted
+        for (CustomerRecord customer : customers)
+            assertTrue(sm.adoptedPetsByCustomer(customer.getCustomerNumber()).size() <= 3);
+        journal.close();
+
+        var restored = new ShelterManager(ShelterJournal.open(file)); //replay
+        assertEquals(0, restored.noOfAvailablePets("cat")); //assert adoptions committed to the journal
+        assertEquals(200, restored.getPetCounts().getAdopted("cat"));
+    }
+
+    /**
+     * Testing submit() when the journal commit of a batch fails.
+     * @see AdoptionService#submit(CustomerRecord, String)
+     * @see AdoptionResult#isCommitted()
+     * Normal case: adoption of a committed batch reported as committed
+     * Boundary case: adoption applied but its journal commit failed, reported as adopted and not committed
+     * Exceptional case: the failure of the journal is the commit failure of the result
+     */
+    @Test
+    void testSubmitCommitFailure(@TempDir Path dir) throws Exception {
+        //Normal case: adoption of a committed batch reported as committed
+        ShelterJournal journal = ShelterJournal.open(dir.resolve("shelter.journal"), 64, 0, false);
+        var sm = new ShelterManager(journal);
+        sm.addPets("cat", 2);
+        CustomerRecord customer = sm.addCustomerRecord("Jan", "Kowalski", dobOfAge(30), true);
+        AdoptionService adoptionService = new AdoptionService(sm);
+        AdoptionResult committed = adoptionService.submit(customer, "cat").get(10, TimeUnit.SECONDS);
+        assertTrue(committed.isAdopted());
+        assertTrue(committed.isCommitted());
+        assertNull(committed.getCommitFailure());
+
+        //Boundary case: adoption applied but its journal commit failed, reported as adopted and not committed
+        Field channel = ShelterJournal.class.getDeclaredField("channel");
+        channel.setAccessible(true);
+        ((FileChannel) channel.get(journal)).close(); //next journal write fails
+        AdoptionResult notCommitted = adoptionService.submit(customer, "cat").get(10, TimeUnit.SECONDS);
+        assertTrue(notCommitted.isAdopted());
+        assertFalse(notCommitted.isCommitted());
+        assertTrue(sm.shelterAllPets.get(notCommitted.getPetID()).getAdopted()); //assert the adoption stays applied
+        assertEquals(0, sm.noOfAvailablePets("cat"));
+        assertEquals(2, sm.adoptedPetsByCustomer(customer.getCustomerNumber()).size());
+
+        //Exceptional case: the failure of the journal is the commit failure of the result
+        assertInstanceOf(UncheckedIOException.class, notCommitted.getCommitFailure());
+        adoptionService.close();
+    }
+}
@@ -0,0 +1,135 @@
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test CustomerImporter class - testing the streaming import of customer records.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+class CustomerImporterTest {
+
+    /**
+     * Testing importCustomers() method.
+     * @see CustomerImporter#importCustomers(java.io.Reader)
+     * Normal case: importing rows with a header row.
+     * Boundary cases: blank lines, yes/no garden status, batch size of 1.
+     * Exceptional case: null shelter manager and invalid batch size.
+     */
+    @Test
+    void testImportCustomers() throws IOException {
+        //Normal case: importing rows with a header row
+        var sm = new ShelterManager(); //empty shelter
+        String csv = "firstName,lastName,dob,hasGarden\n"
+                + "John,Smith,1990-01-15,true\n"
+                + "Anna,Jones,1985-06-30,false\n";
+
+        CustomerImportReport report = new CustomerImporter(sm).importCustomers(new StringReader(csv));
+
+        assertEquals(2, report.getNoOfImported()); //assert both rows imported, header skipped
+        assertEquals(0, report.getNoOfRejected());
+        assertTrue(report.getRejectedRows().isEmpty());
+        assertEquals(2, sm.shelterAllCustomerRecords.size()); //assert customers added to the shelter register
+        CustomerRecord john = sm.shelterAllCustomerRecords.stream()
+                .filter(c -> c.getCustomerName().getFirstName().equals("John")).findFirst().orElseThrow();
+        assertTrue(john.getHasGarden()); //assert garden status imported
+        assertEquals('J', john.getCustomerNumber().toString().charAt(0)); //assert record built with a customer number
+
+
+        //Boundary cases: blank lines, yes/no garden status, batch size of 1
+        sm = new ShelterManager(); //empty shelter
+        csv = "\nJohn,Smith,1990-01-15,yes\n\n  Anna , Jones ,1985-06-30, NO \n";
+
+        report = new CustomerImporter(sm, 1).importCustomers(new StringReader(csv));
+
+        assertEquals(2, report.getNoOfImported()); //assert blank lines skipped, fields trimmed
+        assertEquals(0, report.getNoOfRejected());
+
+
+        //Exceptional case: null shelter manager and invalid batch size
+        assertThrows(IllegalArgumentException.class, () -> new CustomerImporter(null));
+        assertThrows(IllegalArgumentException.class, () -> new CustomerImporter(new ShelterManager(), 0));
+    }
+
+    /**
+     * Testing importCustomers() method with rejected rows.
+     * @see CustomerImporter#importCustomers(java.io.Reader, java.util.function.Consumer)
+     * Normal case: invalid rows rejected with their line numbers, valid rows imported.
+     * Boundary cases: duplicate rows in the input and customers already in the shelter register.
+     */
+    @Test
+    void testImportCustomersRejectedRows() throws IOException {
+        //Normal case: invalid rows rejected with their line numbers, valid rows imported
+        var sm = new ShelterManager(); //empty shelter
+        String csv = "John,Smith,1990-01-15,true\n" //line 1, valid
+                + "Anna,Jones,1985-06-30\n" //line 2, missing field
+                + "Mary,Brown,15/01/1990,true\n" //line 3, invalid date
+                + "Mark,Green,1990-01-15,maybe\n" //line 4, invalid garden status
+                + ",White,1990-01-15,true\n" //line 5, empty first name
+                + "Mary Ann,Black,1990-01-15,true\n" //line 6, whitespace in first name
+                + "Paul,Grey,2999-01-01,true\n" //line 7, dob in the future
+                + "Anna,Jones,1985-06-30,false\n"; //line 8, valid
+
+        CustomerImportReport report = new CustomerImporter(sm).importCustomers(new StringReader(csv));
+
+        assertEquals(2, report.getNoOfImported()); //assert import continued after rejected rows
+        assertEquals(6, report.getNoOfRejected());
+        List<RejectedCustomerRow> rejectedRows = report.getRejectedRows();
+        assertEquals(6, rejectedRows.size());
+        for (int i = 0; i < rejectedRows.size(); i++)
+        {
+            assertEquals(i + 2, rejectedRows.get(i).getLineNumber()); //assert rejected rows in input order with their line numbers
+            assertNotNull(rejectedRows.get(i).getReason());
+        }
+        assertEquals("Anna,Jones,1985-06-30", rejectedRows.get(0).getLine());
+
+
+        //Boundary cases: duplicate rows in the input and customers already in the shelter register
+        List<RejectedCustomerRow> listenedRows = new ArrayList<RejectedCustomerRow>();
+        csv = "John,Smith,1990-01-15,false\n" //line 1, already in the shelter register
+                + "Tom,Hall,1970-03-03,true\n" //line 2, valid
+                + "Tom,Hall,1970-03-03,false\n" //line 3, duplicate of line 2
+                + "John,Smith,1990-01-15,true\n"; //line 4, already in the shelter register, not a duplicate of line 1 that was not imported
+
+        report = new CustomerImporter(sm).importCustomers(new StringReader(csv), listenedRows::add);
+
+        assertEquals(1, report.getNoOfImported()); //assert only the first occurrence of Tom Hall imported
+        assertEquals(3, report.getNoOfRejected());
+        assertTrue(report.getRejectedRows().isEmpty()); //assert rejected rows passed to the listener instead of the report
+        assertEquals(3, listenedRows.size());
+        assertEquals(1, listenedRows.get(0).getLineNumber());
+        assertEquals(3, listenedRows.get(1).getLineNumber());
+        assertEquals("Duplicate of line 2", listenedRows.get(1).getReason());
+        assertEquals(4, listenedRows.get(2).getLineNumber());
+        assertEquals(listenedRows.get(0).getReason(), listenedRows.get(2).getReason()); //assert rejected by the register like line 1
+        assertEquals(3, sm.shelterAllCustomerRecords.size());
+    }
+
+    /**
+     * Testing importCustomers() method with a large input read in many batches.
+     * @see CustomerImporter#importCustomers(java.io.Reader)
+     * Normal case: 20000 unique rows and every 10th row repeated, with a batch size smaller than the input.
+     */
+    @Test
+    void testImportCustomersLarge() throws IOException {
+        var sm = new ShelterManager(); //empty shelter
+        StringBuilder csv = new StringBuilder("firstName,lastName,dob,hasGarden\n");
+        int noOfCustomers = 20000;
+        for (int i = 0; i < noOfCustomers; i++)
+        {
+            String row = "Customer" + i + ",Surname" + (i % 100) + ",19" + (50 + i % 50) + "-01-01," + (i % 2 == 0) + "\n";
+            csv.append(row);
+            if (i % 10 == 0) //repeated row, rejected as a duplicate
+                csv.append(row);
+        }
+
+        CustomerImportReport report = new CustomerImporter(sm, 512).importCustomers(new StringReader(csv.toString()));
+
+        assertEquals(noOfCustomers, report.getNoOfImported()); //assert all unique customers imported
+        assertEquals(noOfCustomers / 10, report.getNoOfRejected()); //assert every repeated row rejected
+        assertEquals(noOfCustomers, sm.shelterAllCustomerRecords.size());
+    }
+}
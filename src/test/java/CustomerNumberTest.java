@@ -0,0 +1,94 @@
+import org.junit.jupiter.api.Test;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test CustomerNumber class - testing methods of the CustomerNumber class.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+class CustomerNumberTest {
+
+    /**
+     * Testing getCustomerNumberInstance() method.
+     * @see CustomerNumber#getCustomerNumberInstance(String, Date)
+     * Normal case: customer number format
+     * Boundary case: more than 100 customers with the same initial in the same month
+     */
+    @Test
+    void getCustomerNumberInstance() {
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(2024, 0, 15); //calendar date is 15th January 2024
+        Date dateIssued = calendar.getTime();
+
+        //Normal case: customer number format
+        CustomerNumber customerNumber1 = CustomerNumber.getCustomerNumberInstance("Jan", dateIssued);
+        assertTrue(customerNumber1.toString().matches("J[0-9]+\\.12024")); //initial, serial number, month and year
+
+        //Boundary case: more than 100 customers with the same initial in the same month
+        Set<CustomerNumber> customerNumbers = new HashSet<CustomerNumber>();
+        customerNumbers.add(customerNumber1);
+        for (int i = 0; i < 1000; i++)
+        {
+            customerNumbers.add(CustomerNumber.getCustomerNumberInstance("John", dateIssued));
+        }
+        assertEquals(1001, customerNumbers.size()); //assert all customer numbers unique
+    }
+
+    /**
+     * Testing getCustomerNumberInstance() method called by several threads at the same time.
+     * @see CustomerNumber#getCustomerNumberInstance(String, Date)
+     */
+    @Test
+    void getCustomerNumberInstanceConcurrent() throws InterruptedException {
+        Date dateIssued = new Date();
+        Set<CustomerNumber> customerNumbers = Collections.synchronizedSet(new HashSet<CustomerNumber>());
+        ExecutorService desks = Executors.newFixedThreadPool(8); //8 registration desks
+        for (int i = 0; i < 8000; i++)
+        {
+            desks.submit(() -> customerNumbers.add(CustomerNumber.getCustomerNumberInstance("Anna", dateIssued)));
+        }
+        desks.shutdown();
+        assertTrue(desks.awaitTermination(30, TimeUnit.SECONDS)); //assert all customer numbers generated
+        assertEquals(8000, customerNumbers.size()); //assert all customer numbers unique
+    }
+
+    /**
+     * Testing overriden equals() and hashCode() methods.
+     * @see CustomerNumber#equals(Object)
+     * @see CustomerNumber#hashCode()
+     */
+    @Test
+    void testEquals() {
+        CustomerNumber customerNumber1 = CustomerNumber.getCustomerNumberInstance("Anna", new Date());
+        CustomerNumber customerNumber2 = CustomerNumber.getCustomerNumberInstance("Anna", new Date());
+
+        assertTrue(customerNumber1.equals(customerNumber1)); //reflexivity
+        assertFalse(customerNumber1.equals(null)); //non-nullity
+        assertFalse(customerNumber1.equals(customerNumber2)); //different serial numbers
+        assertFalse(customerNumber1.toString().equals(customerNumber2.toString()));
+        assertEquals(customerNumber1.hashCode(), customerNumber1.hashCode()); //consistency
+    }
+
+    /**
+     * Testing overriden compareTo() method.
+     * @see CustomerNumber#compareTo(CustomerNumber)
+     */
+    @Test
+    void testCompareTo() {
+        CustomerNumber customerNumber1 = CustomerNumber.getCustomerNumberInstance("Zoe", new Date()); //serial numbers allocated in order
+        CustomerNumber customerNumber2 = CustomerNumber.getCustomerNumberInstance("Zoe", new Date());
+        CustomerNumber customerNumber3 = CustomerNumber.getCustomerNumberInstance("Adam", new Date());
+
+        assertTrue(customerNumber1.compareTo(customerNumber2) < 0); //expected lower serial number first
+        assertTrue(customerNumber3.compareTo(customerNumber1) < 0); //expected initial A before Z
+        assertEquals(0, customerNumber1.compareTo(customerNumber1));
+    }
+}
@@ -0,0 +1,84 @@
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test CustomerRecord class - testing age calculation from the precomputed date of birth.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+class CustomerRecordTest {
+
+    /**
+     * Returns a temporary customer record born on the specified date.
+     * @param year year of birth
+     * @param month month of birth from 1 to 12
+     * @param dayOfMonth day of birth
+     * @return customer record, not registered with a shelter
+     */
+    private static CustomerRecord bornOn(int year, int month, int dayOfMonth) {
+        LocalDate dob = LocalDate.of(year, month, dayOfMonth);
+        return new CustomerRecord("Jan", "Kowalski", Date.from(dob.atStartOfDay(ZoneId.systemDefault()).plusHours(12).toInstant()));
+    }
+
+    /**
+     * Testing ageOn() and ageCalculator() methods.
+     * @see CustomerRecord#ageCalculator()
+     * Normal case: age before, on and after the birthday
+     * Boundary cases: 1- birthday after 29th February in a leap year, 2- born on 29th February, 3- today's date
+     */
+    @Test
+    void testAgeCalculator() {
+        //Normal case: age before, on and after the birthday
+        CustomerRecord cr1 = bornOn(1990, 2, 20);
+        assertEquals(35, cr1.ageOn(Today.of(LocalDate.of(2026, 2, 19))));
+        assertEquals(36, cr1.ageOn(Today.of(LocalDate.of(2026, 2, 20))));
+        assertEquals(36, cr1.ageOn(Today.of(LocalDate.of(2026, 12, 31))));
+
+        //Boundary cases: birthday after 29th February in a leap year, born on 29th February, today's date
+        //1
+        CustomerRecord cr2 = bornOn(2000, 3, 1); //day 61 of a leap year, day 60 of other years
+        assertEquals(26, cr2.ageOn(Today.of(LocalDate.of(2026, 3, 1)))); //assert birthday counted on the day
+        assertEquals(25, cr2.ageOn(Today.of(LocalDate.of(2026, 2, 28))));
+        CustomerRecord cr3 = bornOn(2001, 12, 31); //day 365 of other years, day 366 of a leap year
+        assertEquals(22, cr3.ageOn(Today.of(LocalDate.of(2024, 12, 30)))); //assert birthday not counted a day early
+        assertEquals(23, cr3.ageOn(Today.of(LocalDate.of(2024, 12, 31))));
+        //2
+        CustomerRecord cr4 = bornOn(2008, 2, 29);
+        assertEquals(17, cr4.ageOn(Today.of(LocalDate.of(2026, 2, 28))));
+        assertEquals(18, cr4.ageOn(Today.of(LocalDate.of(2026, 3, 1)))); //assert birthday on 1st March of other years
+        assertEquals(15, cr4.ageOn(Today.of(LocalDate.of(2024, 2, 28))));
+        assertEquals(16, cr4.ageOn(Today.of(LocalDate.of(2024, 2, 29))));
+        //3
+        LocalDate today = LocalDate.now();
+        CustomerRecord cr5 = bornOn(today.getYear() - 30, today.getMonthValue(), Math.min(today.getDayOfMonth(), 28));
+        assertEquals(30, cr5.ageCalculator());
+    }
+
+    /**
+     * Testing adoptionAgeOn() method with the precomputed 18th and 21st birthdays.
+     * @see CustomerRecord#adoptionAgeOn(Today)
+     * Normal case: adult over 21 capped at 21
+     * Boundary cases: day before and day of the 18th and 21st birthdays, born on 29th February
+     */
+    @Test
+    void testAdoptionAge() {
+        //Normal case: adult over 21 capped at 21
+        CustomerRecord cr1 = bornOn(1980, 5, 10);
+        assertEquals(21, cr1.adoptionAgeOn(Today.of(LocalDate.of(2026, 10, 17))));
+
+        //Boundary cases: day before and day of the 18th and 21st birthdays, born on 29th February
+        CustomerRecord cr2 = bornOn(2005, 6, 15);
+        assertEquals(17, cr2.adoptionAgeOn(Today.of(LocalDate.of(2023, 6, 14))));
+        assertEquals(18, cr2.adoptionAgeOn(Today.of(LocalDate.of(2023, 6, 15))));
+        assertEquals(18, cr2.adoptionAgeOn(Today.of(LocalDate.of(2026, 6, 14))));
+        assertEquals(21, cr2.adoptionAgeOn(Today.of(LocalDate.of(2026, 6, 15))));
+        CustomerRecord cr3 = bornOn(2008, 2, 29);
+        assertEquals(17, cr3.adoptionAgeOn(Today.of(LocalDate.of(2026, 2, 28))));
+        assertEquals(18, cr3.adoptionAgeOn(Today.of(LocalDate.of(2026, 3, 1))));
+        int age = cr3.ageCalculator();
+        assertEquals((age >= 21) ? 21 : (age >= 18) ? 18 : age, cr3.adoptionAge()); //assert today's date agrees with ageCalculator()
+    }
+}
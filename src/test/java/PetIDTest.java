@@ -1,4 +1,10 @@
 import org.junit.jupiter.api.Test;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -23,6 +29,27 @@ class PetIDTest {
         assertEquals(petID1, petID1Copy); //logical equivalence
     }
 
+    /**
+     * Testing getPetIDInstance() method called by several threads at the same time.
+     * @see PetID#getPetIDInstance()
+     */
+    @Test
+    void getPetIDInstanceConcurrent() throws InterruptedException {
+        int firstValue = PetID.getNextPetIDValue(); //other tests may have allocated PetIDs already
+        Set<Integer> values = Collections.synchronizedSet(new HashSet<Integer>());
+        ExecutorService desks = Executors.newFixedThreadPool(8); //8 intake desks
+        for (int i = 0; i < 8000; i++)
+        {
+            desks.submit(() -> values.add(PetID.getPetIDInstance().getValue()));
+        }
+        desks.shutdown();
+        assertTrue(desks.awaitTermination(30, TimeUnit.SECONDS)); //assert all PetIDs generated
+        assertEquals(8000, values.size()); //assert all PetIDs unique
+        assertEquals(firstValue, Collections.min(values)); //assert no gaps: 8000 unique values from firstValue to firstValue + 7999
+        assertEquals(firstValue + 7999, (int) Collections.max(values));
+        assertEquals(firstValue + 8000, PetID.getNextPetIDValue());
+    }
+
     /**
      * Testing getComponentID1() accessor method.
      * @see PetID#getComponentID1() 
@@ -44,8 +71,9 @@ class PetIDTest {
         PetID petID = PetID.getPetIDInstance();
         String componentID2 = petID.getComponentID2();
 
-        assertTrue(Character.isDigit(componentID2.charAt(0))); //Component 2 has only digits
-        assertEquals(1, componentID2.length()); //Component 2 is a two digit number
+        assertTrue(componentID2.chars().allMatch(Character::isDigit)); //Component 2 has only digits
+        assertEquals("5", PetID.getPetIDInstance(105).getComponentID2()); //serial of B05
+        assertEquals("B", PetID.getPetIDInstance(105).getComponentID1());
     }
 
     /**
@@ -54,9 +82,11 @@ class PetIDTest {
      */
     @Test
     void testToString() {
-        PetID petID = PetID.getPetIDInstance();
+        assertEquals("A00", PetID.getPetIDInstance(0).toString()); //first PetID is "A00"
+        assertEquals("B05", PetID.getPetIDInstance(105).toString());
 
-        assertEquals("A00", petID.toString()); //First generated ID is "A00"
+        String expected = new LetterSerialPetIDFormat().format(PetID.getNextPetIDValue()); //other tests may have allocated PetIDs already
+        assertEquals(expected, PetID.getPetIDInstance().toString()); //generated PetID shown in the default format
     }
 
     /**
@@ -66,9 +96,75 @@ class PetIDTest {
     @Test
     void testCompareTo()
     {
-        PetID petID1 = PetID.getPetIDInstance(); //A00
-        PetID petID2 = PetID.getPetIDInstance(); //A01
+        PetID petID1 = PetID.getPetIDInstance();
+        PetID petID2 = PetID.getPetIDInstance(); //allocated after petID1
 
         assertTrue(petID1.compareTo(petID2) < 0); //expected petID1 < petID2
     }
+
+    /**
+     * Testing valueOf() method.
+     * @see PetID#valueOf(String)
+     * Normal case: PetIDs in the original format
+     * Boundary cases: 1- last PetID in the original format and first PetID in the wider format, 2- last possible PetID
+     * Exceptional case: invalid String representations
+     */
+    @Test
+    void testValueOf()
+    {
+        //Normal case: PetIDs in the original format
+        assertEquals("A00", PetID.valueOf("A00").toString()); //original format accepted
+        assertEquals(PetID.valueOf("B07"), PetID.valueOf("B07")); //logical equivalence
+        assertEquals(PetID.valueOf("B07").hashCode(), PetID.valueOf("B07").hashCode());
+
+        //Boundary cases: last PetID in the original format and first PetID in the wider format, last possible PetID
+        //1
+        PetID lastOriginal = PetID.valueOf("Z99");
+        PetID firstWider = PetID.valueOf("A100");
+        assertEquals(lastOriginal.getValue() + 1, firstWider.getValue()); //assert A100 follows Z99
+        assertTrue(lastOriginal.compareTo(firstWider) < 0);
+        assertEquals("A", firstWider.getComponentID1()); //components of the wider format
+        assertEquals("100", firstWider.getComponentID2());
+        //2
+        String lastPetID = new LetterSerialPetIDFormat().format(Integer.MAX_VALUE);
+        assertEquals(Integer.MAX_VALUE, PetID.valueOf(lastPetID).getValue()); //assert round trip of the last possible value
+
+        //Exceptional case: invalid String representations
+        String[] invalidPetIDs = {"a00", "A0", "A0100", "AB1", "", null};
+        for (String invalidPetID : invalidPetIDs)
+        {
+            try
+            {
+                PetID.valueOf(invalidPetID);
+                uk.ac.ncl.teach.ex.test.Assertions.assertNotReached(); //not reached
+            }
+            catch (IllegalArgumentException e)
+            {
+                uk.ac.ncl.teach.ex.test.Assertions.assertExpectedThrowable(IllegalArgumentException.class, e); //assert exception expected
+            }
+        }
+    }
+
+    /**
+     * Testing format() and parse() methods of the default display format.
+     * @see LetterSerialPetIDFormat#format(int)
+     * @see LetterSerialPetIDFormat#parse(String)
+     */
+    @Test
+    void testLetterSerialFormat()
+    {
+        LetterSerialPetIDFormat format = new LetterSerialPetIDFormat();
+        assertEquals("A00", format.format(0)); //original format
+        assertEquals("B05", format.format(105));
+        assertEquals("Z99", format.format(2599));
+        assertEquals("A100", format.format(2600)); //wider format after Z99
+        assertEquals("Z999", format.format(2600 + 26 * 900 - 1));
+        assertEquals("A1000", format.format(2600 + 26 * 900));
+
+        int[] values = {0, 99, 100, 2599, 2600, 25999, 26000, 123456789, Integer.MAX_VALUE};
+        for (int value : values)
+        {
+            assertEquals(value, format.parse(format.format(value))); //assert every value round trips
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,179 @@
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test PetStore class - testing the columnar register of pets on and off the heap, and the Pet views over its rows.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+class PetStoreTest {
+
+    /**
+     * Testing add(), get() and the views returned by petAt().
+     * @see PetStore#add(Pet)
+     * Normal case: cat and trained dog added as rows, views read the status columns and write the care instructions
+     * Boundary cases: 1- pet with a PetID already in the store, 2- care instructions that differ from the default
+     * Exceptional case: PetID not in the store
+     */
+    @Test
+    void testAdd() {
+        //Normal case: cat and trained dog added as rows, views read the status columns and write the care instructions
+        PetStore store = new PetStore();
+        Cat cat = new Cat(PetID.getPetIDInstance(10));
+        Dog dog = new Dog(PetID.getPetIDInstance(11));
+        dog.setTrained(true);
+        assertEquals(0, store.add(cat));
+        assertEquals(1, store.add(dog));
+        assertEquals(2, store.size());
+        Pet storedCat = store.get(cat.getPetID());
+        assertInstanceOf(Cat.class, storedCat);
+        assertEquals("Cat", storedCat.getPetType());
+        assertEquals(Cat.CARE_INSTRUCTIONS, storedCat.getCareInstructions());
+        Dog storedDog = (Dog) store.get(dog.getPetID());
+        assertTrue(storedDog.getTrained()); //assert training status copied to the row
+        assertFalse(storedDog.getAdopted());
+        store.setAdopted(1, true);
+        store.setTrained(1, false);
+        assertTrue(storedDog.getAdopted()); //assert view reads the status columns
+        assertFalse(storedDog.getTrained());
+        assertThrows(UnsupportedOperationException.class, () -> storedDog.setAdopted(false)); //assert status only written by the shelter
+        assertThrows(UnsupportedOperationException.class, () -> storedDog.setTrained(true));
+        assertTrue(store.isAdopted(1));
+        assertEquals(store.get(dog.getPetID()), storedDog); //assert views over the same row are equal
+        assertNotEquals(storedCat, storedDog);
+        assertNotEquals(cat, storedCat); //assert a new pet is only equal to itself
+
+        //Boundary cases: pet with a PetID already in the store, care instructions that differ from the default
+        //1
+        assertEquals(-1, store.add(new Cat(PetID.getPetIDInstance(10))));
+        assertEquals(2, store.size()); //assert no row added
+        //2
+        storedCat.setCareInstructions("Brush daily.");
+        assertEquals("Brush daily.", store.get(cat.getPetID()).getCareInstructions());
+        storedCat.setCareInstructions(null);
+        assertEquals(Cat.CARE_INSTRUCTIONS, storedCat.getCareInstructions()); //assert default restored
+
+        //Exceptional case: PetID not in the store
+        assertNull(store.get(PetID.getPetIDInstance(12)));
+        assertFalse(store.containsKey(PetID.getPetIDInstance(12)));
+        assertEquals(-1, store.rowOf(12));
+    }
+
+    /**
+     * Testing iteration in PetID order over several chunks and index resizes.
+     * @see PetStore#getRowsInPetIDOrder()
+     * Normal case: pets added in PetID order over more than one chunk
+     * Boundary case: pets added out of PetID order, e.g. restored from a journal
+     */
+    @Test
+    void testPetIDOrder() {
+        //Normal case: pets added in PetID order over more than one chunk
+        PetStore store = new PetStore();
+        int noOfPets = 40000;
+        for (int i = 0; i < noOfPets; i++)
+        {
+            store.add((i % 2 == 0) ? new Cat(PetID.getPetIDInstance(i)) : new Dog(PetID.getPetIDInstance(i)));
+        }
+        assertEquals(noOfPets, store.size());
+        assertEquals(noOfPets - 1, store.rowOf(noOfPets - 1)); //assert last row found by PetID
+        assertInstanceOf(Dog.class, store.petAt(noOfPets - 1));
+        int expectedValue = 0;
+        for (PetID petID : store.keySet())
+        {
+            assertEquals(expectedValue++, petID.getValue());
+        }
+
+        //Boundary case: pets added out of PetID order, e.g. restored from a journal
+        PetStore unordered = new PetStore();
+        int[] petIDValues = {50, 7, 99, 8, 0};
+        for (int petIDValue : petIDValues)
+        {
+            unordered.add(new Cat(PetID.getPetIDInstance(petIDValue)));
+        }
+        List<Integer> values = new ArrayList<Integer>();
+        for (Pet pet : unordered.values())
+        {
+            values.add(pet.getPetID().getValue());
+        }
+        assertEquals(List.of(0, 7, 8, 50, 99), values); //assert iterated in PetID order
+        assertEquals(1, unordered.rowOf(7)); //assert rows keep the order of adding
+    }
+
+    /**
+     * Testing pages of rows found after a PetID.
+     * @see PetStore#findRows(PetFilter, int, int)
+     * Normal case: rows in PetID order read after a PetID over a bitmap word boundary
+     * Boundary case: rows added out of PetID order, before and after the order was first kept
+     */
+    @Test
+    void testFindRowsAfter() {
+        //Normal case: rows in PetID order read after a PetID over a bitmap word boundary
+        PetStore store = new PetStore();
+        for (int i = 0; i < 200; i++)
+        {
+            store.add((i % 2 == 0) ? new Cat(PetID.getPetIDInstance(i * 10)) : new Dog(PetID.getPetIDInstance(i * 10)));
+        }
+        PetFilter dogs = new PetFilter("dog", null, null);
+        assertArrayEquals(new int[] {63, 65, 67}, store.findRows(dogs, 615, 3)); //assert first row after PetID value 615
+        assertArrayEquals(new int[] {199}, store.findRows(dogs, 1970, 3));
+        assertEquals(0, store.findRows(dogs, 1990, 3).length);
+        assertEquals(100, store.findRows(dogs, -1, 1000).length);
+
+        //Boundary case: rows added out of PetID order, before and after the order was first kept
+        PetStore unordered = new PetStore();
+        int[] petIDValues = {50, 7, 99, 8, 0};
+        for (int petIDValue : petIDValues)
+        {
+            unordered.add(new Cat(PetID.getPetIDInstance(petIDValue)));
+        }
+        PetFilter cats = new PetFilter("cat", null, null);
+        assertArrayEquals(new int[] {3, 0}, unordered.findRows(cats, 7, 2)); //assert PetIDs 8 and 50
+        unordered.add(new Cat(PetID.getPetIDInstance(9)));
+        unordered.add(new Cat(PetID.getPetIDInstance(60)));
+        assertArrayEquals(new int[] {3, 5, 0, 6, 2}, unordered.findRows(cats, 7, 10)); //assert added rows merged into the order
+    }
+
+    /**
+     * Testing a store with its rows outside the heap.
+     * @see PetStorage#OFF_HEAP
+     * Normal case: statuses written and filtered like a store on the heap, in a shelter constructed off-heap
+     * Boundary case: rows in more than one chunk
+     * Exceptional case: null pet storage
+     */
+    @Test
+    void testOffHeap() {
+        //Normal case: statuses written and filtered like a store on the heap, in a shelter constructed off-heap
+        ShelterManager sm = new ShelterManager(PetStorage.OFF_HEAP);
+        Calendar calendar = Calendar.getInstance();
+        calendar.add(Calendar.YEAR, -30);
+        CustomerRecord cr1 = sm.addCustomerRecord("Jan", "Kowalski", calendar.getTime(), true);
+        List<Pet> dogs = sm.addPets("Dog", 3);
+        assertTrue(sm.updatePetRecord(dogs.get(1).getPetID(), true));
+        assertTrue(((Dog) sm.shelterAllPets.get(dogs.get(1).getPetID())).getTrained());
+        assertTrue(sm.adoptPet(cr1, "Dog"));
+        assertEquals(1, sm.noOfPets(new PetFilter("dog", true, null)));
+        assertEquals(2, sm.noOfAvailablePets("Dog"));
+
+        //Boundary case: rows in more than one chunk
+        PetStore store = new PetStore(PetStorage.OFF_HEAP);
+        int noOfPets = 20000;
+        for (int i = 0; i < noOfPets; i++)
+        {
+            Dog dog = new Dog(PetID.getPetIDInstance(i));
+            dog.setTrained(i % 3 == 0);
+            store.add(dog);
+        }
+        store.setAdopted(noOfPets - 1, true);
+        assertEquals(noOfPets - 1, store.rowOf(noOfPets - 1));
+        assertEquals(PetStore.DOG, store.getTypeCode(noOfPets - 1));
+        assertTrue(store.isAdopted(noOfPets - 1));
+        assertEquals((noOfPets + 2) / 3, store.count(new PetFilter("dog", null, true)));
+        assertEquals(1, store.count(new PetFilter(null, true, null)));
+
+        //Exceptional case: null pet storage
+        assertThrows(IllegalArgumentException.class, () -> new ShelterManager((PetStorage) null));
+    }
+}
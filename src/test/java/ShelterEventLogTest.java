@@ -0,0 +1,218 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test ShelterEventLog class - testing adoption events published by ShelterManager and written by the background writer.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+class ShelterEventLogTest {
+
+    /**
+     * Returns a date of birth of a customer old enough to adopt any pet.
+     * @return date of birth on 10th May 1980
+     */
+    private static Date adultDOB() {
+        Calendar calendar1 = Calendar.getInstance(); //calendar object
+        calendar1.set(1980, 4, 10); //calendar date is 10th May 1980
+        return calendar1.getTime();
+    }
+
+    /**
+     * Testing ShelterManager.setEventLog() with a consumer collecting the events.
+     * @see ShelterManager#setEventLog(ShelterEventLog)
+     * Normal case: adoption and rejections published with their customer, pet type, PetID and reason
+     * Boundary cases: no events after the log is unset, events after close() dropped
+     * Exceptional cases: null consumer, capacity not a power of two
+     */
+    @Test
+    void testSetEventLog() throws IOException {
+        //Normal case: adoption and rejections published with their customer, pet type, PetID and reason
+        var sm = new ShelterManager(); //empty shelter
+        Pet cat = sm.addPet("cat");
+        CustomerRecord customer1 = sm.addCustomerRecord("Jan", "Kowalski", adultDOB(), false);
+        List<String> lines = new ArrayList<String>();
+        List<ShelterEventType> types = new ArrayList<ShelterEventType>();
+        List<AdoptionRejection> rejections = new ArrayList<AdoptionRejection>();
+        ShelterEventLog eventLog = new ShelterEventLog(event -> {
+            lines.add(event.toString());
+            types.add(event.getType());
+            rejections.add(event.getRejection());
+            assertEquals(customer1.getCustomerNumber(), event.getCustomerNumber());
+            assertTrue(event.getTimeMillis() > 0);
+        }, 8);
+        sm.setEventLog(eventLog);
+
+        assertFalse(sm.adoptPet(customer1, "Dog")); //no dogs
+        assertTrue(sm.adoptPet(customer1, "Cat"));
+        sm.addPet("dog");
+        assertFalse(sm.adoptPet(customer1, "dog")); //no garden
+        eventLog.close(); //waits for the writer
+
+        assertEquals(List.of(ShelterEventType.ADOPTION_REJECTED, ShelterEventType.PET_ADOPTED, ShelterEventType.ADOPTION_REJECTED), types);
+        assertEquals(Arrays.asList(AdoptionRejection.NONE_AVAILABLE, null, AdoptionRejection.NO_GARDEN), rejections);
+        assertTrue(lines.get(1).contains("PET_ADOPTED customer=" + customer1.getCustomerNumber() + " petType=cat petID=" + cat.getPetID()));
+        assertTrue(lines.get(2).endsWith("petType=dog reason=NO_GARDEN"));
+        assertEquals(0, eventLog.getDroppedEvents());
+
+
+        //Boundary cases: no events after the log is unset, events after close() dropped
+        assertFalse(sm.adoptPet(customer1, "dog")); //published to the closed log
+        assertEquals(1, eventLog.getDroppedEvents());
+        sm.setEventLog(null);
+        assertFalse(sm.adoptPet(customer1, "dog"));
+        assertEquals(3, types.size());
+        assertEquals(1, eventLog.getDroppedEvents());
+
+
+        //Exceptional cases: null consumer, capacity not a power of two
+        assertThrows(IllegalArgumentException.class, () -> new ShelterEventLog(null));
+        assertThrows(IllegalArgumentException.class, () -> new ShelterEventLog(event -> { }, 12));
+    }
+
+    /**
+     * Testing the ring buffer with a writer that cannot keep up, and with concurrent adoption desks.
+     * @see ShelterEventLog#getDroppedEvents()
+     * Normal case: 4 desks publishing 2000 events each, every event written or counted as dropped, in order per desk
+     * Boundary cases: 1- full ring buffer, publishing does not wait for a blocked writer and drops the event,
+     * 2- log closed while desks publish, every event written or counted as dropped
+     */
+    @Test
+    void testRingBuffer() throws Exception {
+        //Boundary cases: full ring buffer, publishing does not wait for a blocked writer and drops the event, log closed while desks publish
+        //1
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<PetID> written = new ArrayList<PetID>();
+        ShelterEventLog blockedLog = new ShelterEventLog(event -> {
+            written.add(event.getPetID());
+            writerBlocked.countDown();
+            try
+            {
+                release.await();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }, 4);
+        PetID first = PetID.getPetIDInstance();
+        assertTrue(blockedLog.publishAdoption(null, "cat", first));
+        assertTrue(writerBlocked.await(10, TimeUnit.SECONDS)); //writer holds the first slot
+        for (int i = 0; i < 3; i++)
+            assertTrue(blockedLog.publishAdoption(null, "cat", PetID.getPetIDInstance()));
+        assertFalse(blockedLog.publishAdoption(null, "cat", PetID.getPetIDInstance())); //assert dropped, not blocked
+        assertEquals(1, blockedLog.getDroppedEvents());
+        release.countDown();
+        blockedLog.close();
+        assertEquals(4, written.size());
+        assertEquals(first, written.get(0));
+        //2
+        int[] noOfClosingWritten = new int[1];
+        ShelterEventLog closingLog = new ShelterEventLog(event -> noOfClosingWritten[0]++, 64);
+        ExecutorService closingDesks = Executors.newFixedThreadPool(4);
+        CountDownLatch publishing = new CountDownLatch(4);
+        for (int t = 0; t < 4; t++)
+        {
+            closingDesks.submit(() -> {
+                publishing.countDown();
+                for (int i = 0; i < 2000; i++)
+                    closingLog.publishRejection(null, "cat", AdoptionRejection.QUOTA_REACHED);
+            });
+        }
+        assertTrue(publishing.await(10, TimeUnit.SECONDS));
+        closingLog.close(); //desks still publishing
+        closingDesks.shutdown();
+        assertTrue(closingDesks.awaitTermination(60, TimeUnit.SECONDS));
+        assertEquals(8000, noOfClosingWritten[0] + closingLog.getDroppedEvents()); //assert no event claimed after the writer stopped
+
+
+        //Normal case: 4 desks publishing 2000 events each, every event written or counted as dropped, in order per desk
+        int[] lastEvent = {-1, -1, -1, -1};
+        int[] noOfWritten = new int[1];
+        ShelterEventLog eventLog = new ShelterEventLog(event -> {
+            int desk = event.getPetType().charAt(0) - '0';
+            int number = Integer.parseInt(event.getPetType().substring(2));
+            assertTrue(number > lastEvent[desk]); //assert order of each desk kept
+            lastEvent[desk] = number;
+            noOfWritten[0]++;
+        }, 256);
+        ExecutorService desks = Executors.newFixedThreadPool(4);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < 4; t++)
+        {
+            int desk = t;
+            results.add(desks.submit(() -> {
+                for (int i = 0; i < 2000; i++)
+                    eventLog.publishRejection(null, desk + ":" + i, AdoptionRejection.QUOTA_REACHED);
+            }));
+        }
+        desks.shutdown();
+        assertTrue(desks.awaitTermination(60, TimeUnit.SECONDS));
+        for (Future<?> result : results)
+            result.get(); //assert no desk failed
+        eventLog.close();
+
+        assertEquals(8000, noOfWritten[0] + eventLog.getDroppedEvents());
+    }
+
+    /**
+     * Testing openRollingFile() with a small maximum file size.
+     * @see ShelterEventLog#openRollingFile(Path, long, int)
+     * Normal case: one line per adoption, log file rolled to two backups, older lines deleted
+     * Exceptional cases: null file, maximum file size less than 1
+     */
+    @Test
+    void testOpenRollingFile(@TempDir Path dir) throws IOException {
+        //Normal case: one line per adoption, log file rolled to two backups, older lines deleted
+        Path file = dir.resolve("logs").resolve("shelter-events.log");
+        var sm = new ShelterManager();
+        sm.addPets("cat", 60);
+        ShelterEventLog eventLog = ShelterEventLog.openRollingFile(file, 1000, 2);
+        sm.setEventLog(eventLog);
+        CustomerRecord customer = null;
+        for (int i = 0; i < 20; i++)
+        {
+            customer = sm.addCustomerRecord("Desk", "Customer" + i, adultDOB(), true);
+            for (int j = 0; j < 3; j++)
+                assertTrue(sm.adoptPet(customer, "cat"));
+        }
+        eventLog.close();
+
+        try (Stream<Path> files = Files.list(file.getParent()))
+        {
+            assertEquals(3, files.count()); //assert log file and two backups
+        }
+        List<String> lines = new ArrayList<String>();
+        for (Path logFile : List.of(file.resolveSibling("shelter-events.log.2"), file.resolveSibling("shelter-events.log.1"), file))
+        {
+            assertTrue(Files.size(logFile) <= 1000);
+            lines.addAll(Files.readAllLines(logFile));
+        }
+        assertTrue(lines.size() < 60); //assert oldest lines deleted
+        for (String line : lines)
+            assertTrue(line.contains(" PET_ADOPTED customer=") && line.contains(" petType=cat petID="));
+        assertTrue(lines.get(lines.size() - 1).contains("customer=" + customer.getCustomerNumber() + " ")); //assert newest line in the log file
+        assertEquals(0, eventLog.getDroppedEvents());
+
+
+        //Exceptional cases: null file, maximum file size less than 1
+        assertThrows(IllegalArgumentException.class, () -> ShelterEventLog.openRollingFile(null, 1000, 2));
+        assertThrows(IllegalArgumentException.class, () -> ShelterEventLog.openRollingFile(file, 0, 2));
+    }
+}
@@ -0,0 +1,212 @@
+import org.junit.jupiter.api.Test;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test ShelterFederation and ShelterServer classes - testing a federation of shards served by separate JVMs on this machine.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+class ShelterFederationTest {
+
+    /**
+     * Testing pets and customers partitioned across two shard processes.
+     * @see ShelterFederation
+     * Normal case: pets added to both shards, counted across shards, updated and adopted at the shard that holds them
+     * Boundary cases: 1- customer registered twice, 2- adoption rejected by the rules of the home shard, 3- shard listed at the wrong index
+     * Exceptional case: invalid pet type and negative number of pets rejected by a shard, the connections stay usable
+     */
+    @Test
+    void testFederation() throws IOException {
+        List<Process> processes = new ArrayList<Process>();
+        try
+        {
+            List<InetSocketAddress> addresses = new ArrayList<InetSocketAddress>();
+            for (int shardIndex = 0; shardIndex < 2; shardIndex++)
+            {
+                Process process = startShard(shardIndex, 2);
+                processes.add(process);
+                addresses.add(new InetSocketAddress("127.0.0.1", readPort(process)));
+            }
+
+            //Normal case: pets added to both shards, counted across shards, updated and adopted at the shard that holds them
+            try (ShelterFederation federation = new ShelterFederation(addresses))
+            {
+                List<PetID> dogs0 = federation.addPets(0, "Dog", 3);
+                List<PetID> dogs1 = federation.addPets(1, "dog", 2);
+                List<PetID> cats1 = federation.addPets(1, "Cat", 4);
+                assertEquals(0, federation.shardOf(dogs0.get(2)));
+                assertEquals(1, federation.shardOf(dogs1.get(0))); //assert PetIDs allocated from the range of shard 1
+                assertEquals(5, federation.noOfAvailablePets("Dog"));
+                assertEquals(4, federation.noOfAvailablePets("Cat"));
+                assertTrue(federation.updatePetRecord(dogs1.get(1), true));
+                assertThrows(IllegalArgumentException.class, () -> federation.updatePetRecord(cats1.get(0), true)); //assert cats not trained at shard 1
+                PetCounts petCounts = federation.getPetCounts();
+                assertEquals(5, petCounts.getTotal("dog"));
+                assertEquals(1, petCounts.getAvailableTrained("dog"));
+                assertEquals(4, petCounts.getAvailable("cat"));
+
+                Calendar calendar = Calendar.getInstance();
+                calendar.add(Calendar.YEAR, -30);
+                Date dob = calendar.getTime();
+                FederatedCustomer customer = federation.addCustomerRecord("Jan", "Kowalski", dob, true);
+                assertEquals(federation.homeShardOf("Jan", "Kowalski", dob), customer.getShardIndex());
+                AdoptionResult result = federation.adoptPet(customer, "Dog");
+                assertTrue(result.isAdopted());
+                assertEquals(customer.getShardIndex(), federation.shardOf(result.getPetID())); //assert adopted from the home shard
+                assertEquals(4, federation.noOfAvailablePets("Dog"));
+
+                //Boundary cases: customer registered twice, adoption rejected by the rules of the home shard, shard listed at the wrong index
+                //1
+                assertThrows(Error.class, () -> federation.addCustomerRecord("Jan", "Kowalski", dob, false));
+                //2
+                calendar.add(Calendar.YEAR, 20);
+                FederatedCustomer minor = federation.addCustomerRecord("Ola", "Nowak", calendar.getTime(), true);
+                assertEquals(AdoptionRejection.UNDERAGE, federation.adoptPet(minor, "Dog").getRejection());
+                //3
+                assertThrows(IllegalArgumentException.class, () -> new ShelterFederation(List.of(addresses.get(1), addresses.get(0))));
+
+                //Exceptional case: invalid pet type and negative number of pets rejected by a shard, the connections stay usable
+                assertThrows(IllegalArgumentException.class, () -> federation.addPets(0, "Hamster", 1));
+                assertThrows(IllegalArgumentException.class, () -> federation.addPets(1, "Dog", -1));
+                assertThrows(IllegalArgumentException.class, () -> federation.updatePetRecord(cats1.get(0), null));
+                assertEquals(4, federation.noOfAvailablePets("Dog"));
+            }
+        }
+        finally
+        {
+            for (Process process : processes)
+            {
+                process.destroy();
+            }
+        }
+    }
+
+    /**
+     * Testing a request that is not answered within the read timeout, against a shard that answers late.
+     * @see ShelterFederation#ShelterFederation(List, int)
+     * Normal case: request answered in time
+     * Boundary case: next request after a timeout reads its own response, not the late response of the timed out request
+     * Exceptional case: request not answered in time
+     */
+    @Test
+    void testTimeout() throws Exception {
+        AtomicInteger noOfRequests = new AtomicInteger();
+        try (ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress()))
+        {
+            Thread shard = new Thread(() -> serveLateShard(serverSocket, noOfRequests), "late-shard");
+            shard.setDaemon(true);
+            shard.start();
+            try (ShelterFederation federation = new ShelterFederation(List.of((InetSocketAddress) serverSocket.getLocalSocketAddress()), 300))
+            {
+                //Normal case: request answered in time
+                assertEquals(1, federation.noOfAvailablePets("Dog"));
+
+                //Exceptional case: request not answered in time
+                assertThrows(SocketTimeoutException.class, () -> federation.noOfAvailablePets("Dog"));
+
+                //Boundary case: next request after a timeout reads its own response, not the late response of the timed out request
+                Thread.sleep(1000); //late response of the second request sent meanwhile
+                assertEquals(3, federation.noOfAvailablePets("Dog"));
+                assertEquals(4, federation.noOfAvailablePets("Dog"));
+            }
+        }
+    }
+
+    /**
+     * Serves shard 0 of 1 on a server socket, answering the n-th NO_OF_AVAILABLE_PETS request with n, the second one after 800 ms.
+     * @param serverSocket listening socket
+     * @param noOfRequests number of requests answered so far
+     */
+    private static void serveLateShard(ServerSocket serverSocket, AtomicInteger noOfRequests) {
+        try
+        {
+            while (true)
+            {
+                Socket socket = serverSocket.accept();
+                Thread connection = new Thread(() -> {
+                    try (socket)
+                    {
+                        DataInputStream in = new DataInputStream(socket.getInputStream());
+                        DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                        while (true)
+                        {
+                            byte operation = in.readByte();
+                            out.writeByte(ShelterServer.OK);
+                            if (operation == ShelterServer.HELLO)
+                            {
+                                out.writeInt(0);
+                                out.writeInt(1);
+                            }
+                            else //NO_OF_AVAILABLE_PETS
+                            {
+                                in.readUTF();
+                                int request = noOfRequests.incrementAndGet();
+                                if (request == 2)
+                                    Thread.sleep(800); //longer than the read timeout
+                                out.writeInt(request);
+                            }
+                            out.flush();
+                        }
+                    }
+                    catch (IOException | InterruptedException e) //connection closed by the federation
+                    {
+                    }
+                });
+                connection.setDaemon(true);
+                connection.start();
+            }
+        }
+        catch (IOException e) //server socket closed by the test
+        {
+        }
+    }
+
+    /**
+     * Starts a shard in a new JVM with the class path of the test.
+     * @param shardIndex index of the shard
+     * @param noOfShards number of shards
+     * @return shard process
+     * @throws IOException if the JVM cannot be started
+     */
+    private static Process startShard(int shardIndex, int noOfShards) throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        return new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), "ShelterServer",
+                String.valueOf(shardIndex), String.valueOf(noOfShards))
+                .redirectErrorStream(true)
+                .start();
+    }
+
+    /**
+     * Reads the port a shard process prints when it is listening.
+     * @param process shard process
+     * @return TCP port of the shard
+     * @throws IOException if the process ends before listening
+     */
+    private static int readPort(Process process) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null)
+        {
+            if (line.contains("listening on port "))
+                return Integer.parseInt(line.substring(line.lastIndexOf(' ') + 1));
+        }
+        throw new IOException("Shard process ended before listening.");
+    }
+}
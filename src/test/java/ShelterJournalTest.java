@@ -0,0 +1,163 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test ShelterJournal class - testing journaling and replay of shelter mutations.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+class ShelterJournalTest {
+
+    /**
+     * Testing replay of a journal by ShelterManager(ShelterJournal).
+     * @see ShelterManager#ShelterManager(ShelterJournal)
+     * Normal case: pets, training status, customer records and adoptions restored after the journal is reopened.
+     * Boundary case: mutations after a replay are appended and restored by the next replay.
+     */
+    @Test
+    void testReplay(@TempDir Path dir) throws IOException {
+        //Normal case: pets, training status, customer records and adoptions restored after the journal is reopened
+        Path file = dir.resolve("shelter.journal");
+        Calendar calendar1 = Calendar.getInstance(); //calendar object
+        calendar1.set(1980, 4, 10); //calendar date is 10th May 1980
+        Date dob1 = calendar1.getTime();
+
+        ShelterJournal journal = ShelterJournal.open(file); //new journal
+        var sm = new ShelterManager(journal); //empty shelter
+        Pet cat = sm.addPet("cat");
+        List<Pet> dogs = sm.addPets(List.of(new PetIntake("dog", 2), new PetIntake("dog", 2, true)));
+        assertTrue(sm.updatePetRecord(dogs.get(0).getPetID(), true)); //train an untrained dog
+        CustomerRecord customer = sm.addCustomerRecord("Jan", "Kowalski", dob1, true);
+        assertTrue(sm.adoptPet(customer, "cat"));
+        journal.close();
+
+        var restored = new ShelterManager(ShelterJournal.open(file)); //replay
+
+        assertEquals(sm.shelterAllPets.keySet(), restored.shelterAllPets.keySet()); //assert same PetIDs
+        for (Pet pet : sm.shelterAllPets.values())
+        {
+            Pet restoredPet = restored.shelterAllPets.get(pet.getPetID());
+            assertEquals(pet.getPetType(), restoredPet.getPetType()); //assert same type and status
+            assertEquals(pet.getAdopted(), restoredPet.getAdopted());
+            if (pet instanceof Trainable)
+                assertEquals(((Trainable) pet).getTrained(), ((Trainable) restoredPet).getTrained());
+        }
+        assertTrue(restored.shelterAllPets.get(cat.getPetID()).getAdopted()); //assert adoption restored
+        assertEquals(0, restored.noOfAvailablePets("cat"));
+        assertEquals(4, restored.noOfAvailablePets("dog"));
+        assertEquals(3, restored.getPetCounts().getAvailableTrained("dog")); //assert training update restored
+
+        assertEquals(1, restored.shelterAllCustomerRecords.size());
+        CustomerRecord restoredCustomer = restored.shelterAllCustomerRecords.iterator().next();
+        assertEquals(customer, restoredCustomer); //assert same name and dob
+        assertEquals(customer.getCustomerNumber(), restoredCustomer.getCustomerNumber()); //assert same customer number
+        assertEquals(customer.getDateIssuedRecord(), restoredCustomer.getDateIssuedRecord()); //assert same date of issue
+        assertEquals(customer.getHasGarden(), restoredCustomer.getHasGarden());
+        assertEquals(1, restored.adoptedPetsByCustomer(customer.getCustomerNumber()).size());
+        assertEquals(cat.getPetID(), restored.adoptedPetsByCustomer(customer.getCustomerNumber()).iterator().next().getPetID());
+
+        assertThrows(Error.class, () -> restored.addCustomerRecord("Jan", "Kowalski", dob1, false)); //assert restored customer is known
+
+
+        //Boundary case: mutations after a replay are appended and restored by the next replay
+        Pet newDog = restored.addPet("dog");
+        CustomerRecord newCustomer = restored.addCustomerRecord("Jon", "Nowak", dob1, true);
+        assertNotEquals(customer.getCustomerNumber(), newCustomer.getCustomerNumber()); //assert customer number not issued again
+        assertTrue(newDog.getPetID().compareTo(dogs.get(3).getPetID()) > 0); //assert PetID not allocated again
+
+        var restoredAgain = new ShelterManager(ShelterJournal.open(file)); //replay
+
+        assertEquals(restored.shelterAllPets.keySet(), restoredAgain.shelterAllPets.keySet());
+        assertEquals(2, restoredAgain.shelterAllCustomerRecords.size());
+        assertEquals(5, restoredAgain.noOfAvailablePets("dog"));
+    }
+
+    /**
+     * Testing replay of a journal with a torn record at the end.
+     * @see ShelterManager#ShelterManager(ShelterJournal)
+     * Normal case: records before the torn record restored, torn record truncated.
+     * Exceptional cases: file that is not a journal, journal used by two shelters.
+     */
+    @Test
+    void testReplayTornRecord(@TempDir Path dir) throws IOException {
+        //Normal case: records before the torn record restored, torn record truncated
+        Path file = dir.resolve("shelter.journal");
+        ShelterJournal journal = ShelterJournal.open(file);
+        var sm = new ShelterManager(journal);
+        sm.addPets("cat", 3);
+        sm.addPet("dog");
+        journal.close();
+        long validSize = Files.size(file);
+        Files.write(file, new byte[] {0, 0, 0, 10, 1, 0, 0}, StandardOpenOption.APPEND); //torn record, crash during a write
+
+        journal = ShelterJournal.open(file);
+        var restored = new ShelterManager(journal);
+
+        assertEquals(3, restored.noOfAvailablePets("cat")); //assert valid records restored
+        assertEquals(1, restored.noOfAvailablePets("dog"));
+        assertEquals(validSize, Files.size(file)); //assert torn record truncated
+
+        restored.addPet("dog"); //appended after the last valid record
+        journal.close();
+        assertEquals(2, new ShelterManager(ShelterJournal.open(file)).noOfAvailablePets("dog"));
+
+
+        //Exceptional cases: file that is not a journal, journal used by two shelters
+        Path notJournal = dir.resolve("customers.csv");
+        Files.writeString(notJournal, "firstName,lastName,dob,hasGarden\n");
+        assertThrows(IOException.class, () -> ShelterJournal.open(notJournal));
+
+        ShelterJournal attachedJournal = ShelterJournal.open(dir.resolve("other.journal"));
+        new ShelterManager(attachedJournal);
+        assertThrows(IllegalStateException.class, () -> new ShelterManager(attachedJournal));
+        assertThrows(IllegalArgumentException.class, () -> new ShelterManager((ShelterJournal) null));
+    }
+
+    /**
+     * Testing group commit with adoption desks adding pets concurrently.
+     * @see ShelterJournal#open(Path, int, long, boolean)
+     * Normal case: 8 threads adding 200 pets each, all pets restored by a replay.
+     */
+    @Test
+    void testGroupCommitConcurrent(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("shelter.journal");
+        ShelterJournal journal = ShelterJournal.open(file, 16, 1, true);
+        var sm = new ShelterManager(journal);
+        int noOfThreads = 8;
+        int noOfPetsPerThread = 200;
+
+        ExecutorService desks = Executors.newFixedThreadPool(noOfThreads);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < noOfThreads; t++)
+        {
+            String petType = (t % 2 == 0) ? "cat" : "dog";
+            results.add(desks.submit(() -> {
+                for (int i = 0; i < noOfPetsPerThread; i++)
+                    sm.addPet(petType);
+            }));
+        }
+        desks.shutdown();
+        assertTrue(desks.awaitTermination(60, TimeUnit.SECONDS));
+        for (Future<?> result : results)
+            result.get(); //assert no desk failed
+        journal.close();
+
+        var restored = new ShelterManager(ShelterJournal.open(file));
+
+        assertEquals(noOfThreads * noOfPetsPerThread, restored.shelterAllPets.size()); //assert every committed pet restored
+        assertEquals(sm.shelterAllPets.keySet(), restored.shelterAllPets.keySet());
+    }
+}
@@ -1,7 +1,16 @@
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -103,12 +112,68 @@ class ShelterManagerTest {
     }
 
 
+    /**
+     * Testing addPets() methods.
+     * @see ShelterManager#addPets(String, int)
+     * @see ShelterManager#addPets(Collection)
+     * Normal case: adding 10 cats
+     * Boundary cases: 1- adding 0 pets, 2- several intakes including trained dogs
+     * Exceptional cases: 1- invalid pet type, 2- negative number of pets, 3- trained cats
+     */
+    @Test
+    void testAddPets() {
+        //Normal case: adding 10 cats
+        var sm = new ShelterManager(); //shelter manager object initialised, empty shelter
+        List<Pet> addedCats = sm.addPets("cAt", 10);
+        assertEquals(10, addedCats.size()); //assert 10 Pet objects returned
+        assertEquals(10, sm.shelterAllPets.size()); //assert all added to shelter register
+        assertEquals(10, sm.noOfAvailablePets("Cat")); //assert all available
+        for (int i = 0; i < addedCats.size(); i++)
+        {
+            assertEquals("Cat", addedCats.get(i).getPetType()); //assert pet type
+            assertEquals(addedCats.get(0).getPetID().getValue() + i, addedCats.get(i).getPetID().getValue()); //assert consecutive PetIDs
+        }
+
+        //Boundary cases: adding 0 pets, several intakes including trained dogs
+        //1
+        assertTrue(sm.addPets("Dog", 0).isEmpty()); //assert no pets returned
+        assertEquals(0, sm.noOfAvailablePets("Dog"));
+        //2
+        List<Pet> addedPets = sm.addPets(List.of(new PetIntake("Dog", 3, true), new PetIntake("Dog", 2), new PetIntake("Cat", 1)));
+        assertEquals(6, addedPets.size()); //assert all pets of all intakes returned
+        assertTrue(((Dog) addedPets.get(0)).getTrained()); //assert trained dogs first, in order of intakes
+        assertFalse(((Dog) addedPets.get(3)).getTrained());
+        assertEquals("Cat", addedPets.get(5).getPetType());
+        PetCounts counts = sm.getPetCounts();
+        assertEquals(5, counts.getAvailable("dog")); //assert counters updated
+        assertEquals(3, counts.getAvailableTrained("dog"));
+        assertEquals(11, counts.getAvailable("cat"));
+
+        //Exceptional cases: invalid pet type, negative number of pets, trained cats
+        sm = new ShelterManager(); //empty shelter
+        String[] invalidPetTypes = {"parrot", "Cat", "Cat"};
+        int[] invalidCounts = {1, -1, 1};
+        for (int i = 0; i < invalidPetTypes.length; i++)
+        {
+            try
+            {
+                sm.addPets(List.of(new PetIntake("Dog", 5), new PetIntake(invalidPetTypes[i], invalidCounts[i], i == 2)));
+                uk.ac.ncl.teach.ex.test.Assertions.assertNotReached(); //not reached
+            }
+            catch (Throwable t)
+            {
+                uk.ac.ncl.teach.ex.test.Assertions.assertExpectedThrowable(IllegalArgumentException.class, t); //assert exception expected, IllegalArgumentException
+            }
+        }
+        assertTrue(sm.shelterAllPets.isEmpty()); //assert no pets added by invalid intakes
+    }
+
     /**
      * Testing updatePetRecord().
      * @see ShelterManager#updatePetRecord(PetID, Boolean)
      * Normal case: updating a record of a dog, from "not trained" to "trained".
      * Boundary cases: 1- updating trained status to the same value as it is, 2- updating from true to false, 3- updating a cat
-     * Exceptional cases: 1- passing a null PetID, 2- passing a non-existing PetID
+     * Exceptional cases: 1- passing a null PetID, 2- passing a non-existing PetID, 3- passing a null trained status
      */
     @Test
     void testUpdatePetRecord() {
@@ -141,7 +206,7 @@ class ShelterManagerTest {
             uk.ac.ncl.teach.ex.test.Assertions.assertExpectedThrowable(IllegalArgumentException.class, t); //assert exception expected, IllegalArgumentException thrown
         }
 
-        //Exceptional cases: passing a null PetID, passing a non-existing PetID
+        //Exceptional cases: passing a null PetID, passing a non-existing PetID, passing a null trained status
         PetID nullPetID = null; //null PetID for testing
         PetID nonExistingPetID = PetID.getPetIDInstance(); //non-existing PetID for testing
         //1
@@ -164,6 +229,54 @@ class ShelterManagerTest {
         {
             uk.ac.ncl.teach.ex.test.Assertions.assertExpectedThrowable(IllegalArgumentException.class, t); //assert exception expected, IllegalArgumentException thrown
         }
+        //3
+        PetCounts countsBefore = sm.getPetCounts();
+        assertThrows(NullPointerException.class, () -> sm.updatePetRecord(addedDog.getPetID(), null));
+        assertEquals(countsBefore.toString(), sm.getPetCounts().toString()); //assert counters untouched
+        assertEquals(1, sm.getPetCounts().getTotal("dog"));
+        assertEquals(1, sm.noOfAvailablePets("Dog"));
+    }
+
+    /**
+     * Testing the setters of the pets returned by the shelter.
+     * @see PetFactory#setAdopted(boolean)
+     * @see Dog#setTrained(boolean)
+     * Normal case: adoption and training status of shelter pets set through adoptPet() and updatePetRecord()
+     * Boundary case: new dog not yet in a shelter
+     * Exceptional case: status of shelter pets set through the setters, the pools and counters stay consistent
+     */
+    @Test
+    void testPetSetters() {
+        //Normal case: adoption and training status of shelter pets set through adoptPet() and updatePetRecord()
+        ShelterManager sm = new ShelterManager();
+        Dog dog = (Dog) sm.addPet("Dog");
+        sm.addPet("Dog");
+        assertTrue(sm.updatePetRecord(dog.getPetID(), true));
+        assertTrue(dog.getTrained()); //assert the returned pet reads the register
+
+        //Boundary case: new dog not yet in a shelter
+        Dog newDog = new Dog(PetID.getPetIDInstance());
+        newDog.setTrained(true);
+        newDog.setAdopted(true);
+        assertTrue(newDog.getTrained());
+        assertTrue(newDog.getAdopted());
+
+        //Exceptional case: status of shelter pets set through the setters, the pools and counters stay consistent
+        assertThrows(UnsupportedOperationException.class, () -> dog.setAdopted(true));
+        assertThrows(UnsupportedOperationException.class, () -> dog.setTrained(false));
+        assertFalse(dog.getAdopted());
+        assertTrue(dog.getTrained());
+        assertEquals(2, sm.noOfAvailablePets("Dog"));
+        assertEquals(sm.noOfPets(new PetFilter("Dog", false, null)), sm.noOfAvailablePets("Dog"));
+        assertEquals(1, sm.getPetCounts().getAvailableTrained("dog"));
+        Calendar calendar = Calendar.getInstance();
+        calendar.add(Calendar.YEAR, -30);
+        CustomerRecord customer = sm.addCustomerRecord("Jan", "Kowalski", calendar.getTime(), true);
+        assertTrue(sm.adoptPet(customer, "Dog"));
+        assertTrue(sm.adoptPet(customer, "Dog")); //assert both dogs still in the pool
+        assertFalse(sm.adoptPet(customer, "Dog"));
+        assertEquals(0, sm.noOfAvailablePets("Dog"));
+        assertEquals(0, sm.noOfPets(new PetFilter("Dog", false, null)));
     }
 
     /**
@@ -202,6 +315,50 @@ class ShelterManagerTest {
         assertEquals(0, actual); //assert expected 0
     }
 
+    /**
+     * Testing getPetCounts() method.
+     * @see ShelterManager#getPetCounts()
+     * Normal case: counts of available, adopted and trained pets per pet type
+     * Boundary cases: 1- empty shelter, 2- snapshot not affected by later changes
+     * Exceptional case: invalid pet type
+     */
+    @Test
+    void testGetPetCounts() {
+        var sm = new ShelterManager(); //shelter manager object initialised, empty shelter
+        Calendar calendar1 = Calendar.getInstance(); //calendar object
+        calendar1.set(1990, 1,20 ); //calendar date is 20th February 1990
+        CustomerRecord cr1 = sm.addCustomerRecord("Jan", "Kowalski", calendar1.getTime(), true); //eligible customer
+        sm.addPet("Cat"); //Adding a cat to the shelter
+        Pet addedDog1 = sm.addPet("Dog"); //Adding dogs to the shelter
+        sm.addPet("Dog");
+        sm.updatePetRecord(addedDog1.getPetID(), true); //one trained dog
+        sm.adoptPet(cr1, "Cat"); //cat adopted
+
+        //Normal case: counts of available, adopted and trained pets per pet type
+        PetCounts counts = sm.getPetCounts();
+        assertEquals(0, counts.getAvailable("Cat")); //assert expected 0, only cat adopted
+        assertEquals(1, counts.getAdopted("cat"));
+        assertEquals(2, counts.getAvailable("DOG")); //assert expected 2 available dogs, one trained
+        assertEquals(1, counts.getAvailableTrained("dog"));
+        assertEquals(1, counts.getTrained("dog"));
+        assertEquals(2, counts.getTotal("dog"));
+        assertEquals(sm.noOfAvailablePets("dog"), counts.getAvailable("dog")); //assert counters agree with noOfAvailablePets()
+
+        //Boundary cases: empty shelter, snapshot not affected by later changes
+        //1
+        assertEquals(0, new ShelterManager().getPetCounts().getTotal("dog")); //assert expected 0, empty shelter
+        //2
+        sm.updatePetRecord(addedDog1.getPetID(), false); //untrain the dog after the snapshot
+        sm.addPet("Cat");
+        assertEquals(1, counts.getTrained("dog")); //assert snapshot unchanged
+        assertEquals(0, counts.getAvailable("cat"));
+        assertEquals(0, sm.getPetCounts().getTrained("dog")); //assert new snapshot has updated counts
+        assertEquals(1, sm.getPetCounts().getAvailable("cat"));
+
+        //Exceptional case: invalid pet type
+        assertEquals(0, counts.getTotal("parrot")); //assert expected 0
+    }
+
     /**
      * Testing addCustomerRecord() method.
      * @see ShelterManager#addCustomerRecord(String, String, Date, Boolean)
@@ -275,7 +432,8 @@ class ShelterManagerTest {
         //Boundary cases: no pets available; customer wants to adopt a trained dog but not eligible; customer adopted 3 pets already
         //1
         System.out.println("\nBoundary case 1, no pets available:");
-        calendar1.set(2004, 0, 1); //calendar date is 1st January 2004
+        calendar1 = Calendar.getInstance(); //calendar date is today
+        calendar1.add(Calendar.YEAR, -20); //customer turned 20 this year, stays under 21 whenever the test runs
         Date dob2 = calendar1.getTime(); //another Date object for date of birth, date above
         CustomerRecord cr2 = sm.addCustomerRecord("Anna", "Smith", dob2, true); //new customer with age <21 years old
         assertFalse(sm.adoptPet(cr2, "Cat")); //assert expected false, unsuccessful adoption due to no pets available
@@ -299,6 +457,130 @@ class ShelterManagerTest {
         assertFalse(sm.adoptPet(cr4, "Cat")); //assert expected false, cannot adopt
     }
 
+    /**
+     * Testing adoptPet() picks only pets the customer is eligible for, from the pools of available pets.
+     * @see ShelterManager#adoptPet(CustomerRecord, String)
+     * Normal case: customer aged 19 always given the only trained dog among many untrained dogs
+     * Boundary case: dog trained by updatePetRecord() can be adopted, adopted dog trained is not available again
+     */
+    @Test
+    void testAdoptPetPools() {
+        //setup
+        var sm = new ShelterManager(); //shelter manager object initialised, empty shelter
+        Calendar calendar1 = Calendar.getInstance(); //calendar object, today
+        calendar1.add(Calendar.YEAR, -19); //customer is 19 years old
+        calendar1.add(Calendar.MONTH, -1);
+        CustomerRecord cr1 = sm.addCustomerRecord("Jan", "Kowalski", calendar1.getTime(), true);
+        List<Pet> untrainedDogs = sm.addPets("Dog", 50);
+        Pet trainedDog = sm.addPets(List.of(new PetIntake("Dog", 1, true))).get(0);
+
+        //Normal case: customer aged 19 always given the only trained dog among many untrained dogs
+        assertTrue(sm.adoptPet(cr1, "Dog"));
+        assertTrue(sm.adoptedPetsByCustomer(cr1.getCustomerNumber()).contains(trainedDog)); //assert the eligible dog was picked
+        assertFalse(sm.adoptPet(cr1, "Dog")); //assert no trained dog left
+        assertEquals(50, sm.noOfAvailablePets("Dog"));
+
+        //Boundary case: dog trained by updatePetRecord() can be adopted, adopted dog trained is not available again
+        assertTrue(sm.updatePetRecord(untrainedDogs.get(7).getPetID(), true));
+        assertTrue(sm.updatePetRecord(trainedDog.getPetID(), false)); //adopted dog, stays out of the pools
+        assertTrue(sm.updatePetRecord(trainedDog.getPetID(), true));
+        assertTrue(sm.adoptPet(cr1, "Dog"));
+        assertTrue(sm.adoptedPetsByCustomer(cr1.getCustomerNumber()).contains(untrainedDogs.get(7)));
+        assertFalse(sm.adoptPet(cr1, "Dog"));
+        assertEquals(49, sm.noOfAvailablePets("Dog"));
+    }
+
+    /**
+     * Testing noOfPets() and getPets() methods.
+     * @see ShelterManager#noOfPets(PetFilter)
+     * @see ShelterManager#getPets(PetFilter)
+     * Normal case: available trained dogs, adopted pets and all cats counted and listed in PetID order
+     * Boundary cases: 1- filter with every condition open, 2- empty shelter, 3- number of pets not a multiple of 64
+     * Exceptional case: invalid pet type
+     */
+    @Test
+    void testGetPets() {
+        //setup
+        var sm = new ShelterManager(); //shelter manager object initialised, empty shelter
+        Calendar calendar1 = Calendar.getInstance();
+        calendar1.add(Calendar.YEAR, -30);
+        CustomerRecord cr1 = sm.addCustomerRecord("Jan", "Kowalski", calendar1.getTime(), true);
+
+        //Boundary case: empty shelter
+        assertEquals(0, sm.noOfPets(new PetFilter(null, null, null)));
+        assertTrue(sm.getPets(new PetFilter("dog", false, true)).isEmpty());
+
+        //Normal case: available trained dogs, adopted pets and all cats counted and listed in PetID order
+        List<Pet> cats = sm.addPets("Cat", 70); //3- more than one bitmap word
+        List<Pet> dogs = sm.addPets(List.of(new PetIntake("Dog", 30), new PetIntake("Dog", 5, true)));
+        assertTrue(sm.updatePetRecord(dogs.get(0).getPetID(), true));
+        assertEquals(6, sm.noOfPets(new PetFilter("Dog", false, true)));
+        List<Pet> trainedDogs = sm.getPets(new PetFilter("dog", false, true));
+        assertEquals(dogs.get(0), trainedDogs.get(0)); //assert PetID order
+        assertEquals(dogs.get(34), trainedDogs.get(5));
+        assertTrue(sm.adoptPet(cr1, "Cat"));
+        assertTrue(sm.adoptPet(cr1, "Dog"));
+        assertEquals(2, sm.noOfPets(new PetFilter(null, true, null)));
+        assertEquals(new ArrayList<Pet>(sm.adoptedPetsByCustomer(cr1.getCustomerNumber())), sm.getPets(new PetFilter(null, true, null))); //assert cat listed before dog
+        assertEquals(69, sm.noOfPets(new PetFilter("cat", false, null)));
+        assertEquals(cats, sm.getPets(new PetFilter("cat", null, false))); //assert cats are never trained
+        assertEquals(sm.noOfAvailablePets("Dog"), sm.noOfPets(new PetFilter("dog", false, null))); //assert agrees with the counters
+
+        //Boundary cases: filter with every condition open
+        assertEquals(105, sm.noOfPets(new PetFilter(null, null, null)));
+        assertEquals(105, sm.getPets(new PetFilter(null, null, null)).size());
+
+        //Exceptional case: invalid pet type
+        assertThrows(IllegalArgumentException.class, () -> new PetFilter("hamster", null, null));
+    }
+
+    /**
+     * Testing canAdopt() method.
+     * @see ShelterManager#canAdopt(CustomerRecord, String)
+     * Normal case: eligible customer, reason code of each rule that is not met, same reason as adoptPet()
+     * Boundary cases: 1- customer aged 19 with only untrained dogs, 2- unknown pet type, 3- nothing changed by canAdopt()
+     */
+    @Test
+    void testCanAdopt() {
+        //setup
+        var sm = new ShelterManager(); //shelter manager object initialised, empty shelter
+        Calendar calendar1 = Calendar.getInstance(); //calendar object, today
+        calendar1.add(Calendar.YEAR, -19); //customer is 19 years old
+        calendar1.add(Calendar.MONTH, -1);
+        CustomerRecord cr19 = sm.addCustomerRecord("Jan", "Kowalski", calendar1.getTime(), true);
+        calendar1.add(Calendar.YEAR, -10); //customer is 29 years old
+        CustomerRecord cr29 = sm.addCustomerRecord("Anna", "Smith", calendar1.getTime(), true);
+        CustomerRecord crNoGarden = sm.addCustomerRecord("Jon", "Nowak", calendar1.getTime(), false);
+        calendar1 = Calendar.getInstance();
+        calendar1.add(Calendar.YEAR, -17); //customer is 17 years old
+        CustomerRecord cr17 = sm.addCustomerRecord("Ewa", "Lis", calendar1.getTime(), true);
+        sm.addPets("Cat", 5);
+
+        //Normal case: eligible customer, reason code of each rule that is not met, same reason as adoptPet()
+        assertNull(sm.canAdopt(cr29, "Cat")); //assert eligible
+        assertEquals(AdoptionRejection.UNDERAGE, sm.canAdopt(cr17, "cat"));
+        assertEquals(AdoptionRejection.NONE_AVAILABLE, sm.canAdopt(cr29, "Dog"));
+        sm.addPet("Dog");
+        assertEquals(AdoptionRejection.NO_GARDEN, sm.canAdopt(crNoGarden, "Dog"));
+        for (int i = 0; i < 3; i++)
+            assertTrue(sm.adoptPet(cr29, "Cat"));
+        assertEquals(AdoptionRejection.QUOTA_REACHED, sm.canAdopt(cr29, "Cat"));
+        assertFalse(sm.adoptPet(cr29, "Cat")); //assert adoptPet() rejects the same customer
+
+        //Boundary cases: customer aged 19 with only untrained dogs, unknown pet type, nothing changed by canAdopt()
+        //1
+        assertEquals(AdoptionRejection.UNDERAGE, sm.canAdopt(cr19, "Dog"));
+        sm.addPets(List.of(new PetIntake("Dog", 1, true)));
+        assertNull(sm.canAdopt(cr19, "Dog"));
+        //2
+        assertEquals(AdoptionRejection.NONE_AVAILABLE, sm.canAdopt(cr29, "Bird"));
+        assertEquals(AdoptionRejection.UNDERAGE, sm.canAdopt(cr17, "Bird")); //assert age checked first, like adoptPet()
+        //3
+        assertEquals(2, sm.noOfAvailablePets("Cat"));
+        assertEquals(2, sm.noOfAvailablePets("Dog"));
+        assertTrue(sm.adoptedPetsByCustomer(cr19.getCustomerNumber()).isEmpty());
+    }
+
     /**
      * Testing adoptedPetsByCustomer() method.
      * @see ShelterManager#adoptedPetsByCustomer(CustomerNumber)
@@ -349,4 +631,311 @@ class ShelterManagerTest {
             uk.ac.ncl.teach.ex.test.Assertions.assertExpectedThrowable(UnsupportedOperationException.class, t); //assert exception expected, UnsupportedOperationException
         }
    }
+
+    /**
+     * Testing getPets() method with a cursor and page size.
+     * @see ShelterManager#getPets(PetFilter, PetID, int)
+     * Normal case: available dogs paged through, 3 at a time, from a shelter of cats and dogs
+     * Boundary cases: 1- pets trained and added between pages, 2- no matching pet, 3- page of exactly the remaining pets
+     * Exceptional case: invalid page size
+     */
+    @Test
+    void testGetPetPages() {
+        //Normal case: available dogs paged through, 3 at a time, from a shelter of cats and dogs
+        ShelterManager sm = new ShelterManager();
+        List<Pet> dogs = new ArrayList<Pet>();
+        for (int i = 0; i < 10; i++)
+        {
+            sm.addPet("Cat");
+            dogs.add(sm.addPet("Dog"));
+        }
+        PetFilter availableDogs = new PetFilter("dog", false, null);
+        List<PetID> pagedPetIDs = new ArrayList<PetID>();
+        int noOfPages = 0;
+        for (PetPage page = sm.getPets(availableDogs, null, 3); ; page = sm.getPets(availableDogs, page.getNextCursor(), 3))
+        {
+            noOfPages++;
+            assertTrue(page.getPets().size() <= 3);
+            for (Pet pet : page.getPets())
+            {
+                pagedPetIDs.add(pet.getPetID());
+            }
+            if (!page.hasNextPage())
+                break;
+        }
+        assertEquals(4, noOfPages); //assert 3 + 3 + 3 + 1
+        List<PetID> dogPetIDs = new ArrayList<PetID>();
+        for (Pet dog : dogs)
+        {
+            dogPetIDs.add(dog.getPetID());
+        }
+        assertEquals(dogPetIDs, pagedPetIDs); //assert every dog once, in PetID order
+
+        //Boundary cases: pets trained and added between pages, no matching pet, page of exactly the remaining pets
+        //1
+        PetFilter untrainedDogs = new PetFilter("dog", false, false);
+        PetPage firstPage = sm.getPets(untrainedDogs, null, 3);
+        assertTrue(sm.updatePetRecord(dogs.get(0).getPetID(), true)); //dog of the first page no longer matches
+        assertTrue(sm.updatePetRecord(dogs.get(3).getPetID(), true)); //dog of the second page no longer matches
+        Pet newDog = sm.addPet("Dog");
+        PetPage secondPage = sm.getPets(untrainedDogs, firstPage.getNextCursor(), 3);
+        assertEquals(List.of(dogs.get(4), dogs.get(5), dogs.get(6)), secondPage.getPets()); //assert page not shifted by the change before the cursor
+        assertEquals(sm.noOfPets(untrainedDogs), sm.getPetCounts().getAvailable("dog") - sm.getPetCounts().getAvailableTrained("dog"));
+        PetPage lastPage = sm.getPets(untrainedDogs, dogs.get(8).getPetID(), 3);
+        assertEquals(List.of(dogs.get(9), newDog), lastPage.getPets());
+        //2
+        PetPage emptyPage = sm.getPets(new PetFilter("cat", true, null), null, 5);
+        assertTrue(emptyPage.getPets().isEmpty());
+        assertFalse(emptyPage.hasNextPage());
+        //3
+        PetPage exactPage = sm.getPets(availableDogs, dogs.get(8).getPetID(), 2);
+        assertEquals(2, exactPage.getPets().size());
+        assertFalse(exactPage.hasNextPage());
+        assertNull(exactPage.getNextCursor());
+
+        //Exceptional case: invalid page size
+        assertThrows(IllegalArgumentException.class, () -> sm.getPets(availableDogs, null, 0));
+    }
+
+    /**
+     * Testing getView() method.
+     * @see ShelterManager#getView()
+     * Normal case: view keeps the pets, customers and adoptions of its version while the shelter changes
+     * Boundary cases: 1- pets in more than one chunk, changed after two views, 2- view of an empty shelter
+     * Exceptional case: pet of a view changed
+     */
+    @Test
+    void testGetView() {
+        //Normal case: view keeps the pets, customers and adoptions of its version while the shelter changes
+        ShelterManager sm = new ShelterManager();
+        Calendar calendar = Calendar.getInstance();
+        calendar.add(Calendar.YEAR, -30);
+        CustomerRecord cr1 = sm.addCustomerRecord("Jan", "Kowalski", calendar.getTime(), true);
+        List<Pet> dogs = sm.addPets("Dog", 4);
+        assertTrue(sm.adoptPet(cr1, "Dog"));
+        ShelterView view = sm.getView();
+        CustomerRecord cr2 = sm.addCustomerRecord("Ola", "Nowak", calendar.getTime(), true);
+        assertTrue(sm.adoptPet(cr1, "Dog"));
+        assertTrue(sm.adoptPet(cr2, "Dog"));
+        sm.updatePetRecord(dogs.get(3).getPetID(), true);
+        sm.addPet("Cat");
+        assertEquals(3, view.noOfAvailablePets("Dog")); //assert later adoptions not seen
+        assertEquals(3, view.noOfPets(new PetFilter("dog", false, null)));
+        assertEquals(0, view.noOfPets(new PetFilter(null, null, true))); //assert later training not seen
+        assertEquals(4, view.getAllPets().size()); //assert later cat not seen
+        assertNull(view.getAllPets().get(sm.getPets(new PetFilter("cat", null, null)).get(0).getPetID()));
+        assertEquals(1, view.noOfCustomers());
+        assertEquals(List.of(cr1), view.getCustomerRecords());
+        assertEquals(1, view.adoptedPetsByCustomer(cr1.getCustomerNumber()).size());
+        assertTrue(view.adoptedPetsByCustomer(cr2.getCustomerNumber()).isEmpty());
+        Pet adoptedInView = view.adoptedPetsByCustomer(cr1.getCustomerNumber()).iterator().next();
+        assertTrue(adoptedInView.getAdopted());
+        assertEquals(1, sm.noOfAvailablePets("Dog")); //assert shelter changed
+        ShelterView laterView = sm.getView();
+        assertTrue(laterView.getVersion() > view.getVersion());
+        assertEquals(3, laterView.noOfAdoptions());
+        assertEquals(2, laterView.adoptedPetsByCustomer(cr1.getCustomerNumber()).size());
+
+        //Boundary cases: pets in more than one chunk, changed after two views, view of an empty shelter
+        //1
+        ShelterManager large = new ShelterManager();
+        List<Pet> largeDogs = large.addPets("Dog", 40000);
+        ShelterView before = large.getView();
+        large.updatePetRecord(largeDogs.get(0).getPetID(), true);
+        ShelterView middle = large.getView();
+        large.updatePetRecord(largeDogs.get(39999).getPetID(), true);
+        large.updatePetRecord(largeDogs.get(1).getPetID(), true);
+        assertEquals(0, before.noOfPets(new PetFilter("dog", null, true)));
+        assertEquals(1, middle.noOfPets(new PetFilter("dog", null, true)));
+        assertEquals(3, large.noOfPets(new PetFilter("dog", null, true)));
+        assertEquals(List.of(largeDogs.get(0).getPetID()), List.of(middle.getPets(new PetFilter(null, null, true)).get(0).getPetID()));
+        //2
+        ShelterView empty = new ShelterManager().getView();
+        assertTrue(empty.getAllPets().isEmpty());
+        assertEquals(0, empty.getPetCounts().getTotal("cat"));
+        assertTrue(empty.getCustomerRecords().isEmpty());
+
+        //Exceptional case: pet of a view changed
+        Dog viewDog = (Dog) view.getAllPets().get(dogs.get(3).getPetID());
+        assertThrows(UnsupportedOperationException.class, () -> viewDog.setTrained(true));
+        assertFalse(viewDog.getTrained());
+    }
+
+    /**
+     * Testing getStatistics() method.
+     * @see ShelterManager#getStatistics()
+     * Normal case: type mix, ratios and adoptions per customer of a shelter split into several ranges, computed on a pool of 4 threads
+     * Boundary case: empty shelter
+     * Exceptional case: number of adoptions out of range
+     */
+    @Test
+    void testGetStatistics() {
+        //Normal case: type mix, ratios and adoptions per customer of a shelter split into several ranges, computed on a pool of 4 threads
+        ShelterManager sm = new ShelterManager();
+        List<Pet> dogs = sm.addPets("Dog", 60000);
+        sm.addPets("Cat", 40000);
+        for (int i = 0; i < 15000; i++)
+        {
+            sm.updatePetRecord(dogs.get(i * 4).getPetID(), true); //a quarter of the dogs
+        }
+        Calendar calendar = Calendar.getInstance();
+        calendar.add(Calendar.YEAR, -30);
+        List<CustomerRecord> customers = new ArrayList<CustomerRecord>();
+        for (int i = 0; i < 10; i++)
+        {
+            customers.add(sm.addCustomerRecord("Anna" + i, "Smith", calendar.getTime(), i < 4)); //4 customers with a garden
+        }
+        for (int i = 0; i < 3; i++)
+        {
+            assertTrue(sm.adoptPet(customers.get(0), "Cat")); //customer 0 at the quota
+        }
+        assertTrue(sm.adoptPet(customers.get(1), "Dog"));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ShelterStatistics statistics = sm.getView().getStatistics(pool);
+        pool.shutdown();
+        assertEquals(sm.getPetCounts().toString(), statistics.getPetCounts().toString()); //assert ranges added up to the live counts
+        assertEquals(60000, statistics.getPetCounts().getTotal("dog"));
+        assertEquals(0.25, statistics.getTrainingRatio("Dog"));
+        assertEquals(0.0, statistics.getTrainingRatio("cat"));
+        assertEquals(3.0 / 40000, statistics.getAdoptionRatio("cat"));
+        assertEquals(10, statistics.getNoOfCustomers());
+        assertEquals(4, statistics.getNoOfCustomersWithGarden());
+        assertEquals(4, statistics.getNoOfAdoptions());
+        assertEquals(8, statistics.getNoOfCustomersWithAdoptions(0));
+        assertEquals(1, statistics.getNoOfCustomersWithAdoptions(1));
+        assertEquals(1, statistics.getNoOfCustomersWithAdoptions(3));
+        assertEquals(0.4, statistics.getAdoptionsPerCustomer());
+        assertEquals(0.1, statistics.getQuotaSaturation());
+
+        //Boundary case: empty shelter
+        ShelterStatistics empty = new ShelterManager().getStatistics();
+        assertTrue(empty.getPetCounts().getPetTypes().isEmpty());
+        assertEquals(0.0, empty.getTrainingRatio("dog"));
+        assertEquals(0.0, empty.getQuotaSaturation());
+
+        //Exceptional case: number of adoptions out of range
+        assertThrows(IllegalArgumentException.class, () -> statistics.getNoOfCustomersWithAdoptions(4));
+    }
+
+    /**
+     * Testing getCustomer() method.
+     * @see ShelterManager#getCustomer(CustomerNumber)
+     * Normal case: customers found by their customer numbers
+     * Boundary case: customer number of another shelter
+     * Exceptional case: null customer number
+     */
+    @Test
+    void testGetCustomer() {
+        //Normal case: customers found by their customer numbers
+        ShelterManager sm = new ShelterManager();
+        Calendar calendar = Calendar.getInstance();
+        calendar.add(Calendar.YEAR, -30);
+        CustomerRecord cr1 = sm.addCustomerRecord("Jan", "Kowalski", calendar.getTime(), true);
+        CustomerRecord cr2 = sm.addCustomerRecord("Anna", "Smith", calendar.getTime(), false);
+        assertSame(cr1, sm.getCustomer(cr1.getCustomerNumber()));
+        assertSame(cr2, sm.getCustomer(cr2.getCustomerNumber()));
+
+        //Boundary case: customer number of another shelter
+        CustomerRecord other = new ShelterManager().addCustomerRecord("Ewa", "Lis", calendar.getTime(), true);
+        assertNull(sm.getCustomer(other.getCustomerNumber()));
+
+        //Exceptional case: null customer number
+        assertThrows(NullPointerException.class, () -> sm.getCustomer(null));
+    }
+
+    /**
+     * Testing findCustomers() method.
+     * @see ShelterManager#findCustomers(String, String, int)
+     * Normal case: customers found by last name prefix and first name prefix, in name order
+     * Boundary cases: 1- more matches than maxResults, 2- no match, 3- empty prefixes match every customer, 4- last name shared by many customers
+     * Exceptional case: null last name prefix and maxResults less than 1
+     */
+    @Test
+    void testFindCustomers() {
+        //Normal case: customers found by last name prefix and first name prefix, in name order
+        ShelterManager sm = new ShelterManager();
+        Calendar calendar = Calendar.getInstance();
+        calendar.add(Calendar.YEAR, -30);
+        CustomerRecord smithAnna = sm.addCustomerRecord("Anna", "Smith", calendar.getTime(), true);
+        CustomerRecord smithsonAdam = sm.addCustomerRecord("Adam", "Smithson", calendar.getTime(), true);
+        CustomerRecord smithJan = sm.addCustomerRecord("Jan", "Smith", calendar.getTime(), false);
+        CustomerRecord kowalski = sm.addCustomerRecord("Jan", "Kowalski", calendar.getTime(), true);
+        assertEquals(List.of(smithAnna, smithJan, smithsonAdam), sm.findCustomers("smi", null, 10)); //assert sorted by last name, then first name
+        assertEquals(List.of(smithJan), sm.findCustomers("SMITH", "j", 10)); //assert case-insensitive
+        assertEquals(List.of(smithAnna, smithsonAdam), sm.findCustomers("Smith", "A", 10));
+        assertEquals(List.of(kowalski), sm.findCustomers("Kowalski", "Jan", 10));
+
+        //Boundary cases: more matches than maxResults, no match, empty prefixes match every customer, last name shared by many customers
+        //1
+        assertEquals(List.of(smithAnna), sm.findCustomers("Smith", "", 1));
+        //2
+        assertTrue(sm.findCustomers("Nowak", null, 10).isEmpty());
+        assertTrue(sm.findCustomers("Kowalski", "A", 10).isEmpty());
+        //3
+        assertEquals(4, sm.findCustomers("", "", 10).size());
+        //4
+        for (int i = 0; i < 40; i++)
+        {
+            sm.addCustomerRecord("Anna" + i, "Nowak", calendar.getTime(), true);
+        }
+        CustomerRecord nowakZofia = sm.addCustomerRecord("Zofia", "Nowak", calendar.getTime(), true);
+        CustomerRecord nowakowskiAdam = sm.addCustomerRecord("Adam", "Nowakowski", calendar.getTime(), true);
+        assertEquals(List.of(nowakZofia), sm.findCustomers("Nowak", "Z", 10)); //assert first names before the prefix skipped
+        assertEquals(11, sm.findCustomers("Nowak", "Anna1", 20).size()); //Anna1 and Anna10 to Anna19
+        assertEquals(List.of(nowakowskiAdam), sm.findCustomers("Nowak", "Adam", 10)); //assert first names after the prefix skipped
+
+        //Exceptional case: null last name prefix and maxResults less than 1
+        assertThrows(IllegalArgumentException.class, () -> sm.findCustomers(null, "Jan", 10));
+        assertThrows(IllegalArgumentException.class, () -> sm.findCustomers("Smith", "Jan", 0));
+    }
+
+    /**
+     * Testing adoptPet() method called by several adoption desks at the same time.
+     * @see ShelterManager#adoptPet(CustomerRecord, String)
+     * Normal case: 8 desks adopting cats for 60 customers from a shelter of 100 cats
+     * Boundary case: more adoption attempts (180) than cats available (100)
+     */
+    @Test
+    void testAdoptPetConcurrent() throws InterruptedException {
+        //setup
+        var sm = new ShelterManager(); //shelter manager object initialised, empty shelter
+        Calendar calendar1 = Calendar.getInstance(); //calendar object
+        calendar1.set(1990, 1,20 ); //calendar date is 20th February 1990
+        Date dob1 = calendar1.getTime();
+        List<CustomerRecord> customers = new CopyOnWriteArrayList<CustomerRecord>();
+        for (int i = 0; i < 60; i++)
+        {
+            customers.add(sm.addCustomerRecord((char) ('A' + i % 26) + "nna" + i, "Smith", dob1, true)); //different initials
+        }
+        for (int i = 0; i < 100; i++)
+        {
+            sm.addPet("Cat");
+        }
+
+        //Normal case and boundary case: every customer tries to adopt 3 cats, all desks at the same time
+        ExecutorService desks = Executors.newFixedThreadPool(8); //8 adoption desks
+        for (CustomerRecord customer : customers)
+        {
+            for (int attempt = 0; attempt < 3; attempt++)
+            {
+                desks.submit(() -> sm.adoptPet(customer, "Cat"));
+            }
+        }
+        desks.shutdown();
+        assertTrue(desks.awaitTermination(30, TimeUnit.SECONDS)); //assert all adoptions finished
+
+        Set<Pet> adoptedPets = new HashSet<Pet>(); //all pets adopted by all customers
+        int noOfAdoptions = 0;
+        for (CustomerRecord customer : customers)
+        {
+            Collection<Pet> customerPets = sm.adoptedPetsByCustomer(customer.getCustomerNumber());
+            assertTrue(customerPets.size() <= 3); //assert no customer adopted more than 3 pets
+            adoptedPets.addAll(customerPets);
+            noOfAdoptions += customerPets.size();
+        }
+        assertEquals(100, noOfAdoptions); //assert every cat was adopted
+        assertEquals(noOfAdoptions, adoptedPets.size()); //assert no cat was adopted twice
+        assertEquals(0, sm.noOfAvailablePets("Cat")); //assert counters agree
+        assertEquals(100, sm.getPetCounts().getAdopted("Cat"));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,138 @@
+import org.junit.jupiter.api.Test;
+import java.lang.management.ManagementFactory;
+import java.util.Calendar;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test ShelterMetricsRecorder class - testing latency histograms, rejection counters and the JMX view of a shelter.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+class ShelterMetricsRecorderTest {
+
+    /**
+     * Testing LatencyHistogram record() and getValueAtPercentile().
+     * @see LatencyHistogram#getValueAtPercentile(double)
+     * Normal case: percentiles of 1 to 100000 ns within the bucket precision
+     * Boundary cases: empty histogram, largest value
+     * Exceptional case: percentile out of range
+     */
+    @Test
+    void testLatencyHistogram() {
+        //Normal case: percentiles of 1 to 100000 ns within the bucket precision
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 100000; nanos++)
+            histogram.record(nanos);
+
+        assertEquals(100000, histogram.getCount());
+        assertEquals(50000.5, histogram.getMean(), 0.001);
+        assertEquals(100000, histogram.getMax());
+        assertEquals(50000, histogram.getValueAtPercentile(50), 50000 * 0.04); //assert within bucket width
+        assertEquals(99000, histogram.getValueAtPercentile(99), 99000 * 0.04);
+        assertEquals(100000, histogram.getValueAtPercentile(100));
+        for (long value : new long[] {0, 31, 32, 33, 1000, 123456789, Long.MAX_VALUE / 3})
+        {
+            long upperBound = LatencyHistogram.upperBoundOf(LatencyHistogram.bucketOf(value));
+            assertTrue(upperBound >= value && upperBound <= value + value / 32); //assert bucket contains the value and is narrow
+        }
+
+        //Boundary cases: empty histogram, largest value
+        assertEquals(0, new LatencyHistogram().getValueAtPercentile(99));
+        assertEquals(0, new LatencyHistogram().getMean());
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBoundOf(LatencyHistogram.bucketOf(Long.MAX_VALUE)));
+
+        //Exceptional case: percentile out of range
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101));
+    }
+
+    /**
+     * Testing ShelterManager.setMetrics() with a ShelterMetricsRecorder.
+     * @see ShelterManager#setMetrics(ShelterMetrics)
+     * Normal case: latency of each public method call and each rejection reason recorded
+     * Boundary case: nothing recorded after metrics are disabled
+     */
+    @Test
+    void testRecorder() {
+        //Normal case: latency of each public method call and each rejection reason recorded
+        var sm = new ShelterManager(); //empty shelter
+        ShelterMetricsRecorder recorder = new ShelterMetricsRecorder();
+        sm.setMetrics(recorder);
+        Calendar calendar1 = Calendar.getInstance(); //calendar object
+        calendar1.set(1980, 4, 10); //calendar date is 10th May 1980
+        CustomerRecord adult = sm.addCustomerRecord("Jan", "Kowalski", calendar1.getTime(), false);
+        calendar1 = Calendar.getInstance();
+        calendar1.add(Calendar.YEAR, -10); //customer is 10 years old
+        CustomerRecord child = sm.addCustomerRecord("Anna", "Nowak", calendar1.getTime(), true);
+        sm.addPets("cat", 3);
+        sm.addPet("dog");
+
+        assertFalse(sm.adoptPet(child, "cat")); //underage
+        assertFalse(sm.adoptPet(adult, "dog")); //no garden
+        assertTrue(sm.adoptPet(adult, "cat"));
+        assertTrue(sm.adoptPet(adult, "cat"));
+        assertTrue(sm.adoptPet(adult, "cat"));
+        assertFalse(sm.adoptPet(adult, "cat")); //none available
+        sm.addPet("cat");
+        assertFalse(sm.adoptPet(adult, "cat")); //quota reached
+        sm.noOfAvailablePets("cat");
+
+        assertEquals(7, recorder.getLatencyHistogram(ShelterOperation.ADOPT_PET).getCount());
+        assertEquals(2, recorder.getLatencyHistogram(ShelterOperation.ADD_PET).getCount());
+        assertEquals(1, recorder.getLatencyHistogram(ShelterOperation.ADD_PETS).getCount());
+        assertEquals(2, recorder.getLatencyHistogram(ShelterOperation.ADD_CUSTOMER_RECORD).getCount());
+        assertEquals(1, recorder.getLatencyHistogram(ShelterOperation.NO_OF_AVAILABLE_PETS).getCount()); //assert internal calls not counted
+        assertTrue(recorder.getLatencyHistogram(ShelterOperation.ADOPT_PET).getMax() > 0);
+        for (AdoptionRejection rejection : AdoptionRejection.values())
+            assertEquals(1, recorder.getRejectionCount(rejection)); //assert one rejection of each reason
+
+        //Boundary case: nothing recorded after metrics are disabled
+        sm.setMetrics(null);
+        sm.adoptPet(child, "cat");
+        assertEquals(7, recorder.getLatencyHistogram(ShelterOperation.ADOPT_PET).getCount());
+        assertEquals(1, recorder.getRejectionCount(AdoptionRejection.UNDERAGE));
+    }
+
+    /**
+     * Testing registerMBean() and the attributes read through the platform MBean server.
+     * @see ShelterMetricsRecorder#registerMBean(ShelterManager, String)
+     * Normal case: register size gauges and operation counts read through JMX
+     * Exceptional case: same shelter name registered twice
+     */
+    @Test
+    void testRegisterMBean() throws Exception {
+        //Normal case: register size gauges and operation counts read through JMX
+        var sm = new ShelterManager();
+        ShelterMetricsRecorder recorder = new ShelterMetricsRecorder();
+        sm.setMetrics(recorder);
+        sm.addPets("cat", 5);
+        sm.addPets("dog", 2);
+        Calendar calendar1 = Calendar.getInstance();
+        calendar1.set(1980, 4, 10);
+        CustomerRecord customer = sm.addCustomerRecord("Jan", "Kowalski", calendar1.getTime(), true);
+        assertTrue(sm.adoptPet(customer, "cat"));
+
+        ObjectName objectName = recorder.registerMBean(sm, "test shelter");
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        try
+        {
+            assertEquals(7L, mBeanServer.getAttribute(objectName, "NoOfPets"));
+            assertEquals(6L, mBeanServer.getAttribute(objectName, "NoOfAvailablePets"));
+            assertEquals(1L, mBeanServer.getAttribute(objectName, "NoOfAdoptedPets"));
+            assertEquals(1L, mBeanServer.getAttribute(objectName, "NoOfCustomers"));
+            TabularData operationCounts = (TabularData) mBeanServer.getAttribute(objectName, "OperationCounts");
+            assertEquals(ShelterOperation.values().length, operationCounts.size());
+            assertEquals(2L, operationCounts.get(new Object[] {"ADD_PETS"}).get("value"));
+            assertNotNull(mBeanServer.getAttribute(objectName, "P99Latencies"));
+
+            //Exceptional case: same shelter name registered twice
+            assertThrows(javax.management.InstanceAlreadyExistsException.class, () -> recorder.registerMBean(sm, "test shelter"));
+        }
+        finally
+        {
+            mBeanServer.unregisterMBean(objectName);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test ShelterSnapshot class - testing snapshots written by ShelterManager.writeSnapshot() and loaded by the ShelterManager constructors.
+ * @version 1.0 Date created: 17/10/2026
+ * @author Robert Petecki
+ */
+class ShelterSnapshotTest {
+
+    /**
+     * Returns a date of birth of a customer old enough to adopt any pet.
+     * @return date of birth on 10th May 1980
+     */
+    private static Date adultDOB() {
+        Calendar calendar1 = Calendar.getInstance(); //calendar object
+        calendar1.set(1980, 4, 10); //calendar date is 10th May 1980
+        return calendar1.getTime();
+    }
+
+    /**
+     * Asserts that two shelters have the same pets, customer records and adoptions.
+     * @param expected expected shelter
+     * @param actual restored shelter
+     */
+    private static void assertSameShelter(ShelterManager expected, ShelterManager actual) {
+        assertEquals(expected.shelterAllPets.keySet(), actual.shelterAllPets.keySet()); //assert same PetIDs
+        for (Pet pet : expected.shelterAllPets.values())
+        {
+            Pet restoredPet = actual.shelterAllPets.get(pet.getPetID());
+            assertEquals(pet.getPetType(), restoredPet.getPetType()); //assert same type and status
+            assertEquals(pet.getAdopted(), restoredPet.getAdopted());
+            if (pet instanceof Trainable)
+                assertEquals(((Trainable) pet).getTrained(), ((Trainable) restoredPet).getTrained());
+        }
+        assertEquals(expected.getPetCounts().toString(), actual.getPetCounts().toString()); //assert counters rebuilt
+
+        assertEquals(expected.shelterAllCustomerRecords.size(), actual.shelterAllCustomerRecords.size());
+        for (CustomerRecord customerRecord : expected.shelterAllCustomerRecords)
+        {
+            assertTrue(actual.shelterCustomerIdentities.contains(customerRecord)); //assert same name and dob
+            assertEquals(expected.adoptedPetsByCustomer(customerRecord.getCustomerNumber()).stream().map(Pet::getPetID).collect(Collectors.toSet()),
+                    actual.adoptedPetsByCustomer(customerRecord.getCustomerNumber()).stream().map(Pet::getPetID).collect(Collectors.toSet()));
+        }
+    }
+
+    /**
+     * Testing writeSnapshot() and ShelterManager(Path) of a shelter that is not journaled.
+     * @see ShelterManager#writeSnapshot(Path)
+     * Normal case: pets, training status, customer records and adoptions restored from the snapshot.
+     * Boundary cases: directory without snapshots, newest snapshot corrupt, only the two newest snapshots kept.
+     */
+    @Test
+    void testWriteSnapshot(@TempDir Path dir) throws IOException {
+        //Normal case: pets, training status, customer records and adoptions restored from the snapshot
+        var sm = new ShelterManager(); //empty shelter
+        sm.addPets(List.of(new PetIntake("cat", 5), new PetIntake("dog", 3), new PetIntake("dog", 2, true)));
+        CustomerRecord customer1 = sm.addCustomerRecord("Jan", "Kowalski", adultDOB(), true);
+        CustomerRecord customer2 = sm.addCustomerRecord("Anna", "Nowak", adultDOB(), false);
+        assertTrue(sm.adoptPet(customer1, "cat"));
+        assertTrue(sm.adoptPet(customer1, "dog"));
+        assertTrue(sm.adoptPet(customer2, "cat"));
+
+        Path snapshot1 = sm.writeSnapshot(dir);
+        var restored = new ShelterManager(dir);
+
+        assertTrue(Files.exists(snapshot1));
+        assertSameShelter(sm, restored);
+        CustomerRecord restoredCustomer1 = restored.shelterAllCustomerRecords.stream()
+                .filter(c -> c.getCustomerNumber().equals(customer1.getCustomerNumber())).findFirst().orElseThrow();
+        assertEquals(customer1.getDateIssuedRecord(), restoredCustomer1.getDateIssuedRecord()); //assert same date of issue
+        assertFalse(restored.adoptPet(restoredCustomer1, "dog") && restored.adoptPet(restoredCustomer1, "dog")); //assert adoptions count towards the limit of three
+
+
+        //Boundary cases: directory without snapshots, newest snapshot corrupt, only the two newest snapshots kept
+        assertEquals(0, new ShelterManager(dir.resolve("empty")).shelterAllPets.size());
+
+        sm.addPet("cat");
+        Path snapshot2 = sm.writeSnapshot(dir);
+        sm.addPet("cat");
+        Path snapshot3 = sm.writeSnapshot(dir);
+        assertFalse(Files.exists(snapshot1)); //assert oldest snapshot deleted
+        assertTrue(Files.exists(snapshot2));
+        assertEquals(sm.shelterAllPets.size(), new ShelterManager(dir).shelterAllPets.size()); //assert newest snapshot loaded
+
+        try (FileChannel channel = FileChannel.open(snapshot3, StandardOpenOption.WRITE))
+        {
+            channel.write(ByteBuffer.wrap(new byte[] {0x7F}), 30); //corrupt a byte of the newest snapshot
+        }
+        assertEquals(sm.shelterAllPets.size() - 1, new ShelterManager(dir).shelterAllPets.size()); //assert previous snapshot loaded
+
+        assertThrows(IllegalArgumentException.class, () -> new ShelterManager((Path) null));
+    }
+
+    /**
+     * Testing ShelterManager(Path, ShelterJournal) with a journaled shelter.
+     * @see ShelterManager#ShelterManager(Path, ShelterJournal)
+     * Normal case: snapshot and the journal records written after it restore the shelter, the journal before the snapshot is not read.
+     * Boundary case: no snapshot yet, the whole journal is replayed.
+     */
+    @Test
+    void testSnapshotWithJournal(@TempDir Path dir) throws IOException {
+        //Normal case: snapshot and the journal records written after it restore the shelter, the journal before the snapshot is not read
+        Path file = dir.resolve("shelter.journal");
+        Path snapshotDirectory = dir.resolve("snapshots");
+        ShelterJournal journal = ShelterJournal.open(file);
+        var sm = new ShelterManager(journal);
+        List<Pet> dogs = sm.addPets("dog", 4);
+        sm.addPets("cat", 4);
+        CustomerRecord customer = sm.addCustomerRecord("Jan", "Kowalski", adultDOB(), true);
+        assertTrue(sm.adoptPet(customer, "cat"));
+        sm.writeSnapshot(snapshotDirectory);
+        long snapshotJournalSize = Files.size(file);
+        sm.updatePetRecord(dogs.get(0).getPetID(), true); //after the snapshot, replayed from the journal
+        sm.addPet("cat");
+        sm.addCustomerRecord("Anna", "Nowak", adultDOB(), true);
+        assertTrue(sm.adoptPet(customer, "dog"));
+        journal.close();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE))
+        {
+            channel.write(ByteBuffer.allocate((int) snapshotJournalSize - 8), 8); //wipe the records before the snapshot
+        }
+        var restored = new ShelterManager(snapshotDirectory, ShelterJournal.open(file));
+
+        assertSameShelter(sm, restored);
+
+
+        //Boundary case: no snapshot yet, the whole journal is replayed
+        Path file2 = dir.resolve("shelter2.journal");
+        journal = ShelterJournal.open(file2);
+        sm = new ShelterManager(journal);
+        sm.addPets("dog", 2);
+        journal.close();
+
+        assertEquals(2, new ShelterManager(dir.resolve("none"), ShelterJournal.open(file2)).noOfAvailablePets("dog"));
+    }
+
+    /**
+     * Testing writeSnapshot() while adoption desks keep adding pets, customers and adopting.
+     * @see ShelterManager#writeSnapshot(Path)
+     * Normal case: 4 desks working during 3 snapshots, snapshot and journal restore the final shelter.
+     */
+    @Test
+    void testSnapshotConcurrent(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("shelter.journal");
+        Path snapshotDirectory = dir.resolve("snapshots");
+        ShelterJournal journal = ShelterJournal.open(file, 64, 0, false);
+        var sm = new ShelterManager(journal);
+        sm.addPets("cat", 200);
+
+        ExecutorService desks = Executors.newFixedThreadPool(4);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < 4; t++)
+        {
+            int desk = t;
+            results.add(desks.submit(() -> {
+                for (int i = 0; i < 100; i++)
+                {
+                    sm.addPet((i % 2 == 0) ? "cat" : "dog");
+                    CustomerRecord customer = sm.addCustomerRecord("Desk" + desk, "Customer" + i, adultDOB(), true);
+                    sm.adoptPet(customer, "cat");
+                }
+            }));
+        }
+        for (int i = 0; i < 3; i++)
+        {
+            sm.writeSnapshot(snapshotDirectory);
+        }
+        desks.shutdown();
+        assertTrue(desks.awaitTermination(60, TimeUnit.SECONDS));
+        for (Future<?> result : results)
+            result.get(); //assert no desk failed
+        journal.close();
+
+        try (Stream<Path> snapshots = Files.list(snapshotDirectory))
+        {
+            assertEquals(2, snapshots.count());
+        }
+        var restored = new ShelterManager(snapshotDirectory, ShelterJournal.open(file));
+
+        assertSameShelter(sm, restored);
+    }
+}